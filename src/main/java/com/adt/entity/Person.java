@@ -2,6 +2,7 @@ package com.adt.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -53,4 +54,7 @@ public class Person {
 
 	@Column(precision = 10, scale = 3)
 	private BigDecimal popularity;
+
+	@Column(name = "last_fetched_at")
+	private OffsetDateTime lastFetchedAt;
 }
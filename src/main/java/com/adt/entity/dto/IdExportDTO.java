@@ -0,0 +1,17 @@
+package com.adt.entity.dto;
+
+import java.time.Instant;
+
+/**
+ * Stand der geladenen TMDB-ID-Exportdatei: Quelle, Anzahl gelesener Einträge, gültiger IDs und der wegen
+ * {@code adult}/{@code video} ausgeschlossenen Einträge sowie die höchste enthaltene ID.
+ */
+public record IdExportDTO(
+		String path,
+		Instant loadedAt,
+		int entries,
+		int validIds,
+		int adultExcluded,
+		int videoExcluded,
+		int maxId) {
+}
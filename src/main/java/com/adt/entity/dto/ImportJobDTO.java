@@ -0,0 +1,30 @@
+package com.adt.entity.dto;
+
+import java.time.Instant;
+
+/**
+ * Zustand eines asynchronen Import-Jobs: Parameter, Fortschritt, Durchsatz und geschätzte Restdauer. Nach Abschluss
+ * enthält {@code result} die Statistik des Imports.
+ */
+public record ImportJobDTO(
+		String id,
+		String type,
+		int rangeStart,
+		int rangeEnd,
+		String engine,
+		String state,
+		Instant submittedAt,
+		Instant startedAt,
+		Instant finishedAt,
+		long processed,
+		long expected,
+		int imported,
+		int failed,
+		int skipped,
+		long tmdbCalls,
+		double moviesPerSecond,
+		double callsPerSecond,
+		Long etaSeconds,
+		ImportStatsDTO result,
+		String message) {
+}
@@ -1,5 +1,7 @@
 package com.adt.entity.dto;
 
+import java.util.List;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,6 +20,15 @@ public class ImportStatsDTO {
 	/** Anzahl fehlgeschlagener oder übersprungener Filme */
 	private int failed;
 
+	/** Anzahl unveränderter Filme, deren Schreibtransaktion dank Fingerabdruck entfallen ist */
+	private int skipped;
+
 	/** Gesamtdauer des Imports in Millisekunden */
 	private long durationMillis;
+
+	/** Durchsatz je Tabelle; nur im COPY-Bulk-Modus gefüllt */
+	private List<TableThroughputDTO> tables;
+
+	/** Beibehaltene, hinzugefügte und entfernte Zeilen je Relationstabelle; nur in den Modi JDBC und UNNEST gefüllt */
+	private List<RelationChangesDTO> relations;
 }
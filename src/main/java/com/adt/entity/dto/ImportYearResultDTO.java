@@ -1,5 +1,7 @@
 package com.adt.entity.dto;
 
+import java.util.List;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,9 +26,21 @@ public class ImportYearResultDTO {
         /** Anzahl fehlgeschlagener oder übersprungener Filme */
         private int failedCount;
 
+        /** Anzahl unveränderter Filme, die nicht erneut geschrieben wurden */
+        private int skippedCount;
+
         /** Gesamtdauer des Imports in Millisekunden */
         private long durationMillis;
 
+        /** Verwendetes Schreibverfahren (JDBC oder COPY) */
+        private String engine;
+
+        /** Durchsatz je Tabelle; nur im COPY-Bulk-Modus gefüllt */
+        private List<TableThroughputDTO> tables;
+
+        /** Beibehaltene, hinzugefügte und entfernte Zeilen je Relationstabelle; nur im JDBC-Modus gefüllt */
+        private List<RelationChangesDTO> relations;
+
         /** Freitext-Statusnachricht */
         private String message;
 }
@@ -0,0 +1,12 @@
+package com.adt.entity.dto;
+
+/**
+ * Änderungen an einer Relationstabelle während eines Imports: unverändert gebliebene, neu eingefügte und gelöschte
+ * Zeilen.
+ */
+public record RelationChangesDTO(
+		String table,
+		long kept,
+		long added,
+		long removed) {
+}
@@ -0,0 +1,20 @@
+package com.adt.entity.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Ergebnis eines Abgleichs mit den TMDB-Änderungsfeeds: abgefragter Zeitraum, geänderte und davon im Bestand
+ * vorhandene Filme bzw. Personen, die für den nächsten Abgleich vorgemerkten fehlgeschlagenen Filme sowie die
+ * Statistik des Film-Reimports.
+ */
+public record SyncResultDTO(
+		LocalDate from,
+		LocalDate to,
+		int changedMovies,
+		int reimportedMovies,
+		int retryMovies,
+		int changedPersons,
+		int enqueuedPersons,
+		ImportStatsDTO result,
+		String message) {
+}
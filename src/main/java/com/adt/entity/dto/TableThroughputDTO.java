@@ -0,0 +1,13 @@
+package com.adt.entity.dto;
+
+/**
+ * Durchsatz einer Tabelle im COPY-Bulk-Import: Zeilen, die per {@code COPY} in die Staging-Tabelle geschrieben
+ * wurden, und Zeilen, die der anschließende Merge in die Zieltabelle übernommen hat.
+ */
+public record TableThroughputDTO(
+		String table,
+		long stagedRows,
+		double copyRowsPerSecond,
+		long mergedRows,
+		double mergeRowsPerSecond) {
+}
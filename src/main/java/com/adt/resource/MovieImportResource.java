@@ -1,14 +1,28 @@
 package com.adt.resource;
 
+import java.util.List;
+
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
+import com.adt.entity.dto.IdExportDTO;
+import com.adt.entity.dto.ImportJobDTO;
 import com.adt.entity.dto.ImportResultDTO;
 import com.adt.entity.dto.ImportYearResultDTO;
+import com.adt.entity.dto.SyncResultDTO;
+import com.adt.service.PersistenceEngine;
 
 /**
  * REST-Resource für das manuelle Anstoßen von Film-Importen aus der TMDB-API.
@@ -24,22 +38,131 @@ public interface MovieImportResource {
      *
      * @param startId Erste TMDB-ID (inklusive), die abgerufen werden soll
      * @param endId   Letzte TMDB-ID (inklusive), die abgerufen werden soll
+     * @param engine  Schreibverfahren: {@code jdbc} (Standard), {@code unnest}, {@code jsonb} oder {@code copy} für Bulk-Backfills
+     * @param castDepth Anzahl der Cast-Mitglieder je Film, deren Personendetails geladen werden (negativ = alle);
+     *                  ohne Angabe gilt {@code adt.import.credits.detail-cast-limit}
+     * @param crewJobs  Kommagetrennte Crew-Jobs mit Detailabruf, z. B. {@code Director,Screenplay} ({@code *} = alle);
+     *                  ohne Angabe gilt {@code adt.import.credits.detail-crew-jobs}
+     * @param deferPersons Personendetails nicht während des Imports laden, sondern im Hintergrund über die
+     *                  Enrichment-Queue; ohne Angabe gilt {@code adt.import.enrichment.deferred}
      * @return Statistik des Imports samt Erfolgs- und Fehlerzähler
      */
     @POST
     @Path("/movies")
-    ImportResultDTO importMovies(@QueryParam("start") int startId, @QueryParam("end") int endId);
+    ImportResultDTO importMovies(@QueryParam("start") int startId, @QueryParam("end") int endId,
+                    @QueryParam("engine") @DefaultValue("jdbc") PersistenceEngine engine,
+                    @QueryParam("castDepth") Integer castDepth, @QueryParam("crewJobs") String crewJobs,
+                    @QueryParam("deferPersons") Boolean deferPersons);
 
     /**
      * Startet einen Import für alle Filme innerhalb eines Veröffentlichungsjahres-Bereichs.
      *
      * @param startYear Untere Schranke des Jahrgangs (inklusive)
      * @param endYear   Obere Schranke des Jahrgangs (inklusive)
+     * @param engine    Schreibverfahren: {@code jdbc} (Standard), {@code unnest}, {@code jsonb} oder {@code copy} für Bulk-Backfills
+     * @param castDepth Anzahl der Cast-Mitglieder je Film mit Detailabruf (negativ = alle), siehe {@link #importMovies}
+     * @param crewJobs  Kommagetrennte Crew-Jobs mit Detailabruf ({@code *} = alle), siehe {@link #importMovies}
+     * @param deferPersons Personendetails im Hintergrund nachladen, siehe {@link #importMovies}
      * @return Statistik des Imports samt Erfolgs- und Fehlerzähler
      */
     @POST
     @Path("/movies/years")
     ImportYearResultDTO importMoviesFromYears(
                     @QueryParam("startYear") int startYear,
-                    @QueryParam("endYear") int endYear);
+                    @QueryParam("endYear") int endYear,
+                    @QueryParam("engine") @DefaultValue("jdbc") PersistenceEngine engine,
+                    @QueryParam("castDepth") Integer castDepth,
+                    @QueryParam("crewJobs") String crewJobs,
+                    @QueryParam("deferPersons") Boolean deferPersons);
+
+    /**
+     * Gleicht den Bestand mit den TMDB-Änderungsfeeds seit dem letzten Abgleich ab: geänderte Filme im Bestand werden
+     * erneut importiert, geänderte Personen im Bestand über die Enrichment-Queue aktualisiert.
+     * Detailparameter wie bei {@link #importMovies}.
+     *
+     * @return Zeitraum, Anzahl geänderter und abgeglichener IDs sowie die Statistik des Film-Imports;
+     *         {@code 409 Conflict}, wenn bereits ein Abgleich läuft
+     */
+    @POST
+    @Path("/sync")
+    SyncResultDTO syncChanges(@QueryParam("engine") @DefaultValue("jdbc") PersistenceEngine engine,
+                    @QueryParam("castDepth") Integer castDepth, @QueryParam("crewJobs") String crewJobs,
+                    @QueryParam("deferPersons") Boolean deferPersons);
+
+    /**
+     * Lädt den täglichen TMDB-ID-Export (gzip-komprimiertes NDJSON) von einem lokalen Pfad. Danach fragen
+     * ID-Bereichsimporte nur noch IDs an, die im Export stehen.
+     *
+     * @param path Pfad der Exportdatei auf dem Server, z. B. {@code data/movie_ids_05_01_2024.json.gz}
+     * @return Anzahl gelesener Einträge, gültiger und ausgeschlossener IDs
+     */
+    @POST
+    @Path("/id-export")
+    IdExportDTO loadIdExport(@QueryParam("path") String path);
+
+    /**
+     * Startet einen Import über einen TMDB-ID-Bereich als Hintergrund-Job und kehrt sofort zurück.
+     * Parameter wie bei {@link #importMovies}.
+     *
+     * @return {@code 202 Accepted} mit dem Job-Status samt ID
+     */
+    @POST
+    @Path("/jobs/movies")
+    Response submitMoviesJob(@QueryParam("start") int startId, @QueryParam("end") int endId,
+                    @QueryParam("engine") @DefaultValue("jdbc") PersistenceEngine engine,
+                    @QueryParam("castDepth") Integer castDepth, @QueryParam("crewJobs") String crewJobs,
+                    @QueryParam("deferPersons") Boolean deferPersons);
+
+    /**
+     * Startet einen Import über einen Jahrgangsbereich als Hintergrund-Job und kehrt sofort zurück.
+     * Parameter wie bei {@link #importMoviesFromYears}.
+     *
+     * @return {@code 202 Accepted} mit dem Job-Status samt ID
+     */
+    @POST
+    @Path("/jobs/movies/years")
+    Response submitYearsJob(
+                    @QueryParam("startYear") int startYear,
+                    @QueryParam("endYear") int endYear,
+                    @QueryParam("engine") @DefaultValue("jdbc") PersistenceEngine engine,
+                    @QueryParam("castDepth") Integer castDepth,
+                    @QueryParam("crewJobs") String crewJobs,
+                    @QueryParam("deferPersons") Boolean deferPersons);
+
+    /**
+     * Listet alle bekannten Import-Jobs, neueste zuerst.
+     */
+    @GET
+    @Path("/jobs")
+    List<ImportJobDTO> listJobs();
+
+    /**
+     * Liefert Fortschritt, Durchsatz (Filme/s, TMDB-Aufrufe/s) und geschätzte Restdauer eines Jobs.
+     *
+     * @param id ID des Jobs
+     */
+    @GET
+    @Path("/jobs/{id}")
+    ImportJobDTO getJob(@PathParam("id") String id);
+
+    /**
+     * Streamt den Status eines Jobs als Server-Sent Events: {@code progress} in festem Abstand
+     * ({@code adt.import.jobs.progress-interval}), zum Schluss {@code finished}; danach wird der Stream geschlossen.
+     *
+     * @param id ID des Jobs
+     */
+    @GET
+    @Path("/jobs/{id}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    void streamJob(@PathParam("id") String id, @Context SseEventSink sink, @Context Sse sse);
+
+    /**
+     * Bricht einen Job ab. Bereits geladene Filme werden noch geschrieben, weitere nicht mehr abgerufen.
+     *
+     * @param id ID des Jobs
+     * @return der Status des Jobs zum Zeitpunkt des Abbruchs
+     */
+    @DELETE
+    @Path("/jobs/{id}")
+    ImportJobDTO cancelJob(@PathParam("id") String id);
 }
@@ -1,13 +1,32 @@
 package com.adt.resource;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
+import com.adt.entity.dto.IdExportDTO;
+import com.adt.entity.dto.ImportJobDTO;
 import com.adt.entity.dto.ImportResultDTO;
 import com.adt.entity.dto.ImportYearResultDTO;
+import com.adt.entity.dto.SyncResultDTO;
+import com.adt.service.ImportJob;
+import com.adt.service.ImportJobService;
 import com.adt.service.MovieImportService;
+import com.adt.service.PersistenceEngine;
+import com.adt.service.TmdbChangeSync;
+import com.adt.service.TmdbIdExport;
 
 /**
  * Implementierung der REST-Endpunkte, die den Import-Service aufrufen und eingehende Parameter validieren.
@@ -17,23 +36,42 @@ public class MovieImportResourceImpl implements MovieImportResource {
 	@Inject
 	MovieImportService importService;
 
+	@Inject
+	ImportJobService jobService;
+
+	@Inject
+	TmdbChangeSync changeSync;
+
+	@Inject
+	TmdbIdExport idExport;
+
+	/**
+	 * Effektiver Jahrgangsbereich nach Begrenzung auf den erlaubten Zeitraum.
+	 */
+	private record YearRange(int start, int end) {
+	}
+
 	/**
 	 * Validiert den ID-Bereich und stößt anschließend den Import an.
 	 */
 	@Override
-	public ImportResultDTO importMovies(int startId, int endId) {
-		if (endId < startId) {
-			throw new BadRequestException("Parameter 'end' must be >= 'start'");
-		}
+	public ImportResultDTO importMovies(int startId, int endId, PersistenceEngine engine, Integer castDepth,
+			String crewJobs, Boolean deferPersons) {
+		validateIds(startId, endId);
 
-		var result = importService.importMovieRangeWithStats(startId, endId);
+		var result = importService.importMovieRangeWithStats(startId, endId, engine,
+				importService.creditDepth(castDepth, crewJobs, deferPersons));
 
 		return new ImportResultDTO(
 				startId,
 				endId,
 				result.getImported(),
 				result.getFailed(),
+				result.getSkipped(),
 				result.getDurationMillis(),
+				engine.name(),
+				result.getTables(),
+				result.getRelations(),
 				"Import finished");
 
 	}
@@ -42,7 +80,150 @@ public class MovieImportResourceImpl implements MovieImportResource {
 	 * Validiert den Jahrgangsbereich, begrenzt ihn auf den erlaubten Zeitraum und stößt den Jahresimport an.
 	 */
 	@Override
-	public ImportYearResultDTO importMoviesFromYears(int startYear, int endYear) {
+	public ImportYearResultDTO importMoviesFromYears(int startYear, int endYear, PersistenceEngine engine,
+			Integer castDepth, String crewJobs, Boolean deferPersons) {
+		YearRange years = validateYears(startYear, endYear);
+
+		var stats = importService.importMoviesForYearRange(years.start(), years.end(), engine,
+				importService.creditDepth(castDepth, crewJobs, deferPersons));
+
+		return new ImportYearResultDTO(
+				years.start(),
+				years.end(),
+				stats.getImported(),
+				stats.getFailed(),
+				stats.getSkipped(),
+				stats.getDurationMillis(),
+				engine.name(),
+				stats.getTables(),
+				stats.getRelations(),
+				"Import finished");
+	}
+
+	/**
+	 * Stößt den Abgleich mit den TMDB-Änderungsfeeds an; ein bereits laufender Abgleich wird mit {@code 409}
+	 * beantwortet.
+	 */
+	@Override
+	public SyncResultDTO syncChanges(PersistenceEngine engine, Integer castDepth, String crewJobs,
+			Boolean deferPersons) {
+		try {
+			return changeSync.sync(engine, importService.creditDepth(castDepth, crewJobs, deferPersons));
+		} catch (IllegalStateException e) {
+			throw new ClientErrorException(e.getMessage(), Response.Status.CONFLICT);
+		}
+	}
+
+	/**
+	 * Prüft den Pfad und lädt den ID-Export; eine fehlende oder unlesbare Datei ergibt {@code 400}.
+	 */
+	@Override
+	public IdExportDTO loadIdExport(String path) {
+		if (path == null || path.isBlank()) {
+			throw new BadRequestException("Parameter 'path' is required");
+		}
+		Path file = Path.of(path);
+		if (!Files.isReadable(file)) {
+			throw new BadRequestException("ID export " + path + " is not readable");
+		}
+		try {
+			return idExport.load(file);
+		} catch (IOException e) {
+			throw new BadRequestException("Failed to read ID export " + path + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Validiert den ID-Bereich und startet den Import als Job.
+	 */
+	@Override
+	public Response submitMoviesJob(int startId, int endId, PersistenceEngine engine, Integer castDepth,
+			String crewJobs, Boolean deferPersons) {
+		validateIds(startId, endId);
+		ImportJob job = jobService.submitRange(startId, endId, engine,
+				importService.creditDepth(castDepth, crewJobs, deferPersons));
+		return Response.accepted(job.snapshot()).build();
+	}
+
+	/**
+	 * Validiert und begrenzt den Jahrgangsbereich wie der synchrone Endpunkt und startet den Import als Job.
+	 */
+	@Override
+	public Response submitYearsJob(int startYear, int endYear, PersistenceEngine engine, Integer castDepth,
+			String crewJobs, Boolean deferPersons) {
+		YearRange years = validateYears(startYear, endYear);
+		ImportJob job = jobService.submitYears(years.start(), years.end(), engine,
+				importService.creditDepth(castDepth, crewJobs, deferPersons));
+		return Response.accepted(job.snapshot()).build();
+	}
+
+	@Override
+	public List<ImportJobDTO> listJobs() {
+		return jobService.list().stream().map(ImportJob::snapshot).toList();
+	}
+
+	@Override
+	public ImportJobDTO getJob(String id) {
+		return job(id).snapshot();
+	}
+
+	/**
+	 * Sendet den Job-Status auf einem virtuellen Thread, bis der Job beendet ist oder der Client die Verbindung
+	 * schließt.
+	 */
+	@Override
+	public void streamJob(String id, SseEventSink sink, Sse sse) {
+		ImportJob job = job(id);
+		Thread.ofVirtual().name("import-job-events-" + id).start(() -> {
+			try (sink) {
+				while (!sink.isClosed()) {
+					ImportJobDTO status = job.snapshot();
+					boolean finished = job.state().isFinished();
+					sink.send(sse.newEventBuilder()
+							.name(finished ? "finished" : "progress")
+							.mediaType(MediaType.APPLICATION_JSON_TYPE)
+							.data(ImportJobDTO.class, status)
+							.build())
+							.toCompletableFuture().get();
+					if (finished)
+						return;
+					Thread.sleep(jobService.progressInterval());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// Client hat die Verbindung geschlossen
+			}
+		});
+	}
+
+	@Override
+	public ImportJobDTO cancelJob(String id) {
+		return jobService.cancel(id)
+				.orElseThrow(() -> new NotFoundException("Unknown import job " + id))
+				.snapshot();
+	}
+
+	private ImportJob job(String id) {
+		return jobService.find(id).orElseThrow(() -> new NotFoundException("Unknown import job " + id));
+	}
+
+	/**
+	 * Prüft den angefragten ID-Bereich; TMDB-IDs beginnen bei 1.
+	 */
+	private void validateIds(int startId, int endId) {
+		if (startId < 1) {
+			throw new BadRequestException("Parameter 'start' must be >= 1");
+		}
+		if (endId < startId) {
+			throw new BadRequestException("Parameter 'end' must be >= 'start'");
+		}
+	}
+
+	/**
+	 * Prüft den angefragten Jahrgangsbereich und begrenzt ihn auf 1874 bis zum aktuellen Jahr.
+	 */
+	private YearRange validateYears(int startYear, int endYear) {
 		if (startYear <= 0 || endYear <= 0) {
 			throw new BadRequestException("Parameters 'startYear' and 'endYear' must be positive");
 		}
@@ -58,16 +239,7 @@ public class MovieImportResourceImpl implements MovieImportResource {
 			throw new BadRequestException(
 					"Requested year range is outside the supported interval (>= 1874 and <= current year)");
 		}
-
-		var stats = importService.importMoviesForYearRange(effectiveStartYear, effectiveEndYear);
-
-		return new ImportYearResultDTO(
-				effectiveStartYear,
-				effectiveEndYear,
-				stats.getImported(),
-				stats.getFailed(),
-				stats.getDurationMillis(),
-				"Import finished");
+		return new YearRange(effectiveStartYear, effectiveEndYear);
 	}
 
 }
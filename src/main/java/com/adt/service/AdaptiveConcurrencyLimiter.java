@@ -0,0 +1,243 @@
+package com.adt.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Adaptive Obergrenze für gleichzeitig geladene Filme (Fetch-Stufe), jobübergreifend nach dem AIMD-Verfahren: Jeder
+ * abgeschlossene Abruf erhöht das Limit um {@code 1/limit} (also etwa um eins je Umlauf), solange die geglättete
+ * Latenz höchstens {@code latency-tolerance} mal so hoch ist wie die Grundlatenz und das Limit mindestens zur Hälfte
+ * genutzt wird. Ein HTTP 429 oder auf eine Connection wartende Threads im Agroal-Pool ({@code awaitingCount}) senken
+ * es multiplikativ um {@code backoff} – höchstens einmal je Umlauf, damit eine Welle gleichzeitiger 429 das Limit
+ * nicht auf das Minimum fallen lässt. Wartende Threads blockieren über eine {@link Condition}, nicht über einen Monitor.
+ * <p>
+ * Laufen mehrere Importe gleichzeitig, erhält jeder (als {@code owner} übergeben) einen gleichen Anteil am Limit und
+ * damit am TMDB-Budget. Ein Import darf seinen Anteil nur überschreiten, solange kein anderer auf einen Platz wartet;
+ * ungenutzte Anteile gehen so nicht verloren.
+ */
+@ApplicationScoped
+public class AdaptiveConcurrencyLimiter {
+
+	/** Gewicht eines neuen Messwerts in der geglätteten Latenz. */
+	private static final double LATENCY_SMOOTHING = 0.2;
+	/** Anteil, um den die Grundlatenz je Messwert in Richtung höherer Messwerte nachgeführt wird. */
+	private static final double BASELINE_DRIFT = 0.01;
+
+	/** Startwert des Limits. */
+	@ConfigProperty(name = "adt.import.max-concurrency", defaultValue = "10")
+	int initialLimit;
+
+	@ConfigProperty(name = "adt.import.concurrency.min", defaultValue = "2")
+	int minLimit;
+
+	@ConfigProperty(name = "adt.import.concurrency.max", defaultValue = "64")
+	int maxLimit;
+
+	@ConfigProperty(name = "adt.import.concurrency.backoff", defaultValue = "0.7")
+	double backoff;
+
+	@ConfigProperty(name = "adt.import.concurrency.latency-tolerance", defaultValue = "2.0")
+	double latencyTolerance;
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	/** Anzahl der Threads, die auf eine Pool-Connection warten. */
+	IntSupplier awaitingConnections;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition permitAvailable = lock.newCondition();
+	/** Laufende und wartende Abrufe je Import; Einträge ohne beides werden entfernt. */
+	private final Map<Object, Share> shares = new HashMap<>();
+
+	private static final class Share {
+		int inFlight;
+		int waiting;
+	}
+
+	private volatile double limit;
+	private volatile int inFlight;
+	private volatile double smoothedLatencyNanos;
+	private double baselineLatencyNanos;
+	private long lastDecreaseNanos;
+
+	private Counter throttled;
+	private Counter poolSaturated;
+
+	@PostConstruct
+	void init() {
+		limit = Math.clamp(initialLimit, minLimit, maxLimit);
+		lastDecreaseNanos = System.nanoTime();
+		if (awaitingConnections == null)
+			awaitingConnections = poolAwaitingCount(ds);
+
+		meterRegistry.gauge("adt.import.concurrency.limit", this, l -> l.limit);
+		meterRegistry.gauge("adt.import.concurrency.in_flight", this, l -> l.inFlight);
+		meterRegistry.gauge("adt.import.concurrency.latency", this,
+				l -> l.smoothedLatencyNanos / TimeUnit.MILLISECONDS.toNanos(1));
+		throttled = meterRegistry.counter("adt.import.concurrency.backoff", "reason", "throttled");
+		poolSaturated = meterRegistry.counter("adt.import.concurrency.backoff", "reason", "pool");
+	}
+
+	private static IntSupplier poolAwaitingCount(DataSource source) {
+		AgroalDataSource agroal;
+		try {
+			agroal = source instanceof AgroalDataSource a ? a : source.unwrap(AgroalDataSource.class);
+		} catch (Exception e) {
+			return () -> 0;
+		}
+		return () -> {
+			AgroalDataSourceMetrics metrics = agroal.getMetrics();
+			return metrics != null ? (int) metrics.awaitingCount() : 0;
+		};
+	}
+
+	/** Höchstmögliches Limit; so viele Worker braucht die Fetch-Stufe. */
+	public int maxLimit() {
+		return maxLimit;
+	}
+
+	public double limit() {
+		return limit;
+	}
+
+	/**
+	 * Wartet, bis weniger Abrufe laufen als das aktuelle Limit erlaubt, und belegt einen davon.
+	 */
+	public void acquire() throws InterruptedException {
+		acquire(this);
+	}
+
+	/**
+	 * Wie {@link #acquire()}, berücksichtigt aber den fairen Anteil von {@code owner}.
+	 */
+	public void acquire(Object owner) throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			Share share = shares.computeIfAbsent(owner, o -> new Share());
+			share.waiting++;
+			try {
+				while (!mayAcquire(share))
+					permitAvailable.await();
+			} catch (InterruptedException e) {
+				share.waiting--;
+				if (share.inFlight == 0 && share.waiting == 0)
+					shares.remove(owner);
+				permitAvailable.signalAll();
+				throw e;
+			}
+			share.waiting--;
+			share.inFlight++;
+			inFlight++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean mayAcquire(Share share) {
+		if (inFlight >= (int) limit)
+			return false;
+		if (shares.size() <= 1 || share.inFlight < Math.max(1, (int) limit / shares.size()))
+			return true;
+		// über dem fairen Anteil nur, solange kein anderer Import wartet
+		for (Share other : shares.values()) {
+			if (other != share && other.waiting > 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gibt einen Abruf frei und passt das Limit an.
+	 *
+	 * @param latencyNanos
+	 *     Dauer des Abrufs oder ein negativer Wert, wenn er fehlgeschlagen ist (fließt dann nicht in die Latenz ein)
+	 */
+	public void release(long latencyNanos) {
+		release(this, latencyNanos);
+	}
+
+	/**
+	 * Wie {@link #release(long)} für einen mit {@link #acquire(Object)} belegten Abruf.
+	 */
+	public void release(Object owner, long latencyNanos) {
+		boolean poolPressure = awaitingConnections.getAsInt() > 0;
+		long now = System.nanoTime();
+		lock.lock();
+		try {
+			// nur wachsen, wenn das Limit zumindest zur Hälfte genutzt wird
+			boolean saturated = inFlight * 2 >= limit;
+			inFlight--;
+			Share share = shares.get(owner);
+			if (share != null && --share.inFlight == 0 && share.waiting == 0)
+				shares.remove(owner);
+			if (latencyNanos >= 0)
+				recordLatency(latencyNanos);
+			if (poolPressure) {
+				if (decrease(now))
+					poolSaturated.increment();
+			} else if (latencyNanos >= 0 && saturated
+					&& smoothedLatencyNanos <= baselineLatencyNanos * latencyTolerance) {
+				limit = Math.min(maxLimit, limit + 1.0 / limit);
+			}
+			permitAvailable.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Meldet eine Drosselung durch TMDB (HTTP 429).
+	 */
+	public void onThrottled() {
+		lock.lock();
+		try {
+			if (decrease(System.nanoTime()))
+				throttled.increment();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void recordLatency(long latencyNanos) {
+		if (smoothedLatencyNanos == 0) {
+			smoothedLatencyNanos = latencyNanos;
+			baselineLatencyNanos = latencyNanos;
+			return;
+		}
+		smoothedLatencyNanos += (latencyNanos - smoothedLatencyNanos) * LATENCY_SMOOTHING;
+		baselineLatencyNanos = Math.min(latencyNanos,
+				baselineLatencyNanos + (latencyNanos - baselineLatencyNanos) * BASELINE_DRIFT);
+	}
+
+	/**
+	 * Senkt das Limit, sofern seit der letzten Absenkung mindestens ein Umlauf (geglättete Latenz) vergangen ist.
+	 */
+	private boolean decrease(long now) {
+		if (now - lastDecreaseNanos < smoothedLatencyNanos)
+			return false;
+		limit = Math.max(minLimit, limit * backoff);
+		lastDecreaseNanos = now;
+		return true;
+	}
+}
@@ -0,0 +1,58 @@
+package com.adt.service;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+
+/**
+ * Kompakter Fingerabdruck (64 Bit) einer normalisierten Projektion der geschriebenen Spalten. Die Aufrufer
+ * ({@link TmdbMovie#contentHash()}, {@link TmdbPerson#contentHash()}) nehmen nur Werte auf, die der Import tatsächlich
+ * schreibt, und zwar exakt: Leere Strings zählen wie {@code null}, Dezimalzahlen ohne Nachkommanullen, weil beides
+ * denselben gespeicherten Wert ergibt. Jede andere Änderung einer geschriebenen Spalte ändert den Fingerabdruck.
+ */
+final class ContentHash {
+
+	private static final char SEPARATOR = '\u001f';
+	private static final char NULL = '\u0000';
+
+	private final StringBuilder canonical = new StringBuilder(1024);
+
+	ContentHash add(Object value) {
+		switch (value) {
+			case null -> canonical.append(NULL);
+			case String s -> {
+				if (s.isBlank())
+					canonical.append(NULL);
+				else
+					canonical.append(s);
+			}
+			case BigDecimal d -> canonical.append(d.stripTrailingZeros().toPlainString());
+			default -> canonical.append(value);
+		}
+		canonical.append(SEPARATOR);
+		return this;
+	}
+
+	/**
+	 * Nimmt zuerst die Anzahl der Elemente auf, damit aufeinanderfolgende Listen eindeutig bleiben.
+	 */
+	ContentHash count(Collection<?> values) {
+		return add(values.size());
+	}
+
+	/**
+	 * Bildet die ersten 8 Byte des SHA-256 über die aufgenommenen Werte.
+	 */
+	long value() {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(digest).getLong();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
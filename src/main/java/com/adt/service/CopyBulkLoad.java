@@ -0,0 +1,505 @@
+package com.adt.service;
+
+import static com.adt.service.MovieImportService.blankToNull;
+import static com.adt.service.MovieImportService.normalizeIso2;
+import static com.adt.service.MovieImportService.toSqlDate;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import com.adt.entity.dto.TableThroughputDTO;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Ein COPY-basierter Bulk-Import ({@link PersistenceEngine#COPY}): Die Persist-Workers schreiben die Zeilen ihrer
+ * Filmgruppen als CSV per {@link CopyManager} in die UNLOGGED-Staging-Tabellen (ein COPY-Stream pro Worker), nach
+ * Abschluss der Pipeline überführt ein mengenbasierter Merge alle Zeilen in einer Transaktion in die Zieltabellen.
+ * Stammdaten (Sprachen, Länder, Genres, Departments, Jobs) sind zu diesem Zeitpunkt bereits über den
+ * {@link ReferenceDataResolver} aufgelöst und werden als IDs bzw. ISO-Codes mitgeschrieben.
+ */
+final class CopyBulkLoad {
+
+	private static final String CLEAR_RELATION = "DELETE FROM %s r USING movie m, staging_movie s "
+			+ "WHERE r.movie_id = m.id AND m.tmdb_id = s.tmdb_id AND s.load_id = ?";
+
+	/**
+	 * Staging-Tabellen in Merge-Reihenfolge: zuerst die referenzierten Entitäten, dann die Filme und ihre Relationen.
+	 */
+	private enum Table {
+		PRODUCTION_COMPANY("production_company", "tmdb_id, name, origin_country", null,
+				"WITH input AS (SELECT DISTINCT ON (tmdb_id) tmdb_id, name, origin_country "
+						+ "FROM staging_production_company WHERE load_id = ?), "
+						+ "upserted AS (INSERT INTO production_company (tmdb_id, name, origin_country) "
+						+ "SELECT tmdb_id, name, origin_country FROM input "
+						+ "ON CONFLICT (tmdb_id) DO UPDATE SET name = EXCLUDED.name, origin_country = EXCLUDED.origin_country "
+						+ "WHERE (production_company.name, production_company.origin_country) "
+						+ "IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.origin_country) "
+						+ "RETURNING tmdb_id, id) "
+						+ "SELECT tmdb_id, id FROM upserted UNION ALL "
+						+ "SELECT t.tmdb_id, t.id FROM production_company t JOIN input i ON i.tmdb_id = t.tmdb_id "
+						+ "WHERE NOT EXISTS (SELECT 1 FROM upserted u WHERE u.tmdb_id = t.tmdb_id)"),
+		WATCH_PROVIDER("watch_provider", "tmdb_id, region, name, logo_path, display_priority", null,
+				"WITH input AS (SELECT DISTINCT ON (tmdb_id, region) tmdb_id, name, logo_path, display_priority, region "
+						+ "FROM staging_watch_provider WHERE load_id = ?), "
+						+ "upserted AS (INSERT INTO watch_provider (tmdb_id, name, logo_path, display_priority, region) "
+						+ "SELECT tmdb_id, name, logo_path, display_priority, region FROM input "
+						+ "ON CONFLICT (tmdb_id, region) DO UPDATE SET name = EXCLUDED.name, logo_path = EXCLUDED.logo_path, "
+						+ "display_priority = EXCLUDED.display_priority "
+						+ "WHERE (watch_provider.name, watch_provider.logo_path, watch_provider.display_priority) "
+						+ "IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.logo_path, EXCLUDED.display_priority) "
+						+ "RETURNING tmdb_id, region, id) "
+						+ "SELECT tmdb_id, region, id FROM upserted UNION ALL "
+						+ "SELECT t.tmdb_id, t.region, t.id FROM watch_provider t "
+						+ "JOIN input i ON i.tmdb_id = t.tmdb_id AND i.region = t.region "
+						+ "WHERE NOT EXISTS (SELECT 1 FROM upserted u WHERE u.tmdb_id = t.tmdb_id AND u.region = t.region)"),
+		PERSON("person",
+				"tmdb_id, detailed, imdb_id, name, gender, known_for_department, biography, birthday, deathday, "
+						+ "place_of_birth, homepage, adult, popularity, content_hash",
+				null,
+				// Zeilen mit Detaildaten haben Vorrang vor Zeilen, die nur aus Credits stammen; sie werden immer
+				// geschrieben, damit last_fetched_at für frisch abgerufene Personen fortgeschrieben wird. Reine
+				// Credit-Zeilen überschreiben keine Person mit Detaildaten
+				"WITH input AS (SELECT DISTINCT ON (tmdb_id) tmdb_id, imdb_id, name, gender, known_for_department, "
+						+ "biography, birthday, deathday, place_of_birth, homepage, adult, popularity, content_hash, "
+						+ "detailed FROM staging_person WHERE load_id = ? ORDER BY tmdb_id, detailed DESC), "
+						+ "upserted AS (INSERT INTO person (tmdb_id, imdb_id, name, gender, known_for_department, biography, "
+						+ "birthday, deathday, place_of_birth, homepage, adult, popularity, content_hash, last_fetched_at) "
+						+ "SELECT tmdb_id, imdb_id, name, gender, known_for_department, biography, birthday, deathday, "
+						+ "place_of_birth, homepage, adult, popularity, content_hash, CASE WHEN detailed THEN now() END "
+						+ "FROM input "
+						+ "ON CONFLICT (tmdb_id) DO UPDATE SET "
+						+ "imdb_id = EXCLUDED.imdb_id, name = EXCLUDED.name, gender = EXCLUDED.gender, "
+						+ "known_for_department = EXCLUDED.known_for_department, biography = EXCLUDED.biography, "
+						+ "birthday = EXCLUDED.birthday, deathday = EXCLUDED.deathday, place_of_birth = EXCLUDED.place_of_birth, "
+						+ "homepage = EXCLUDED.homepage, adult = EXCLUDED.adult, popularity = EXCLUDED.popularity, "
+						+ "content_hash = EXCLUDED.content_hash, "
+						+ "last_fetched_at = coalesce(EXCLUDED.last_fetched_at, person.last_fetched_at) "
+						+ "WHERE EXCLUDED.content_hash IS NOT NULL OR (person.content_hash IS NULL "
+						+ "AND (person.imdb_id, person.name, person.gender, "
+						+ "person.known_for_department, person.biography, person.birthday, person.deathday, "
+						+ "person.place_of_birth, person.homepage, person.adult, person.popularity, person.content_hash) "
+						+ "IS DISTINCT FROM (EXCLUDED.imdb_id, EXCLUDED.name, EXCLUDED.gender, EXCLUDED.known_for_department, "
+						+ "EXCLUDED.biography, EXCLUDED.birthday, EXCLUDED.deathday, EXCLUDED.place_of_birth, "
+						+ "EXCLUDED.homepage, EXCLUDED.adult, EXCLUDED.popularity, EXCLUDED.content_hash)) "
+						+ "RETURNING tmdb_id, id) "
+						+ "SELECT tmdb_id, id FROM upserted UNION ALL "
+						+ "SELECT t.tmdb_id, t.id FROM person t JOIN input i ON i.tmdb_id = t.tmdb_id "
+						+ "WHERE NOT EXISTS (SELECT 1 FROM upserted u WHERE u.tmdb_id = t.tmdb_id)"),
+		PERSON_ALIAS("person_alias", "person_tmdb_id, alias",
+				"DELETE FROM person_alias pa USING person p, staging_person s "
+						+ "WHERE pa.person_id = p.id AND p.tmdb_id = s.tmdb_id AND s.load_id = ? AND s.detailed",
+				"INSERT INTO person_alias (person_id, alias) "
+						+ "SELECT DISTINCT p.id, s.alias FROM staging_person_alias s "
+						+ "JOIN person p ON p.tmdb_id = s.person_tmdb_id WHERE s.load_id = ?"),
+		MOVIE("movie",
+				"tmdb_id, imdb_id, title, original_title, original_language, adult, video, status, release_date, "
+						+ "budget, revenue, runtime, homepage, overview, popularity, vote_average, vote_count, tagline, "
+						+ "content_hash",
+				null,
+				"INSERT INTO movie (tmdb_id, imdb_id, title, original_title, original_language, adult, video, status, "
+						+ "release_date, budget, revenue, runtime, homepage, overview, popularity, vote_average, vote_count, tagline, "
+						+ "content_hash) "
+						+ "SELECT DISTINCT ON (tmdb_id) tmdb_id, imdb_id, title, original_title, original_language, adult, "
+						+ "video, status, release_date, budget, revenue, runtime, homepage, overview, popularity, "
+						+ "vote_average, vote_count, tagline, content_hash FROM staging_movie WHERE load_id = ? "
+						+ "ON CONFLICT (tmdb_id) DO UPDATE SET "
+						+ "imdb_id=EXCLUDED.imdb_id, title=EXCLUDED.title, original_title=EXCLUDED.original_title, "
+						+ "original_language=EXCLUDED.original_language, adult=EXCLUDED.adult, video=EXCLUDED.video, "
+						+ "status=EXCLUDED.status, release_date=EXCLUDED.release_date, budget=EXCLUDED.budget, "
+						+ "revenue=EXCLUDED.revenue, runtime=EXCLUDED.runtime, homepage=EXCLUDED.homepage, "
+						+ "overview=EXCLUDED.overview, popularity=EXCLUDED.popularity, vote_average=EXCLUDED.vote_average, "
+						+ "vote_count=EXCLUDED.vote_count, tagline=EXCLUDED.tagline, content_hash=EXCLUDED.content_hash "
+						+ "WHERE (movie.imdb_id, movie.title, movie.original_title, movie.original_language, movie.adult, "
+						+ "movie.video, movie.status, movie.release_date, movie.budget, movie.revenue, movie.runtime, "
+						+ "movie.homepage, movie.overview, movie.popularity, movie.vote_average, movie.vote_count, "
+						+ "movie.tagline, movie.content_hash) IS DISTINCT FROM (EXCLUDED.imdb_id, EXCLUDED.title, "
+						+ "EXCLUDED.original_title, EXCLUDED.original_language, EXCLUDED.adult, EXCLUDED.video, "
+						+ "EXCLUDED.status, EXCLUDED.release_date, EXCLUDED.budget, EXCLUDED.revenue, EXCLUDED.runtime, "
+						+ "EXCLUDED.homepage, EXCLUDED.overview, EXCLUDED.popularity, EXCLUDED.vote_average, "
+						+ "EXCLUDED.vote_count, EXCLUDED.tagline, EXCLUDED.content_hash)"),
+		MOVIE_GENRE("movie_genre", "movie_tmdb_id, genre_id", CLEAR_RELATION.formatted("movie_genre"),
+				"INSERT INTO movie_genre (movie_id, genre_id) "
+						+ "SELECT DISTINCT m.id, s.genre_id FROM staging_movie_genre s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id WHERE s.load_id = ? "
+						+ "ON CONFLICT (movie_id, genre_id) DO NOTHING"),
+		MOVIE_SPOKEN_LANGUAGE("movie_spoken_language", "movie_tmdb_id, iso_639_1",
+				CLEAR_RELATION.formatted("movie_spoken_language"),
+				"INSERT INTO movie_spoken_language (movie_id, iso_639_1) "
+						+ "SELECT DISTINCT m.id, s.iso_639_1 FROM staging_movie_spoken_language s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id WHERE s.load_id = ? "
+						+ "ON CONFLICT (movie_id, iso_639_1) DO NOTHING"),
+		MOVIE_COUNTRY("movie_country", "movie_tmdb_id, iso_3166_1, country_type_id",
+				CLEAR_RELATION.formatted("movie_country"),
+				"INSERT INTO movie_country (movie_id, iso_3166_1, country_type_id) "
+						+ "SELECT DISTINCT m.id, s.iso_3166_1, s.country_type_id FROM staging_movie_country s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id WHERE s.load_id = ? "
+						+ "ON CONFLICT (movie_id, iso_3166_1, country_type_id) DO NOTHING"),
+		MOVIE_PRODUCTION_COMPANY("movie_production_company", "movie_tmdb_id, company_tmdb_id",
+				CLEAR_RELATION.formatted("movie_production_company"),
+				"INSERT INTO movie_production_company (movie_id, production_company_id) "
+						+ "SELECT DISTINCT m.id, pc.id FROM staging_movie_production_company s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id "
+						+ "JOIN production_company pc ON pc.tmdb_id = s.company_tmdb_id WHERE s.load_id = ? "
+						+ "ON CONFLICT (movie_id, production_company_id) DO NOTHING"),
+		MOVIE_TITLE("movie_title", "movie_tmdb_id, iso_3166_1, title, type", CLEAR_RELATION.formatted("movie_title"),
+				"INSERT INTO movie_title (movie_id, iso_3166_1, title, type) "
+						+ "SELECT DISTINCT m.id, s.iso_3166_1, s.title, s.type FROM staging_movie_title s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id WHERE s.load_id = ?"),
+		MOVIE_WATCH_PROVIDER("movie_watch_provider", "movie_tmdb_id, provider_tmdb_id, region, type, link",
+				CLEAR_RELATION.formatted("movie_watch_provider"),
+				"INSERT INTO movie_watch_provider (movie_id, provider_id, type, link) "
+						+ "SELECT DISTINCT ON (m.id, wp.id, s.type) m.id, wp.id, s.type, s.link "
+						+ "FROM staging_movie_watch_provider s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id "
+						+ "JOIN watch_provider wp ON wp.tmdb_id = s.provider_tmdb_id AND wp.region = s.region "
+						+ "WHERE s.load_id = ? "
+						+ "ON CONFLICT (movie_id, provider_id, type) DO UPDATE SET link = EXCLUDED.link "
+						+ "WHERE movie_watch_provider.link IS DISTINCT FROM EXCLUDED.link"),
+		MOVIE_CAST("movie_cast", "movie_tmdb_id, person_tmdb_id, character_name, cast_order",
+				CLEAR_RELATION.formatted("movie_cast"),
+				"INSERT INTO movie_cast (movie_id, person_id, character_name, cast_order) "
+						+ "SELECT DISTINCT ON (m.id, p.id, s.character_name) m.id, p.id, s.character_name, s.cast_order "
+						+ "FROM staging_movie_cast s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id "
+						+ "JOIN person p ON p.tmdb_id = s.person_tmdb_id WHERE s.load_id = ? "
+						+ "ON CONFLICT (movie_id, person_id, character_name) DO NOTHING"),
+		MOVIE_CREW("movie_crew", "movie_tmdb_id, person_tmdb_id, job_id", CLEAR_RELATION.formatted("movie_crew"),
+				"INSERT INTO movie_crew (movie_id, person_id, job_id) "
+						+ "SELECT DISTINCT m.id, p.id, s.job_id FROM staging_movie_crew s "
+						+ "JOIN movie m ON m.tmdb_id = s.movie_tmdb_id "
+						+ "JOIN person p ON p.tmdb_id = s.person_tmdb_id WHERE s.load_id = ? "
+						+ "ON CONFLICT (movie_id, person_id, job_id) DO NOTHING");
+
+		final String target;
+		final String columns;
+		final String clear;
+		final String merge;
+
+		Table(String target, String columns, String clear, String merge) {
+			this.target = target;
+			this.columns = columns;
+			this.clear = clear;
+			this.merge = merge;
+		}
+
+		String staging() {
+			return "staging_" + target;
+		}
+	}
+
+	/**
+	 * Zeilen einer Staging-Tabelle im CSV-Format von {@code COPY}: {@code null} wird als leeres, unquotiertes Feld
+	 * geschrieben, Texte immer in Anführungszeichen, sodass leere Strings erhalten bleiben.
+	 */
+	private static final class CsvRows {
+		private final StringBuilder csv = new StringBuilder();
+		private long rows;
+
+		void add(long loadId, Object... values) {
+			csv.append(loadId);
+			for (Object value : values) {
+				csv.append(',');
+				if (value instanceof String s)
+					csv.append('"').append(s.replace("\"", "\"\"")).append('"');
+				else if (value instanceof BigDecimal d)
+					csv.append(d.toPlainString());
+				else if (value != null)
+					csv.append(value);
+			}
+			csv.append('\n');
+			rows++;
+		}
+	}
+
+	private final DataSource ds;
+	private final ReferenceDataResolver referenceData;
+	private final EntityIdIndex idIndex;
+	private final PersonCache personCache;
+	private final long loadId;
+	private final Map<Table, LongAdder> stagedRows = new EnumMap<>(Table.class);
+	private final Map<Table, LongAdder> copyNanos = new EnumMap<>(Table.class);
+	private final Set<Integer> detailedPersons = ConcurrentHashMap.newKeySet();
+
+	private CopyBulkLoad(DataSource ds, ReferenceDataResolver referenceData, EntityIdIndex idIndex,
+			PersonCache personCache, long loadId) {
+		this.ds = ds;
+		this.referenceData = referenceData;
+		this.idIndex = idIndex;
+		this.personCache = personCache;
+		this.loadId = loadId;
+		for (Table table : Table.values()) {
+			stagedRows.put(table, new LongAdder());
+			copyNanos.put(table, new LongAdder());
+		}
+	}
+
+	/**
+	 * Reserviert eine neue {@code load_id}, unter der alle Staging-Zeilen dieses Imports geschrieben werden.
+	 */
+	static CopyBulkLoad open(DataSource ds, ReferenceDataResolver referenceData, EntityIdIndex idIndex,
+			PersonCache personCache) throws SQLException {
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("SELECT nextval('staging_load_id_seq')");
+				ResultSet rs = ps.executeQuery()) {
+			rs.next();
+			return new CopyBulkLoad(ds, referenceData, idIndex, personCache, rs.getLong(1));
+		}
+	}
+
+	/**
+	 * Persist-Stufe im Bulk-Modus: schreibt die Zeilen einer Filmgruppe in einer Transaktion per {@code COPY} in die
+	 * Staging-Tabellen. Schlägt das fehl, gilt die ganze Gruppe als fehlgeschlagen.
+	 *
+	 * @return Anzahl der bereitgestellten Filme
+	 */
+	int stage(List<MovieImportService.FetchedMovie> group, AtomicInteger failed) {
+		try {
+			copy(render(group));
+			return group.size();
+		} catch (Exception e) {
+			failed.addAndGet(group.size());
+			System.err.println("❌ COPY of " + group.size() + " movies into staging failed: " + e.getMessage());
+			return 0;
+		}
+	}
+
+	private Map<Table, CsvRows> render(List<MovieImportService.FetchedMovie> group) throws SQLException {
+		Map<Table, CsvRows> rows = new EnumMap<>(Table.class);
+		for (Table table : Table.values())
+			rows.put(table, new CsvRows());
+
+		Long productionTypeId = referenceData.countryTypeId("production", "Production country");
+		Set<Integer> stagedPersons = new HashSet<>();
+		Set<Integer> stagedCompanies = new HashSet<>();
+		Set<Integer> stagedProviders = new HashSet<>();
+
+		for (MovieImportService.FetchedMovie fetched : group) {
+			TmdbMovie m = fetched.movie();
+			int movieId = m.tmdbId();
+			rows.get(Table.MOVIE).add(loadId, movieId, blankToNull(m.imdbId()), m.title(), m.originalTitle(),
+					m.originalLanguage(), m.adult(), m.video(), m.status(), toSqlDate(m.releaseDate()), m.budget(),
+					m.revenue(), m.runtime(), m.homepage(), m.overview(), m.popularity(), m.voteAverage(), m.voteCount(),
+					m.tagline(), m.contentHash());
+
+			for (TmdbMovie.Genre g : m.genres()) {
+				Long genreId = referenceData.genreId(g.tmdbId(), g.name());
+				if (genreId != null)
+					rows.get(Table.MOVIE_GENRE).add(loadId, movieId, genreId);
+			}
+			for (TmdbMovie.SpokenLanguage l : m.spokenLanguages()) {
+				if (l.iso() != null)
+					rows.get(Table.MOVIE_SPOKEN_LANGUAGE).add(loadId, movieId, l.iso());
+			}
+			for (TmdbMovie.Country pc : m.productionCountries()) {
+				String iso = normalizeIso2(pc.iso());
+				if (iso != null && productionTypeId != null)
+					rows.get(Table.MOVIE_COUNTRY).add(loadId, movieId, iso, productionTypeId);
+			}
+			for (TmdbMovie.Company pc : m.productionCompanies()) {
+				if (idIndex.productionCompanyId(pc.tmdbId()) == null && stagedCompanies.add(pc.tmdbId()))
+					rows.get(Table.PRODUCTION_COMPANY).add(loadId, pc.tmdbId(), pc.name(),
+							normalizeIso2(blankToNull(pc.originCountry())));
+				rows.get(Table.MOVIE_PRODUCTION_COMPANY).add(loadId, movieId, pc.tmdbId());
+			}
+			for (TmdbMovie.AlternativeTitle t : m.alternativeTitles()) {
+				String iso = normalizeIso2(t.iso());
+				if (iso != null)
+					rows.get(Table.MOVIE_TITLE).add(loadId, movieId, iso, blankToNull(t.title()),
+							blankToNull(t.type()));
+			}
+			for (TmdbMovie.WatchProvider wp : m.watchProviders()) {
+				String region = normalizeIso2(wp.region());
+				if (region == null)
+					continue;
+				if (idIndex.watchProviderId(wp.providerTmdbId(), region) == null
+						&& stagedProviders.add(EntityIdIndex.watchProviderKey(wp.providerTmdbId(), region)))
+					rows.get(Table.WATCH_PROVIDER).add(loadId, wp.providerTmdbId(), region, wp.name(),
+							blankToNull(wp.logoPath()), wp.displayPriority());
+				rows.get(Table.MOVIE_WATCH_PROVIDER).add(loadId, movieId, wp.providerTmdbId(), region, wp.type(),
+						blankToNull(wp.link()));
+			}
+
+			for (TmdbMovie.Cast member : m.cast()) {
+				stagePerson(rows, fetched, member, stagedPersons);
+				rows.get(Table.MOVIE_CAST).add(loadId, movieId, member.personTmdbId(),
+						blankToNull(member.character()), member.order());
+			}
+			for (TmdbMovie.Crew member : m.crew()) {
+				String departmentName = blankToNull(member.department());
+				String jobName = blankToNull(member.job());
+				if (departmentName == null || jobName == null)
+					continue;
+				Long jobId = referenceData.jobId(referenceData.departmentId(departmentName), jobName);
+				if (jobId == null)
+					continue;
+				stagePerson(rows, fetched, member, stagedPersons);
+				rows.get(Table.MOVIE_CREW).add(loadId, movieId, member.personTmdbId(), jobId);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Stellt eine Person bereit, sofern sie nicht frisch ist und entweder neue Details hat oder noch nicht existiert.
+	 */
+	private void stagePerson(Map<Table, CsvRows> rows, MovieImportService.FetchedMovie fetched,
+			TmdbMovie.Credit credit, Set<Integer> stagedPersons) throws SQLException {
+		int tmdbId = credit.personTmdbId();
+		if (fetched.freshPersons().containsKey(tmdbId) || !stagedPersons.add(tmdbId))
+			return;
+		TmdbPerson detail = fetched.personDetails().get(tmdbId);
+		if (detail == null && idIndex.personId(tmdbId) != null)
+			return;
+
+		MovieImportService.PersonValues p = MovieImportService.PersonValues.of(credit, detail);
+		rows.get(Table.PERSON).add(loadId, tmdbId, detail != null, p.imdbId(), p.name(), p.gender(),
+				referenceData.departmentId(p.knownForDepartment()), p.biography(), p.birthday(), p.deathday(),
+				p.placeOfBirth(), p.homepage(), p.adult(), p.popularity(),
+				detail != null ? detail.contentHash() : null);
+		if (detail == null)
+			return;
+		detailedPersons.add(tmdbId);
+		for (String value : detail.aliases()) {
+			String alias = blankToNull(value);
+			if (alias != null)
+				rows.get(Table.PERSON_ALIAS).add(loadId, tmdbId, alias);
+		}
+	}
+
+	private void copy(Map<Table, CsvRows> rows) throws Exception {
+		try (Connection c = ds.getConnection()) {
+			c.setAutoCommit(false);
+			try {
+				CopyManager copyManager = c.unwrap(PGConnection.class).getCopyAPI();
+				for (Map.Entry<Table, CsvRows> entry : rows.entrySet()) {
+					Table table = entry.getKey();
+					CsvRows csv = entry.getValue();
+					if (csv.rows == 0)
+						continue;
+					long start = System.nanoTime();
+					copyManager.copyIn("COPY " + table.staging() + " (load_id, " + table.columns
+							+ ") FROM STDIN (FORMAT csv)", new StringReader(csv.csv.toString()));
+					copyNanos.get(table).add(System.nanoTime() - start);
+					stagedRows.get(table).add(csv.rows);
+				}
+				c.commit();
+			} catch (Exception e) {
+				c.rollback();
+				throw e;
+			} finally {
+				c.setAutoCommit(true);
+			}
+		}
+	}
+
+	/**
+	 * Überführt alle Staging-Zeilen dieses Imports mengenbasiert in einer Transaktion in die Zieltabellen, übernimmt
+	 * neue IDs in {@link EntityIdIndex} und {@link PersonCache} und räumt die Staging-Tabellen anschließend auf.
+	 *
+	 * @return Durchsatz je Tabelle (COPY und Merge)
+	 */
+	List<TableThroughputDTO> merge() throws SQLException {
+		Map<Table, long[]> merged = new EnumMap<>(Table.class);
+		EntityIdIndex.Batch newIds = new EntityIdIndex.Batch();
+		Map<Integer, Long> persons = new HashMap<>();
+
+		try (Connection c = ds.getConnection()) {
+			c.setAutoCommit(false);
+			try {
+				for (Table table : Table.values()) {
+					long start = System.nanoTime();
+					if (table.clear != null) {
+						try (PreparedStatement ps = c.prepareStatement(table.clear)) {
+							ps.setLong(1, loadId);
+							ps.executeUpdate();
+						}
+					}
+					long rows = 0;
+					try (PreparedStatement ps = c.prepareStatement(table.merge)) {
+						ps.setLong(1, loadId);
+						if (table == Table.PRODUCTION_COMPANY || table == Table.WATCH_PROVIDER
+								|| table == Table.PERSON) {
+							try (ResultSet rs = ps.executeQuery()) {
+								while (rs.next()) {
+									rows++;
+									if (table == Table.PRODUCTION_COMPANY)
+										newIds.productionCompany(rs.getInt(1), rs.getLong(2));
+									else if (table == Table.WATCH_PROVIDER)
+										newIds.watchProvider(rs.getInt(1), rs.getString(2), rs.getLong(3));
+									else
+										persons.put(rs.getInt(1), rs.getLong(2));
+								}
+							}
+						} else {
+							rows = ps.executeUpdate();
+						}
+					}
+					merged.put(table, new long[] { rows, System.nanoTime() - start });
+				}
+				c.commit();
+			} catch (SQLException e) {
+				c.rollback();
+				throw e;
+			} finally {
+				c.setAutoCommit(true);
+			}
+		} finally {
+			clearStaging();
+		}
+
+		long committedAt = System.currentTimeMillis();
+		persons.forEach((tmdbId, personId) -> {
+			newIds.person(tmdbId, personId);
+			if (detailedPersons.contains(tmdbId))
+				personCache.put(tmdbId, personId, committedAt);
+		});
+		idIndex.publish(newIds);
+
+		List<TableThroughputDTO> throughput = new ArrayList<>();
+		for (Table table : Table.values()) {
+			long staged = stagedRows.get(table).sum();
+			long[] result = merged.get(table);
+			throughput.add(new TableThroughputDTO(table.target, staged, perSecond(staged, copyNanos.get(table).sum()),
+					result[0], perSecond(result[0], result[1])));
+		}
+		return throughput;
+	}
+
+	/**
+	 * Entfernt alle Staging-Zeilen dieses Imports, auch wenn der Merge fehlgeschlagen ist.
+	 */
+	void clearStaging() {
+		try (Connection c = ds.getConnection()) {
+			for (Table table : Table.values()) {
+				try (PreparedStatement ps = c.prepareStatement("DELETE FROM " + table.staging() + " WHERE load_id = ?")) {
+					ps.setLong(1, loadId);
+					ps.executeUpdate();
+				}
+			}
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to clear staging rows of load " + loadId + ": " + e.getMessage());
+		}
+	}
+
+	private static double perSecond(long rows, long nanos) {
+		return nanos <= 0 ? 0.0 : rows * 1_000_000_000.0 / nanos;
+	}
+}
@@ -0,0 +1,56 @@
+package com.adt.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Legt fest, für welche Personen eines Films die Details über {@code /person/{id}} abgerufen werden. Gespeichert werden
+ * immer alle Credits; Personen außerhalb der Auswahl werden nur aus den Credit-Daten angelegt bzw. mit ihrem
+ * vorhandenen Datensatz verknüpft.
+ *
+ * @param castLimit
+ *     Anzahl der Cast-Mitglieder (nach {@code order}), deren Details geladen werden; negativ = alle
+ * @param crewJobs
+ *     Crew-Jobs (klein geschrieben), deren Details geladen werden; {@code null} = alle
+ * @param deferred
+ *     Details nicht während des Imports laden, sondern die Personen in die {@link PersonEnrichmentQueue} eintragen
+ */
+public record CreditDepth(int castLimit, Set<String> crewJobs, boolean deferred) {
+
+	/** Details für alle Personen aus Cast und Crew, sofort während des Imports. */
+	public static final CreditDepth ALL = new CreditDepth(-1, null, false);
+
+	/**
+	 * Liest eine kommagetrennte Liste von Crew-Jobs, z. B. {@code Director,Screenplay}. {@code *} steht für alle Jobs,
+	 * eine leere Liste für keinen.
+	 */
+	public static Set<String> parseJobs(String jobs) {
+		if (jobs.trim().equals("*"))
+			return null;
+		return Arrays.stream(jobs.split(","))
+				.map(job -> job.trim().toLowerCase(Locale.ROOT))
+				.filter(job -> !job.isEmpty())
+				.collect(Collectors.toUnmodifiableSet());
+	}
+
+	/**
+	 * Ermittelt die TMDB-IDs der Personen eines Films, deren Details geladen werden sollen.
+	 */
+	Set<Integer> detailPersons(TmdbMovie movie) {
+		Set<Integer> ids = new LinkedHashSet<>();
+		movie.cast().stream()
+				.sorted(Comparator.comparing(TmdbMovie.Cast::order, Comparator.nullsLast(Comparator.naturalOrder())))
+				.limit(castLimit < 0 ? Long.MAX_VALUE : castLimit)
+				.forEach(member -> ids.add(member.personTmdbId()));
+		for (TmdbMovie.Crew member : movie.crew()) {
+			String job = MovieImportService.blankToNull(member.job());
+			if (job != null && (crewJobs == null || crewJobs.contains(job.toLowerCase(Locale.ROOT))))
+				ids.add(member.personTmdbId());
+		}
+		return ids;
+	}
+}
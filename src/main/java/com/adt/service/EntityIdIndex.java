@@ -0,0 +1,257 @@
+package com.adt.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Globale Zuordnung TMDB-ID → Primärschlüssel für die großen Tabellen {@code person}, {@code production_company} und
+ * {@code watch_provider}. Die Daten liegen in kompakten {@link IntIntHashMap}s (Heap, off-heap oder Memory-Mapped),
+ * werden beim Start einmalig per Streaming aus der Datenbank geladen und während des Imports nach jedem Commit
+ * ergänzt. Bereits vorhandene Entitäten lassen sich so ohne SQL auflösen.
+ * <p>
+ * Commits, die während des Ladens veröffentlicht werden, puffert der Index und übernimmt sie, sobald die jeweilige Map
+ * steht; Zeilen, die nach dem Snapshot des Ladevorgangs committet wurden, gehen so nicht verloren.
+ */
+@ApplicationScoped
+public class EntityIdIndex {
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	@ConfigProperty(name = "adt.import.id-index.storage", defaultValue = "off-heap")
+	String storage;
+
+	@ConfigProperty(name = "adt.import.id-index.directory", defaultValue = "data/id-index")
+	String directory;
+
+	@ConfigProperty(name = "adt.import.id-index.fetch-size", defaultValue = "10000")
+	int fetchSize;
+
+	private volatile IntIntHashMap persons;
+	private volatile IntIntHashMap productionCompanies;
+	private volatile IntIntHashMap watchProviders;
+
+	private final Object publishLock = new Object();
+	/** Während des Ladens veröffentlichte IDs; {@code null}, sobald alle Maps stehen oder das Laden fehlschlug. */
+	private Batch pending = new Batch();
+
+	private Counter hits;
+	private Counter misses;
+
+	/**
+	 * Neue, bereits committete IDs, die gesammelt nach dem Commit einer Import-Transaktion übernommen werden.
+	 */
+	public static final class Batch {
+		private final List<int[]> persons = new ArrayList<>();
+		private final List<int[]> productionCompanies = new ArrayList<>();
+		private final List<int[]> watchProviders = new ArrayList<>();
+
+		public void person(int tmdbId, long id) {
+			persons.add(new int[] { tmdbId, Math.toIntExact(id) });
+		}
+
+		public void productionCompany(int tmdbId, long id) {
+			productionCompanies.add(new int[] { tmdbId, Math.toIntExact(id) });
+		}
+
+		public void watchProvider(int tmdbId, String region, long id) {
+			int key = watchProviderKey(tmdbId, region);
+			if (key > 0)
+				watchProviders.add(new int[] { key, Math.toIntExact(id) });
+		}
+	}
+
+	@PostConstruct
+	void registerMetrics() {
+		hits = meterRegistry.counter("adt.import.id_index.lookups", "result", "hit");
+		misses = meterRegistry.counter("adt.import.id_index.lookups", "result", "miss");
+	}
+
+	/**
+	 * Lädt die Indizes beim Start im Hintergrund, damit große Tabellen den Start nicht verzögern. Bis dahin fallen
+	 * Lookups auf SQL zurück.
+	 */
+	void onStart(@Observes StartupEvent event) {
+		Thread.ofVirtual().name("id-index-loader").start(() -> {
+			try {
+				IntIntHashMap.Storage mode = IntIntHashMap.Storage.valueOf(storage.trim().toUpperCase().replace('-', '_'));
+				IntIntHashMap map = load(mode, "person", "SELECT tmdb_id, id FROM person");
+				synchronized (publishLock) {
+					publish(map, pending.persons, null);
+					persons = map;
+				}
+				map = load(mode, "production_company", "SELECT tmdb_id, id FROM production_company");
+				synchronized (publishLock) {
+					publish(map, pending.productionCompanies, null);
+					productionCompanies = map;
+				}
+				map = load(mode, "watch_provider", "SELECT tmdb_id, region, id FROM watch_provider");
+				synchronized (publishLock) {
+					publish(map, pending.watchProviders, null);
+					watchProviders = map;
+				}
+			} catch (Exception e) {
+				System.err.println("❌ Failed to load id index: " + e.getMessage());
+			} finally {
+				synchronized (publishLock) {
+					pending = null;
+				}
+			}
+		});
+	}
+
+	@PreDestroy
+	void close() {
+		for (IntIntHashMap map : new IntIntHashMap[] { persons, productionCompanies, watchProviders }) {
+			if (map != null)
+				map.close();
+		}
+	}
+
+	public Long personId(int tmdbId) {
+		return lookup(persons, tmdbId);
+	}
+
+	public Long productionCompanyId(int tmdbId) {
+		return lookup(productionCompanies, tmdbId);
+	}
+
+	public Long watchProviderId(int tmdbId, String region) {
+		int key = watchProviderKey(tmdbId, region);
+		return key > 0 ? lookup(watchProviders, key) : null;
+	}
+
+	/**
+	 * Gibt an, ob der Personenindex vollständig geladen ist; nur dann bedeutet ein fehlender Eintrag, dass die Person
+	 * noch nicht in der Datenbank existiert.
+	 */
+	public boolean personsLoaded() {
+		return persons != null;
+	}
+
+	/**
+	 * Übernimmt die IDs einer erfolgreich committeten Transaktion. Solange eine Map noch geladen wird, landen ihre
+	 * Einträge im Puffer.
+	 */
+	public void publish(Batch batch) {
+		synchronized (publishLock) {
+			publish(persons, batch.persons, pending != null ? pending.persons : null);
+			publish(productionCompanies, batch.productionCompanies,
+					pending != null ? pending.productionCompanies : null);
+			publish(watchProviders, batch.watchProviders, pending != null ? pending.watchProviders : null);
+		}
+	}
+
+	/**
+	 * Kodiert Provider-ID und zweistellige Region in einen positiven {@code int}
+	 * ({@code tmdbId << 10 | Regionsindex}); liefert {@code -1}, wenn das nicht verlustfrei möglich ist.
+	 */
+	static int watchProviderKey(int tmdbId, String region) {
+		if (tmdbId <= 0 || tmdbId >= (1 << 21) || region == null || region.length() != 2)
+			return -1;
+		int first = Character.toUpperCase(region.charAt(0)) - 'A';
+		int second = Character.toUpperCase(region.charAt(1)) - 'A';
+		if (first < 0 || first >= 26 || second < 0 || second >= 26)
+			return -1;
+		return (tmdbId << 10) | (first * 26 + second + 1);
+	}
+
+	private Long lookup(IntIntHashMap map, int key) {
+		if (map == null || key <= 0)
+			return null;
+		int id = map.get(key);
+		if (id == IntIntHashMap.MISSING) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return (long) id;
+	}
+
+	private static void publish(IntIntHashMap map, List<int[]> entries, List<int[]> buffer) {
+		if (map == null) {
+			if (buffer != null)
+				buffer.addAll(entries);
+			return;
+		}
+		for (int[] entry : entries) {
+			if (entry[0] > 0)
+				map.put(entry[0], entry[1]);
+		}
+	}
+
+	/**
+	 * Lädt eine Tabelle per Cursor (Streaming) in eine neue Map. Eine gemappte Datei aus einem früheren Lauf wird nicht
+	 * übernommen, sondern neu befüllt: Anzahl und maximale ID erkennen weder gelöschte noch umgehängte Zeilen.
+	 */
+	private IntIntHashMap load(IntIntHashMap.Storage mode, String table, String sql) throws SQLException, IOException {
+		try (Connection c = ds.getConnection()) {
+			long rows;
+			try (PreparedStatement ps = c.prepareStatement("SELECT count(*) FROM " + table);
+					ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				rows = rs.getLong(1);
+			}
+
+			IntIntHashMap map;
+			if (mode == IntIntHashMap.Storage.MAPPED) {
+				Path file = Path.of(directory, table + ".idx");
+				Files.deleteIfExists(file);
+				map = IntIntHashMap.openMapped(file, (int) rows);
+			} else {
+				map = IntIntHashMap.create(mode, (int) rows);
+			}
+
+			boolean autoCommit = c.getAutoCommit();
+			c.setAutoCommit(false);
+			try (PreparedStatement ps = c.prepareStatement(sql)) {
+				ps.setFetchSize(fetchSize);
+				boolean withRegion = "watch_provider".equals(table);
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						int key = withRegion
+								? watchProviderKey(rs.getInt(1), rs.getString(2))
+								: rs.getInt(1);
+						if (key > 0)
+							map.put(key, rs.getInt(withRegion ? 3 : 2));
+					}
+				}
+				c.commit();
+			} finally {
+				c.setAutoCommit(autoCommit);
+			}
+			registerGauges(table, map);
+			return map;
+		}
+	}
+
+	private void registerGauges(String table, IntIntHashMap map) {
+		meterRegistry.gauge("adt.import.id_index.entries", Tags.of("table", table), map, IntIntHashMap::size);
+		meterRegistry.gauge("adt.import.id_index.bytes", Tags.of("table", table), map, m -> m.footprintBytes());
+	}
+}
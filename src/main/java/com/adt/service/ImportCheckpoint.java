@@ -0,0 +1,309 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+/**
+ * Arbeitsfront eines persistierten Import-Jobs. Die Pipeline meldet jedes Ergebnis einer TMDB-ID; der Checkpoint führt
+ * daraus die Front nach (ID-Bereich: höchste ID, bis zu der alle IDs ein Ergebnis haben; Jahresimport: erste nicht
+ * vollständig importierte Discover-Seite) und schreibt die gesammelten Ergebnisse, Zähler und Front gebündelt in einer
+ * Transaktion nach {@code flushSize} Ergebnissen oder {@code flushIntervalNanos}, nicht je Film. Nach einem Neustart
+ * setzt der Job an der gespeicherten Front fort und überspringt IDs, die bereits ein Ergebnis haben.
+ */
+final class ImportCheckpoint {
+
+	/** Eine Discover-Seite eines Jahrgangs. */
+	private record Page(int year, int page) {
+	}
+
+	/** Fortschritt eines Jahrgangs: Seiten 1 bis {@code completedPrefix} sind vollständig importiert. */
+	private static final class YearFront {
+		int totalPages = -1;
+		int completedPrefix;
+		final Map<Integer, Integer> pendingByPage = new HashMap<>();
+		final Set<Integer> completedPages = new HashSet<>();
+	}
+
+	private final DataSource ds;
+	private final UUID jobId;
+	private final ImportJob.Type type;
+	private final int rangeEnd;
+	private final ImportProgress progress;
+	private final int flushSize;
+	private final long flushIntervalNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	/** IDs mit Ergebnis; bei ID-Bereichen nur oberhalb des Watermarks. */
+	private final Set<Integer> done;
+	/** Noch nicht geschriebene Ergebnisse (TMDB-ID → erfolgreich). */
+	private Map<Integer, Boolean> unflushed = new LinkedHashMap<>();
+	private long lastFlushNanos = System.nanoTime();
+
+	private int watermark;
+
+	private final Map<Integer, YearFront> years = new HashMap<>();
+	private final Map<Integer, Page> pageOfId = new HashMap<>();
+	private int cursorYear;
+	private int cursorPage;
+
+	/**
+	 * @param watermark
+	 *     gespeichertes Watermark (ID-Bereich) oder {@code rangeStart - 1}
+	 * @param cursorYear
+	 *     gespeicherter Jahrgang (Jahresimport) oder {@code rangeStart}
+	 * @param cursorPage
+	 *     gespeicherte Seite im Jahrgang oder {@code 1}
+	 * @param done
+	 *     bereits gespeicherte Ergebnisse oberhalb der Front
+	 */
+	ImportCheckpoint(DataSource ds, UUID jobId, ImportJob.Type type, int rangeEnd, ImportProgress progress,
+			int flushSize, long flushIntervalNanos, int watermark, int cursorYear, int cursorPage, Set<Integer> done) {
+		this.ds = ds;
+		this.jobId = jobId;
+		this.type = type;
+		this.rangeEnd = rangeEnd;
+		this.progress = progress;
+		this.flushSize = Math.max(1, flushSize);
+		this.flushIntervalNanos = flushIntervalNanos;
+		this.watermark = watermark;
+		this.cursorYear = cursorYear;
+		this.cursorPage = cursorPage;
+		this.done = new HashSet<>(done);
+		if (type == ImportJob.Type.YEARS)
+			years.computeIfAbsent(cursorYear, y -> new YearFront()).completedPrefix = cursorPage - 1;
+	}
+
+	/** Erste noch zu ladende ID eines ID-Bereichs. */
+	int resumeId() {
+		return watermark + 1;
+	}
+
+	/** Erster noch zu durchsuchender Jahrgang eines Jahresimports. */
+	int resumeYear() {
+		return cursorYear;
+	}
+
+	/** Erste zu ladende Discover-Seite eines Jahrgangs. */
+	int firstPage(int year) {
+		lock.lock();
+		try {
+			YearFront front = years.get(year);
+			return front != null ? front.completedPrefix + 1 : 1;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	boolean isDone(int tmdbId) {
+		lock.lock();
+		try {
+			return type == ImportJob.Type.RANGE && tmdbId <= watermark || done.contains(tmdbId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Registriert die noch offenen IDs einer Discover-Seite. Muss vor dem Weiterreichen der IDs aufgerufen werden,
+	 * damit kein Ergebnis vor seiner Seite eintrifft.
+	 */
+	void pageDiscovered(int year, int page, List<Integer> ids) {
+		lock.lock();
+		try {
+			YearFront front = years.computeIfAbsent(year, y -> new YearFront());
+			Page key = new Page(year, page);
+			int pending = 0;
+			for (int id : ids) {
+				if (!done.contains(id) && pageOfId.putIfAbsent(id, key) == null)
+					pending++;
+			}
+			if (pending == 0)
+				completePage(front, page);
+			else
+				front.pendingByPage.put(page, pending);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Meldet, dass alle {@code totalPages} Seiten eines Jahrgangs durchsucht wurden.
+	 */
+	void yearDiscovered(int year, int totalPages) {
+		lock.lock();
+		try {
+			years.computeIfAbsent(year, y -> new YearFront()).totalPages = totalPages;
+			advanceCursor();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Meldet das Ergebnis einer TMDB-ID und schreibt bei Bedarf einen Checkpoint.
+	 */
+	void outcome(int tmdbId, boolean succeeded) {
+		boolean flushDue;
+		lock.lock();
+		try {
+			unflushed.put(tmdbId, succeeded);
+			if (type == ImportJob.Type.RANGE) {
+				if (tmdbId > watermark)
+					done.add(tmdbId);
+				// ausgelassene IDs erhalten kein Ergebnis und dürfen die Front nicht aufhalten
+				while (watermark < rangeEnd && (done.remove(watermark + 1) || progress.isExcluded(watermark + 1)))
+					watermark++;
+			} else {
+				done.add(tmdbId);
+				Page page = pageOfId.remove(tmdbId);
+				if (page != null) {
+					YearFront front = years.get(page.year());
+					if (front.pendingByPage.merge(page.page(), -1, Integer::sum) == 0) {
+						front.pendingByPage.remove(page.page());
+						completePage(front, page.page());
+					}
+				}
+			}
+			flushDue = unflushed.size() >= flushSize || System.nanoTime() - lastFlushNanos >= flushIntervalNanos;
+		} finally {
+			lock.unlock();
+		}
+		if (flushDue)
+			flush();
+	}
+
+	private void completePage(YearFront front, int page) {
+		front.completedPages.add(page);
+		while (front.completedPages.remove(front.completedPrefix + 1))
+			front.completedPrefix++;
+		advanceCursor();
+	}
+
+	/**
+	 * Rückt den Cursor über vollständig importierte Jahrgänge vor.
+	 */
+	private void advanceCursor() {
+		while (cursorYear <= rangeEnd) {
+			YearFront front = years.get(cursorYear);
+			if (front == null) {
+				cursorPage = 1;
+				return;
+			}
+			if (front.totalPages >= 0 && front.completedPrefix >= front.totalPages) {
+				years.remove(cursorYear);
+				cursorYear++;
+				cursorPage = 1;
+				continue;
+			}
+			cursorPage = front.completedPrefix + 1;
+			return;
+		}
+	}
+
+	/**
+	 * Schreibt gesammelte Ergebnisse, Zähler und Front in einer Transaktion. Schlägt das fehl, bleiben die Ergebnisse
+	 * für den nächsten Checkpoint vorgemerkt.
+	 */
+	void flush() {
+		flushLock.lock();
+		try {
+			Map<Integer, Boolean> batch;
+			int currentWatermark;
+			int currentYear;
+			int currentPage;
+			lock.lock();
+			try {
+				batch = unflushed;
+				unflushed = new LinkedHashMap<>();
+				lastFlushNanos = System.nanoTime();
+				currentWatermark = watermark;
+				currentYear = cursorYear;
+				currentPage = cursorPage;
+			} finally {
+				lock.unlock();
+			}
+
+			try {
+				write(batch, currentWatermark, currentYear, currentPage);
+			} catch (SQLException e) {
+				System.err.println("❌ Checkpoint of import job " + jobId + " failed: " + e.getMessage());
+				lock.lock();
+				try {
+					batch.forEach(unflushed::putIfAbsent);
+				} finally {
+					lock.unlock();
+				}
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private void write(Map<Integer, Boolean> batch, int currentWatermark, int currentYear, int currentPage)
+			throws SQLException {
+		boolean range = type == ImportJob.Type.RANGE;
+		try (Connection c = ds.getConnection()) {
+			c.setAutoCommit(false);
+			try {
+				if (!batch.isEmpty()) {
+					try (PreparedStatement ps = c.prepareStatement("INSERT INTO import_job_item (job_id, tmdb_id, "
+							+ "succeeded) SELECT ?, t, s FROM unnest(?, ?) AS u (t, s) WHERE NOT ? OR t > ? "
+							+ "ON CONFLICT (job_id, tmdb_id) DO UPDATE SET succeeded = EXCLUDED.succeeded")) {
+						ps.setObject(1, jobId);
+						ps.setArray(2, c.createArrayOf("integer", batch.keySet().toArray()));
+						ps.setArray(3, c.createArrayOf("boolean", batch.values().toArray()));
+						ps.setBoolean(4, range);
+						ps.setInt(5, currentWatermark);
+						ps.executeUpdate();
+					}
+				}
+				if (range) {
+					try (PreparedStatement ps = c.prepareStatement(
+							"DELETE FROM import_job_item WHERE job_id = ? AND tmdb_id <= ?")) {
+						ps.setObject(1, jobId);
+						ps.setInt(2, currentWatermark);
+						ps.executeUpdate();
+					}
+				}
+				try (PreparedStatement ps = c.prepareStatement("UPDATE import_job SET imported = ?, failed = ?, "
+						+ "skipped = ?, id_watermark = ?, cursor_year = ?, cursor_page = ?, updated_at = now() "
+						+ "WHERE id = ?")) {
+					ps.setInt(1, progress.imported());
+					ps.setInt(2, progress.failed());
+					ps.setInt(3, progress.skipped());
+					if (range) {
+						ps.setInt(4, currentWatermark);
+						ps.setNull(5, Types.INTEGER);
+						ps.setNull(6, Types.INTEGER);
+					} else {
+						ps.setNull(4, Types.INTEGER);
+						ps.setInt(5, currentYear);
+						ps.setInt(6, currentPage);
+					}
+					ps.setObject(7, jobId);
+					ps.executeUpdate();
+				}
+				c.commit();
+			} catch (SQLException e) {
+				c.rollback();
+				throw e;
+			} finally {
+				c.setAutoCommit(true);
+			}
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.adt.service;
+
+import java.time.Instant;
+
+import com.adt.entity.dto.ImportJobDTO;
+import com.adt.entity.dto.ImportStatsDTO;
+
+/**
+ * Ein asynchron laufender Import mit seinen Parametern, seinem {@link ImportProgress} und seinem Endergebnis.
+ */
+public final class ImportJob {
+
+	public enum Type {
+		RANGE, YEARS
+	}
+
+	public enum State {
+		QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED;
+
+		public boolean isFinished() {
+			return this == COMPLETED || this == CANCELLED || this == FAILED;
+		}
+	}
+
+	private final String id;
+	private final Type type;
+	private final int rangeStart;
+	private final int rangeEnd;
+	private final PersistenceEngine engine;
+	private final CreditDepth depth;
+	private final Instant submittedAt;
+	private final ImportProgress progress = new ImportProgress();
+
+	private volatile State state = State.QUEUED;
+	private volatile Instant startedAt;
+	private volatile long startedNanos;
+	/** Bei Start bereits verarbeitete Filme (fortgesetzter Job); gehen nicht in den Durchsatz ein. */
+	private volatile long resumedProcessed;
+	private volatile Instant finishedAt;
+	private volatile long finishedNanos;
+	private volatile ImportStatsDTO result;
+	private volatile String message;
+
+	ImportJob(String id, Type type, int rangeStart, int rangeEnd, PersistenceEngine engine, CreditDepth depth) {
+		this(id, type, rangeStart, rangeEnd, engine, depth, Instant.now());
+	}
+
+	ImportJob(String id, Type type, int rangeStart, int rangeEnd, PersistenceEngine engine, CreditDepth depth,
+			Instant submittedAt) {
+		this.id = id;
+		this.type = type;
+		this.rangeStart = rangeStart;
+		this.rangeEnd = rangeEnd;
+		this.engine = engine;
+		this.depth = depth;
+		this.submittedAt = submittedAt;
+	}
+
+	public String id() {
+		return id;
+	}
+
+	public Type type() {
+		return type;
+	}
+
+	public int rangeStart() {
+		return rangeStart;
+	}
+
+	public int rangeEnd() {
+		return rangeEnd;
+	}
+
+	public PersistenceEngine engine() {
+		return engine;
+	}
+
+	public CreditDepth depth() {
+		return depth;
+	}
+
+	public State state() {
+		return state;
+	}
+
+	public Instant submittedAt() {
+		return submittedAt;
+	}
+
+	public String message() {
+		return message;
+	}
+
+	ImportProgress progress() {
+		return progress;
+	}
+
+	void started() {
+		resumedProcessed = progress.processed();
+		startedNanos = System.nanoTime();
+		startedAt = Instant.now();
+		state = State.RUNNING;
+	}
+
+	void finished(State finalState, ImportStatsDTO stats, String finalMessage) {
+		finishedNanos = System.nanoTime();
+		finishedAt = Instant.now();
+		result = stats;
+		message = finalMessage;
+		state = finalState;
+	}
+
+	/**
+	 * Momentaufnahme für Status-Endpunkt und Event-Stream. Durchsatz und Restdauer beziehen sich auf die bisherige
+	 * Laufzeit des aktuellen Prozesses; ohne bekannte Gesamtmenge bleibt die Restdauer leer.
+	 */
+	public ImportJobDTO snapshot() {
+		State current = state;
+		ImportProgress p = progress;
+		long processed = p.processed();
+		long expected = p.expected();
+		double seconds = 0;
+		if (current != State.QUEUED) {
+			long end = current.isFinished() ? finishedNanos : System.nanoTime();
+			seconds = (end - startedNanos) / 1_000_000_000.0;
+		}
+		double moviesPerSecond = seconds > 0 ? (processed - resumedProcessed) / seconds : 0;
+		double callsPerSecond = seconds > 0 ? p.tmdbCalls() / seconds : 0;
+		Long eta = null;
+		if (current.isFinished())
+			eta = 0L;
+		else if (moviesPerSecond > 0 && expected > 0)
+			eta = Math.round(Math.max(0, expected - processed) / moviesPerSecond);
+
+		return new ImportJobDTO(id, type.name().toLowerCase(), rangeStart, rangeEnd, engine.name(), current.name(),
+				submittedAt, startedAt, finishedAt, processed, expected, p.imported(), p.failed(), p.skipped(),
+				p.tmdbCalls(), moviesPerSecond, callsPerSecond, eta, result, message);
+	}
+}
@@ -0,0 +1,305 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.adt.entity.dto.ImportStatsDTO;
+
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Führt Importe als asynchrone Jobs aus: Jeder Job läuft auf einem eigenen virtuellen Thread mit eigener Pipeline,
+ * sodass mehrere Jobs nebeneinander laufen. Das TMDB-Budget teilen sie sich über den globalen {@link TmdbRateLimiter}
+ * und den {@link AdaptiveConcurrencyLimiter}, der jedem laufenden Job einen gleichen Anteil gibt. Abgeschlossene Jobs
+ * bleiben bis zur Anzahl {@code adt.import.jobs.retained} abrufbar.
+ * <p>
+ * Jobs werden in {@code import_job} gespeichert; ihr {@link ImportCheckpoint} schreibt die Arbeitsfront gebündelt alle
+ * {@code adt.import.jobs.checkpoint-size} Ergebnisse bzw. spätestens nach {@code adt.import.jobs.checkpoint-interval}.
+ * Beim Start setzt der Dienst Jobs, die beim letzten Beenden noch liefen, unter ihrer ID an ihrem Checkpoint fort.
+ * Das setzt voraus, dass nur eine Instanz Import-Jobs ausführt.
+ */
+@ApplicationScoped
+public class ImportJobService {
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MovieImportService importService;
+
+	@ConfigProperty(name = "adt.import.jobs.retained", defaultValue = "100")
+	int retainedJobs;
+
+	/** Abstand der Fortschritts-Events im Event-Stream. */
+	@ConfigProperty(name = "adt.import.jobs.progress-interval", defaultValue = "PT1S")
+	Duration progressInterval;
+
+	/** Anzahl Ergebnisse, nach denen ein Checkpoint geschrieben wird. */
+	@ConfigProperty(name = "adt.import.jobs.checkpoint-size", defaultValue = "500")
+	int checkpointSize;
+
+	/** Höchster Abstand zwischen zwei Checkpoints eines laufenden Jobs. */
+	@ConfigProperty(name = "adt.import.jobs.checkpoint-interval", defaultValue = "PT5S")
+	Duration checkpointInterval;
+
+	private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+	void onStart(@Observes StartupEvent event) {
+		List<ImportJob> unfinished = new ArrayList<>();
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("SELECT id, type, range_start, range_end, engine, cast_limit, "
+						+ "crew_jobs, deferred, submitted_at, imported, failed, skipped, id_watermark, cursor_year, "
+						+ "cursor_page FROM import_job WHERE state IN ('QUEUED', 'RUNNING') ORDER BY submitted_at")) {
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					unfinished.add(restore(c, rs));
+			}
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to load unfinished import jobs: " + e.getMessage());
+			return;
+		}
+		unfinished.forEach(this::start);
+	}
+
+	/**
+	 * Schreibt beim Herunterfahren die Checkpoints laufender Jobs, damit sie beim nächsten Start dort fortsetzen.
+	 */
+	@PreDestroy
+	void onStop() {
+		for (ImportJob job : jobs.values()) {
+			ImportCheckpoint checkpoint = job.progress().checkpoint;
+			if (!job.state().isFinished() && checkpoint != null)
+				checkpoint.flush();
+		}
+	}
+
+	public Duration progressInterval() {
+		return progressInterval;
+	}
+
+	/**
+	 * Startet einen Import über einen TMDB-ID-Bereich und kehrt sofort zurück.
+	 */
+	public ImportJob submitRange(int startId, int endId, PersistenceEngine engine, CreditDepth depth) {
+		return submit(new ImportJob(UUID.randomUUID().toString(), ImportJob.Type.RANGE, startId, endId, engine, depth));
+	}
+
+	/**
+	 * Startet einen Import über einen Jahrgangsbereich und kehrt sofort zurück.
+	 */
+	public ImportJob submitYears(int startYear, int endYear, PersistenceEngine engine, CreditDepth depth) {
+		return submit(
+				new ImportJob(UUID.randomUUID().toString(), ImportJob.Type.YEARS, startYear, endYear, engine, depth));
+	}
+
+	public Optional<ImportJob> find(String id) {
+		return Optional.ofNullable(jobs.get(id));
+	}
+
+	/** Alle bekannten Jobs, neueste zuerst. */
+	public List<ImportJob> list() {
+		return jobs.values().stream()
+				.sorted(Comparator.comparing(ImportJob::submittedAt).reversed())
+				.toList();
+	}
+
+	/**
+	 * Bricht einen Job ab: Es werden keine weiteren Filme geladen, bereits geladene noch geschrieben. Der Job endet
+	 * anschließend im Zustand {@link ImportJob.State#CANCELLED}.
+	 */
+	public Optional<ImportJob> cancel(String id) {
+		ImportJob job = jobs.get(id);
+		if (job != null)
+			job.progress().cancel();
+		return Optional.ofNullable(job);
+	}
+
+	private ImportJob submit(ImportJob job) {
+		try {
+			insert(job);
+			job.progress().checkpoint = newCheckpoint(job, job.rangeStart() - 1, job.rangeStart(), 1, Set.of());
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to persist import job " + job.id() + ", it will not survive a restart: "
+					+ e.getMessage());
+		}
+		return start(job);
+	}
+
+	private ImportJob start(ImportJob job) {
+		jobs.put(job.id(), job);
+		Thread.ofVirtual().name("import-job-" + job.id()).start(() -> run(job));
+		return job;
+	}
+
+	private void run(ImportJob job) {
+		job.started();
+		updateState(job);
+		try {
+			ImportStatsDTO stats = switch (job.type()) {
+				case RANGE -> importService.importMovieRangeWithStats(job.rangeStart(), job.rangeEnd(), job.engine(),
+						job.depth(), job.progress());
+				case YEARS -> importService.importMoviesForYearRange(job.rangeStart(), job.rangeEnd(), job.engine(),
+						job.depth(), job.progress());
+			};
+			boolean cancelled = job.progress().isCancelled();
+			job.finished(cancelled ? ImportJob.State.CANCELLED : ImportJob.State.COMPLETED, stats,
+					cancelled ? "Import cancelled" : "Import finished");
+		} catch (Exception e) {
+			System.err.println("❌ Import job " + job.id() + " failed: " + e.getMessage());
+			job.finished(ImportJob.State.FAILED, null, e.getMessage());
+		} finally {
+			ImportCheckpoint checkpoint = job.progress().checkpoint;
+			if (checkpoint != null)
+				checkpoint.flush();
+			updateState(job);
+			evictFinished();
+		}
+	}
+
+	private ImportCheckpoint newCheckpoint(ImportJob job, int watermark, int cursorYear, int cursorPage,
+			Set<Integer> done) {
+		return new ImportCheckpoint(ds, UUID.fromString(job.id()), job.type(), job.rangeEnd(), job.progress(),
+				checkpointSize, checkpointInterval.toNanos(), watermark, cursorYear, cursorPage, done);
+	}
+
+	private void insert(ImportJob job) throws SQLException {
+		CreditDepth depth = job.depth();
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("INSERT INTO import_job (id, type, range_start, range_end, "
+						+ "engine, cast_limit, crew_jobs, deferred, state, submitted_at) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+			ps.setObject(1, UUID.fromString(job.id()));
+			ps.setString(2, job.type().name());
+			ps.setInt(3, job.rangeStart());
+			ps.setInt(4, job.rangeEnd());
+			ps.setString(5, job.engine().name());
+			ps.setInt(6, depth.castLimit());
+			if (depth.crewJobs() == null)
+				ps.setNull(7, Types.VARCHAR);
+			else
+				ps.setString(7, String.join(",", depth.crewJobs()));
+			ps.setBoolean(8, depth.deferred());
+			ps.setString(9, job.state().name());
+			ps.setTimestamp(10, Timestamp.from(job.submittedAt()));
+			ps.executeUpdate();
+		}
+	}
+
+	/**
+	 * Stellt einen unterbrochenen Job mit seinen Zählern, seiner Front und den Ergebnissen oberhalb der Front wieder
+	 * her.
+	 */
+	private ImportJob restore(Connection c, ResultSet rs) throws SQLException {
+		UUID id = rs.getObject("id", UUID.class);
+		ImportJob.Type type = ImportJob.Type.valueOf(rs.getString("type"));
+		String crewJobs = rs.getString("crew_jobs");
+		CreditDepth depth = new CreditDepth(rs.getInt("cast_limit"),
+				crewJobs != null ? CreditDepth.parseJobs(crewJobs) : null, rs.getBoolean("deferred"));
+		ImportJob job = new ImportJob(id.toString(), type, rs.getInt("range_start"), rs.getInt("range_end"),
+				PersistenceEngine.valueOf(rs.getString("engine")), depth,
+				rs.getTimestamp("submitted_at").toInstant());
+		ImportProgress progress = job.progress();
+		progress.imported.set(rs.getInt("imported"));
+		progress.failed.set(rs.getInt("failed"));
+		progress.skipped.set(rs.getInt("skipped"));
+
+		int watermark = rs.getObject("id_watermark") != null ? rs.getInt("id_watermark") : job.rangeStart() - 1;
+		int cursorYear = rs.getObject("cursor_year") != null ? rs.getInt("cursor_year") : job.rangeStart();
+		int cursorPage = rs.getObject("cursor_page") != null ? rs.getInt("cursor_page") : 1;
+		Set<Integer> done = new HashSet<>();
+		try (PreparedStatement ps = c.prepareStatement("SELECT tmdb_id FROM import_job_item WHERE job_id = ?")) {
+			ps.setObject(1, id);
+			try (ResultSet items = ps.executeQuery()) {
+				while (items.next())
+					done.add(items.getInt(1));
+			}
+		}
+		progress.checkpoint = newCheckpoint(job, watermark, cursorYear, cursorPage, done);
+		return job;
+	}
+
+	/**
+	 * Schreibt den Zustand des Jobs; nach Abschluss außerdem Endzähler und Meldung und verwirft die Einzelergebnisse,
+	 * die nur für eine Fortsetzung gebraucht werden.
+	 */
+	private void updateState(ImportJob job) {
+		if (job.progress().checkpoint == null)
+			return;
+		UUID id = UUID.fromString(job.id());
+		ImportProgress progress = job.progress();
+		boolean finished = job.state().isFinished();
+		try (Connection c = ds.getConnection()) {
+			c.setAutoCommit(false);
+			try {
+				try (PreparedStatement ps = c.prepareStatement("UPDATE import_job SET state = ?, imported = ?, "
+						+ "failed = ?, skipped = ?, message = ?, finished_at = CASE WHEN ? THEN now() END, "
+						+ "updated_at = now() WHERE id = ?")) {
+					ps.setString(1, job.state().name());
+					ps.setInt(2, progress.imported());
+					ps.setInt(3, progress.failed());
+					ps.setInt(4, progress.skipped());
+					ps.setString(5, job.message());
+					ps.setBoolean(6, finished);
+					ps.setObject(7, id);
+					ps.executeUpdate();
+				}
+				if (finished) {
+					try (PreparedStatement ps = c.prepareStatement("DELETE FROM import_job_item WHERE job_id = ?")) {
+						ps.setObject(1, id);
+						ps.executeUpdate();
+					}
+				}
+				c.commit();
+			} catch (SQLException e) {
+				c.rollback();
+				throw e;
+			} finally {
+				c.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to update import job " + job.id() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Entfernt die ältesten abgeschlossenen Jobs, sobald mehr als {@code adt.import.jobs.retained} vorhanden sind, aus
+	 * dem Speicher und aus {@code import_job}.
+	 */
+	private void evictFinished() {
+		List<ImportJob> finished = list().stream().filter(job -> job.state().isFinished()).toList();
+		for (int i = retainedJobs; i < finished.size(); i++)
+			jobs.remove(finished.get(i).id());
+
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("DELETE FROM import_job WHERE id IN (SELECT id FROM "
+						+ "import_job WHERE state NOT IN ('QUEUED', 'RUNNING') ORDER BY submitted_at DESC OFFSET ?)")) {
+			ps.setInt(1, retainedJobs);
+			ps.executeUpdate();
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to remove old import jobs: " + e.getMessage());
+		}
+	}
+}
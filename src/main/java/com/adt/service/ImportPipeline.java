@@ -0,0 +1,241 @@
+package com.adt.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Gestufte Import-Pipeline: Jede Stufe hat eine eigene Anzahl an Workern (virtuelle Threads) und liest aus einer
+ * begrenzten Queue. Ist die Queue einer Stufe voll, blockiert das Weiterreichen in der vorherigen Stufe, sodass sich
+ * Gegendruck bis zur Quelle fortsetzt. Das Ende der Eingabe wird über eine Endmarke signalisiert, die der jeweils
+ * letzte Worker einer Stufe an die nächste Stufe weitergibt. Gruppierende Stufen fassen mehrere Elemente zu einer
+ * Liste zusammen, bevor sie verarbeitet werden.
+ */
+final class ImportPipeline {
+
+	private static final Object END = new Object();
+
+	/**
+	 * Verarbeitungsschritt einer Stufe; ein Element kann beliebig viele Ausgaben erzeugen (z. B. Discover-Seiten →
+	 * TMDB-IDs) oder keine (z. B. 404).
+	 */
+	@FunctionalInterface
+	interface StageFunction<I, O> {
+		void process(I item, Emitter<O> out) throws Exception;
+	}
+
+	/**
+	 * Reicht ein Ergebnis an die nächste Stufe weiter und blockiert, solange deren Queue voll ist.
+	 */
+	@FunctionalInterface
+	interface Emitter<O> {
+		void emit(O item) throws InterruptedException;
+	}
+
+	/**
+	 * Wird für Elemente aufgerufen, deren Verarbeitung mit einer Exception abgebrochen ist.
+	 */
+	@FunctionalInterface
+	interface ErrorHandler {
+		void failed(String stage, Object item, Exception e);
+	}
+
+	/**
+	 * Prometheus-Kennzahlen einer Stufe, aggregiert über alle gleichzeitig laufenden Pipelines.
+	 */
+	static final class StageMetrics {
+		private final AtomicInteger queueDepth = new AtomicInteger();
+		private final AtomicInteger busyWorkers = new AtomicInteger();
+		private final LongAdder processed = new LongAdder();
+		private final AtomicLong lastSampleNanos = new AtomicLong(System.nanoTime());
+		private final AtomicLong lastSampleCount = new AtomicLong();
+
+		static StageMetrics register(MeterRegistry registry, String stage) {
+			StageMetrics metrics = new StageMetrics();
+			Tags tags = Tags.of("stage", stage);
+			registry.gauge("adt.import.pipeline.queue.depth", tags, metrics, m -> m.queueDepth.get());
+			registry.gauge("adt.import.pipeline.busy", tags, metrics, m -> m.busyWorkers.get());
+			registry.gauge("adt.import.pipeline.throughput", tags, metrics, StageMetrics::throughput);
+			FunctionCounter.builder("adt.import.pipeline.processed", metrics, m -> m.processed.sum())
+					.tags(tags)
+					.register(registry);
+			return metrics;
+		}
+
+		/**
+		 * Verarbeitete Elemente pro Sekunde seit der letzten Abfrage (i. d. R. dem letzten Prometheus-Scrape).
+		 */
+		private double throughput() {
+			long now = System.nanoTime();
+			long count = processed.sum();
+			long previousNanos = lastSampleNanos.getAndSet(now);
+			long previousCount = lastSampleCount.getAndSet(count);
+			double seconds = (now - previousNanos) / 1_000_000_000.0;
+			return seconds <= 0 ? 0.0 : (count - previousCount) / seconds;
+		}
+	}
+
+	/**
+	 * @param groupSize
+	 *     maximale Anzahl Elemente pro Aufruf einer gruppierenden Stufe; {@code 0} für Einzelverarbeitung
+	 */
+	private record Stage(String name, int concurrency, int groupSize, long maxWaitNanos,
+			StageFunction<Object, Object> function, BlockingQueue<Object> input, StageMetrics metrics,
+			AtomicInteger liveWorkers) {
+	}
+
+	private final ExecutorService executor;
+	private final int queueCapacity;
+	private final ErrorHandler errorHandler;
+	private final List<Stage> stages = new ArrayList<>();
+
+	ImportPipeline(ExecutorService executor, int queueCapacity, ErrorHandler errorHandler) {
+		this.executor = executor;
+		this.queueCapacity = Math.max(1, queueCapacity);
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Hängt eine Stufe an. Die Ausgaben der letzten Stufe werden verworfen.
+	 */
+	@SuppressWarnings("unchecked")
+	<I, O> ImportPipeline stage(String name, int concurrency, StageMetrics metrics, StageFunction<I, O> function) {
+		stages.add(new Stage(name, Math.max(1, concurrency), 0, 0, (StageFunction<Object, Object>) function,
+				new ArrayBlockingQueue<>(queueCapacity), metrics, new AtomicInteger()));
+		return this;
+	}
+
+	/**
+	 * Hängt eine gruppierende Stufe an: Jeder Worker sammelt bis zu {@code groupSize} Elemente oder wartet höchstens
+	 * {@code maxWait} ab dem ersten Element und übergibt die Gruppe dann als Liste an {@code function}.
+	 */
+	@SuppressWarnings("unchecked")
+	<I, O> ImportPipeline groupStage(String name, int concurrency, int groupSize, Duration maxWait,
+			StageMetrics metrics, StageFunction<List<I>, O> function) {
+		stages.add(new Stage(name, Math.max(1, concurrency), Math.max(1, groupSize), maxWait.toNanos(),
+				(StageFunction<Object, Object>) (StageFunction<?, ?>) function, new ArrayBlockingQueue<>(queueCapacity),
+				metrics, new AtomicInteger()));
+		return this;
+	}
+
+	/**
+	 * Speist die Eingabe in die erste Stufe ein und blockiert, bis alle Stufen leergelaufen sind.
+	 */
+	void run(Iterable<?> source) {
+		List<Future<?>> workers = new ArrayList<>();
+		for (int i = 0; i < stages.size(); i++) {
+			Stage stage = stages.get(i);
+			Stage next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+			stage.liveWorkers().set(stage.concurrency());
+			for (int w = 0; w < stage.concurrency(); w++)
+				workers.add(executor.submit(() -> {
+					work(stage, next);
+					return null;
+				}));
+		}
+
+		try {
+			Stage first = stages.get(0);
+			for (Object item : source)
+				put(first, item);
+			put(first, END);
+			for (Future<?> worker : workers)
+				worker.get();
+		} catch (InterruptedException e) {
+			workers.forEach(worker -> worker.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for imports to finish", e);
+		} catch (Exception e) {
+			workers.forEach(worker -> worker.cancel(true));
+			throw new RuntimeException("Import pipeline failed", e);
+		} finally {
+			for (Stage stage : stages)
+				stage.metrics().queueDepth.addAndGet(-drain(stage.input()));
+		}
+	}
+
+	private void work(Stage stage, Stage next) throws InterruptedException {
+		Emitter<Object> out = next == null ? item -> {
+		} : item -> put(next, item);
+		while (true) {
+			Object item = stage.input().take();
+			if (item == END) {
+				// Endmarke für die übrigen Worker dieser Stufe zurücklegen; der letzte reicht sie weiter
+				stage.input().put(END);
+				if (stage.liveWorkers().decrementAndGet() == 0 && next != null)
+					put(next, END);
+				return;
+			}
+			int count = 1;
+			if (stage.groupSize() > 0) {
+				List<Object> group = collectGroup(stage, item);
+				count = group.size();
+				item = group;
+			}
+			stage.metrics().queueDepth.addAndGet(-count);
+			stage.metrics().busyWorkers.incrementAndGet();
+			try {
+				stage.function().process(item, out);
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				errorHandler.failed(stage.name(), item, e);
+			} finally {
+				stage.metrics().busyWorkers.decrementAndGet();
+				stage.metrics().processed.add(count);
+			}
+		}
+	}
+
+	/**
+	 * Sammelt ab dem ersten Element weitere Elemente ein, bis die Gruppe voll, die Wartezeit abgelaufen oder die
+	 * Endmarke erreicht ist. Die Endmarke bleibt in der Queue, damit der Worker anschließend regulär endet.
+	 */
+	private static List<Object> collectGroup(Stage stage, Object first) throws InterruptedException {
+		List<Object> group = new ArrayList<>(stage.groupSize());
+		group.add(first);
+		long deadline = System.nanoTime() + stage.maxWaitNanos();
+		while (group.size() < stage.groupSize()) {
+			long remaining = deadline - System.nanoTime();
+			Object item = remaining > 0
+					? stage.input().poll(remaining, TimeUnit.NANOSECONDS)
+					: stage.input().poll();
+			if (item == null)
+				break;
+			if (item == END) {
+				stage.input().put(END);
+				break;
+			}
+			group.add(item);
+		}
+		return group;
+	}
+
+	private static void put(Stage stage, Object item) throws InterruptedException {
+		if (item != END)
+			stage.metrics().queueDepth.incrementAndGet();
+		stage.input().put(item);
+	}
+
+	private static int drain(BlockingQueue<Object> queue) {
+		int remaining = 0;
+		for (Object item : queue) {
+			if (item != END)
+				remaining++;
+		}
+		queue.clear();
+		return remaining;
+	}
+}
@@ -0,0 +1,116 @@
+package com.adt.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Laufende Zähler eines Imports, die die Pipeline fortschreibt und ein {@link ImportJob} während des Laufs ausliest.
+ * Ein Abbruch ist kooperativ: Die Pipeline speist keine neuen Elemente mehr ein und überspringt noch nicht geladene
+ * Filme, bereits geladene werden regulär geschrieben. Gehört der Import zu einem persistierten Job, meldet die Pipeline
+ * jedes Ergebnis zusätzlich an dessen {@link ImportCheckpoint}.
+ */
+public final class ImportProgress {
+
+	final AtomicInteger imported = new AtomicInteger();
+	final AtomicInteger failed = new AtomicInteger();
+	final AtomicInteger skipped = new AtomicInteger();
+	/** Erwartete Anzahl Filme; bei Jahresimporten wächst sie mit jeder Discover-Antwort ({@code total_results}). */
+	final AtomicLong expected = new AtomicLong();
+	final LongAdder tmdbCalls = new LongAdder();
+	private volatile boolean cancelled;
+	/** Checkpoint des Jobs oder {@code null}, wenn der Import nicht fortsetzbar ist. */
+	volatile ImportCheckpoint checkpoint;
+	/** IDs, die der ID-Bereichsimport ohne Anfrage auslässt (z. B. nicht im TMDB-ID-Export); {@code null} = keine. */
+	volatile IntPredicate excluded;
+	/** Sammelt die TMDB-IDs ohne Erfolg, z. B. für einen erneuten Versuch; {@code null} = nicht sammeln. */
+	volatile Set<Integer> failedIds;
+
+	public int imported() {
+		return imported.get();
+	}
+
+	public int failed() {
+		return failed.get();
+	}
+
+	public int skipped() {
+		return skipped.get();
+	}
+
+	/** Abgeschlossene Filme (importiert, fehlgeschlagen oder unverändert). */
+	public long processed() {
+		return (long) imported.get() + failed.get() + skipped.get();
+	}
+
+	public long expected() {
+		return expected.get();
+	}
+
+	public long tmdbCalls() {
+		return tmdbCalls.sum();
+	}
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/** Erste zu importierende TMDB-ID eines ID-Bereichs ab {@code startId}. */
+	int resumeId(int startId) {
+		ImportCheckpoint cp = checkpoint;
+		return cp != null ? Math.max(startId, cp.resumeId()) : startId;
+	}
+
+	/** Erster zu durchsuchender Jahrgang ab {@code startYear}. */
+	int resumeYear(int startYear) {
+		ImportCheckpoint cp = checkpoint;
+		return cp != null ? Math.max(startYear, cp.resumeYear()) : startYear;
+	}
+
+	/** Erste zu ladende Discover-Seite eines Jahrgangs. */
+	int firstPage(int year) {
+		ImportCheckpoint cp = checkpoint;
+		return cp != null ? cp.firstPage(year) : 1;
+	}
+
+	/** Ob der ID-Bereichsimport die TMDB-ID ohne Anfrage auslässt. */
+	boolean isExcluded(int tmdbId) {
+		IntPredicate filter = excluded;
+		return filter != null && filter.test(tmdbId);
+	}
+
+	/** Ob die TMDB-ID vor einem Neustart bereits ein Ergebnis hatte. */
+	boolean isDone(int tmdbId) {
+		ImportCheckpoint cp = checkpoint;
+		return cp != null && cp.isDone(tmdbId);
+	}
+
+	void pageDiscovered(int year, int page, List<Integer> ids) {
+		ImportCheckpoint cp = checkpoint;
+		if (cp != null)
+			cp.pageDiscovered(year, page, ids);
+	}
+
+	void yearDiscovered(int year, int totalPages) {
+		ImportCheckpoint cp = checkpoint;
+		if (cp != null)
+			cp.yearDiscovered(year, totalPages);
+	}
+
+	/** Meldet das Ergebnis einer TMDB-ID an den Checkpoint und merkt sich Fehlschläge. */
+	void outcome(int tmdbId, boolean succeeded) {
+		ImportCheckpoint cp = checkpoint;
+		if (cp != null)
+			cp.outcome(tmdbId, succeeded);
+		Set<Integer> failures = failedIds;
+		if (!succeeded && failures != null)
+			failures.add(tmdbId);
+	}
+}
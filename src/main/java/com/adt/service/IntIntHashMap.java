@@ -0,0 +1,287 @@
+package com.adt.service;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kompakte Hash-Map von {@code int} auf {@code int} mit offener Adressierung (lineares Sondieren). Schlüssel und Wert
+ * liegen direkt nebeneinander in einem {@link ByteBuffer}, der wahlweise auf dem Heap, off-heap oder als
+ * Memory-Mapped-File angelegt wird; pro Eintrag fallen so nur 8 Byte (bei einem Füllgrad zwischen 0,3 und 0,6 also
+ * 13–27 Byte) an, statt rund 80 Byte bei einer {@code HashMap<Integer, Long>}.
+ * <p>
+ * Schlüssel und Werte müssen positiv sein ({@code 0} markiert freie Slots bzw. fehlende Einträge). Lesezugriffe sind
+ * lock-frei: Beim Schreiben wird zuerst der Wert und danach der Schlüssel mit Release-Semantik veröffentlicht, sodass
+ * ein Leser nie einen Schlüssel ohne zugehörigen Wert sieht. Schreibzugriffe sind über einen Lock serialisiert; eine
+ * Vergrößerung baut die Tabelle neu auf und tauscht sie atomar aus.
+ */
+public final class IntIntHashMap implements AutoCloseable {
+
+	/** Rückgabewert von {@link #get(int)} für nicht vorhandene Schlüssel. */
+	public static final int MISSING = 0;
+
+	private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+	private static final int MAGIC = 0x41445449; // "ADTI"
+	private static final int HEADER_BYTES = 32;
+	private static final int OFFSET_MAGIC = 0;
+	private static final int OFFSET_CAPACITY = 4;
+	private static final int OFFSET_SIZE = 8;
+	private static final int OFFSET_MAX_VALUE = 12;
+	private static final int SLOT_BYTES = 8;
+	private static final double MAX_LOAD = 0.6;
+	private static final int MIN_CAPACITY = 1 << 10;
+
+	/**
+	 * Speicherort der Tabelle.
+	 */
+	public enum Storage {
+		/** Gewöhnlicher Heap-Puffer. */
+		HEAP,
+		/** Direkter Puffer außerhalb des Java-Heaps. */
+		OFF_HEAP,
+		/** Memory-Mapped-File, das einen Neustart übersteht. */
+		MAPPED
+	}
+
+	private record Table(ByteBuffer buffer, int capacity) {
+	}
+
+	private final Storage storage;
+	private final Path file;
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private volatile Table table;
+
+	private IntIntHashMap(Storage storage, Path file, Table table) {
+		this.storage = storage;
+		this.file = file;
+		this.table = table;
+	}
+
+	/**
+	 * Legt eine leere Map für die erwartete Anzahl an Einträgen an.
+	 */
+	public static IntIntHashMap create(Storage storage, int expectedSize) throws IOException {
+		if (storage == Storage.MAPPED)
+			throw new IllegalArgumentException("Mapped storage requires a file, use openMapped()");
+		return new IntIntHashMap(storage, null, allocate(storage, null, capacityFor(expectedSize)));
+	}
+
+	/**
+	 * Öffnet eine persistente Map in {@code file}. Ist die Datei vorhanden und gültig, bleiben ihre Einträge erhalten,
+	 * andernfalls wird sie leer angelegt.
+	 */
+	public static IntIntHashMap openMapped(Path file, int expectedSize) throws IOException {
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		if (Files.exists(file) && Files.size(file) >= HEADER_BYTES) {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+				buffer.order(ByteOrder.nativeOrder());
+				int capacity = buffer.getInt(OFFSET_CAPACITY);
+				if (buffer.getInt(OFFSET_MAGIC) == MAGIC && Integer.bitCount(capacity) == 1
+						&& channel.size() == HEADER_BYTES + (long) capacity * SLOT_BYTES)
+					return new IntIntHashMap(Storage.MAPPED, file, new Table(buffer, capacity));
+			}
+		}
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		Table table = allocate(Storage.MAPPED, tmp, capacityFor(expectedSize));
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return new IntIntHashMap(Storage.MAPPED, file, table);
+	}
+
+	/**
+	 * Liefert den Wert zu einem Schlüssel oder {@link #MISSING}.
+	 */
+	public int get(int key) {
+		checkKey(key);
+		Table t = table;
+		int mask = t.capacity() - 1;
+		int slot = mix(key) & mask;
+		while (true) {
+			int offset = HEADER_BYTES + slot * SLOT_BYTES;
+			int k = (int) INT.getAcquire(t.buffer(), offset);
+			if (k == key)
+				return (int) INT.getAcquire(t.buffer(), offset + 4);
+			if (k == 0)
+				return MISSING;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * Fügt einen Eintrag ein oder überschreibt den Wert eines vorhandenen Schlüssels.
+	 */
+	public void put(int key, int value) {
+		checkKey(key);
+		if (value <= 0)
+			throw new IllegalArgumentException("Values must be positive: " + value);
+		writeLock.lock();
+		try {
+			Table t = table;
+			if (size(t) + 1 > t.capacity() * MAX_LOAD) {
+				t = resize(t);
+				table = t;
+			}
+			insert(t, key, value);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Anzahl der gespeicherten Einträge.
+	 */
+	public int size() {
+		return size(table);
+	}
+
+	/**
+	 * Größter jemals gespeicherter Wert.
+	 */
+	public int maxValue() {
+		return (int) INT.getAcquire(table.buffer(), OFFSET_MAX_VALUE);
+	}
+
+	/**
+	 * Belegter Speicher der Tabelle in Byte (unabhängig davon, ob Heap, off-heap oder gemappt).
+	 */
+	public long footprintBytes() {
+		return HEADER_BYTES + (long) table.capacity() * SLOT_BYTES;
+	}
+
+	/**
+	 * Speicherort der Tabelle.
+	 */
+	public Storage storage() {
+		return storage;
+	}
+
+	/**
+	 * Entfernt alle Einträge, z. B. bevor eine veraltete persistierte Tabelle neu befüllt wird.
+	 */
+	public void clear() throws IOException {
+		writeLock.lock();
+		try {
+			Table fresh = storage == Storage.MAPPED
+					? allocate(storage, file.resolveSibling(file.getFileName() + ".tmp"), MIN_CAPACITY)
+					: allocate(storage, null, MIN_CAPACITY);
+			if (storage == Storage.MAPPED)
+				Files.move(file.resolveSibling(file.getFileName() + ".tmp"), file,
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			table = fresh;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Schreibt eine gemappte Tabelle auf den Datenträger zurück.
+	 */
+	@Override
+	public void close() {
+		if (table.buffer() instanceof MappedByteBuffer mapped)
+			mapped.force();
+	}
+
+	private static void insert(Table t, int key, int value) {
+		int mask = t.capacity() - 1;
+		int slot = mix(key) & mask;
+		while (true) {
+			int offset = HEADER_BYTES + slot * SLOT_BYTES;
+			int k = (int) INT.getAcquire(t.buffer(), offset);
+			if (k == key) {
+				INT.setRelease(t.buffer(), offset + 4, value);
+				break;
+			}
+			if (k == 0) {
+				INT.setRelease(t.buffer(), offset + 4, value);
+				INT.setRelease(t.buffer(), offset, key);
+				INT.setRelease(t.buffer(), OFFSET_SIZE, size(t) + 1);
+				break;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (value > (int) INT.getAcquire(t.buffer(), OFFSET_MAX_VALUE))
+			INT.setRelease(t.buffer(), OFFSET_MAX_VALUE, value);
+	}
+
+	private Table resize(Table old) {
+		try {
+			int capacity = old.capacity() << 1;
+			Path target = storage == Storage.MAPPED ? file.resolveSibling(file.getFileName() + ".tmp") : null;
+			Table grown = allocate(storage, target, capacity);
+			for (int slot = 0; slot < old.capacity(); slot++) {
+				int offset = HEADER_BYTES + slot * SLOT_BYTES;
+				int k = (int) INT.getAcquire(old.buffer(), offset);
+				if (k != 0)
+					insert(grown, k, (int) INT.getAcquire(old.buffer(), offset + 4));
+			}
+			if (storage == Storage.MAPPED) {
+				((MappedByteBuffer) grown.buffer()).force();
+				Files.move(target, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			return grown;
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to grow id map " + file, e);
+		}
+	}
+
+	private static Table allocate(Storage storage, Path target, int capacity) throws IOException {
+		long bytes = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+		if (bytes > Integer.MAX_VALUE)
+			throw new IllegalStateException("Id map exceeds 2 GiB: " + capacity + " slots");
+		ByteBuffer buffer = switch (storage) {
+			case HEAP -> ByteBuffer.allocate((int) bytes);
+			case OFF_HEAP -> ByteBuffer.allocateDirect((int) bytes);
+			case MAPPED -> {
+				Files.deleteIfExists(target);
+				try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+						StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+					yield channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+				}
+			}
+		};
+		buffer.order(ByteOrder.nativeOrder());
+		buffer.putInt(OFFSET_MAGIC, MAGIC);
+		buffer.putInt(OFFSET_CAPACITY, capacity);
+		return new Table(buffer, capacity);
+	}
+
+	private static int size(Table t) {
+		return (int) INT.getAcquire(t.buffer(), OFFSET_SIZE);
+	}
+
+	private static int capacityFor(int expectedSize) {
+		long needed = (long) Math.ceil(Math.max(1, expectedSize) / MAX_LOAD);
+		int capacity = MIN_CAPACITY;
+		while (capacity < needed)
+			capacity <<= 1;
+		return capacity;
+	}
+
+	private static void checkKey(int key) {
+		if (key <= 0)
+			throw new IllegalArgumentException("Keys must be positive: " + key);
+	}
+
+	/**
+	 * Finalizer-Mix von MurmurHash3, damit fortlaufende TMDB-IDs gleichmäßig über die Slots verteilt werden.
+	 */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+}
@@ -0,0 +1,216 @@
+package com.adt.service;
+
+import static com.adt.service.MovieImportService.blankToNull;
+import static com.adt.service.MovieImportService.normalizeIso2;
+import static com.adt.service.MovieImportService.toSqlDate;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Das vollständige Dokument eines Films für {@link PersistenceEngine#JSONB}: Stammdaten, Studios, Watch-Provider,
+ * zu schreibende Personen und alle Relationen als ein JSON-Objekt, das die Datenbankfunktion {@code import_movie}
+ * in einem Aufruf schreibt (Migration V7). Referenzdaten sind wie beim COPY-Import bereits über den
+ * {@link ReferenceDataResolver} als IDs aufgelöst; Studios, Provider und Personen werden über ihre TMDB-IDs verknüpft.
+ */
+final class MovieDocument {
+
+	private static final String[] MOVIE = { "tmdb_id", "imdb_id", "title", "original_title", "original_language",
+			"adult", "video", "status", "release_date", "budget", "revenue", "runtime", "homepage", "overview",
+			"popularity", "vote_average", "vote_count", "tagline", "content_hash" };
+
+	/**
+	 * Abschnitte des Dokuments mit ihren Feldern. Die ersten {@code uniqueColumns} Felder bilden den Schlüssel, unter
+	 * dem wie beim {@link RelationWriter} der zuletzt übergebene Eintrag gewinnt; {@code 0} erlaubt Duplikate.
+	 */
+	enum Section {
+		COMPANIES("companies", 1, "tmdb_id", "name", "origin_country"),
+		PROVIDERS("providers", 2, "tmdb_id", "region", "name", "logo_path", "display_priority"),
+		PERSONS("persons", 1, "tmdb_id", "imdb_id", "name", "gender", "known_for_department", "biography", "birthday",
+				"deathday", "place_of_birth", "homepage", "adult", "popularity", "content_hash", "aliases"),
+		GENRES("genres", 1, "genre_id"),
+		SPOKEN_LANGUAGES("spoken_languages", 1, "iso_639_1"),
+		COUNTRIES("countries", 2, "iso_3166_1", "country_type_id"),
+		TITLES("titles", 0, "iso_3166_1", "title", "type"),
+		WATCH_PROVIDERS("watch_providers", 3, "provider_tmdb_id", "region", "type", "link"),
+		CAST("cast", 2, "person_tmdb_id", "character_name", "cast_order"),
+		CREW("crew", 2, "person_tmdb_id", "job_id");
+
+		final String name;
+		final int uniqueColumns;
+		final String[] fields;
+
+		Section(String name, int uniqueColumns, String... fields) {
+			this.name = name;
+			this.uniqueColumns = uniqueColumns;
+			this.fields = fields;
+		}
+	}
+
+	private final Object[] movie;
+	private final Map<Section, Map<Object, Object[]>> sections = new EnumMap<>(Section.class);
+
+	private MovieDocument(Object[] movie) {
+		this.movie = movie;
+		for (Section section : Section.values())
+			sections.put(section, new LinkedHashMap<>());
+	}
+
+	/**
+	 * Baut das Dokument eines geladenen Films. Die Auswahl der zu schreibenden Personen entspricht dem JDBC-Pfad:
+	 * Personen aus {@code knownPersons} (frisch oder unverändert) und ohne neue Details bereits im
+	 * {@link EntityIdIndex} stehende Personen werden nur verknüpft, nicht geschrieben.
+	 */
+	static MovieDocument of(MovieImportService.FetchedMovie fetched, Map<Integer, Long> knownPersons,
+			ReferenceDataResolver referenceData, EntityIdIndex idIndex, Long productionTypeId) throws SQLException {
+		TmdbMovie m = fetched.movie();
+		MovieDocument doc = new MovieDocument(new Object[] { m.tmdbId(), m.imdbId(), m.title(), m.originalTitle(),
+				m.originalLanguage(), m.adult(), m.video(), m.status(), toSqlDate(m.releaseDate()), m.budget(),
+				m.revenue(), m.runtime(), m.homepage(), m.overview(), m.popularity(), m.voteAverage(), m.voteCount(),
+				m.tagline(), m.contentHash() });
+
+		for (TmdbMovie.Genre g : m.genres()) {
+			Long genreId = referenceData.genreId(g.tmdbId(), g.name());
+			if (genreId != null)
+				doc.add(Section.GENRES, genreId);
+		}
+		for (TmdbMovie.SpokenLanguage l : m.spokenLanguages()) {
+			if (l.iso() != null)
+				doc.add(Section.SPOKEN_LANGUAGES, l.iso());
+		}
+		for (TmdbMovie.Country pc : m.productionCountries()) {
+			String iso = normalizeIso2(pc.iso());
+			if (iso != null && productionTypeId != null)
+				doc.add(Section.COUNTRIES, iso, productionTypeId);
+		}
+		for (TmdbMovie.Company pc : m.productionCompanies())
+			doc.add(Section.COMPANIES, pc.tmdbId(), pc.name(), normalizeIso2(blankToNull(pc.originCountry())));
+		for (TmdbMovie.AlternativeTitle t : m.alternativeTitles()) {
+			String iso = normalizeIso2(t.iso());
+			if (iso != null)
+				doc.add(Section.TITLES, iso, blankToNull(t.title()), blankToNull(t.type()));
+		}
+		for (TmdbMovie.WatchProvider wp : m.watchProviders()) {
+			String region = normalizeIso2(wp.region());
+			if (region == null)
+				continue;
+			doc.add(Section.PROVIDERS, wp.providerTmdbId(), region, wp.name(), blankToNull(wp.logoPath()),
+					wp.displayPriority());
+			doc.add(Section.WATCH_PROVIDERS, wp.providerTmdbId(), region, wp.type(), blankToNull(wp.link()));
+		}
+
+		for (TmdbMovie.Cast member : m.cast()) {
+			doc.person(fetched, member, knownPersons, referenceData, idIndex);
+			doc.add(Section.CAST, member.personTmdbId(), blankToNull(member.character()), member.order());
+		}
+		for (TmdbMovie.Crew member : m.crew()) {
+			String departmentName = blankToNull(member.department());
+			String jobName = blankToNull(member.job());
+			if (departmentName == null || jobName == null)
+				continue;
+			Long jobId = referenceData.jobId(referenceData.departmentId(departmentName), jobName);
+			if (jobId == null)
+				continue;
+			doc.person(fetched, member, knownPersons, referenceData, idIndex);
+			doc.add(Section.CREW, member.personTmdbId(), jobId);
+		}
+		return doc;
+	}
+
+	/**
+	 * Nimmt eine Person auf, sofern sie nicht bekannt ist und entweder neue Details hat oder noch nicht existiert.
+	 * Personen mit Details erhalten das Feld {@code aliases}, dessen Inhalt die vorhandenen Aliasse ersetzt.
+	 */
+	private void person(MovieImportService.FetchedMovie fetched, TmdbMovie.Credit credit,
+			Map<Integer, Long> knownPersons, ReferenceDataResolver referenceData, EntityIdIndex idIndex)
+			throws SQLException {
+		int tmdbId = credit.personTmdbId();
+		if (knownPersons.containsKey(tmdbId) || sections.get(Section.PERSONS).containsKey(List.of(tmdbId)))
+			return;
+		TmdbPerson detail = fetched.personDetails().get(tmdbId);
+		if (detail == null && idIndex.personId(tmdbId) != null)
+			return;
+
+		MovieImportService.PersonValues p = MovieImportService.PersonValues.of(credit, detail);
+		add(Section.PERSONS, tmdbId, p.imdbId(), p.name(), p.gender(),
+				referenceData.departmentId(p.knownForDepartment()), p.biography(), p.birthday(), p.deathday(),
+				p.placeOfBirth(), p.homepage(), p.adult(), p.popularity(),
+				detail != null ? detail.contentHash() : null,
+				detail != null ? detail.aliases().stream().map(MovieImportService::blankToNull)
+						.filter(Objects::nonNull).toList() : null);
+	}
+
+	private void add(Section section, Object... values) {
+		Map<Object, Object[]> rows = sections.get(section);
+		Object key = section.uniqueColumns == 0 ? rows.size() : keyOf(section, values);
+		rows.put(key, values);
+	}
+
+	private static List<Object> keyOf(Section section, Object... values) {
+		List<Object> key = new ArrayList<>(section.uniqueColumns);
+		for (int i = 0; i < section.uniqueColumns; i++)
+			key.add(values[i]);
+		return key;
+	}
+
+	/**
+	 * Serialisiert das Dokument; Datumswerte als ISO-Datum, Ganzzahlen und Dezimalwerte als JSON-Zahlen.
+	 */
+	String toJson() {
+		StringWriter out = new StringWriter();
+		try (JsonGenerator json = Json.createGenerator(out)) {
+			json.writeStartObject();
+			json.writeStartObject("movie");
+			for (int i = 0; i < MOVIE.length; i++)
+				write(json, MOVIE[i], movie[i]);
+			json.writeEnd();
+			for (Section section : Section.values()) {
+				json.writeStartArray(section.name);
+				for (Object[] row : sections.get(section).values()) {
+					json.writeStartObject();
+					for (int i = 0; i < section.fields.length; i++) {
+						if (row[i] != null)
+							write(json, section.fields[i], row[i]);
+					}
+					json.writeEnd();
+				}
+				json.writeEnd();
+			}
+			json.writeEnd();
+		}
+		return out.toString();
+	}
+
+	private static void write(JsonGenerator json, String name, Object value) {
+		if (value == null) {
+			json.writeNull(name);
+		} else if (value instanceof String s) {
+			json.write(name, s);
+		} else if (value instanceof Integer i) {
+			json.write(name, i);
+		} else if (value instanceof Long l) {
+			json.write(name, l);
+		} else if (value instanceof BigDecimal d) {
+			json.write(name, d);
+		} else if (value instanceof Boolean b) {
+			json.write(name, b);
+		} else if (value instanceof List<?> list) {
+			json.writeStartArray(name);
+			for (Object element : list)
+				json.write(element.toString());
+			json.writeEnd();
+		} else {
+			json.write(name, value.toString());
+		}
+	}
+}
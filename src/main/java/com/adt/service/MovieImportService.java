@@ -1,31 +1,39 @@
 package com.adt.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Types;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 import jakarta.annotation.PostConstruct;
@@ -34,15 +42,20 @@ import jakarta.inject.Inject;
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonObject;
-import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 
 import javax.sql.DataSource;
 
 import com.adt.entity.dto.ImportStatsDTO;
+import com.adt.entity.dto.TableThroughputDTO;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -57,49 +70,157 @@ public class MovieImportService {
 	@Inject
 	DataSource ds;
 
-	private static final Duration MAX_RETRY_WAIT = Duration.ofSeconds(10);
+	@Inject
+	MeterRegistry meterRegistry;
+
+	@Inject
+	PersonCache personCache;
+
+	@Inject
+	ReferenceDataResolver referenceData;
+
+	@Inject
+	EntityIdIndex idIndex;
+
+	@Inject
+	TmdbRateLimiter rateLimiter;
+
+	@Inject
+	PersonEnrichmentQueue enrichmentQueue;
+
+	@Inject
+	TmdbRequestCoalescer coalescer;
+
+	@Inject
+	AdaptiveConcurrencyLimiter fetchLimiter;
+
+	@Inject
+	TmdbCircuitBreaker circuitBreaker;
+
+	@Inject
+	TmdbHedging hedging;
+
+	@Inject
+	TmdbIdExport idExport;
 
+	@Inject
+	TmdbMissingIds missingIds;
+
+	private static final String PRODUCTION_COUNTRY_TYPE = "production";
+
+	/** Zeitlimit eines einzelnen Requests einschließlich Lesen des Bodys. */
+	private static final Duration CALL_TIMEOUT = Duration.ofSeconds(10);
+
+	/**
+	 * Asynchrone (gehedgte) Calls laufen auf virtuellen Threads; die Parallelität begrenzen Rate-Limiter und
+	 * {@link AdaptiveConcurrencyLimiter}, nicht die Standardgrenzen des Dispatchers (5 Requests je Host).
+	 */
 	private final OkHttpClient http = new OkHttpClient.Builder()
-			.callTimeout(MAX_RETRY_WAIT)
+			.callTimeout(CALL_TIMEOUT)
+			.dispatcher(unboundedDispatcher())
 			.build();
 
-	@ConfigProperty(name = "adt.import.max-concurrency", defaultValue = "10")
-	int maxConcurrentImports;
-	private Semaphore importSemaphore;
+	private static Dispatcher unboundedDispatcher() {
+		Dispatcher dispatcher = new Dispatcher(Executors.newVirtualThreadPerTaskExecutor());
+		dispatcher.setMaxRequests(Integer.MAX_VALUE);
+		dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+		return dispatcher;
+	}
+
+	private static final String STAGE_DISCOVER = "discover";
+	private static final String STAGE_FETCH = "fetch";
+	private static final String STAGE_TRANSFORM = "transform";
+	private static final String STAGE_PERSIST = "persist";
+
+	/**
+	 * Ergänzt einen No-op-fähigen Upsert ({@code ON CONFLICT ... DO UPDATE ... WHERE ... IS DISTINCT FROM ...}) um die
+	 * ID der unverändert gebliebenen Zeile: Ohne tatsächliche Änderung schreibt PostgreSQL keine neue Tupelversion,
+	 * liefert aber auch keine Zeile über {@code RETURNING}. Platzhalter: Tabelle, Schlüsselbedingung.
+	 */
+	private static final String UNCHANGED_ID = "SELECT id FROM upserted UNION ALL SELECT id FROM %s WHERE %s LIMIT 1";
+
+	@ConfigProperty(name = "adt.import.pipeline.discover-concurrency", defaultValue = "2")
+	int discoverConcurrency;
+
+	@ConfigProperty(name = "adt.import.pipeline.fetch-concurrency")
+	Optional<Integer> fetchConcurrency;
+
+	@ConfigProperty(name = "adt.import.pipeline.transform-concurrency", defaultValue = "4")
+	int transformConcurrency;
+
+	@ConfigProperty(name = "adt.import.pipeline.persist-concurrency", defaultValue = "8")
+	int persistConcurrency;
+
+	@ConfigProperty(name = "adt.import.pipeline.queue-capacity", defaultValue = "100")
+	int queueCapacity;
+
+	/** Anzahl Filme, die gemeinsam in einer Transaktion geschrieben werden ({@code 1} = eine Transaktion pro Film). */
+	@ConfigProperty(name = "adt.import.persist.group-size", defaultValue = "1")
+	int persistGroupSize;
+
+	/** Maximale Wartezeit, bis eine unvollständige Schreibgruppe trotzdem geschrieben wird. */
+	@ConfigProperty(name = "adt.import.persist.max-wait", defaultValue = "PT0.2S")
+	Duration persistMaxWait;
+
+	/** Anzahl paralleler COPY-Streams im Bulk-Modus ({@link PersistenceEngine#COPY}). */
+	@ConfigProperty(name = "adt.import.copy.streams", defaultValue = "4")
+	int copyStreams;
+
+	/** Anzahl Filme, deren Zeilen gemeinsam in einem COPY-Durchlauf bereitgestellt werden. */
+	@ConfigProperty(name = "adt.import.copy.group-size", defaultValue = "500")
+	int copyGroupSize;
+
+	/** Anzahl der Cast-Mitglieder je Film (nach {@code order}), deren Personendetails geladen werden; negativ = alle. */
+	@ConfigProperty(name = "adt.import.credits.detail-cast-limit", defaultValue = "-1")
+	int detailCastLimit;
+
+	/** Crew-Jobs, deren Personendetails geladen werden, kommagetrennt ({@code *} = alle). */
+	@ConfigProperty(name = "adt.import.credits.detail-crew-jobs", defaultValue = "*")
+	String detailCrewJobs;
+
+	/**
+	 * Gesamtdauer, innerhalb derer ein TMDB-Request wiederholt wird. Wartezeiten bei offenem {@link TmdbCircuitBreaker}
+	 * zählen nicht mit.
+	 */
+	@ConfigProperty(name = "adt.tmdb.retry-budget", defaultValue = "PT30S")
+	Duration retryBudget;
+
+	/** Basis-URL der TMDB-API, z. B. für einen lokalen TMDB-Stand-in in Tests. */
+	@ConfigProperty(name = "adt.tmdb.base-url", defaultValue = "https://api.themoviedb.org/3")
+	String tmdbBaseUrl;
+
+	/** Personendetails standardmäßig über die {@link PersonEnrichmentQueue} nachladen statt während des Imports. */
+	@ConfigProperty(name = "adt.import.enrichment.deferred", defaultValue = "false")
+	boolean deferEnrichment;
+
+	private Timer connectionHoldTimer;
+	private DistributionSummary callsPerMovie;
+	private Counter rateLimitRefreshFailed;
+	private final Map<String, ImportPipeline.StageMetrics> stageMetrics = new HashMap<>();
 
 	@PostConstruct
-	void initSemaphore() {
-		int permits = Math.max(1, maxConcurrentImports);
-		importSemaphore = new Semaphore(permits);
+	void registerMetrics() {
+		connectionHoldTimer = Timer.builder("adt.import.connection.hold")
+				.description("Dauer, für die ein Film-Import eine Pool-Connection belegt")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry);
+		callsPerMovie = DistributionSummary.builder("adt.import.tmdb.calls.per.movie")
+				.description("TMDB-Aufrufe je importiertem Film (Film-Response plus Personendetails)")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry);
+		rateLimitRefreshFailed = Counter.builder("adt.tmdb.rate_limit.refresh.failed")
+				.description("Fehlgeschlagene Abfragen des TMDB-Ratenlimits (das bisherige Limit bleibt bestehen)")
+				.register(meterRegistry);
+		for (String stage : List.of(STAGE_DISCOVER, STAGE_FETCH, STAGE_TRANSFORM, STAGE_PERSIST))
+			stageMetrics.put(stage, ImportPipeline.StageMetrics.register(meterRegistry, stage));
 	}
 
-	private static final long DEFAULT_CALL_INTERVAL_NANOS = 1_000_000_000L / 50; // 50 calls per second
-	private final AtomicLong callIntervalNanos = new AtomicLong(
-			DEFAULT_CALL_INTERVAL_NANOS);
-	private final Object rateLimitLock = new Object();
-	private long lastApiCallTime = 0L;
-
 	/**
-	 * Wartet bei Bedarf, um die aus den TMDB-Headern abgeleiteten Ratenlimit-Vorgaben einzuhalten.
+	 * Wartet bei Bedarf, um die aus den TMDB-Headern abgeleiteten Ratenlimit-Vorgaben einzuhalten. Die Wartezeit wird
+	 * vom lock-freien {@link TmdbRateLimiter} reserviert, sodass virtuelle Threads nicht gepinnt werden.
 	 */
 	private void awaitRateLimit() {
-		synchronized (rateLimitLock) {
-			long now = System.nanoTime();
-			long earliestNextCall = lastApiCallTime + callIntervalNanos.get();
-			if (earliestNextCall > now) {
-				long waitNanos = earliestNextCall - now;
-				long millis = waitNanos / 1_000_000L;
-				int nanos = (int) (waitNanos % 1_000_000L);
-				try {
-					Thread.sleep(millis, nanos);
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					throw new RuntimeException("Interrupted while waiting for API rate limit", e);
-				}
-				now = System.nanoTime();
-			}
-			lastApiCallTime = Math.max(now, earliestNextCall);
-		}
+		rateLimiter.acquire();
 	}
 
 	/**
@@ -116,37 +237,90 @@ public class MovieImportService {
 	// ============================================================
 	// Hauptmethoden (werden vom Resource-Endpoint aufgerufen)
 	// ============================================================
+	/**
+	 * Bildet die Detailtiefe eines Imports: Angaben aus dem Request haben Vorrang vor
+	 * {@code adt.import.credits.detail-cast-limit}, {@code adt.import.credits.detail-crew-jobs} und
+	 * {@code adt.import.enrichment.deferred}.
+	 *
+	 * @param castLimit
+	 *     Anzahl der Cast-Mitglieder mit Detailabruf (negativ = alle) oder {@code null}
+	 * @param crewJobs
+	 *     kommagetrennte Crew-Jobs mit Detailabruf ({@code *} = alle) oder {@code null}
+	 * @param deferred
+	 *     Details über die Enrichment-Queue nachladen oder {@code null}
+	 */
+	public CreditDepth creditDepth(Integer castLimit, String crewJobs, Boolean deferred) {
+		return new CreditDepth(castLimit != null ? castLimit : detailCastLimit,
+				CreditDepth.parseJobs(crewJobs != null ? crewJobs : detailCrewJobs),
+				deferred != null ? deferred : deferEnrichment);
+	}
+
 	/**
 	 * Importiert eine durch TMDB-IDs definierte Reihe von Filmen, sammelt dabei Erfolgs- und Fehlerzähler und misst die
-	 * Laufzeit.
+	 * Laufzeit. Ist ein {@link TmdbIdExport} geladen, werden nur IDs angefragt, die im Export stehen oder neuer sind;
+	 * IDs im Negativ-Cache {@link TmdbMissingIds} werden ohne Anfrage übersprungen.
+	 */
+	public ImportStatsDTO importMovieRangeWithStats(int startId, int endId, PersistenceEngine engine,
+			CreditDepth depth) {
+		return importMovieRangeWithStats(startId, endId, engine, depth, new ImportProgress());
+	}
+
+	/**
+	 * Wie {@link #importMovieRangeWithStats(int, int, PersistenceEngine, CreditDepth)}, schreibt die Zähler aber
+	 * laufend in {@code progress} fort und bricht ab, sobald {@link ImportProgress#cancel()} aufgerufen wird. Ein
+	 * fortgesetzter Job beginnt hinter seinem Checkpoint und überspringt IDs, die bereits ein Ergebnis haben.
 	 */
-	public ImportStatsDTO importMovieRangeWithStats(int startId, int endId) {
+	public ImportStatsDTO importMovieRangeWithStats(int startId, int endId, PersistenceEngine engine,
+			CreditDepth depth, ImportProgress progress) {
+		if (startId < 1) {
+			throw new IllegalArgumentException("Parameter 'startId' must be >= 1");
+		}
 		if (endId < startId) {
 			throw new IllegalArgumentException("Parameter 'endId' must be >= 'startId'");
 		}
 
 		refreshApiRateLimit();
-		refreshMovieGenres();
-
-		AtomicInteger imported = new AtomicInteger();
-		AtomicInteger failed = new AtomicInteger();
-		long start = System.currentTimeMillis();
-
-		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			List<? extends Future<?>> tasks = IntStream.rangeClosed(startId, endId)
-					.mapToObj(id -> submitImportTask(id, executor, imported, failed))
-					.toList();
-			waitForTasks((Collection<Future<?>>) tasks);
+		if (!referenceData.genresSynchronized())
+			refreshMovieGenres();
+
+		int firstId = progress.resumeId(startId);
+		TmdbIdExport.Snapshot export = idExport.snapshot();
+		Iterable<Integer> ids;
+		if (export != null) {
+			progress.excluded = tmdbId -> export.excludes(tmdbId) || missingIds.contains(tmdbId);
+			progress.expected.set(export.count(startId, endId));
+			idExport.callsAvoided((long) endId - firstId + 1 - export.count(firstId, endId));
+			ids = () -> export.ids(firstId, endId);
+		} else {
+			progress.excluded = missingIds::contains;
+			progress.expected.set(endId - startId + 1L);
+			ids = () -> IntStream.rangeClosed(firstId, endId).iterator();
 		}
-
-		long duration = System.currentTimeMillis() - start;
-		return new ImportStatsDTO(imported.get(), failed.get(), duration);
+		return runPipeline(ids, (Integer tmdbId, ImportPipeline.Emitter<Integer> out) -> {
+			if (progress.isDone(tmdbId))
+				return;
+			if (missingIds.skip(tmdbId))
+				progress.expected.decrementAndGet();
+			else
+				out.emit(tmdbId);
+		}, progress, engine, depth);
 	}
 
 	/**
 	 * Durchsucht die TMDB-Discover-API nach Filmen in einem Veröffentlichungsjahresbereich und importiert alle Treffer.
 	 */
-	public ImportStatsDTO importMoviesForYearRange(int startYear, int endYear) {
+	public ImportStatsDTO importMoviesForYearRange(int startYear, int endYear, PersistenceEngine engine,
+			CreditDepth depth) {
+		return importMoviesForYearRange(startYear, endYear, engine, depth, new ImportProgress());
+	}
+
+	/**
+	 * Wie {@link #importMoviesForYearRange(int, int, PersistenceEngine, CreditDepth)}, schreibt die Zähler aber
+	 * laufend in {@code progress} fort und bricht ab, sobald {@link ImportProgress#cancel()} aufgerufen wird. Ein
+	 * fortgesetzter Job beginnt an der Discover-Seite seines Checkpoints.
+	 */
+	public ImportStatsDTO importMoviesForYearRange(int startYear, int endYear, PersistenceEngine engine,
+			CreditDepth depth, ImportProgress progress) {
 		if (startYear <= 0 || endYear <= 0) {
 			throw new IllegalArgumentException("Parameters 'startYear' and 'endYear' must be positive");
 		}
@@ -164,116 +338,281 @@ public class MovieImportService {
 		}
 
 		refreshApiRateLimit();
-		refreshMovieGenres();
+		if (!referenceData.genresSynchronized())
+			refreshMovieGenres();
+
+		int firstYear = progress.resumeYear(effectiveStartYear);
+		Iterable<Integer> years = () -> IntStream.rangeClosed(firstYear, effectiveEndYear).iterator();
+		return runPipeline(years,
+				(Integer year, ImportPipeline.Emitter<Integer> out) -> discoverYear(year, out, progress),
+				progress, engine, depth);
+	}
 
-		AtomicInteger imported = new AtomicInteger();
-		AtomicInteger failed = new AtomicInteger();
+	/**
+	 * Importiert eine Liste einzelner TMDB-IDs über dieselbe Pipeline wie der ID-Bereich, z. B. die geänderten Filme
+	 * aus dem TMDB-Änderungsfeed.
+	 */
+	public ImportStatsDTO importMovies(Collection<Integer> tmdbIds, PersistenceEngine engine, CreditDepth depth) {
+		return importMovies(tmdbIds, engine, depth, new ImportProgress());
+	}
+
+	/**
+	 * Wie {@link #importMovies(Collection, PersistenceEngine, CreditDepth)}, schreibt die Zähler aber in
+	 * {@code progress} fort, etwa um die fehlgeschlagenen IDs einzusammeln.
+	 */
+	public ImportStatsDTO importMovies(Collection<Integer> tmdbIds, PersistenceEngine engine, CreditDepth depth,
+			ImportProgress progress) {
+		refreshApiRateLimit();
+		if (!referenceData.genresSynchronized())
+			refreshMovieGenres();
+
+		progress.expected.set(tmdbIds.size());
+		return runPipeline(List.copyOf(tmdbIds),
+				(Integer tmdbId, ImportPipeline.Emitter<Integer> out) -> out.emit(tmdbId), progress, engine, depth);
+	}
+
+	/**
+	 * Führt einen Import als gestufte Pipeline aus: Discover → Fetch (TMDB-Aufrufe inkl. Streaming-Parsing) →
+	 * Transform (Auflösung der Stammdaten) → Persist (Schreibtransaktion). Jede Stufe hat eine eigene Parallelität und
+	 * eine begrenzte Eingangs-Queue, sodass HTTP-Budget und DB-Pool unabhängig voneinander dimensioniert werden. Die
+	 * Persist-Stufe schreibt jeweils bis zu {@code adt.import.persist.group-size} Filme in einer Transaktion; mit
+	 * {@link PersistenceEngine#COPY} stellt sie die Zeilen stattdessen per {@code COPY} in Staging-Tabellen bereit, die
+	 * nach dem Durchlauf in einem mengenbasierten Merge übernommen werden.
+	 *
+	 * @param source
+	 *     Eingabe der Discover-Stufe (TMDB-IDs oder Jahrgänge)
+	 * @param discover
+	 *     erzeugt aus einem Eingabeelement die zu importierenden TMDB-IDs
+	 * @param progress
+	 *     laufende Zähler (auch die Discover-Stufe erhöht den Fehlerzähler) und Abbruchsignal; nach einem Abbruch
+	 *     werden keine weiteren Elemente eingespeist und noch nicht geladene Filme übersprungen
+	 * @param engine
+	 *     Schreibverfahren der Persist-Stufe
+	 * @param depth
+	 *     Personen, deren Details die Fetch-Stufe lädt
+	 */
+	private ImportStatsDTO runPipeline(Iterable<Integer> source,
+			ImportPipeline.StageFunction<Integer, Integer> discover, ImportProgress progress, PersistenceEngine engine,
+			CreditDepth depth) {
+		AtomicInteger imported = progress.imported;
+		AtomicInteger failed = progress.failed;
+		AtomicInteger skipped = progress.skipped;
+		RelationWriter.Totals relationChanges = new RelationWriter.Totals();
+		Set<Integer> stagedDeferred = ConcurrentHashMap.newKeySet();
+		// im COPY-Modus stehen die Ergebnisse erst mit dem Merge fest
+		Set<Integer> stagedIds = ConcurrentHashMap.newKeySet();
 		long start = System.currentTimeMillis();
 
+		CopyBulkLoad bulk;
+		try {
+			bulk = engine == PersistenceEngine.COPY ? CopyBulkLoad.open(ds, referenceData, idIndex, personCache) : null;
+		} catch (SQLException e) {
+			throw new RuntimeException("Failed to open bulk load", e);
+		}
+
 		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-			List<Future<?>> tasks = new ArrayList<>();
-
-			for (int year = startYear; year <= endYear; year++) {
-				int page = 1;
-				int totalPages = 1;
-				do {
-					try {
-						HttpUrl url = Objects
-								.requireNonNull(HttpUrl.parse("https://api.themoviedb.org/3/discover/movie"))
-								.newBuilder()
-								.addQueryParameter("language", "en-US")
-								.addQueryParameter("sort_by", "primary_release_date.asc")
-								.addQueryParameter("include_adult", "false")
-								.addQueryParameter("include_video", "false")
-								.addQueryParameter("with_release_type", "1|2|3|4|5|6|7")
-								.addQueryParameter("primary_release_date.gte", year + "-01-01")
-								.addQueryParameter("primary_release_date.lte", year + "-12-31")
-								.addQueryParameter("page", String.valueOf(page))
-								.build();
-
-						JsonObject response = getJson(url.toString());
-						if (response == null) {
-							break;
-						}
-
-						totalPages = response.getInt("total_pages", 1);
-						JsonArray results = response.getJsonArray("results");
-						if (results != null) {
-							for (JsonValue value : results) {
-								JsonObject movie = value.asJsonObject();
-								int tmdbId = movie.getInt("id");
-								tasks.add(submitImportTask(tmdbId, executor, imported, failed));
-							}
-						}
-					} catch (Exception e) {
-						failed.incrementAndGet();
-						System.err.println(
-								"❌ Discover request failed for year " + year + ", page " + page + ": "
-										+ e.getMessage());
+			new ImportPipeline(executor, queueCapacity, (stage, item, e) -> {
+				List<?> items = item instanceof List<?> group ? group : List.of(item);
+				for (Object element : items) {
+					failed.incrementAndGet();
+					if (element instanceof FetchedMovie fetched) {
+						progress.outcome(fetched.movie().tmdbId(), false);
+						System.err.println("❌ Import failed for TMDB id " + fetched.movie().tmdbId() + " (" + stage
+								+ "): " + e.getMessage());
+					} else if (STAGE_DISCOVER.equals(stage)) {
+						System.err.println("❌ Discover failed for " + element + ": " + e.getMessage());
+					} else {
+						progress.outcome((Integer) element, false);
+						System.err.println("❌ Import failed for TMDB id " + element + " (" + stage + "): "
+								+ e.getMessage());
 					}
-					page++;
-				} while (page <= totalPages);
-			}
+				}
+			})
+					.stage(STAGE_DISCOVER, discoverConcurrency, stageMetrics.get(STAGE_DISCOVER), discover)
+					.stage(STAGE_FETCH, fetchConcurrency.orElse(fetchLimiter.maxLimit()), stageMetrics.get(STAGE_FETCH),
+							(Integer tmdbId, ImportPipeline.Emitter<FetchedMovie> out) -> {
+								if (progress.isCancelled())
+									return;
+								FetchedMovie fetched = fetchLimited(tmdbId, depth, progress);
+								if (fetched == null) {
+									failed.incrementAndGet();
+									missingIds.record(tmdbId);
+									progress.outcome(tmdbId, false);
+								} else
+									out.emit(fetched);
+							})
+					.stage(STAGE_TRANSFORM, transformConcurrency, stageMetrics.get(STAGE_TRANSFORM),
+							(FetchedMovie fetched, ImportPipeline.Emitter<FetchedMovie> out) -> {
+								resolveReferenceData(fetched.movie(), fetched.personDetails());
+								out.emit(fetched);
+							})
+					.groupStage(STAGE_PERSIST, bulk != null ? copyStreams : persistConcurrency,
+							bulk != null ? copyGroupSize : persistGroupSize, persistMaxWait,
+							stageMetrics.get(STAGE_PERSIST),
+							(List<FetchedMovie> group, ImportPipeline.Emitter<Void> out) -> {
+								if (bulk == null) {
+									imported.addAndGet(
+											persistGroup(group, engine, failed, skipped, relationChanges, progress));
+									return;
+								}
+								int staged = bulk.stage(group, failed);
+								for (FetchedMovie fetched : group) {
+									if (staged > 0) {
+										stagedDeferred.addAll(fetched.deferredPersons());
+										stagedIds.add(fetched.movie().tmdbId());
+									} else {
+										progress.outcome(fetched.movie().tmdbId(), false);
+									}
+								}
+								imported.addAndGet(staged);
+							})
+					.run(untilCancelled(source, progress));
+		} catch (RuntimeException e) {
+			if (bulk != null)
+				bulk.clearStaging();
+			throw e;
+		}
 
-			waitForTasks(tasks);
+		List<TableThroughputDTO> tables = null;
+		if (bulk != null) {
+			try {
+				tables = bulk.merge();
+				enqueueDeferredPersons(stagedDeferred);
+				stagedIds.forEach(tmdbId -> progress.outcome(tmdbId, true));
+			} catch (SQLException e) {
+				System.err.println("❌ Bulk merge failed, " + imported.get() + " staged movies discarded: "
+						+ e.getMessage());
+				failed.addAndGet(imported.getAndSet(0));
+				stagedIds.forEach(tmdbId -> progress.outcome(tmdbId, false));
+			}
 		}
 
+		missingIds.flush();
 		long duration = System.currentTimeMillis() - start;
-		return new ImportStatsDTO(imported.get(), failed.get(), duration);
+		return new ImportStatsDTO(imported.get(), failed.get(), skipped.get(), duration, tables,
+				bulk != null || engine == PersistenceEngine.JSONB ? null : relationChanges.toDtos());
 	}
 
 	/**
-	 * Startet einen Import-Task für eine TMDB-ID auf einem Virtual Thread und aktualisiert die Erfolgs- bzw.
-	 * Fehlerzähler.
+	 * Liefert die Elemente von {@code source}, bis der Import abgebrochen wird.
 	 */
-	private Future<?> submitImportTask(int tmdbId, ExecutorService executor, AtomicInteger imported,
-			AtomicInteger failed) {
-		return executor.submit(() -> {
-			boolean permitAcquired = false;
-			try {
-				importSemaphore.acquire();
-				permitAcquired = true;
-				if (importOne(tmdbId))
-					imported.incrementAndGet();
-				else
-					failed.incrementAndGet();
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				failed.incrementAndGet();
-				System.err.println("❌ Import failed for TMDB id " + tmdbId + ": " + e.getMessage());
-			} catch (Exception e) {
-				failed.incrementAndGet();
-				System.err.println("❌ Import failed for TMDB id " + tmdbId + ": " + e.getMessage());
-			} finally {
-				if (permitAcquired)
-					importSemaphore.release();
-			}
-		});
+	private static Iterable<Integer> untilCancelled(Iterable<Integer> source, ImportProgress progress) {
+		return () -> {
+			Iterator<Integer> it = source.iterator();
+			return new Iterator<>() {
+				@Override
+				public boolean hasNext() {
+					return !progress.isCancelled() && it.hasNext();
+				}
+
+				@Override
+				public Integer next() {
+					return it.next();
+				}
+			};
+		};
 	}
 
 	/**
-	 * Wartet auf die Fertigstellung aller gestarteten Import-Tasks und leitet Interrupts kontrolliert weiter.
+	 * Discover-Stufe des Jahresimports: blättert durch alle Discover-Seiten eines Jahrgangs und reicht die gefundenen
+	 * TMDB-IDs weiter. Fehlgeschlagene Seiten werden gezählt und übersprungen; die erste Seite meldet die erwartete
+	 * Anzahl Filme des Jahrgangs. Ein fortgesetzter Job beginnt an der ersten unvollständigen Seite seines Checkpoints
+	 * und reicht nur IDs ohne Ergebnis weiter; IDs im Negativ-Cache {@link TmdbMissingIds} werden nicht angefragt.
 	 */
-	private void waitForTasks(Collection<Future<?>> tasks) {
-		for (Future<?> task : tasks) {
+	private void discoverYear(int year, ImportPipeline.Emitter<Integer> out, ImportProgress progress)
+			throws InterruptedException {
+		int page = progress.firstPage(year);
+		int totalPages = page;
+		do {
+			if (progress.isCancelled())
+				return;
 			try {
-				task.get();
+				HttpUrl url = tmdbUrl("/discover/movie")
+						.newBuilder()
+						.addQueryParameter("language", "en-US")
+						.addQueryParameter("sort_by", "primary_release_date.asc")
+						.addQueryParameter("include_adult", "false")
+						.addQueryParameter("include_video", "false")
+						.addQueryParameter("with_release_type", "1|2|3|4|5|6|7")
+						.addQueryParameter("primary_release_date.gte", year + "-01-01")
+						.addQueryParameter("primary_release_date.lte", year + "-12-31")
+						.addQueryParameter("page", String.valueOf(page))
+						.build();
+
+				JsonObject response = getJson(url.toString());
+				progress.tmdbCalls.increment();
+				if (response == null) {
+					totalPages = page - 1;
+					break;
+				}
+
+				totalPages = response.getInt("total_pages", 1);
+				if (page == 1)
+					progress.expected.addAndGet(response.getInt("total_results", 0));
+				JsonArray results = response.getJsonArray("results");
+				List<Integer> ids = new ArrayList<>();
+				if (results != null) {
+					for (JsonValue value : results) {
+						int tmdbId = value.asJsonObject().getInt("id");
+						if (progress.isDone(tmdbId))
+							continue;
+						if (missingIds.skip(tmdbId))
+							progress.expected.decrementAndGet();
+						else
+							ids.add(tmdbId);
+					}
+				}
+				progress.pageDiscovered(year, page, ids);
+				for (int tmdbId : ids)
+					out.emit(tmdbId);
 			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				throw new RuntimeException("Interrupted while waiting for imports to finish", e);
+				throw e;
 			} catch (Exception e) {
-				throw new RuntimeException("Import task failed", e);
+				progress.failed.incrementAndGet();
+				System.err.println(
+						"❌ Discover request failed for year " + year + ", page " + page + ": " + e.getMessage());
 			}
-		}
+			page++;
+		} while (page <= totalPages);
+		progress.yearDiscovered(year, totalPages);
 	}
 
 	// ============================================================
 	// HTTP-Helfer
 	// ============================================================
 	/**
-	 * Führt einen GET-Request aus, berücksichtigt die Rate-Limits und gibt den JSON-Body zurück.
+	 * Baut die URL eines TMDB-Endpunkts relativ zu {@code adt.tmdb.base-url}.
+	 */
+	HttpUrl tmdbUrl(String path) {
+		return Objects.requireNonNull(HttpUrl.parse(tmdbBaseUrl + path), "Invalid TMDB URL: " + tmdbBaseUrl + path);
+	}
+
+	/**
+	 * Führt einen GET-Request aus, berücksichtigt die Rate-Limits und gibt den JSON-Body als Objektbaum zurück. Nur für
+	 * kleine Responses (Discover, Genre-Liste) gedacht; Filme und Personen werden per Streaming gelesen.
+	 */
+	JsonObject getJson(String url) throws Exception {
+		return get(url, in -> Json.createReader(in).readObject());
+	}
+
+	/**
+	 * Führt einen GET-Request aus, berücksichtigt die Rate-Limits und übergibt den Response-Stream direkt an
+	 * {@code parser}, sodass der Body weder als String noch als Objektbaum materialisiert wird. Gleichzeitige Aufrufe
+	 * derselben URL teilen sich über den {@link TmdbRequestCoalescer} einen Request und dessen Ergebnis.
+	 *
+	 * @return das Parse-Ergebnis oder {@code null} bei HTTP 404
 	 */
-	private JsonObject getJson(String url) throws Exception {
+	private <T> T get(String url, Function<InputStream, T> parser) throws Exception {
+		return coalescer.execute(url, () -> execute(url, parser));
+	}
+
+	/**
+	 * Führt einen Request samt Wiederholungen aus: Jeder Versuch wartet zunächst einen offenen
+	 * {@link TmdbCircuitBreaker} ab und wird über {@link TmdbHedging} gesendet. Ein {@code Retry-After} (bzw. 429)
+	 * pausiert den Rate-Limiter bis zum angegebenen Zeitpunkt; liegt dieser hinter dem Wiederholungsbudget, schlägt der
+	 * Request sofort fehl, statt bis zum Ablauf zu warten.
+	 */
+	private <T> T execute(String url, Function<InputStream, T> parser) throws Exception {
 		Request req = new Request.Builder()
 				.url(url)
 				.get()
@@ -281,34 +620,63 @@ public class MovieImportService {
 				.addHeader("Authorization", "Bearer " + token())
 				.build();
 
-		long deadline = System.nanoTime() + MAX_RETRY_WAIT.toNanos();
+		long deadline = System.nanoTime() + retryBudget.toNanos();
 		int attempt = 0;
 
-		while (true) {
-			awaitRateLimit();
-
-			try (Response resp = http.newCall(req).execute()) {
-				updateRateLimitFromResponse(resp);
-				if (resp.code() == 404)
-					return null;
+		// ein abgebrochener Probeaufruf (Unterbrechung, Abbruch, unerwartete Exception) gibt den Breaker wieder frei
+		try {
+			while (true) {
+				deadline += circuitBreaker.awaitPermission();
+				awaitRateLimit();
 
-				if (isTransientStatus(resp.code()) && System.nanoTime() < deadline) {
+				Response sent;
+				try {
+					sent = hedging.execute(http, req);
+				} catch (IOException e) {
+					circuitBreaker.onFailure();
+					if (System.nanoTime() >= deadline) {
+						throw new RuntimeException("TMDB request failed after waiting for a response", e);
+					}
 					sleepForRetry(attempt++, deadline);
 					continue;
 				}
 
-				if (!resp.isSuccessful())
-					throw new RuntimeException("HTTP " + resp.code() + " for URL " + url);
+				try (Response resp = sent) {
+					updateRateLimitFromResponse(resp);
+					if (resp.code() >= 500)
+						circuitBreaker.onFailure();
+					else
+						circuitBreaker.onSuccess();
+					if (resp.code() == 404)
+						return null;
+
+					if (isTransientStatus(resp.code()) && System.nanoTime() < deadline) {
+						long pauseNanos = rateLimiter.pauseRemainingNanos();
+						if (System.nanoTime() + pauseNanos >= deadline)
+							throw new RuntimeException("HTTP " + resp.code() + " for URL " + url + ", Retry-After of "
+									+ TimeUnit.NANOSECONDS.toSeconds(pauseNanos) + " s exceeds the retry budget");
+						// mit Retry-After (bzw. bei 429) wartet bereits der Rate-Limiter
+						if (pauseNanos == 0)
+							sleepForRetry(attempt++, deadline);
+						continue;
+					}
+
+					if (!resp.isSuccessful())
+						throw new RuntimeException("HTTP " + resp.code() + " for URL " + url);
 
-				assert resp.body() != null;
-				String body = resp.body().string();
-				return Json.createReader(new java.io.StringReader(body)).readObject();
-			} catch (IOException e) {
-				if (System.nanoTime() >= deadline) {
-					throw new RuntimeException("TMDB request failed after waiting for a response", e);
+					assert resp.body() != null;
+					try (InputStream body = resp.body().byteStream()) {
+						return parser.apply(body);
+					}
+				} catch (IOException e) {
+					if (System.nanoTime() >= deadline) {
+						throw new RuntimeException("TMDB request failed after waiting for a response", e);
+					}
+					sleepForRetry(attempt++, deadline);
 				}
-				sleepForRetry(attempt++, deadline);
 			}
+		} finally {
+			circuitBreaker.onAbandoned();
 		}
 	}
 
@@ -332,9 +700,10 @@ public class MovieImportService {
 
 	/**
 	 * Ruft die Konfigurations-Route auf, um aktuelle Rate-Limit-Header einzulesen und das lokale Limit anzupassen.
+	 * Schlägt der Aufruf fehl, bleibt das zuletzt bekannte Limit bestehen.
 	 */
 	private void refreshApiRateLimit() {
-		HttpUrl url = Objects.requireNonNull(HttpUrl.parse("https://api.themoviedb.org/3/configuration")).newBuilder()
+		HttpUrl url = tmdbUrl("/configuration").newBuilder()
 				.addQueryParameter("language", "en-US")
 				.build();
 
@@ -348,33 +717,29 @@ public class MovieImportService {
 		try (Response resp = http.newCall(req).execute()) {
 			updateRateLimitFromResponse(resp);
 		} catch (Exception e) {
-			callIntervalNanos.set(DEFAULT_CALL_INTERVAL_NANOS);
+			rateLimitRefreshFailed.increment();
+			System.err.println("❌ Failed to refresh API rate limit, keeping " + rateLimiter.perSecond()
+					+ " requests/s: " + e.getMessage());
 		}
 	}
 
 	/**
-	 * Passt das interne Ratenlimit anhand des API-Response-Headers an.
+	 * Passt das interne Ratenlimit anhand der API-Response-Header an ({@code X-RateLimit-Limit},
+	 * {@code X-RateLimit-Remaining} und {@code Retry-After}).
 	 */
 	private void updateRateLimitFromResponse(Response response) {
-		String limitHeader = response.header("X-RateLimit-Limit");
-		if (limitHeader == null)
-			return;
-		try {
-			long perSecondLimit = Long.parseLong(limitHeader);
-			if (perSecondLimit > 0) {
-				callIntervalNanos.set(1_000_000_000L / perSecondLimit);
-			}
-		} catch (NumberFormatException ignored) {
-			callIntervalNanos.set(DEFAULT_CALL_INTERVAL_NANOS);
-		}
+		if (response.code() == 429)
+			fetchLimiter.onThrottled();
+		rateLimiter.onResponse(response.code(), response.header("X-RateLimit-Limit"),
+				response.header("X-RateLimit-Remaining"), response.header("Retry-After"));
 	}
 
 	/**
-	 * Synchronisiert die bekannte Genre-Liste mit TMDB und legt fehlende Einträge in der Datenbank an.
+	 * Synchronisiert die bekannte Genre-Liste einmalig mit TMDB und legt fehlende Einträge in der Datenbank an.
 	 */
 	private void refreshMovieGenres() {
 		try {
-			HttpUrl url = Objects.requireNonNull(HttpUrl.parse("https://api.themoviedb.org/3/genre/movie/list"))
+			HttpUrl url = tmdbUrl("/genre/movie/list")
 					.newBuilder()
 					.addQueryParameter("language", "en-US")
 					.build();
@@ -387,12 +752,12 @@ public class MovieImportService {
 			if (genres == null || genres.isEmpty())
 				return;
 
-			try (Connection c = ds.getConnection()) {
-				for (JsonValue value : genres) {
-					JsonObject genre = value.asJsonObject();
-					upsertGenre(c, genre.getInt("id"), genre.getString("name", null));
-				}
+			Map<Integer, String> tmdbGenres = new HashMap<>();
+			for (JsonValue value : genres) {
+				JsonObject genre = value.asJsonObject();
+				tmdbGenres.put(genre.getInt("id"), genre.getString("name", null));
 			}
+			referenceData.synchronizeGenres(tmdbGenres);
 		} catch (Exception e) {
 			System.err.println("❌ Failed to refresh genre list: " + e.getMessage());
 		}
@@ -400,277 +765,766 @@ public class MovieImportService {
 
 	/**
 	 * Lädt Detaildaten einer Person aus TMDB.
+	 *
+	 * @return die Details oder {@code null}, wenn TMDB die Person nicht kennt
 	 */
-	private JsonObject fetchPersonDetails(int tmdbId) throws Exception {
-		HttpUrl url = Objects.requireNonNull(HttpUrl.parse("https://api.themoviedb.org/3/person/" + tmdbId))
+	TmdbPerson fetchPersonDetails(int tmdbId) throws Exception {
+		HttpUrl url = tmdbUrl("/person/" + tmdbId)
 				.newBuilder()
 				.addQueryParameter("language", "en-US")
 				.build();
-		return getJson(url.toString());
+		return get(url.toString(), TmdbJsonParser::parsePerson);
 	}
 
 	// ============================================================
 	// Einzelimport eines Movies
 	// ============================================================
+
+	/**
+	 * Ergebnis der Fetch-Phase: der gestreamte Film-Response, die Primärschlüssel aller nur zu verknüpfenden Personen
+	 * (noch frisch oder außerhalb der {@link CreditDepth} und bereits vorhanden) sowie die Detaildaten der übrigen
+	 * Personen mit Detailabruf (Wert {@code null}, falls TMDB keine Details liefert). Personen, die in keiner der
+	 * beiden Maps stehen, werden allein aus den Credit-Daten angelegt. {@code deferredPersons} enthält die Personen,
+	 * deren Details nach dem Schreiben über die {@link PersonEnrichmentQueue} nachgeladen werden.
+	 */
+	record FetchedMovie(TmdbMovie movie, Map<Integer, Long> freshPersons,
+			Map<Integer, TmdbPerson> personDetails, Set<Integer> deferredPersons) {
+	}
+
 	/**
-	 * Lädt einen einzelnen Film inklusive Credits, alternativer Titel und Watch-Provider und schreibt alle verknüpften
-	 * Entitäten in die Datenbank.
-	 * 
-	 * @param tmdbId
-	 *     TMDB-ID des Films
-	 * @return {@code true}, wenn Daten gefunden wurden und gespeichert werden konnten
+	 * Führt {@link #fetchMovie} innerhalb des {@link AdaptiveConcurrencyLimiter} aus und meldet ihm die Dauer
+	 * erfolgreicher Abrufe. Gleichzeitige Importe teilen sich das Limit über ihr {@link ImportProgress} zu gleichen
+	 * Teilen.
 	 */
-	private boolean importOne(int tmdbId) throws Exception {
-		HttpUrl url = Objects.requireNonNull(HttpUrl.parse("https://api.themoviedb.org/3/movie/" + tmdbId)).newBuilder()
+	private FetchedMovie fetchLimited(int tmdbId, CreditDepth depth, ImportProgress progress) throws Exception {
+		fetchLimiter.acquire(progress);
+		long started = System.nanoTime();
+		long latency = -1;
+		try {
+			FetchedMovie fetched = fetchMovie(tmdbId, depth, progress);
+			latency = System.nanoTime() - started;
+			return fetched;
+		} finally {
+			fetchLimiter.release(progress, latency);
+		}
+	}
+
+	/**
+	 * Fetch-Phase: lädt den Film samt Anhängen und anschließend die Details aller benötigten Personen, ohne eine
+	 * Datenbankverbindung zu belegen. Alle TMDB-Aufrufe laufen damit vor dem Öffnen der Schreibtransaktion. Details
+	 * werden nur für die von {@code depth} ausgewählten Personen geladen, bei {@link CreditDepth#deferred()} gar nicht:
+	 * Dann werden die Personen nur vorgemerkt und vorhandene Datensätze verknüpft. Die Zahl der Aufrufe je Film meldet
+	 * {@code adt.import.tmdb.calls.per.movie}.
+	 *
+	 * @return den geladenen Film oder {@code null}, wenn TMDB ihn nicht kennt
+	 */
+	private FetchedMovie fetchMovie(int tmdbId, CreditDepth depth, ImportProgress progress) throws Exception {
+		HttpUrl url = tmdbUrl("/movie/" + tmdbId).newBuilder()
 				.addQueryParameter("language", "en-US")
 				.addQueryParameter("append_to_response", "alternative_titles,credits,watch/providers")
 				.build();
 
-		JsonObject json = getJson(url.toString());
-		if (json == null)
-			return false;
+		TmdbMovie movie = get(url.toString(), TmdbJsonParser::parseMovie);
+		progress.tmdbCalls.increment();
+		if (movie == null)
+			return null;
 
-		JsonObject alternativeTitles = json.containsKey("alternative_titles")
-				? json.getJsonObject("alternative_titles")
-				: null;
-		JsonObject credits = json.containsKey("credits") ? json.getJsonObject("credits") : null;
-		JsonObject watchProviders = json.containsKey("watch/providers")
-				? json.getJsonObject("watch/providers")
-				: null;
+		Set<Integer> creditOnly = collectCreditPersonIds(movie);
+		Set<Integer> personIds = depth.detailPersons(movie);
+		personIds.retainAll(creditOnly);
+		creditOnly.removeAll(personIds);
+
+		Map<Integer, Long> freshPersons = resolveFreshPersons(personIds);
+		freshPersons.putAll(resolveExistingPersons(creditOnly));
+		List<Integer> missing = new ArrayList<>();
+		for (int personTmdbId : personIds) {
+			if (freshPersons.containsKey(personTmdbId))
+				continue;
+			personCache.recordMiss();
+			missing.add(personTmdbId);
+		}
+		if (depth.deferred()) {
+			callsPerMovie.record(1);
+			freshPersons.putAll(resolveExistingPersons(new HashSet<>(missing)));
+			return new FetchedMovie(movie, freshPersons, Map.of(), new HashSet<>(missing));
+		}
+		callsPerMovie.record(1 + missing.size());
+		progress.tmdbCalls.add(missing.size());
+		return new FetchedMovie(movie, freshPersons, fetchPersonDetails(missing), Set.of());
+	}
 
-		try (Connection c = ds.getConnection()) {
-			c.setAutoCommit(false);
+	/**
+	 * Lädt die Details aller fehlenden Personen eines Films gleichzeitig, je Person ein virtueller Thread; wie viele
+	 * Aufrufe tatsächlich parallel bei TMDB ankommen, begrenzt der globale {@link TmdbRateLimiter}. Die Dauer pro Film
+	 * entspricht so etwa dem langsamsten statt der Summe aller Aufrufe. Scheitert ein Aufruf, werden die übrigen
+	 * abgebrochen und der Fehler weitergereicht, sodass der Film als Ganzes fehlschlägt; beim Verlassen der Methode
+	 * läuft kein Aufruf mehr.
+	 */
+	private Map<Integer, TmdbPerson> fetchPersonDetails(List<Integer> personTmdbIds) throws Exception {
+		Map<Integer, TmdbPerson> details = new HashMap<>();
+		if (personTmdbIds.isEmpty())
+			return details;
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			CompletionService<Map.Entry<Integer, TmdbPerson>> completion = new ExecutorCompletionService<>(executor);
+			for (int personTmdbId : personTmdbIds)
+				completion.submit(() -> new AbstractMap.SimpleImmutableEntry<>(personTmdbId,
+						fetchPersonDetails(personTmdbId)));
 			try {
-				if (json.containsKey("original_language")) {
-					String iso = json.getString("original_language", null);
-					if (iso != null)
-						upsertLanguage(c, iso, null, null);
+				for (int i = 0; i < personTmdbIds.size(); i++) {
+					Map.Entry<Integer, TmdbPerson> detail = completion.take().get();
+					details.put(detail.getKey(), detail.getValue());
 				}
+			} catch (ExecutionException e) {
+				executor.shutdownNow();
+				throw e.getCause() instanceof Exception cause ? cause : e;
+			} catch (InterruptedException e) {
+				executor.shutdownNow();
+				throw e;
+			}
+		}
+		return details;
+	}
 
-				if (json.containsKey("genres")) {
-					JsonArray arr = json.getJsonArray("genres");
-					for (JsonValue v : arr) {
-						JsonObject g = v.asJsonObject();
-						upsertGenre(c, g.getInt("id"), g.getString("name", null));
-					}
-				}
+	/**
+	 * Transform-Phase: stellt vor der Schreibtransaktion sicher, dass alle vom Film referenzierten Stammdaten (Sprachen, Genres,
+	 * Länder, Departments, Jobs) im {@link ReferenceDataResolver} bekannt sind. Neue Schlüssel werden dabei sofort
+	 * committet; die Schreibphase beantwortet alle Lookups anschließend aus dem Speicher.
+	 */
+	void resolveReferenceData(TmdbMovie movie, Map<Integer, TmdbPerson> personDetails) throws SQLException {
+		for (TmdbMovie.SpokenLanguage l : movie.spokenLanguages()) {
+			if (l.iso() != null)
+				referenceData.ensureLanguage(l.iso(), l.englishName(), l.name());
+		}
+		if (movie.originalLanguage() != null)
+			referenceData.ensureLanguage(movie.originalLanguage(), null, null);
 
-				Long productionTypeId = upsertCountryType(c);
-				if (json.containsKey("production_countries")) {
-					JsonArray arr = json.getJsonArray("production_countries");
-					for (JsonValue v : arr) {
-						JsonObject pc = v.asJsonObject();
-						String iso = normalizeIso2(pc.getString("iso_3166_1", null));
-						String name = pc.getString("name", null);
-						if (iso != null)
-							upsertCountry(c, iso, (name == null || name.isBlank()) ? iso : name);
-					}
-				}
+		for (TmdbMovie.Genre g : movie.genres())
+			referenceData.genreId(g.tmdbId(), g.name());
 
-				if (json.containsKey("production_companies")) {
-					JsonArray arr = json.getJsonArray("production_companies");
-					for (JsonValue v : arr) {
-						JsonObject pc = v.asJsonObject();
-						int pcTmdb = pc.getInt("id");
-						String n = pc.getString("name", null);
-						String oc = blankToNull(pc.getString("origin_country", null));
-						upsertProductionCompany(c, pcTmdb, n, oc);
-					}
-				}
+		referenceData.countryTypeId(PRODUCTION_COUNTRY_TYPE, "Production country");
+		for (TmdbMovie.Country pc : movie.productionCountries()) {
+			String iso = normalizeIso2(pc.iso());
+			if (iso != null)
+				referenceData.ensureCountry(iso, pc.name());
+		}
+		for (TmdbMovie.Company pc : movie.productionCompanies()) {
+			String oc = normalizeIso2(blankToNull(pc.originCountry()));
+			if (oc != null)
+				referenceData.ensureCountry(oc, oc);
+		}
+		for (TmdbMovie.AlternativeTitle t : movie.alternativeTitles()) {
+			String iso = normalizeIso2(t.iso());
+			if (iso != null)
+				referenceData.ensureCountry(iso, iso);
+		}
+		for (TmdbMovie.WatchProvider wp : movie.watchProviders()) {
+			String iso = normalizeIso2(wp.region());
+			if (iso != null)
+				referenceData.ensureCountry(iso, iso);
+		}
 
-				if (json.containsKey("spoken_languages")) {
-					JsonArray arr = json.getJsonArray("spoken_languages");
-					for (JsonValue v : arr) {
-						JsonObject l = v.asJsonObject();
-						String iso = l.getString("iso_639_1", null);
-						String en = l.getString("english_name", null);
-						String name = l.getString("name", null);
-						if (iso != null)
-							upsertLanguage(c, iso, en, name);
-					}
-				}
+		for (TmdbMovie.Cast member : movie.cast())
+			referenceData.departmentId(blankToNull(member.knownForDepartment()));
+		for (TmdbMovie.Crew member : movie.crew()) {
+			referenceData.departmentId(blankToNull(member.knownForDepartment()));
+			Long departmentId = referenceData.departmentId(blankToNull(member.department()));
+			referenceData.jobId(departmentId, blankToNull(member.job()));
+		}
+		for (TmdbPerson detail : personDetails.values()) {
+			if (detail != null)
+				referenceData.departmentId(blankToNull(detail.knownForDepartment()));
+		}
+	}
 
-				Long moviePk = upsertMovie(c, json);
-				clearMovieRelations(c, moviePk);
-
-				linkMovieGenres(c, moviePk, json.getJsonArray("genres"));
-				linkMovieSpokenLanguages(c, moviePk, json.getJsonArray("spoken_languages"));
-				linkMovieCountries(c, moviePk, productionTypeId, json.getJsonArray("production_countries"));
-				linkMovieProductionCompanies(c, moviePk, json.getJsonArray("production_companies"));
-
-				replaceMovieTitles(c, moviePk, alternativeTitles);
-				replaceMovieWatchProviders(c, moviePk, watchProviders);
-
-				Map<Integer, Long> personCache = new HashMap<>();
-				if (credits != null) {
-					JsonArray cast = credits.getJsonArray("cast");
-					if (cast != null)
-						replaceMovieCast(c, moviePk, cast, personCache);
-					JsonArray crew = credits.getJsonArray("crew");
-					if (crew != null)
-						replaceMovieCrew(c, moviePk, crew, personCache);
+	/**
+	 * Ermittelt alle Personen, deren Details innerhalb der TTL abgerufen wurden – zuerst aus dem
+	 * {@link PersonCache}, für den Rest über eine einzelne Abfrage auf {@code person.last_fetched_at}. Personen, die
+	 * laut geladenem {@link EntityIdIndex} noch gar nicht existieren, werden dabei nicht abgefragt.
+	 */
+	private Map<Integer, Long> resolveFreshPersons(Set<Integer> personIds) throws SQLException {
+		Map<Integer, Long> fresh = new HashMap<>();
+		List<Integer> unknown = new ArrayList<>();
+		for (int personTmdbId : personIds) {
+			Long personId = personCache.freshPersonId(personTmdbId);
+			if (personId != null)
+				fresh.put(personTmdbId, personId);
+			else
+				unknown.add(personTmdbId);
+		}
+		if (idIndex.personsLoaded())
+			unknown.removeIf(personTmdbId -> idIndex.personId(personTmdbId) == null);
+		if (unknown.isEmpty())
+			return fresh;
+
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement(
+						"SELECT tmdb_id, id, last_fetched_at FROM person "
+								+ "WHERE tmdb_id = ANY(?) AND last_fetched_at IS NOT NULL")) {
+			ps.setArray(1, c.createArrayOf("integer", unknown.toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					long fetchedAt = rs.getTimestamp(3).getTime();
+					if (!personCache.isFresh(fetchedAt))
+						continue;
+					int personTmdbId = rs.getInt(1);
+					long personId = rs.getLong(2);
+					fresh.put(personTmdbId, personId);
+					personCache.putFromDatabase(personTmdbId, personId, fetchedAt);
 				}
+			}
+		}
+		return fresh;
+	}
 
-				c.commit();
-				return true;
-			} catch (Exception e) {
-				c.rollback();
-				throw e;
-			} finally {
-				c.setAutoCommit(true);
+	/**
+	 * Löst Personen ohne Detailabruf zu vorhandenen Datensätzen auf – zuerst über den {@link EntityIdIndex}, für den
+	 * Rest über eine einzelne Abfrage. Solche Personen werden nur verknüpft, damit ihre vorhandenen Detaildaten nicht
+	 * durch die Credit-Daten überschrieben werden.
+	 */
+	private Map<Integer, Long> resolveExistingPersons(Set<Integer> personIds) throws SQLException {
+		Map<Integer, Long> existing = new HashMap<>();
+		List<Integer> unknown = new ArrayList<>();
+		for (int personTmdbId : personIds) {
+			Long personId = idIndex.personId(personTmdbId);
+			if (personId != null)
+				existing.put(personTmdbId, personId);
+			else if (!idIndex.personsLoaded())
+				unknown.add(personTmdbId);
+		}
+		if (unknown.isEmpty())
+			return existing;
+
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("SELECT tmdb_id, id FROM person WHERE tmdb_id = ANY(?)")) {
+			ps.setArray(1, c.createArrayOf("integer", unknown.toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					existing.put(rs.getInt(1), rs.getLong(2));
 			}
 		}
+		return existing;
 	}
 
-	// ============================================================
-	// UPSERT-Helfer
-	// ============================================================
 	/**
-	 * Legt ein Genre an oder aktualisiert dessen Namen anhand der TMDB-ID.
+	 * Sammelt die TMDB-IDs aller Personen, die beim Schreiben von Cast und Crew angelegt werden müssen.
 	 */
-	private void upsertGenre(Connection c, int tmdbId, String name) throws SQLException {
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO genre (tmdb_id, name) VALUES (?, ?) "
-						+ "ON CONFLICT (tmdb_id) DO UPDATE SET name = EXCLUDED.name")) {
-			ps.setInt(1, tmdbId);
-			ps.setString(2, name);
-			ps.executeUpdate();
+	private Set<Integer> collectCreditPersonIds(TmdbMovie movie) {
+		Set<Integer> ids = new LinkedHashSet<>();
+		for (TmdbMovie.Cast member : movie.cast())
+			ids.add(member.personTmdbId());
+		for (TmdbMovie.Crew member : movie.crew()) {
+			if (blankToNull(member.department()) != null && blankToNull(member.job()) != null)
+				ids.add(member.personTmdbId());
 		}
+		return ids;
 	}
 
 	/**
-	 * Legt eine Sprache an oder aktualisiert vorhandene Felder anhand des ISO-639-1-Codes.
+	 * Persist-Stufe: schreibt eine Gruppe von Filmen gemeinsam. Scheitert die Gruppentransaktion (z. B. an einem
+	 * fehlerhaften Film oder einem Deadlock zwischen parallelen Gruppen), wird jeder Film der Gruppe einzeln in einer
+	 * eigenen Transaktion wiederholt, sodass nur der fehlerhafte Film verloren geht. Unveränderte Filme werden in
+	 * {@code skipped} gezählt.
+	 *
+	 * @param engine
+	 *     {@link PersistenceEngine#UNNEST} für array-gebundene Anweisungen, {@link PersistenceEngine#JSONB} für einen
+	 *     Funktionsaufruf pro Film, sonst zeilenweise Upserts und JDBC-Batches
+	 * @return Anzahl erfolgreich geschriebener Filme
 	 */
-	private void upsertLanguage(Connection c, String iso639_1, String englishName, String name) throws SQLException {
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO language (iso_639_1, english_name, name) VALUES (?, ?, ?) "
-						+ "ON CONFLICT (iso_639_1) DO UPDATE SET "
-						+ "english_name = COALESCE(EXCLUDED.english_name, language.english_name), "
-						+ "name = COALESCE(EXCLUDED.name, language.name)")) {
-			ps.setString(1, iso639_1);
-			ps.setString(2, englishName);
-			ps.setString(3, name);
-			ps.executeUpdate();
+	int persistGroup(List<FetchedMovie> group, PersistenceEngine engine, AtomicInteger failed,
+			AtomicInteger skipped, RelationWriter.Totals relationChanges) {
+		return persistGroup(group, engine, failed, skipped, relationChanges, new ImportProgress());
+	}
+
+	/**
+	 * Wie {@link #persistGroup(List, PersistenceEngine, AtomicInteger, AtomicInteger, RelationWriter.Totals)}, meldet
+	 * das Ergebnis jedes Films aber an {@code progress}.
+	 */
+	int persistGroup(List<FetchedMovie> group, PersistenceEngine engine, AtomicInteger failed,
+			AtomicInteger skipped, RelationWriter.Totals relationChanges, ImportProgress progress) {
+		if (group.size() > 1) {
+			try {
+				int unchanged = writeMovies(group, engine, relationChanges);
+				skipped.addAndGet(unchanged);
+				enqueueDeferredPersons(group);
+				group.forEach(fetched -> progress.outcome(fetched.movie().tmdbId(), true));
+				return group.size() - unchanged;
+			} catch (Exception e) {
+				System.err.println("⚠️ Group commit of " + group.size() + " movies failed, retrying individually: "
+						+ e.getMessage());
+			}
 		}
+
+		int written = 0;
+		for (FetchedMovie fetched : group) {
+			try {
+				if (writeMovies(List.of(fetched), engine, relationChanges) > 0)
+					skipped.incrementAndGet();
+				else
+					written++;
+				enqueueDeferredPersons(List.of(fetched));
+				progress.outcome(fetched.movie().tmdbId(), true);
+			} catch (Exception e) {
+				failed.incrementAndGet();
+				progress.outcome(fetched.movie().tmdbId(), false);
+				System.err.println("❌ Import failed for TMDB id " + fetched.movie().tmdbId() + " (" + STAGE_PERSIST
+						+ "): " + e.getMessage());
+			}
+		}
+		return written;
 	}
 
 	/**
-	 * Legt ein Land an oder aktualisiert den Anzeigenamen anhand des ISO-3166-1-Codes.
+	 * Trägt die zurückgestellten Personen geschriebener Filme in die {@link PersonEnrichmentQueue} ein. Erst nach dem
+	 * Commit (im COPY-Modus nach dem Merge), damit der Worker keine Person anreichert, deren Credit-Zeile danach noch
+	 * geschrieben wird. Ein Fehler beim Eintragen lässt die Personen bei ihren Credit-Daten, den Import aber bestehen.
 	 */
-	private void upsertCountry(Connection c, String iso3166_1, String name) throws SQLException {
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO country (iso_3166_1, name) VALUES (?, ?) "
-						+ "ON CONFLICT (iso_3166_1) DO UPDATE SET name = EXCLUDED.name")) {
-			ps.setString(1, iso3166_1);
-			ps.setString(2, name);
-			ps.executeUpdate();
+	private void enqueueDeferredPersons(List<FetchedMovie> movies) {
+		Set<Integer> deferred = new HashSet<>();
+		for (FetchedMovie fetched : movies)
+			deferred.addAll(fetched.deferredPersons());
+		enqueueDeferredPersons(deferred);
+	}
+
+	private void enqueueDeferredPersons(Set<Integer> deferred) {
+		try {
+			enrichmentQueue.enqueue(deferred);
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to enqueue " + deferred.size() + " persons for enrichment: "
+					+ e.getMessage());
 		}
 	}
 
 	/**
-	 * Stellt sicher, dass ein Country-Type existiert und liefert seine ID.
+	 * Schreibphase: persistiert vollständig geladene Filme in einer gemeinsamen, kurzen Transaktion ohne HTTP-Aufrufe.
+	 * Die Relationen aller Filme gleicht der {@link RelationWriter} je Tabelle mit dem Bestand ab, sodass nur
+	 * tatsächlich geänderte Zeilen gelöscht oder eingefügt werden. Filme, deren Fingerabdruck und die ihrer Personen
+	 * mit dem gespeicherten {@code content_hash} übereinstimmen, werden gar nicht geschrieben; sind alle Filme der
+	 * Gruppe unverändert, entfällt die Schreibtransaktion.
+	 *
+	 * @return Anzahl übersprungener, unveränderter Filme
 	 */
-	private Long upsertCountryType(Connection c) throws SQLException {
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO country_type (code, description) VALUES (?, ?) "
-						+ "ON CONFLICT (code) DO UPDATE SET description = EXCLUDED.description",
-				Statement.RETURN_GENERATED_KEYS)) {
-			ps.setString(1, "production");
-			ps.setString(2, "Production country");
-			ps.executeUpdate();
+	private int writeMovies(List<FetchedMovie> group, PersistenceEngine engine, RelationWriter.Totals relationChanges)
+			throws Exception {
+		// doppelte Filme innerhalb einer Gruppe würden die Relationen zweimal einfügen
+		Map<Integer, FetchedMovie> movies = new LinkedHashMap<>();
+		for (FetchedMovie fetched : group)
+			movies.put(fetched.movie().tmdbId(), fetched);
+
+		try (Connection c = ds.getConnection()) {
+			long acquired = System.nanoTime();
+			try {
+				Map<Integer, Long> unchangedPersons = findUnchangedPersons(c, movies.values());
+				Set<Integer> unchangedMovies = findUnchangedMovies(c, movies.values(), unchangedPersons.keySet());
+				movies.keySet().removeAll(unchangedMovies);
+				if (movies.isEmpty()) {
+					touchPersons(c, unchangedPersons);
+					cacheUnchangedPersons(unchangedPersons);
+					return unchangedMovies.size();
+				}
+
+				c.setAutoCommit(false);
+				try {
+					relationChanges.add(writeChangedMovies(c, movies.values(), unchangedPersons, engine));
+					return unchangedMovies.size();
+				} catch (Exception e) {
+					c.rollback();
+					throw e;
+				} finally {
+					c.setAutoCommit(true);
+				}
+			} finally {
+				connectionHoldTimer.record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+			}
 		}
-		try (PreparedStatement ps = c.prepareStatement("SELECT id FROM country_type WHERE code = ?")) {
-			ps.setString(1, "production");
-			try (ResultSet rs = ps.executeQuery()) {
-				rs.next();
-				return rs.getLong(1);
+	}
+
+	/**
+	 * Schreibt die geänderten Filme einer Gruppe samt Relationen und Personen und committet die Transaktion.
+	 * Unveränderte Personen werden nur als abgerufen markiert. Mit {@link PersistenceEngine#UNNEST} werden Studios,
+	 * Watch-Provider, Filme, Personen und Aliasse vorab mengenbasiert über {@link UnnestUpserts} geschrieben, sodass die
+	 * Zahl der Anweisungen pro Gruppe konstant bleibt; mit {@link PersistenceEngine#JSONB} schreibt
+	 * {@link #importDocuments} jeden Film mit einem einzigen Funktionsaufruf.
+	 *
+	 * @return Änderungen je Relationstabelle (leer bei {@link PersistenceEngine#JSONB}, dort gleicht die Datenbank ab)
+	 */
+	private Map<RelationWriter.Relation, RelationWriter.Changes> writeChangedMovies(Connection c,
+			Collection<FetchedMovie> movies, Map<Integer, Long> unchangedPersons, PersistenceEngine engine)
+			throws SQLException {
+		Long productionTypeId = referenceData.countryTypeId(PRODUCTION_COUNTRY_TYPE, "Production country");
+		EntityIdIndex.Batch newIds = new EntityIdIndex.Batch();
+
+		Map<Integer, Long> companyIds = new HashMap<>();
+		Map<List<Object>, Long> providerIds = new HashMap<>();
+		Map<Integer, Long> moviePks = new LinkedHashMap<>();
+		Map<Integer, Long> moviePersons = new HashMap<>(unchangedPersons);
+		Map<Integer, TmdbPerson> personDetails = new HashMap<>();
+		for (FetchedMovie fetched : movies) {
+			moviePersons.putAll(fetched.freshPersons());
+			personDetails.putAll(fetched.personDetails());
+		}
+		if (engine == PersistenceEngine.JSONB) {
+			importDocuments(c, movies, moviePersons, personDetails, productionTypeId, newIds);
+			touchPersons(c, unchangedPersons);
+			c.commit();
+			idIndex.publish(newIds);
+			cacheUnchangedPersons(unchangedPersons);
+			return Map.of();
+		}
+
+		boolean arrayBound = engine == PersistenceEngine.UNNEST;
+		if (arrayBound) {
+			upsertEntitiesUnnest(c, movies, personDetails, companyIds, providerIds, moviePks, moviePersons, newIds);
+		} else {
+			for (FetchedMovie fetched : movies) {
+				TmdbMovie movie = fetched.movie();
+				for (TmdbMovie.Company pc : movie.productionCompanies()) {
+					if (!companyIds.containsKey(pc.tmdbId()))
+						companyIds.put(pc.tmdbId(), upsertProductionCompany(c, pc.tmdbId(), pc.name(),
+								blankToNull(pc.originCountry()), newIds));
+				}
+				moviePks.put(movie.tmdbId(), upsertMovie(c, movie));
 			}
 		}
+		touchPersons(c, unchangedPersons);
+
+		RelationWriter relations = new RelationWriter(c, moviePks.values(), arrayBound);
+		for (FetchedMovie fetched : movies) {
+			TmdbMovie movie = fetched.movie();
+			Long moviePk = moviePks.get(movie.tmdbId());
+
+			linkMovieGenres(relations, moviePk, movie.genres());
+			linkMovieSpokenLanguages(relations, moviePk, movie.spokenLanguages());
+			linkMovieCountries(relations, moviePk, productionTypeId, movie.productionCountries());
+			linkMovieProductionCompanies(relations, moviePk, movie.productionCompanies(), companyIds);
+
+			replaceMovieTitles(relations, moviePk, movie.alternativeTitles());
+			replaceMovieWatchProviders(c, relations, moviePk, movie.watchProviders(), providerIds, newIds);
+
+			replaceMovieCast(c, relations, moviePk, movie.cast(), personDetails, moviePersons);
+			replaceMovieCrew(c, relations, moviePk, movie.crew(), personDetails, moviePersons);
+		}
+		Map<RelationWriter.Relation, RelationWriter.Changes> changes = relations.write();
+
+		c.commit();
+
+		long committedAt = System.currentTimeMillis();
+		for (Map.Entry<Integer, Long> person : moviePersons.entrySet()) {
+			if (personDetails.get(person.getKey()) != null)
+				personCache.put(person.getKey(), person.getValue(), committedAt);
+			newIds.person(person.getKey(), person.getValue());
+		}
+		idIndex.publish(newIds);
+		cacheUnchangedPersons(unchangedPersons);
+		return changes;
 	}
 
 	/**
-	 * Legt ein Produktionsstudio an oder aktualisiert die bestehenden Daten.
+	 * Schreibt jeden Film der Gruppe als ein {@link MovieDocument} über die Datenbankfunktion {@code import_movie}:
+	 * ein Roundtrip pro Film, Upserts und Relationsabgleich laufen mengenbasiert in der Datenbank. Die Funktion liefert
+	 * die Primärschlüssel der geschriebenen Personen, die wie im JDBC-Pfad in {@link PersonCache} und
+	 * {@link EntityIdIndex} übernommen werden.
 	 */
-	private void upsertProductionCompany(Connection c, int tmdbId, String name, String originCountry)
+	private void importDocuments(Connection c, Collection<FetchedMovie> movies, Map<Integer, Long> moviePersons,
+			Map<Integer, TmdbPerson> personDetails, Long productionTypeId, EntityIdIndex.Batch newIds)
 			throws SQLException {
-		String oc = normalizeIso2(originCountry);
+		Map<Integer, Long> written = new HashMap<>();
+		try (PreparedStatement ps = c.prepareStatement("SELECT person_tmdb_id, person_pk FROM import_movie(?::jsonb)")) {
+			for (FetchedMovie fetched : movies) {
+				ps.setString(1, MovieDocument.of(fetched, moviePersons, referenceData, idIndex, productionTypeId)
+						.toJson());
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next())
+						written.put(rs.getInt(1), rs.getLong(2));
+				}
+				// in späteren Filmen der Gruppe werden bereits geschriebene Personen nur noch verknüpft
+				moviePersons.putAll(written);
+			}
+		}
 
-		if (oc != null) {
-			upsertCountry(c, oc, oc);
+		long committedAt = System.currentTimeMillis();
+		written.forEach((tmdbId, personId) -> {
+			if (personDetails.get(tmdbId) != null)
+				personCache.put(tmdbId, personId, committedAt);
+			newIds.person(tmdbId, personId);
+		});
+	}
+
+	/**
+	 * Schreibt alle Studios, Watch-Provider, Filme und Personen einer Gruppe mit je einer {@code unnest}-Anweisung
+	 * und trägt die Primärschlüssel in die übergebenen Maps ein. Die Auswahl der zu schreibenden Personen entspricht
+	 * {@link #ensurePerson}: bereits frische oder ohne neue Details bekannte Personen werden nicht geschrieben.
+	 */
+	private void upsertEntitiesUnnest(Connection c, Collection<FetchedMovie> movies,
+			Map<Integer, TmdbPerson> personDetails, Map<Integer, Long> companyIds,
+			Map<List<Object>, Long> providerIds, Map<Integer, Long> moviePks, Map<Integer, Long> moviePersons,
+			EntityIdIndex.Batch newIds) throws SQLException {
+		Map<List<Object>, Object[]> companies = new LinkedHashMap<>();
+		Map<List<Object>, Object[]> providers = new LinkedHashMap<>();
+		List<Object[]> movieRows = new ArrayList<>();
+		Map<List<Object>, Object[]> persons = new LinkedHashMap<>();
+		Map<Integer, List<String>> aliases = new HashMap<>();
+
+		for (FetchedMovie fetched : movies) {
+			TmdbMovie m = fetched.movie();
+			for (TmdbMovie.Company pc : m.productionCompanies()) {
+				Long known = idIndex.productionCompanyId(pc.tmdbId());
+				if (known != null)
+					companyIds.put(pc.tmdbId(), known);
+				else
+					companies.putIfAbsent(List.of(pc.tmdbId()), new Object[] { pc.tmdbId(), pc.name(),
+							normalizeIso2(blankToNull(pc.originCountry())) });
+			}
+			for (TmdbMovie.WatchProvider wp : m.watchProviders()) {
+				String region = normalizeIso2(wp.region());
+				if (region == null)
+					continue;
+				Long known = idIndex.watchProviderId(wp.providerTmdbId(), region);
+				if (known != null)
+					providerIds.put(List.of(wp.providerTmdbId(), region), known);
+				else
+					providers.putIfAbsent(List.of(wp.providerTmdbId(), region), new Object[] { wp.providerTmdbId(),
+							region, wp.name(), blankToNull(wp.logoPath()), wp.displayPriority() });
+			}
+			movieRows.add(new Object[] { m.tmdbId(), m.imdbId(), m.title(), m.originalTitle(), m.originalLanguage(),
+					m.adult(), m.video(), m.status(), toSqlDate(m.releaseDate()), m.budget(), m.revenue(),
+					m.runtime(), m.homepage(), m.overview(), m.popularity(), m.voteAverage(), m.voteCount(),
+					m.tagline(), m.contentHash() });
+
+			List<TmdbMovie.Credit> credits = new ArrayList<>(m.cast());
+			for (TmdbMovie.Crew member : m.crew()) {
+				String departmentName = blankToNull(member.department());
+				String jobName = blankToNull(member.job());
+				if (departmentName != null && jobName != null
+						&& referenceData.jobId(referenceData.departmentId(departmentName), jobName) != null)
+					credits.add(member);
+			}
+			for (TmdbMovie.Credit credit : credits) {
+				int tmdbId = credit.personTmdbId();
+				if (moviePersons.containsKey(tmdbId) || persons.containsKey(List.of(tmdbId)))
+					continue;
+				TmdbPerson detail = personDetails.get(tmdbId);
+				Long known = detail == null ? idIndex.personId(tmdbId) : null;
+				if (known != null) {
+					moviePersons.put(tmdbId, known);
+					continue;
+				}
+				PersonValues p = PersonValues.of(credit, detail);
+				persons.put(List.of(tmdbId), new Object[] { tmdbId, p.imdbId(), p.name(), p.gender(),
+						referenceData.departmentId(p.knownForDepartment()), p.biography(), p.birthday(),
+						p.deathday(), p.placeOfBirth(), p.homepage(), p.adult(), p.popularity(),
+						detail != null ? detail.contentHash() : null });
+				if (detail != null)
+					aliases.put(tmdbId, detail.aliases().stream().map(MovieImportService::blankToNull)
+							.filter(Objects::nonNull).toList());
+			}
 		}
 
+		UnnestUpserts.upsert(c, UnnestUpserts.Target.PRODUCTION_COMPANY, companies.values())
+				.forEach((key, id) -> {
+					companyIds.put((Integer) key.get(0), id);
+					newIds.productionCompany((Integer) key.get(0), id);
+				});
+		UnnestUpserts.upsert(c, UnnestUpserts.Target.WATCH_PROVIDER, providers.values())
+				.forEach((key, id) -> {
+					providerIds.put(key, id);
+					newIds.watchProvider((Integer) key.get(0), (String) key.get(1), id);
+				});
+		Map<List<Object>, Long> movieIds = UnnestUpserts.upsert(c, UnnestUpserts.Target.MOVIE, movieRows);
+		for (FetchedMovie fetched : movies)
+			moviePks.put(fetched.movie().tmdbId(), movieIds.get(List.of(fetched.movie().tmdbId())));
+		UnnestUpserts.upsert(c, UnnestUpserts.Target.PERSON, persons.values())
+				.forEach((key, id) -> moviePersons.put((Integer) key.get(0), id));
+
+		Map<Long, List<String>> aliasesByPersonId = new HashMap<>();
+		aliases.forEach((tmdbId, names) -> aliasesByPersonId.put(moviePersons.get(tmdbId), names));
+		UnnestUpserts.replacePersonAliases(c, aliasesByPersonId);
+	}
+
+	/**
+	 * Ermittelt die Personen mit Detaildaten, deren Fingerabdruck dem gespeicherten {@code content_hash} entspricht.
+	 *
+	 * @return TMDB-ID → Primärschlüssel der unveränderten Personen
+	 */
+	private Map<Integer, Long> findUnchangedPersons(Connection c, Collection<FetchedMovie> movies)
+			throws SQLException {
+		Map<Integer, Long> hashes = new HashMap<>();
+		for (FetchedMovie fetched : movies) {
+			for (Map.Entry<Integer, TmdbPerson> detail : fetched.personDetails().entrySet()) {
+				if (detail.getValue() == null)
+					continue;
+				if (idIndex.personsLoaded() && idIndex.personId(detail.getKey()) == null)
+					continue;
+				hashes.put(detail.getKey(), detail.getValue().contentHash());
+			}
+		}
+		Map<Integer, Long> unchanged = new HashMap<>();
+		if (hashes.isEmpty())
+			return unchanged;
+
 		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO production_company (tmdb_id, name, origin_country) VALUES (?, ?, ?) "
-						+ "ON CONFLICT (tmdb_id) DO UPDATE SET name = EXCLUDED.name, origin_country = EXCLUDED.origin_country")) {
-			ps.setInt(1, tmdbId);
-			ps.setString(2, name);
-			if (oc != null)
-				ps.setString(3, oc);
-			else
-				ps.setNull(3, Types.VARCHAR);
-			ps.executeUpdate();
+				"SELECT tmdb_id, id, content_hash FROM person WHERE tmdb_id = ANY(?) AND content_hash IS NOT NULL")) {
+			ps.setArray(1, c.createArrayOf("integer", hashes.keySet().toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					if (hashes.get(rs.getInt(1)) == rs.getLong(3))
+						unchanged.put(rs.getInt(1), rs.getLong(2));
+				}
+			}
 		}
+		return unchanged;
 	}
 
 	/**
-	 * Sorgt dafür, dass eine Department-Zeile existiert und gibt die ID zurück.
+	 * Ermittelt die Filme, deren Fingerabdruck dem gespeicherten {@code content_hash} entspricht und deren Personen
+	 * mit Detaildaten ebenfalls unverändert sind.
+	 *
+	 * @return TMDB-IDs der unveränderten Filme
 	 */
-	private Long upsertDepartment(Connection c, String name) throws SQLException {
-		if (name == null)
-			return null;
+	private Set<Integer> findUnchangedMovies(Connection c, Collection<FetchedMovie> movies,
+			Set<Integer> unchangedPersons) throws SQLException {
+		Map<Integer, Long> hashes = new HashMap<>();
+		for (FetchedMovie fetched : movies) {
+			boolean personsUnchanged = fetched.personDetails().entrySet().stream()
+					.allMatch(detail -> detail.getValue() == null || unchangedPersons.contains(detail.getKey()));
+			if (personsUnchanged)
+				hashes.put(fetched.movie().tmdbId(), fetched.movie().contentHash());
+		}
+		Set<Integer> unchanged = new HashSet<>();
+		if (hashes.isEmpty())
+			return unchanged;
+
 		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO department (name) VALUES (?) ON CONFLICT (name) DO NOTHING")) {
-			ps.setString(1, name);
+				"SELECT tmdb_id, content_hash FROM movie WHERE tmdb_id = ANY(?) AND content_hash IS NOT NULL")) {
+			ps.setArray(1, c.createArrayOf("integer", hashes.keySet().toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					if (hashes.get(rs.getInt(1)) == rs.getLong(2))
+						unchanged.add(rs.getInt(1));
+				}
+			}
+		}
+		return unchanged;
+	}
+
+	/**
+	 * Markiert unveränderte Personen als frisch abgerufen, ohne ihre Daten erneut zu schreiben.
+	 */
+	private void touchPersons(Connection c, Map<Integer, Long> persons) throws SQLException {
+		if (persons.isEmpty())
+			return;
+		try (PreparedStatement ps = c.prepareStatement("UPDATE person SET last_fetched_at = now() WHERE id = ANY(?)")) {
+			ps.setArray(1, c.createArrayOf("integer", persons.values().toArray()));
 			ps.executeUpdate();
 		}
-		try (PreparedStatement ps = c.prepareStatement("SELECT id FROM department WHERE name = ?")) {
-			ps.setString(1, name);
+	}
+
+	/**
+	 * Übernimmt unveränderte Personen als frisch in den {@link PersonCache}.
+	 */
+	private void cacheUnchangedPersons(Map<Integer, Long> persons) {
+		long fetchedAt = System.currentTimeMillis();
+		persons.forEach((tmdbId, personId) -> personCache.put(tmdbId, personId, fetchedAt));
+	}
+
+	// ============================================================
+	// UPSERT-Helfer
+	// ============================================================
+	/**
+	 * Liest die ID aus einem Upsert mit {@link #UNCHANGED_ID}. Wurde die Zeile erst nach Beginn der Anweisung von
+	 * einer parallelen Transaktion angelegt, sieht der Snapshot sie nicht; dann wird sie mit einer eigenen Abfrage
+	 * nachgeladen.
+	 */
+	private static long upsertedId(Connection c, PreparedStatement upsert, String table, String keyCondition,
+			Object... key) throws SQLException {
+		try (ResultSet rs = upsert.executeQuery()) {
+			if (rs.next())
+				return rs.getLong(1);
+		}
+		try (PreparedStatement ps = c.prepareStatement("SELECT id FROM " + table + " WHERE " + keyCondition)) {
+			for (int i = 0; i < key.length; i++)
+				ps.setObject(i + 1, key[i]);
 			try (ResultSet rs = ps.executeQuery()) {
-				if (rs.next())
-					return rs.getLong(1);
+				if (!rs.next())
+					throw new SQLException("No " + table + " row for key " + Arrays.toString(key));
+				return rs.getLong(1);
 			}
 		}
-		return null;
 	}
 
 	/**
-	 * Stellt sicher, dass ein Job innerhalb eines Departments existiert.
+	 * Legt ein Produktionsstudio an oder aktualisiert die bestehenden Daten und liefert seine ID. Für bereits im
+	 * {@link EntityIdIndex} bekannte Studios entfällt nur das Nachladen der ID: Geänderte Angaben werden wie bei COPY
+	 * und {@code import_movie} weiterhin geschrieben, unveränderte lassen die Zeile unangetastet.
 	 */
-	private Long upsertJob(Connection c, Long departmentId, String name) throws SQLException {
-		if (departmentId == null || name == null)
-			return null;
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO job (department_id, name) VALUES (?, ?) ON CONFLICT (department_id, name) DO NOTHING")) {
-			ps.setLong(1, departmentId);
-			ps.setString(2, name);
-			ps.executeUpdate();
+	private Long upsertProductionCompany(Connection c, int tmdbId, String name, String originCountry,
+			EntityIdIndex.Batch newIds) throws SQLException {
+		String oc = normalizeIso2(originCountry);
+
+		Long known = idIndex.productionCompanyId(tmdbId);
+		if (known != null) {
+			try (PreparedStatement ps = c.prepareStatement("UPDATE production_company SET name = ?, origin_country = ? "
+					+ "WHERE id = ? AND (name, origin_country) IS DISTINCT FROM (?, ?)")) {
+				ps.setString(1, name);
+				ps.setString(2, oc);
+				ps.setLong(3, known);
+				ps.setString(4, name);
+				ps.setString(5, oc);
+				ps.executeUpdate();
+			}
+			return known;
 		}
+
 		try (PreparedStatement ps = c.prepareStatement(
-				"SELECT id FROM job WHERE department_id = ? AND name = ?")) {
-			ps.setLong(1, departmentId);
+				"WITH upserted AS (INSERT INTO production_company (tmdb_id, name, origin_country) VALUES (?, ?, ?) "
+						+ "ON CONFLICT (tmdb_id) DO UPDATE SET name = EXCLUDED.name, origin_country = EXCLUDED.origin_country "
+						+ "WHERE (production_company.name, production_company.origin_country) "
+						+ "IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.origin_country) RETURNING id) "
+						+ UNCHANGED_ID.formatted("production_company", "tmdb_id = ?"))) {
+			ps.setInt(1, tmdbId);
 			ps.setString(2, name);
-			try (ResultSet rs = ps.executeQuery()) {
-				if (rs.next())
-					return rs.getLong(1);
-			}
+			if (oc != null)
+				ps.setString(3, oc);
+			else
+				ps.setNull(3, Types.VARCHAR);
+			ps.setInt(4, tmdbId);
+			long id = upsertedId(c, ps, "production_company", "tmdb_id = ?", tmdbId);
+			newIds.productionCompany(tmdbId, id);
+			return id;
 		}
-		return null;
 	}
 
 	/**
-	 * Legt eine Person an oder aktualisiert sie mit allen verfügbaren Stammdaten.
+	 * Legt eine Person an oder aktualisiert sie mit allen verfügbaren Stammdaten; sind alle Werte unverändert, bleibt
+	 * die Zeile (inklusive {@code last_fetched_at}) unangetastet. {@code last_fetched_at} wird nur mit Detaildaten
+	 * gesetzt, damit Personen ohne Detail-Response beim nächsten Import erneut abgefragt werden. Reine Credit-Daten
+	 * überschreiben keine Person, die bereits Detaildaten hat – auch dann nicht, wenn sie noch nicht im
+	 * {@link EntityIdIndex} steht.
+	 *
+	 * @param contentHash
+	 *     Fingerabdruck des Detail-Responses oder {@code null}, wenn nur Credit-Daten vorliegen
 	 */
-	private Long upsertPerson(Connection c, int tmdbId, String imdbId, String name, Integer gender,
+	Long upsertPerson(Connection c, int tmdbId, String imdbId, String name, Integer gender,
 			Long knownForDepartmentId, String biography, Date birthday, Date deathday, String placeOfBirth,
-			String homepage, Boolean adult, BigDecimal popularity) throws SQLException {
+			String homepage, Boolean adult, BigDecimal popularity, Long contentHash) throws SQLException {
 		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO person (tmdb_id, imdb_id, name, gender, known_for_department, biography, birthday, deathday, place_of_birth, homepage, adult, popularity) "
-						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+				"WITH upserted AS (INSERT INTO person (tmdb_id, imdb_id, name, gender, known_for_department, biography, birthday, deathday, place_of_birth, homepage, adult, popularity, content_hash, last_fetched_at) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CASE WHEN ? THEN now() END) "
 						+ "ON CONFLICT (tmdb_id) DO UPDATE SET "
 						+ "imdb_id = EXCLUDED.imdb_id, name = EXCLUDED.name, gender = EXCLUDED.gender, "
 						+ "known_for_department = EXCLUDED.known_for_department, biography = EXCLUDED.biography, "
 						+ "birthday = EXCLUDED.birthday, deathday = EXCLUDED.deathday, place_of_birth = EXCLUDED.place_of_birth, "
-						+ "homepage = EXCLUDED.homepage, adult = EXCLUDED.adult, popularity = EXCLUDED.popularity RETURNING id")) {
+						+ "homepage = EXCLUDED.homepage, adult = EXCLUDED.adult, popularity = EXCLUDED.popularity, "
+						+ "content_hash = EXCLUDED.content_hash, "
+						+ "last_fetched_at = coalesce(EXCLUDED.last_fetched_at, person.last_fetched_at) "
+						+ "WHERE (EXCLUDED.content_hash IS NOT NULL OR person.content_hash IS NULL) "
+						+ "AND (person.imdb_id, person.name, person.gender, person.known_for_department, person.biography, "
+						+ "person.birthday, person.deathday, person.place_of_birth, person.homepage, person.adult, "
+						+ "person.popularity, person.content_hash) IS DISTINCT FROM (EXCLUDED.imdb_id, EXCLUDED.name, "
+						+ "EXCLUDED.gender, EXCLUDED.known_for_department, EXCLUDED.biography, EXCLUDED.birthday, "
+						+ "EXCLUDED.deathday, EXCLUDED.place_of_birth, EXCLUDED.homepage, EXCLUDED.adult, "
+						+ "EXCLUDED.popularity, EXCLUDED.content_hash) RETURNING id) "
+						+ UNCHANGED_ID.formatted("person", "tmdb_id = ?"))) {
 			ps.setInt(1, tmdbId);
 			if (imdbId != null)
 				ps.setString(2, imdbId);
@@ -713,65 +1567,85 @@ public class MovieImportService {
 				ps.setBigDecimal(12, popularity);
 			else
 				ps.setNull(12, Types.NUMERIC);
+			if (contentHash != null)
+				ps.setLong(13, contentHash);
+			else
+				ps.setNull(13, Types.BIGINT);
+			ps.setBoolean(14, contentHash != null);
+			ps.setInt(15, tmdbId);
 
-			try (ResultSet rs = ps.executeQuery()) {
-				rs.next();
-				return rs.getLong(1);
-			}
+			return upsertedId(c, ps, "person", "tmdb_id = ?", tmdbId);
 		}
 	}
 
 	/**
-	 * Legt einen Watch-Provider für eine Region an oder aktualisiert ihn.
+	 * Legt einen Watch-Provider für eine Region an oder aktualisiert ihn. Für bereits im {@link EntityIdIndex} bekannte
+	 * Provider entfällt nur das Nachladen der ID; geänderte Angaben werden weiterhin geschrieben.
 	 */
-	private Long upsertWatchProvider(Connection c, JsonObject provider, String region) throws SQLException {
+	private Long upsertWatchProvider(Connection c, TmdbMovie.WatchProvider provider, String region,
+			EntityIdIndex.Batch newIds) throws SQLException {
 		if (region == null)
 			return null;
+		int providerTmdbId = provider.providerTmdbId();
+		String logo = blankToNull(provider.logoPath());
+		Long known = idIndex.watchProviderId(providerTmdbId, region);
+		if (known != null) {
+			try (PreparedStatement ps = c.prepareStatement("UPDATE watch_provider SET name = ?, logo_path = ?, "
+					+ "display_priority = ? WHERE id = ? AND (name, logo_path, display_priority) IS DISTINCT FROM "
+					+ "(?, ?, ?)")) {
+				ps.setString(1, provider.name());
+				ps.setString(2, logo);
+				ps.setObject(3, provider.displayPriority(), Types.INTEGER);
+				ps.setLong(4, known);
+				ps.setString(5, provider.name());
+				ps.setString(6, logo);
+				ps.setObject(7, provider.displayPriority(), Types.INTEGER);
+				ps.executeUpdate();
+			}
+			return known;
+		}
 		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO watch_provider (tmdb_id, name, logo_path, display_priority, region) VALUES (?, ?, ?, ?, ?) "
-						+ "ON CONFLICT (tmdb_id, region) DO UPDATE SET name = EXCLUDED.name, logo_path = EXCLUDED.logo_path, display_priority = EXCLUDED.display_priority RETURNING id")) {
-			ps.setInt(1, provider.getInt("provider_id"));
-			ps.setString(2, provider.getString("provider_name", null));
-			String logo = blankToNull(provider.getString("logo_path", null));
+				"WITH upserted AS (INSERT INTO watch_provider (tmdb_id, name, logo_path, display_priority, region) VALUES (?, ?, ?, ?, ?) "
+						+ "ON CONFLICT (tmdb_id, region) DO UPDATE SET name = EXCLUDED.name, logo_path = EXCLUDED.logo_path, display_priority = EXCLUDED.display_priority "
+						+ "WHERE (watch_provider.name, watch_provider.logo_path, watch_provider.display_priority) "
+						+ "IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.logo_path, EXCLUDED.display_priority) RETURNING id) "
+						+ UNCHANGED_ID.formatted("watch_provider", "tmdb_id = ? AND region = ?"))) {
+			ps.setInt(1, providerTmdbId);
+			ps.setString(2, provider.name());
 			if (logo != null)
 				ps.setString(3, logo);
 			else
 				ps.setNull(3, Types.VARCHAR);
-			if (provider.containsKey("display_priority") && !provider.isNull("display_priority"))
-				ps.setInt(4, provider.getInt("display_priority"));
+			if (provider.displayPriority() != null)
+				ps.setInt(4, provider.displayPriority());
 			else
 				ps.setNull(4, Types.INTEGER);
 			ps.setString(5, region);
+			ps.setInt(6, providerTmdbId);
+			ps.setString(7, region);
 
-			try (ResultSet rs = ps.executeQuery()) {
-				rs.next();
-				return rs.getLong(1);
-			}
+			long id = upsertedId(c, ps, "watch_provider", "tmdb_id = ? AND region = ?", providerTmdbId, region);
+			newIds.watchProvider(providerTmdbId, region, id);
+			return id;
 		}
 	}
 
 	/**
 	 * Ersetzt die Alias-Liste einer Person vollständig durch die Angaben aus dem Detail-Response.
 	 */
-	private void replacePersonAliases(Connection c, Long personId, JsonObject detail) throws SQLException {
+	private void replacePersonAliases(Connection c, Long personId, TmdbPerson detail) throws SQLException {
 		try (PreparedStatement delete = c.prepareStatement("DELETE FROM person_alias WHERE person_id = ?")) {
 			delete.setLong(1, personId);
 			delete.executeUpdate();
 		}
 
-		if (detail == null || !detail.containsKey("also_known_as"))
-			return;
-
-		JsonArray aliases = detail.getJsonArray("also_known_as");
-		if (aliases == null || aliases.isEmpty())
+		if (detail == null || detail.aliases().isEmpty())
 			return;
 
 		try (PreparedStatement insert = c.prepareStatement(
 				"INSERT INTO person_alias (person_id, alias) VALUES (?, ?)")) {
-			for (JsonValue value : aliases) {
-				if (value.getValueType() != JsonValue.ValueType.STRING)
-					continue;
-				String alias = blankToNull(((JsonString) value).getString());
+			for (String value : detail.aliases()) {
+				String alias = blankToNull(value);
 				if (alias == null)
 					continue;
 				insert.setLong(1, personId);
@@ -788,311 +1662,147 @@ public class MovieImportService {
 	/**
 	 * Verknüpft einen Film mit allen Genres aus dem JSON-Response.
 	 */
-	private void linkMovieGenres(Connection c, Long movieId, JsonArray genres) throws SQLException {
-		if (genres == null || genres.isEmpty())
-			return;
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_genre (movie_id, genre_id) VALUES (?, ?) "
-						+ "ON CONFLICT (movie_id, genre_id) DO NOTHING")) {
-			for (JsonValue v : genres) {
-				JsonObject g = v.asJsonObject();
-				Long genreId = findIdByTmdb(c, "genre", g.getInt("id"));
-				if (genreId == null)
-					continue;
-				ps.setLong(1, movieId);
-				ps.setLong(2, genreId);
-				ps.addBatch();
-			}
-			ps.executeBatch();
+	private void linkMovieGenres(RelationWriter relations, Long movieId, List<TmdbMovie.Genre> genres)
+			throws SQLException {
+		for (TmdbMovie.Genre g : genres) {
+			Long genreId = referenceData.genreId(g.tmdbId(), g.name());
+			if (genreId != null)
+				relations.add(RelationWriter.Relation.GENRE, movieId, genreId);
 		}
 	}
 
 	/**
-	 * Verknüpft Sprachen mit einem Film, wobei doppelte ISO-Codes vermieden werden.
+	 * Verknüpft Sprachen mit einem Film; doppelte ISO-Codes fasst der {@link RelationWriter} zusammen.
 	 */
-	private void linkMovieSpokenLanguages(Connection c, Long movieId, JsonArray languages) throws SQLException {
-		if (languages == null || languages.isEmpty())
-			return;
-		Set<String> inserted = new HashSet<>();
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_spoken_language (movie_id, iso_639_1) VALUES (?, ?) "
-						+ "ON CONFLICT (movie_id, iso_639_1) DO NOTHING")) {
-			for (JsonValue v : languages) {
-				JsonObject l = v.asJsonObject();
-				String iso = l.getString("iso_639_1", null);
-				if (iso == null || !inserted.add(iso))
-					continue;
-				ps.setLong(1, movieId);
-				ps.setString(2, iso);
-				ps.addBatch();
-			}
-			ps.executeBatch();
+	private void linkMovieSpokenLanguages(RelationWriter relations, Long movieId,
+			List<TmdbMovie.SpokenLanguage> languages) {
+		for (TmdbMovie.SpokenLanguage l : languages) {
+			if (l.iso() != null)
+				relations.add(RelationWriter.Relation.SPOKEN_LANGUAGE, movieId, l.iso());
 		}
 	}
 
 	/**
 	 * Speichert Produktionsländer für einen Film.
 	 */
-	private void linkMovieCountries(Connection c, Long movieId, Long countryTypeId, JsonArray countries)
-			throws SQLException {
-		if (countryTypeId == null || countries == null || countries.isEmpty())
+	private void linkMovieCountries(RelationWriter relations, Long movieId, Long countryTypeId,
+			List<TmdbMovie.Country> countries) {
+		if (countryTypeId == null)
 			return;
-		Set<String> inserted = new HashSet<>();
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_country (movie_id, iso_3166_1, country_type_id) VALUES (?, ?, ?) "
-						+ "ON CONFLICT (movie_id, iso_3166_1, country_type_id) DO NOTHING")) {
-			for (JsonValue v : countries) {
-				JsonObject pc = v.asJsonObject();
-				String iso = normalizeIso2(pc.getString("iso_3166_1", null));
-				if (iso == null || !inserted.add(iso))
-					continue;
-				ps.setLong(1, movieId);
-				ps.setString(2, iso);
-				ps.setLong(3, countryTypeId);
-				ps.addBatch();
-			}
-			ps.executeBatch();
+		for (TmdbMovie.Country pc : countries) {
+			String iso = normalizeIso2(pc.iso());
+			if (iso != null)
+				relations.add(RelationWriter.Relation.COUNTRY, movieId, iso, countryTypeId);
 		}
 	}
 
 	/**
-	 * Verknüpft Produktionsfirmen mit einem Film.
+	 * Verknüpft Produktionsfirmen mit einem Film anhand der zuvor aufgelösten IDs.
 	 */
-	private void linkMovieProductionCompanies(Connection c, Long movieId, JsonArray companies) throws SQLException {
-		if (companies == null || companies.isEmpty())
-			return;
-		Set<Long> inserted = new HashSet<>();
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_production_company (movie_id, production_company_id) VALUES (?, ?) "
-						+ "ON CONFLICT (movie_id, production_company_id) DO NOTHING")) {
-			for (JsonValue v : companies) {
-				JsonObject pc = v.asJsonObject();
-				Long pcId = findIdByTmdb(c, "production_company", pc.getInt("id"));
-				if (pcId == null || !inserted.add(pcId))
-					continue;
-				ps.setLong(1, movieId);
-				ps.setLong(2, pcId);
-				ps.addBatch();
-			}
-			ps.executeBatch();
+	private void linkMovieProductionCompanies(RelationWriter relations, Long movieId,
+			List<TmdbMovie.Company> companies, Map<Integer, Long> companyIds) {
+		for (TmdbMovie.Company pc : companies) {
+			Long pcId = companyIds.get(pc.tmdbId());
+			if (pcId != null)
+				relations.add(RelationWriter.Relation.PRODUCTION_COMPANY, movieId, pcId);
 		}
 	}
 
 	/**
-	 * Fügt eine konkrete Anbieter-Zeile in der Join-Tabelle hinzu.
+	 * Gleicht die alternativen Titel eines Films mit den in TMDB gelieferten ab.
 	 */
-	private void linkMovieWatchProvider(PreparedStatement ps, Long movieId, Long providerId,
-			String type, String link) throws SQLException {
-		ps.setLong(1, movieId);
-		ps.setLong(2, providerId);
-		ps.setString(3, type);
-		if (link != null)
-			ps.setString(4, link);
-		else
-			ps.setNull(4, Types.VARCHAR);
-		ps.addBatch();
-	}
-
-	/**
-	 * Ersetzt alle alternativen Titel eines Films durch die in TMDB gelieferten.
-	 */
-	private void replaceMovieTitles(Connection c, Long movieId, JsonObject alternativeTitles) throws SQLException {
-		clearMovieRelation(c, "movie_title", movieId);
-		if (alternativeTitles == null || !alternativeTitles.containsKey("titles"))
-			return;
-		JsonArray titles = alternativeTitles.getJsonArray("titles");
-		if (titles == null || titles.isEmpty())
-			return;
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_title (movie_id, iso_3166_1, title, type) VALUES (?, ?, ?, ?)")) {
-			for (JsonValue value : titles) {
-				JsonObject t = value.asJsonObject();
-				String iso = normalizeIso2(t.getString("iso_3166_1", null));
-				if (iso == null)
-					continue;
-				upsertCountry(c, iso, iso);
-				String title = blankToNull(t.getString("title", null));
-				String type = blankToNull(t.getString("type", null));
-				ps.setLong(1, movieId);
-				ps.setString(2, iso);
-				if (title != null)
-					ps.setString(3, title);
-				else
-					ps.setNull(3, Types.VARCHAR);
-				if (type != null)
-					ps.setString(4, type);
-				else
-					ps.setNull(4, Types.VARCHAR);
-				ps.addBatch();
-			}
-			ps.executeBatch();
+	private void replaceMovieTitles(RelationWriter relations, Long movieId, List<TmdbMovie.AlternativeTitle> titles) {
+		for (TmdbMovie.AlternativeTitle t : titles) {
+			String iso = normalizeIso2(t.iso());
+			if (iso != null)
+				relations.add(RelationWriter.Relation.TITLE, movieId, iso, blankToNull(t.title()),
+						blankToNull(t.type()));
 		}
 	}
 
 	/**
-	 * Ersetzt alle Watch-Provider-Einträge eines Films in allen Regionen.
+	 * Gleicht die Watch-Provider-Einträge eines Films in allen Regionen ab. Bereits in dieser Gruppe aufgelöste
+	 * Provider ({@code providerIds}, Schlüssel TMDB-ID und Region) werden nicht erneut geschrieben.
 	 */
-	private void replaceMovieWatchProviders(Connection c, Long movieId, JsonObject watchProviders) throws Exception {
-		clearMovieRelation(c, "movie_watch_provider", movieId);
-		if (watchProviders == null || !watchProviders.containsKey("results"))
-			return;
-		JsonObject results = watchProviders.getJsonObject("results");
-		if (results == null)
-			return;
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_watch_provider (movie_id, provider_id, type, link) VALUES (?, ?, ?, ?) "
-						+ "ON CONFLICT (movie_id, provider_id, type) DO UPDATE SET link = EXCLUDED.link")) {
-			for (String regionCode : results.keySet()) {
-				String iso = normalizeIso2(regionCode);
-				if (iso == null)
-					continue;
-				upsertCountry(c, iso, iso);
-				JsonObject region = results.getJsonObject(regionCode);
-				if (region == null)
-					continue;
-				String link = blankToNull(region.getString("link", null));
-				processWatchProviderType(c, ps, movieId, iso, link, region, "flatrate");
-				processWatchProviderType(c, ps, movieId, iso, link, region, "buy");
-				processWatchProviderType(c, ps, movieId, iso, link, region, "rent");
-				processWatchProviderType(c, ps, movieId, iso, link, region, "ads");
-				processWatchProviderType(c, ps, movieId, iso, link, region, "free");
+	private void replaceMovieWatchProviders(Connection c, RelationWriter relations, Long movieId,
+			List<TmdbMovie.WatchProvider> watchProviders, Map<List<Object>, Long> providerIds,
+			EntityIdIndex.Batch newIds) throws SQLException {
+		for (TmdbMovie.WatchProvider provider : watchProviders) {
+			String iso = normalizeIso2(provider.region());
+			if (iso == null)
+				continue;
+			Long providerId = providerIds.get(List.of(provider.providerTmdbId(), iso));
+			if (providerId == null) {
+				providerId = upsertWatchProvider(c, provider, iso, newIds);
+				if (providerId != null)
+					providerIds.put(List.of(provider.providerTmdbId(), iso), providerId);
 			}
-			ps.executeBatch();
-		}
-	}
-
-	/**
-	 * Verarbeitet eine einzelne Anbieter-Kategorie (z. B. Kauf oder Flatrate).
-	 */
-	private void processWatchProviderType(Connection c, PreparedStatement ps, Long movieId, String region, String link,
-			JsonObject regionData, String type) throws Exception {
-		if (!regionData.containsKey(type))
-			return;
-		JsonArray providers = regionData.getJsonArray(type);
-		if (providers == null)
-			return;
-		for (JsonValue value : providers) {
-			JsonObject provider = value.asJsonObject();
-			Long providerId = upsertWatchProvider(c, provider, region);
 			if (providerId != null)
-				linkMovieWatchProvider(ps, movieId, providerId, type, link);
+				relations.add(RelationWriter.Relation.WATCH_PROVIDER, movieId, providerId, provider.type(),
+						blankToNull(provider.link()));
 		}
 	}
 
 	/**
-	 * Ersetzt die gesamte Besetzung eines Films anhand des Credits-Arrays.
+	 * Gleicht die gesamte Besetzung eines Films mit dem Credits-Array ab.
 	 */
-	private void replaceMovieCast(Connection c, Long movieId, JsonArray cast, Map<Integer, Long> personCache)
-			throws Exception {
-		clearMovieRelation(c, "movie_cast", movieId);
-		if (cast == null)
-			return;
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_cast (movie_id, person_id, character_name, cast_order) VALUES (?, ?, ?, ?)")) {
-			for (JsonValue value : cast) {
-				JsonObject member = value.asJsonObject();
-				Long personId = ensurePerson(c, member, personCache);
-				if (personId == null)
-					continue;
-				String character = blankToNull(member.getString("character", null));
-				Integer order = member.containsKey("order") && !member.isNull("order")
-						? member.getInt("order")
-						: null;
-				ps.setLong(1, movieId);
-				ps.setLong(2, personId);
-				if (character != null)
-					ps.setString(3, character);
-				else
-					ps.setNull(3, Types.VARCHAR);
-				if (order != null)
-					ps.setInt(4, order);
-				else
-					ps.setNull(4, Types.INTEGER);
-				ps.addBatch();
-			}
-			ps.executeBatch();
+	private void replaceMovieCast(Connection c, RelationWriter relations, Long movieId, List<TmdbMovie.Cast> cast,
+			Map<Integer, TmdbPerson> personDetails, Map<Integer, Long> personCache) throws SQLException {
+		for (TmdbMovie.Cast member : cast) {
+			Long personId = ensurePerson(c, member, personDetails, personCache);
+			if (personId != null)
+				relations.add(RelationWriter.Relation.CAST, movieId, personId, blankToNull(member.character()),
+						member.order());
 		}
 	}
 
 	/**
-	 * Ersetzt die gesamte Crew eines Films inklusive Job/Department-Verknüpfung.
+	 * Gleicht die gesamte Crew eines Films inklusive Job/Department-Verknüpfung ab.
 	 */
-	private void replaceMovieCrew(Connection c, Long movieId, JsonArray crew, Map<Integer, Long> personCache)
-			throws Exception {
-		clearMovieRelation(c, "movie_crew", movieId);
-		if (crew == null)
-			return;
-		Set<String> inserted = new HashSet<>();
-		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie_crew (movie_id, person_id, job_id) VALUES (?, ?, ?)")) {
-			for (JsonValue value : crew) {
-				JsonObject member = value.asJsonObject();
-				String departmentName = blankToNull(member.getString("department", null));
-				String jobName = blankToNull(member.getString("job", null));
-				if (departmentName == null || jobName == null)
-					continue;
-				Long departmentId = upsertDepartment(c, departmentName);
-				Long jobId = upsertJob(c, departmentId, jobName);
-				if (jobId == null)
-					continue;
-				Long personId = ensurePerson(c, member, personCache);
-				if (personId == null)
-					continue;
-				String key = movieId + ":" + personId + ":" + jobId;
-				if (!inserted.add(key))
-					continue;
-				ps.setLong(1, movieId);
-				ps.setLong(2, personId);
-				ps.setLong(3, jobId);
-				ps.addBatch();
-			}
-			ps.executeBatch();
+	private void replaceMovieCrew(Connection c, RelationWriter relations, Long movieId, List<TmdbMovie.Crew> crew,
+			Map<Integer, TmdbPerson> personDetails, Map<Integer, Long> personCache) throws SQLException {
+		for (TmdbMovie.Crew member : crew) {
+			String departmentName = blankToNull(member.department());
+			String jobName = blankToNull(member.job());
+			if (departmentName == null || jobName == null)
+				continue;
+			Long departmentId = referenceData.departmentId(departmentName);
+			Long jobId = referenceData.jobId(departmentId, jobName);
+			if (jobId == null)
+				continue;
+			Long personId = ensurePerson(c, member, personDetails, personCache);
+			if (personId != null)
+				relations.add(RelationWriter.Relation.CREW, movieId, personId, jobId);
 		}
 	}
 
 	/**
-	 * Sorgt dafür, dass eine Person aus den Credit-Daten in der Datenbank existiert und liefert ihre ID.
+	 * Sorgt dafür, dass eine Person aus den Credit-Daten in der Datenbank existiert und liefert ihre ID. Die
+	 * Detaildaten stammen aus der vorgelagerten Fetch-Phase; noch frische Personen liegen bereits im
+	 * {@code personCache} und werden ohne Schreibzugriff übernommen. Personen ohne neue Details, die bereits im
+	 * {@link EntityIdIndex} stehen, werden ebenfalls nicht erneut geschrieben.
 	 */
-	private Long ensurePerson(Connection c, JsonObject creditData, Map<Integer, Long> personCache) throws Exception {
-		int tmdbId = creditData.getInt("id");
+	private Long ensurePerson(Connection c, TmdbMovie.Credit creditData, Map<Integer, TmdbPerson> personDetails,
+			Map<Integer, Long> personCache) throws SQLException {
+		int tmdbId = creditData.personTmdbId();
 		if (personCache.containsKey(tmdbId))
 			return personCache.get(tmdbId);
 
-		JsonObject detail = fetchPersonDetails(tmdbId);
-
-		String knownFor = detail != null ? blankToNull(detail.getString("known_for_department", null)) : null;
-		if (knownFor == null)
-			knownFor = blankToNull(creditData.getString("known_for_department", null));
-		Long knownForDeptId = upsertDepartment(c, knownFor);
-
-		String imdbId = detail != null ? blankToNull(detail.getString("imdb_id", null)) : null;
-		String name = detail != null ? blankToNull(detail.getString("name", null)) : null;
-		if (name == null)
-			name = blankToNull(creditData.getString("name", null));
-		if (name == null)
-			name = "Unknown";
-
-		Integer gender = null;
-		if (detail != null && detail.containsKey("gender") && !detail.isNull("gender"))
-			gender = detail.getInt("gender");
-		else if (creditData.containsKey("gender") && !creditData.isNull("gender"))
-			gender = creditData.getInt("gender");
-
-		String biography = detail != null ? blankToNull(detail.getString("biography", null)) : null;
-		Date birthday = detail != null ? toSqlDate(detail.getString("birthday", null)) : null;
-		Date deathday = detail != null ? toSqlDate(detail.getString("deathday", null)) : null;
-		String placeOfBirth = detail != null ? blankToNull(detail.getString("place_of_birth", null)) : null;
-		String homepage = detail != null ? blankToNull(detail.getString("homepage", null)) : null;
-		Boolean adult = null;
-		if (detail != null && detail.containsKey("adult") && !detail.isNull("adult"))
-			adult = detail.getBoolean("adult");
-		else if (creditData.containsKey("adult") && !creditData.isNull("adult"))
-			adult = creditData.getBoolean("adult");
-
-		BigDecimal popularity = detail != null ? toBigDecimal(detail) : toBigDecimal(creditData);
-
-		Long personId = upsertPerson(c, tmdbId, imdbId, name, gender, knownForDeptId, biography, birthday,
-				deathday, placeOfBirth, homepage, adult, popularity);
+		TmdbPerson detail = personDetails.get(tmdbId);
+		if (detail == null) {
+			Long known = idIndex.personId(tmdbId);
+			if (known != null) {
+				personCache.put(tmdbId, known);
+				return known;
+			}
+		}
+
+		PersonValues p = PersonValues.of(creditData, detail);
+		Long knownForDeptId = referenceData.departmentId(p.knownForDepartment());
+
+		Long personId = upsertPerson(c, tmdbId, p.imdbId(), p.name(), p.gender(), knownForDeptId, p.biography(),
+				p.birthday(), p.deathday(), p.placeOfBirth(), p.homepage(), p.adult(), p.popularity(),
+				detail != null ? detail.contentHash() : null);
 		if (detail != null)
 			replacePersonAliases(c, personId, detail);
 		personCache.put(tmdbId, personId);
@@ -1100,33 +1810,38 @@ public class MovieImportService {
 	}
 
 	/**
-	 * Löscht alle Zeilen einer movie-bezogenen Tabelle für eine konkrete Film-ID.
+	 * Zu schreibende Stammdaten einer Person: Werte aus dem Detail-Response haben Vorrang, fehlende Angaben werden aus
+	 * dem Credit-Eintrag des Films ergänzt.
 	 */
-	private void clearMovieRelation(Connection c, String table, Long movieId) throws SQLException {
-		try (PreparedStatement ps = c.prepareStatement("DELETE FROM " + table + " WHERE movie_id = ?")) {
-			ps.setLong(1, movieId);
-			ps.executeUpdate();
+	record PersonValues(String imdbId, String name, Integer gender, String knownForDepartment, String biography,
+			Date birthday, Date deathday, String placeOfBirth, String homepage, Boolean adult, BigDecimal popularity) {
+
+		static PersonValues of(TmdbMovie.Credit creditData, TmdbPerson detail) {
+			String knownFor = detail != null ? blankToNull(detail.knownForDepartment()) : null;
+			if (knownFor == null)
+				knownFor = blankToNull(creditData.knownForDepartment());
+
+			String name = detail != null ? blankToNull(detail.name()) : null;
+			if (name == null)
+				name = blankToNull(creditData.name());
+			if (name == null)
+				name = "Unknown";
+
+			if (detail == null)
+				return new PersonValues(null, name, creditData.gender(), knownFor, null, null, null, null, null,
+						creditData.adult(), creditData.popularity());
+			return new PersonValues(blankToNull(detail.imdbId()), name,
+					detail.gender() != null ? detail.gender() : creditData.gender(), knownFor,
+					blankToNull(detail.biography()), toSqlDate(detail.birthday()), toSqlDate(detail.deathday()),
+					blankToNull(detail.placeOfBirth()), blankToNull(detail.homepage()),
+					detail.adult() != null ? detail.adult() : creditData.adult(), detail.popularity());
 		}
 	}
 
-	/**
-	 * Löscht alle abhängigen Relationen eines Films, bevor neue Daten geschrieben werden.
-	 */
-	private void clearMovieRelations(Connection c, Long movieId) throws SQLException {
-		clearMovieRelation(c, "movie_genre", movieId);
-		clearMovieRelation(c, "movie_spoken_language", movieId);
-		clearMovieRelation(c, "movie_country", movieId);
-		clearMovieRelation(c, "movie_production_company", movieId);
-		clearMovieRelation(c, "movie_title", movieId);
-		clearMovieRelation(c, "movie_cast", movieId);
-		clearMovieRelation(c, "movie_crew", movieId);
-		clearMovieRelation(c, "movie_watch_provider", movieId);
-	}
-
 	/**
 	 * Konvertiert ein Datums-String in ein SQL-Datum, falls möglich.
 	 */
-	private static Date toSqlDate(String s) {
+	static Date toSqlDate(String s) {
 		if (s == null || s.isBlank())
 			return null;
 		try {
@@ -1137,67 +1852,65 @@ public class MovieImportService {
 	}
 
 	/**
-	 * Liest eine Dezimalzahl aus einem JSON-Objekt aus.
+	 * Legt den Movie-Datensatz an oder aktualisiert ihn mit allen Stammdaten; wie bei Personen, Studios und Providern
+	 * entsteht nur dann eine neue Tupelversion, wenn sich eine geschriebene Spalte tatsächlich unterscheidet.
 	 */
-	private BigDecimal toBigDecimal(JsonObject json) {
-		if (json == null || !json.containsKey("popularity") || json.isNull("popularity"))
-			return null;
-		return new BigDecimal(json.getJsonNumber("popularity").toString());
-	}
-
-	/**
-	 * Legt den Movie-Datensatz an oder aktualisiert ihn mit allen Stammdaten.
-	 */
-	private Long upsertMovie(Connection c, jakarta.json.JsonObject j) throws SQLException {
+	Long upsertMovie(Connection c, TmdbMovie m) throws SQLException {
 		try (PreparedStatement ps = c.prepareStatement(
-				"INSERT INTO movie (tmdb_id, imdb_id, title, original_title, original_language, adult, video, status, "
-						+ "release_date, budget, revenue, runtime, homepage, overview, popularity, vote_average, vote_count, tagline) "
-						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+				"WITH upserted AS (INSERT INTO movie (tmdb_id, imdb_id, title, original_title, original_language, adult, video, status, "
+						+ "release_date, budget, revenue, runtime, homepage, overview, popularity, vote_average, vote_count, tagline, "
+						+ "content_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
 						+ "ON CONFLICT (tmdb_id) DO UPDATE SET "
 						+ "imdb_id=EXCLUDED.imdb_id, title=EXCLUDED.title, original_title=EXCLUDED.original_title, "
 						+ "original_language=EXCLUDED.original_language, adult=EXCLUDED.adult, video=EXCLUDED.video, "
 						+ "status=EXCLUDED.status, release_date=EXCLUDED.release_date, budget=EXCLUDED.budget, "
 						+ "revenue=EXCLUDED.revenue, runtime=EXCLUDED.runtime, homepage=EXCLUDED.homepage, "
 						+ "overview=EXCLUDED.overview, popularity=EXCLUDED.popularity, vote_average=EXCLUDED.vote_average, "
-						+ "vote_count=EXCLUDED.vote_count, tagline=EXCLUDED.tagline RETURNING id")) {
-			ps.setInt(1, j.getInt("id"));
-			ps.setString(2, j.getString("imdb_id", null));
-			ps.setString(3, j.getString("title", null));
-			ps.setString(4, j.getString("original_title", null));
-			ps.setString(5, j.getString("original_language", null));
-			ps.setObject(6, j.getBoolean("adult", false));
-			ps.setObject(7, j.getBoolean("video", false));
-			ps.setString(8, j.getString("status", null));
-
-			Date rd = toSqlDate(j.getString("release_date", null));
+						+ "vote_count=EXCLUDED.vote_count, tagline=EXCLUDED.tagline, content_hash=EXCLUDED.content_hash "
+						+ "WHERE (movie.imdb_id, movie.title, movie.original_title, movie.original_language, movie.adult, "
+						+ "movie.video, movie.status, movie.release_date, movie.budget, movie.revenue, movie.runtime, "
+						+ "movie.homepage, movie.overview, movie.popularity, movie.vote_average, movie.vote_count, "
+						+ "movie.tagline, movie.content_hash) IS DISTINCT FROM (EXCLUDED.imdb_id, EXCLUDED.title, "
+						+ "EXCLUDED.original_title, EXCLUDED.original_language, EXCLUDED.adult, EXCLUDED.video, "
+						+ "EXCLUDED.status, EXCLUDED.release_date, EXCLUDED.budget, EXCLUDED.revenue, EXCLUDED.runtime, "
+						+ "EXCLUDED.homepage, EXCLUDED.overview, EXCLUDED.popularity, EXCLUDED.vote_average, "
+						+ "EXCLUDED.vote_count, EXCLUDED.tagline, EXCLUDED.content_hash) RETURNING id) "
+						+ UNCHANGED_ID.formatted("movie", "tmdb_id = ?"))) {
+			ps.setInt(1, m.tmdbId());
+			ps.setString(2, m.imdbId());
+			ps.setString(3, m.title());
+			ps.setString(4, m.originalTitle());
+			ps.setString(5, m.originalLanguage());
+			ps.setObject(6, m.adult());
+			ps.setObject(7, m.video());
+			ps.setString(8, m.status());
+
+			Date rd = toSqlDate(m.releaseDate());
 			if (rd == null)
 				ps.setNull(9, Types.DATE);
 			else
 				ps.setDate(9, rd);
 
-			ps.setObject(10, j.isNull("budget") ? null : j.getInt("budget"));
-			ps.setObject(11, j.isNull("revenue") ? null : j.getJsonNumber("revenue").longValue());
-			ps.setObject(12, j.isNull("runtime") ? null : j.getInt("runtime"));
-			ps.setString(13, j.getString("homepage", null));
-			ps.setString(14, j.getString("overview", null));
-			ps.setObject(15,
-					j.isNull("popularity") ? null : new java.math.BigDecimal(j.getJsonNumber("popularity").toString()));
-			ps.setObject(16, j.isNull("vote_average") ? null
-					: new java.math.BigDecimal(j.getJsonNumber("vote_average").toString()));
-			ps.setObject(17, j.isNull("vote_count") ? null : j.getInt("vote_count"));
-			ps.setString(18, j.getString("tagline", null));
-
-			try (ResultSet rs = ps.executeQuery()) {
-				rs.next();
-				return rs.getLong(1);
-			}
+			ps.setObject(10, m.budget());
+			ps.setObject(11, m.revenue());
+			ps.setObject(12, m.runtime());
+			ps.setString(13, m.homepage());
+			ps.setString(14, m.overview());
+			ps.setObject(15, m.popularity());
+			ps.setObject(16, m.voteAverage());
+			ps.setObject(17, m.voteCount());
+			ps.setString(18, m.tagline());
+			ps.setLong(19, m.contentHash());
+			ps.setInt(20, m.tmdbId());
+
+			return upsertedId(c, ps, "movie", "tmdb_id = ?", m.tmdbId());
 		}
 	}
 
 	/**
 	 * Normalisiert ISO-Codes, indem Leerzeichen entfernt und leere Strings unterdrückt werden.
 	 */
-	private static String normalizeIso2(String s) {
+	static String normalizeIso2(String s) {
 		if (s == null)
 			return null;
 		String t = s.trim();
@@ -1207,24 +1920,10 @@ public class MovieImportService {
 	/**
 	 * Wandelt leere Strings in {@code null} um.
 	 */
-	private static String blankToNull(String s) {
+	static String blankToNull(String s) {
 		if (s == null)
 			return null;
 		return s.isBlank() ? null : s;
 	}
 
-	/**
-	 * Liefert die Primärschlüssel-ID zu einer TMDB-ID aus einer beliebigen Tabelle.
-	 */
-	private Long findIdByTmdb(Connection c, String table, int tmdbId) throws SQLException {
-		try (PreparedStatement ps = c.prepareStatement("SELECT id FROM " + table + " WHERE tmdb_id = ?")) {
-			ps.setInt(1, tmdbId);
-			try (ResultSet rs = ps.executeQuery()) {
-				if (rs.next())
-					return rs.getLong(1);
-				else
-					return null;
-			}
-		}
-	}
 }
@@ -0,0 +1,37 @@
+package com.adt.service;
+
+import java.util.Locale;
+
+/**
+ * Schreibverfahren der Persist-Stufe eines Imports.
+ */
+public enum PersistenceEngine {
+
+	/** Zeilenweise Upserts per {@code PreparedStatement} in (gruppierten) Transaktionen. */
+	JDBC,
+
+	/**
+	 * Wie {@link #JDBC}, bindet aber jede Tabelle einer Schreibgruppe als PostgreSQL-Arrays in eine einzige
+	 * {@code unnest}-Anweisung, sodass die Zahl der Anweisungen pro Gruppe unabhängig von Cast- und Crew-Größe ist.
+	 */
+	UNNEST,
+
+	/**
+	 * Schickt jeden Film als vollständiges {@code jsonb}-Dokument an die Datenbankfunktion {@code import_movie}, die
+	 * alle Upserts und den Relationsabgleich serverseitig mengenbasiert ausführt: ein Roundtrip pro Film.
+	 */
+	JSONB,
+
+	/**
+	 * Bulk-Modus für große Backfills: parallele {@code COPY}-Streams in UNLOGGED-Staging-Tabellen und ein
+	 * mengenbasierter Merge nach Abschluss des Imports.
+	 */
+	COPY;
+
+	/**
+	 * Wird von JAX-RS für Query-Parameter verwendet und akzeptiert die Namen unabhängig von Groß-/Kleinschreibung.
+	 */
+	public static PersistenceEngine fromString(String value) {
+		return valueOf(value.trim().toUpperCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,130 @@
+package com.adt.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Job-übergreifender, größenbeschränkter Cache (LRU) für bereits importierte Personen. Er merkt sich pro TMDB-ID den
+ * Primärschlüssel und den Zeitpunkt des letzten Detailabrufs, damit frische Personen weder erneut bei TMDB abgefragt
+ * noch erneut geschrieben werden.
+ */
+@ApplicationScoped
+public class PersonCache {
+
+	@ConfigProperty(name = "adt.import.person.cache-size", defaultValue = "100000")
+	int maxEntries;
+
+	@ConfigProperty(name = "adt.import.person.ttl", defaultValue = "P7D")
+	Duration ttl;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private LinkedHashMap<Integer, CachedPerson> entries;
+
+	private Counter cacheHits;
+	private Counter databaseHits;
+	private Counter misses;
+
+	/**
+	 * Eintrag des Caches: Primärschlüssel der Person und Zeitpunkt des letzten TMDB-Abrufs (Epoch-Millis).
+	 */
+	private record CachedPerson(long personId, long fetchedAtMillis) {
+	}
+
+	@PostConstruct
+	void init() {
+		int capacity = Math.max(1, maxEntries);
+		entries = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, CachedPerson> eldest) {
+				return size() > capacity;
+			}
+		};
+
+		cacheHits = meterRegistry.counter("adt.import.person.lookups", "result", "cache-hit");
+		databaseHits = meterRegistry.counter("adt.import.person.lookups", "result", "db-hit");
+		misses = meterRegistry.counter("adt.import.person.lookups", "result", "miss");
+		meterRegistry.gauge("adt.import.person.cache.size", this, PersonCache::size);
+		meterRegistry.gauge("adt.import.person.cache.hit_ratio", this, PersonCache::hitRatio);
+	}
+
+	/**
+	 * Liefert den Primärschlüssel einer Person, sofern sie im Cache liegt und innerhalb der TTL abgerufen wurde.
+	 */
+	public Long freshPersonId(int tmdbId) {
+		CachedPerson cached;
+		lock.lock();
+		try {
+			cached = entries.get(tmdbId);
+		} finally {
+			lock.unlock();
+		}
+		if (cached != null && isFresh(cached.fetchedAtMillis())) {
+			cacheHits.increment();
+			return cached.personId();
+		}
+		return null;
+	}
+
+	/**
+	 * Übernimmt eine Person, deren Frische über {@code person.last_fetched_at} in der Datenbank bestätigt wurde.
+	 */
+	public void putFromDatabase(int tmdbId, long personId, long fetchedAtMillis) {
+		databaseHits.increment();
+		put(tmdbId, personId, fetchedAtMillis);
+	}
+
+	/**
+	 * Zählt eine Person, deren Details neu bei TMDB abgerufen werden müssen.
+	 */
+	public void recordMiss() {
+		misses.increment();
+	}
+
+	/**
+	 * Legt eine (nach dem Commit) geschriebene Person im Cache ab.
+	 */
+	public void put(int tmdbId, long personId, long fetchedAtMillis) {
+		lock.lock();
+		try {
+			entries.put(tmdbId, new CachedPerson(personId, fetchedAtMillis));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Prüft, ob ein Abrufzeitpunkt noch innerhalb der konfigurierten TTL liegt.
+	 */
+	public boolean isFresh(long fetchedAtMillis) {
+		return System.currentTimeMillis() - fetchedAtMillis < ttl.toMillis();
+	}
+
+	private double size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private double hitRatio() {
+		double hits = cacheHits.count() + databaseHits.count();
+		double total = hits + misses.count();
+		return total == 0 ? 0.0 : hits / total;
+	}
+}
@@ -0,0 +1,96 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Dauerhafte Warteschlange {@code person_enrichment_queue} für Personen, deren Details nach dem Import nachgeladen
+ * werden. Jede Person steht höchstens einmal in der Queue, egal in wie vielen Filmen sie vorkommt. Worker beanspruchen
+ * fällige Einträge mit {@code FOR UPDATE SKIP LOCKED} und einer Lease statt einer offenen Transaktion, sodass keine
+ * Connection während der TMDB-Aufrufe belegt bleibt und abgebrochene Einträge nach Ablauf der Lease erneut fällig
+ * werden.
+ */
+@ApplicationScoped
+public class PersonEnrichmentQueue {
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private Counter enqueued;
+
+	@PostConstruct
+	void registerMetrics() {
+		enqueued = Counter.builder("adt.import.enrichment.enqueued")
+				.description("In die Enrichment-Queue eingetragene Personen (ohne bereits wartende)")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Trägt Personen ein; bereits wartende Einträge bleiben unverändert.
+	 */
+	public void enqueue(Collection<Integer> personTmdbIds) throws SQLException {
+		if (personTmdbIds.isEmpty())
+			return;
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("INSERT INTO person_enrichment_queue (person_tmdb_id) "
+						+ "SELECT unnest(?) ON CONFLICT (person_tmdb_id) DO NOTHING")) {
+			ps.setArray(1, c.createArrayOf("integer", personTmdbIds.toArray()));
+			enqueued.increment(ps.executeUpdate());
+		}
+	}
+
+	/**
+	 * Beansprucht bis zu {@code limit} fällige Einträge für die Dauer von {@code lease} und zählt ihre Versuche hoch.
+	 *
+	 * @return TMDB-ID → Anzahl der Versuche einschließlich des aktuellen
+	 */
+	public Map<Integer, Integer> claim(int limit, Duration lease) throws SQLException {
+		Map<Integer, Integer> claimed = new LinkedHashMap<>();
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("WITH due AS (SELECT person_tmdb_id FROM person_enrichment_queue "
+						+ "WHERE not_before <= now() ORDER BY not_before LIMIT ? FOR UPDATE SKIP LOCKED) "
+						+ "UPDATE person_enrichment_queue q SET not_before = now() + make_interval(secs => ?), "
+						+ "attempts = q.attempts + 1 FROM due WHERE q.person_tmdb_id = due.person_tmdb_id "
+						+ "RETURNING q.person_tmdb_id, q.attempts")) {
+			ps.setInt(1, limit);
+			ps.setDouble(2, lease.toMillis() / 1000.0);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					claimed.put(rs.getInt(1), rs.getInt(2));
+			}
+		}
+		return claimed;
+	}
+
+	/**
+	 * Entfernt abgeschlossene (oder endgültig aufgegebene) Einträge.
+	 */
+	public void complete(Collection<Integer> personTmdbIds) throws SQLException {
+		if (personTmdbIds.isEmpty())
+			return;
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement(
+						"DELETE FROM person_enrichment_queue WHERE person_tmdb_id = ANY(?)")) {
+			ps.setArray(1, c.createArrayOf("integer", personTmdbIds.toArray()));
+			ps.executeUpdate();
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package com.adt.service;
+
+import static com.adt.service.MovieImportService.blankToNull;
+import static com.adt.service.MovieImportService.toSqlDate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Arbeitet die {@link PersonEnrichmentQueue} im Hintergrund ab: Ein virtueller Thread beansprucht fällige Personen
+ * blockweise, lädt ihre Details mit begrenzter Parallelität und einem eigenen Anteil am TMDB-Budget
+ * ({@code adt.import.enrichment.per-second}, zusätzlich zum globalen {@link TmdbRateLimiter}) und schreibt sie
+ * mengenbasiert in einer kurzen Transaktion. Fehlgeschlagene Abrufe bleiben bis zum Ablauf der Lease liegen und werden
+ * nach {@code adt.import.enrichment.max-attempts} Versuchen aufgegeben.
+ */
+@ApplicationScoped
+public class PersonEnrichmentWorker {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	@Inject
+	PersonEnrichmentQueue queue;
+
+	@Inject
+	MovieImportService importService;
+
+	@Inject
+	ReferenceDataResolver referenceData;
+
+	@Inject
+	PersonCache personCache;
+
+	@ConfigProperty(name = "adt.import.enrichment.worker-enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "adt.import.enrichment.batch-size", defaultValue = "100")
+	int batchSize;
+
+	@ConfigProperty(name = "adt.import.enrichment.concurrency", defaultValue = "4")
+	int concurrency;
+
+	@ConfigProperty(name = "adt.import.enrichment.per-second", defaultValue = "10")
+	int perSecond;
+
+	@ConfigProperty(name = "adt.import.enrichment.poll-interval", defaultValue = "PT5S")
+	Duration pollInterval;
+
+	@ConfigProperty(name = "adt.import.enrichment.lease", defaultValue = "PT5M")
+	Duration lease;
+
+	@ConfigProperty(name = "adt.import.enrichment.max-attempts", defaultValue = "5")
+	int maxAttempts;
+
+	private volatile Thread worker;
+
+	private Counter enriched;
+	private Counter notFound;
+	private Counter failed;
+	private Counter abandoned;
+
+	@PostConstruct
+	void registerMetrics() {
+		enriched = meterRegistry.counter("adt.import.enrichment.persons", "result", "enriched");
+		notFound = meterRegistry.counter("adt.import.enrichment.persons", "result", "not-found");
+		failed = meterRegistry.counter("adt.import.enrichment.persons", "result", "failed");
+		abandoned = meterRegistry.counter("adt.import.enrichment.persons", "result", "abandoned");
+	}
+
+	void onStart(@Observes StartupEvent event) {
+		if (enabled)
+			worker = Thread.ofVirtual().name("person-enrichment").start(this::run);
+	}
+
+	@PreDestroy
+	void stop() {
+		Thread t = worker;
+		if (t != null)
+			t.interrupt();
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				int claimed = 0;
+				try {
+					claimed = drainBatch();
+				} catch (SQLException | RuntimeException e) {
+					// der Worker ist der einzige Thread, der die Queue leert, und muss weiterlaufen
+					System.err.println("❌ Person enrichment batch failed: " + e.getMessage());
+				}
+				if (claimed == 0)
+					Thread.sleep(pollInterval);
+			}
+		} catch (InterruptedException e) {
+			// Shutdown
+		}
+	}
+
+	/**
+	 * Beansprucht und verarbeitet einen Block fälliger Personen.
+	 *
+	 * @return Anzahl der beanspruchten Personen ({@code 0}, wenn nichts fällig ist)
+	 */
+	int drainBatch() throws SQLException, InterruptedException {
+		Map<Integer, Integer> claimed = queue.claim(batchSize, lease);
+		if (claimed.isEmpty())
+			return 0;
+
+		Map<Integer, Optional<TmdbPerson>> details = new ConcurrentHashMap<>();
+		Set<Integer> errors = ConcurrentHashMap.newKeySet();
+		Semaphore permits = new Semaphore(Math.max(1, concurrency));
+		long interval = NANOS_PER_SECOND / Math.max(1, perSecond);
+		long nextSlot = System.nanoTime();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int personTmdbId : claimed.keySet()) {
+				long waitNanos = nextSlot - System.nanoTime();
+				if (waitNanos > 0)
+					Thread.sleep(Duration.ofNanos(waitNanos));
+				nextSlot = Math.max(nextSlot, System.nanoTime()) + interval;
+				permits.acquire();
+				executor.submit(() -> {
+					try {
+						details.put(personTmdbId, Optional.ofNullable(importService.fetchPersonDetails(personTmdbId)));
+					} catch (Exception e) {
+						errors.add(personTmdbId);
+						System.err.println("❌ Enrichment of TMDB person " + personTmdbId + " failed: "
+								+ e.getMessage());
+					} finally {
+						permits.release();
+					}
+				});
+			}
+		}
+
+		write(details);
+
+		List<Integer> done = new ArrayList<>(details.keySet());
+		for (int personTmdbId : errors) {
+			failed.increment();
+			if (claimed.get(personTmdbId) >= maxAttempts) {
+				abandoned.increment();
+				done.add(personTmdbId);
+			}
+		}
+		queue.complete(done);
+		return claimed.size();
+	}
+
+	/**
+	 * Schreibt die geladenen Details in einer Transaktion: eine {@code UPDATE ... FROM unnest(...)}-Anweisung für alle
+	 * Personen, deren geschriebene Spalten sich tatsächlich unterscheiden, die Aliasse über
+	 * {@link UnnestUpserts#replacePersonAliases}. Unveränderte Personen werden wie im Import nur als abgerufen markiert.
+	 * Angaben, die nur im Detail-Response fehlen, behalten wie im Import den Wert aus den Credits. Personen, zu denen
+	 * TMDB keine Details liefert, bleiben unmarkiert und werden beim nächsten Import erneut abgefragt; Personen ohne
+	 * Datensatz (z. B. nach einem fehlgeschlagenen Filmimport) werden übergangen.
+	 */
+	private void write(Map<Integer, Optional<TmdbPerson>> details) throws SQLException {
+		List<Object[]> rows = new ArrayList<>();
+		List<Integer> missing = new ArrayList<>();
+		Map<Integer, List<String>> aliases = new HashMap<>();
+		for (Map.Entry<Integer, Optional<TmdbPerson>> entry : details.entrySet()) {
+			TmdbPerson p = entry.getValue().orElse(null);
+			if (p == null) {
+				missing.add(entry.getKey());
+				continue;
+			}
+			rows.add(new Object[] { entry.getKey(), blankToNull(p.imdbId()), blankToNull(p.name()), p.gender(),
+					referenceData.departmentId(blankToNull(p.knownForDepartment())), blankToNull(p.biography()),
+					toSqlDate(p.birthday()), toSqlDate(p.deathday()), blankToNull(p.placeOfBirth()),
+					blankToNull(p.homepage()), p.adult(), p.popularity(), p.contentHash() });
+			aliases.put(entry.getKey(), p.aliases().stream().map(MovieImportService::blankToNull)
+					.filter(Objects::nonNull).toList());
+		}
+		if (rows.isEmpty()) {
+			notFound.increment(missing.size());
+			return;
+		}
+
+		String[] types = { "integer", "text", "text", "integer", "integer", "text", "date", "date", "text", "text",
+				"boolean", "numeric", "bigint" };
+		Map<Integer, Long> personIds = new HashMap<>();
+		try (Connection c = ds.getConnection()) {
+			c.setAutoCommit(false);
+			try {
+				try (PreparedStatement ps = c.prepareStatement("UPDATE person p SET imdb_id = d.imdb_id, "
+						+ "name = COALESCE(d.name, p.name), gender = COALESCE(d.gender, p.gender), "
+						+ "known_for_department = COALESCE(d.known_for_department, p.known_for_department), "
+						+ "biography = d.biography, birthday = d.birthday, deathday = d.deathday, "
+						+ "place_of_birth = d.place_of_birth, homepage = d.homepage, adult = COALESCE(d.adult, p.adult), "
+						+ "popularity = d.popularity, content_hash = d.content_hash, last_fetched_at = now() "
+						+ "FROM unnest(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) AS d (tmdb_id, imdb_id, name, gender, "
+						+ "known_for_department, biography, birthday, deathday, place_of_birth, homepage, adult, "
+						+ "popularity, content_hash) WHERE p.tmdb_id = d.tmdb_id "
+						+ "AND (p.imdb_id, p.name, p.gender, p.known_for_department, p.biography, p.birthday, "
+						+ "p.deathday, p.place_of_birth, p.homepage, p.adult, p.popularity, p.content_hash) "
+						+ "IS DISTINCT FROM (d.imdb_id, COALESCE(d.name, p.name), COALESCE(d.gender, p.gender), "
+						+ "COALESCE(d.known_for_department, p.known_for_department), d.biography, d.birthday, "
+						+ "d.deathday, d.place_of_birth, d.homepage, COALESCE(d.adult, p.adult), d.popularity, "
+						+ "d.content_hash) RETURNING p.tmdb_id, p.id")) {
+					for (int column = 0; column < types.length; column++) {
+						Object[] values = new Object[rows.size()];
+						for (int i = 0; i < values.length; i++)
+							values[i] = rows.get(i)[column];
+						ps.setArray(column + 1, c.createArrayOf(types[column], values));
+					}
+					try (ResultSet rs = ps.executeQuery()) {
+						while (rs.next())
+							personIds.put(rs.getInt(1), rs.getLong(2));
+					}
+				}
+				// der Fingerabdruck deckt die Aliasse ab: nur geänderte Personen bekommen neue
+				Map<Long, List<String>> aliasesByPersonId = new HashMap<>();
+				personIds.forEach((tmdbId, personId) -> aliasesByPersonId.put(personId, aliases.get(tmdbId)));
+				UnnestUpserts.replacePersonAliases(c, aliasesByPersonId);
+
+				List<Integer> unchanged = new ArrayList<>(aliases.keySet());
+				unchanged.removeAll(personIds.keySet());
+				if (!unchanged.isEmpty()) {
+					try (PreparedStatement ps = c.prepareStatement(
+							"UPDATE person SET last_fetched_at = now() WHERE tmdb_id = ANY(?) RETURNING tmdb_id, id")) {
+						ps.setArray(1, c.createArrayOf("integer", unchanged.toArray()));
+						try (ResultSet rs = ps.executeQuery()) {
+							while (rs.next())
+								personIds.put(rs.getInt(1), rs.getLong(2));
+						}
+					}
+				}
+				c.commit();
+			} catch (SQLException e) {
+				c.rollback();
+				throw e;
+			} finally {
+				c.setAutoCommit(true);
+			}
+		}
+
+		long committedAt = System.currentTimeMillis();
+		personIds.forEach((tmdbId, personId) -> personCache.put(tmdbId, personId, committedAt));
+		enriched.increment(personIds.size());
+		notFound.increment(missing.size());
+	}
+}
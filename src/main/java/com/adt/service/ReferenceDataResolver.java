@@ -0,0 +1,329 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Hält die kleinen Stammdatentabellen (genre, department, job, country, language, country_type) vollständig im
+ * Speicher und beantwortet Lookups ohne SQL. Nur tatsächlich neue Schlüssel werden geschrieben – jeweils in einer
+ * eigenen, sofort committeten Anweisung, sodass der Cache nie IDs aus einer später zurückgerollten Import-Transaktion
+ * enthält. Gleichzeitige Inserts desselben Schlüssels sind über {@code ON CONFLICT DO NOTHING} und ein
+ * nachgelagertes {@code SELECT} abgesichert.
+ */
+@ApplicationScoped
+public class ReferenceDataResolver {
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private final Map<Integer, Long> genres = new ConcurrentHashMap<>();
+	private final Map<String, Long> departments = new ConcurrentHashMap<>();
+	private final Map<JobKey, Long> jobs = new ConcurrentHashMap<>();
+	private final Map<String, String> countries = new ConcurrentHashMap<>();
+	private final Map<String, LanguageNames> languages = new ConcurrentHashMap<>();
+	private final Map<String, Long> countryTypes = new ConcurrentHashMap<>();
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final ReentrantLock loadLock = new ReentrantLock();
+	private volatile boolean loaded;
+	private volatile boolean genresSynchronized;
+
+	private record JobKey(long departmentId, String name) {
+	}
+
+	private record LanguageNames(String englishName, String name) {
+	}
+
+	/**
+	 * Lädt alle Stammdaten beim Start der Anwendung vor. Schlägt das fehl (z. B. DB noch nicht erreichbar), wird beim
+	 * ersten Lookup erneut geladen.
+	 */
+	void onStart(@Observes StartupEvent event) {
+		try {
+			ensureLoaded();
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to preload reference data: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gibt an, ob die Genre-Liste seit dem Start bereits mit TMDB abgeglichen wurde.
+	 */
+	public boolean genresSynchronized() {
+		return genresSynchronized;
+	}
+
+	/**
+	 * Übernimmt die vollständige Genre-Liste von TMDB (inklusive Namensänderungen) und markiert sie als abgeglichen.
+	 */
+	public void synchronizeGenres(Map<Integer, String> tmdbGenres) throws SQLException {
+		ensureLoaded();
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement(
+						"INSERT INTO genre (tmdb_id, name) VALUES (?, ?) "
+								+ "ON CONFLICT (tmdb_id) DO UPDATE SET name = EXCLUDED.name "
+								+ "WHERE genre.name IS DISTINCT FROM EXCLUDED.name RETURNING id")) {
+			for (Map.Entry<Integer, String> genre : tmdbGenres.entrySet()) {
+				if (genre.getValue() == null)
+					continue;
+				ps.setInt(1, genre.getKey());
+				ps.setString(2, genre.getValue());
+				// unveränderte Genres liefern keine Zeile und behalten ihre bereits geladene ID
+				try (ResultSet rs = ps.executeQuery()) {
+					if (rs.next())
+						genres.put(genre.getKey(), rs.getLong(1));
+				}
+			}
+		}
+		genresSynchronized = true;
+	}
+
+	/**
+	 * Liefert die ID eines Genres und legt es bei Bedarf an.
+	 */
+	public Long genreId(int tmdbId, String name) throws SQLException {
+		ensureLoaded();
+		Long id = genres.get(tmdbId);
+		if (id != null) {
+			hit("genre");
+			return id;
+		}
+		if (name == null)
+			return null;
+		id = insertOrSelect(
+				"INSERT INTO genre (tmdb_id, name) VALUES (?, ?) ON CONFLICT DO NOTHING RETURNING id",
+				"SELECT id FROM genre WHERE tmdb_id = ?",
+				new Object[] { tmdbId, name }, new Object[] { tmdbId });
+		return remember("genre", genres, tmdbId, id);
+	}
+
+	/**
+	 * Liefert die ID eines Departments und legt es bei Bedarf an.
+	 */
+	public Long departmentId(String name) throws SQLException {
+		if (name == null)
+			return null;
+		ensureLoaded();
+		Long id = departments.get(name);
+		if (id != null) {
+			hit("department");
+			return id;
+		}
+		id = insertOrSelect(
+				"INSERT INTO department (name) VALUES (?) ON CONFLICT (name) DO NOTHING RETURNING id",
+				"SELECT id FROM department WHERE name = ?",
+				new Object[] { name }, new Object[] { name });
+		return remember("department", departments, name, id);
+	}
+
+	/**
+	 * Liefert die ID eines Jobs innerhalb eines Departments und legt ihn bei Bedarf an.
+	 */
+	public Long jobId(Long departmentId, String name) throws SQLException {
+		if (departmentId == null || name == null)
+			return null;
+		ensureLoaded();
+		JobKey key = new JobKey(departmentId, name);
+		Long id = jobs.get(key);
+		if (id != null) {
+			hit("job");
+			return id;
+		}
+		id = insertOrSelect(
+				"INSERT INTO job (department_id, name) VALUES (?, ?) ON CONFLICT (department_id, name) DO NOTHING RETURNING id",
+				"SELECT id FROM job WHERE department_id = ? AND name = ?",
+				new Object[] { departmentId, name }, new Object[] { departmentId, name });
+		return remember("job", jobs, key, id);
+	}
+
+	/**
+	 * Liefert die ID eines Country-Types und legt ihn bei Bedarf an.
+	 */
+	public Long countryTypeId(String code, String description) throws SQLException {
+		ensureLoaded();
+		Long id = countryTypes.get(code);
+		if (id != null) {
+			hit("country_type");
+			return id;
+		}
+		id = insertOrSelect(
+				"INSERT INTO country_type (code, description) VALUES (?, ?) ON CONFLICT (code) DO NOTHING RETURNING id",
+				"SELECT id FROM country_type WHERE code = ?",
+				new Object[] { code, description }, new Object[] { code });
+		return remember("country_type", countryTypes, code, id);
+	}
+
+	/**
+	 * Stellt sicher, dass ein Land existiert. Ein bisher nur mit dem ISO-Code als Platzhalter angelegtes Land erhält
+	 * seinen echten Namen, sobald dieser bekannt wird.
+	 */
+	public void ensureCountry(String iso3166_1, String name) throws SQLException {
+		ensureLoaded();
+		String effectiveName = (name == null || name.isBlank()) ? iso3166_1 : name;
+		String cached = countries.get(iso3166_1);
+		if (cached != null) {
+			if (cached.equals(iso3166_1) && !effectiveName.equals(iso3166_1)) {
+				executeUpdate("UPDATE country SET name = ? WHERE iso_3166_1 = ?", effectiveName, iso3166_1);
+				countries.put(iso3166_1, effectiveName);
+				insert("country");
+			} else {
+				hit("country");
+			}
+			return;
+		}
+		executeUpdate("INSERT INTO country (iso_3166_1, name) VALUES (?, ?) ON CONFLICT (iso_3166_1) DO NOTHING",
+				iso3166_1, effectiveName);
+		String stored = selectString("SELECT name FROM country WHERE iso_3166_1 = ?", iso3166_1);
+		if (stored != null)
+			countries.put(iso3166_1, stored);
+		insert("country");
+	}
+
+	/**
+	 * Stellt sicher, dass eine Sprache existiert, und ergänzt fehlende Namen, sobald sie geliefert werden.
+	 */
+	public void ensureLanguage(String iso639_1, String englishName, String name) throws SQLException {
+		ensureLoaded();
+		LanguageNames cached = languages.get(iso639_1);
+		if (cached != null) {
+			boolean completes = (cached.englishName() == null && englishName != null)
+					|| (cached.name() == null && name != null);
+			if (!completes) {
+				hit("language");
+				return;
+			}
+		}
+		executeUpdate("INSERT INTO language (iso_639_1, english_name, name) VALUES (?, ?, ?) "
+				+ "ON CONFLICT (iso_639_1) DO UPDATE SET "
+				+ "english_name = COALESCE(EXCLUDED.english_name, language.english_name), "
+				+ "name = COALESCE(EXCLUDED.name, language.name) "
+				+ "WHERE (language.english_name, language.name) IS DISTINCT FROM "
+				+ "(COALESCE(EXCLUDED.english_name, language.english_name), COALESCE(EXCLUDED.name, language.name))",
+				iso639_1, englishName, name);
+		languages.put(iso639_1, new LanguageNames(
+				englishName != null ? englishName : cached != null ? cached.englishName() : null,
+				name != null ? name : cached != null ? cached.name() : null));
+		insert("language");
+	}
+
+	/**
+	 * Lädt alle Stammdatentabellen einmalig in den Speicher.
+	 */
+	private void ensureLoaded() throws SQLException {
+		if (loaded)
+			return;
+		loadLock.lock();
+		try {
+			if (loaded)
+				return;
+			try (Connection c = ds.getConnection()) {
+				load(c, "SELECT tmdb_id, id FROM genre", rs -> genres.put(rs.getInt(1), rs.getLong(2)));
+				load(c, "SELECT name, id FROM department", rs -> departments.put(rs.getString(1), rs.getLong(2)));
+				load(c, "SELECT department_id, name, id FROM job",
+						rs -> jobs.put(new JobKey(rs.getLong(1), rs.getString(2)), rs.getLong(3)));
+				load(c, "SELECT iso_3166_1, name FROM country", rs -> countries.put(rs.getString(1), rs.getString(2)));
+				load(c, "SELECT iso_639_1, english_name, name FROM language",
+						rs -> languages.put(rs.getString(1), new LanguageNames(rs.getString(2), rs.getString(3))));
+				load(c, "SELECT code, id FROM country_type", rs -> countryTypes.put(rs.getString(1), rs.getLong(2)));
+			}
+			loaded = true;
+		} finally {
+			loadLock.unlock();
+		}
+	}
+
+	@FunctionalInterface
+	private interface RowConsumer {
+		void accept(ResultSet rs) throws SQLException;
+	}
+
+	private void load(Connection c, String sql, RowConsumer consumer) throws SQLException {
+		try (PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+			while (rs.next())
+				consumer.accept(rs);
+		}
+	}
+
+	/**
+	 * Fügt einen neuen Schlüssel ein und liefert dessen ID. Hat ein paralleler Import denselben Schlüssel bereits
+	 * angelegt, liefert {@code RETURNING} nichts und die ID wird nachgelesen.
+	 */
+	private Long insertOrSelect(String insertSql, String selectSql, Object[] insertParams, Object[] selectParams)
+			throws SQLException {
+		try (Connection c = ds.getConnection()) {
+			try (PreparedStatement ps = c.prepareStatement(insertSql)) {
+				bind(ps, insertParams);
+				try (ResultSet rs = ps.executeQuery()) {
+					if (rs.next())
+						return rs.getLong(1);
+				}
+			}
+			try (PreparedStatement ps = c.prepareStatement(selectSql)) {
+				bind(ps, selectParams);
+				try (ResultSet rs = ps.executeQuery()) {
+					return rs.next() ? rs.getLong(1) : null;
+				}
+			}
+		}
+	}
+
+	private void executeUpdate(String sql, Object... params) throws SQLException {
+		try (Connection c = ds.getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+			bind(ps, params);
+			ps.executeUpdate();
+		}
+	}
+
+	private String selectString(String sql, Object... params) throws SQLException {
+		try (Connection c = ds.getConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+			bind(ps, params);
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getString(1) : null;
+			}
+		}
+	}
+
+	private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+		for (int i = 0; i < params.length; i++)
+			ps.setObject(i + 1, params[i]);
+	}
+
+	private <K> Long remember(String table, Map<K, Long> cache, K key, Long id) {
+		if (id == null)
+			return null;
+		cache.put(key, id);
+		insert(table);
+		return id;
+	}
+
+	private void hit(String table) {
+		counter(table, "hit").increment();
+	}
+
+	private void insert(String table) {
+		counter(table, "write").increment();
+	}
+
+	private Counter counter(String table, String result) {
+		return counters.computeIfAbsent(table + ":" + result,
+				key -> meterRegistry.counter("adt.import.reference.lookups", "table", table, "result", result));
+	}
+}
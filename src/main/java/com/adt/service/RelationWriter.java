@@ -0,0 +1,232 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.adt.entity.dto.RelationChangesDTO;
+
+/**
+ * Schreibt die Relationen einer Schreibgruppe als Differenz zum Datenbankbestand: Die gewünschten Zeilen werden
+ * gesammelt, die vorhandenen Zeilen der Filme je Tabelle mit einer Abfrage geladen, und nur entfernte bzw. neue Zeilen
+ * werden gelöscht bzw. eingefügt – per JDBC-Batch oder, mit {@code arrayBound}, spaltenweise als Arrays in einer
+ * einzigen {@code INSERT ... SELECT FROM unnest(...)}-Anweisung. Unveränderte Filme erzeugen so weder tote Tupel noch
+ * WAL oder Index-Änderungen.
+ */
+final class RelationWriter {
+
+	/**
+	 * Relationstabellen mit ihren Wertspalten ({@code "name typ"}, der Typ gilt für die Array-Bindung). Die ersten
+	 * {@code uniqueColumns} Spalten bilden zusammen mit {@code movie_id} den Unique-Constraint der Tabelle; {@code 0}
+	 * bedeutet, dass Duplikate erlaubt sind.
+	 */
+	enum Relation {
+		GENRE("movie_genre", 1, "genre_id integer"),
+		SPOKEN_LANGUAGE("movie_spoken_language", 1, "iso_639_1 text"),
+		COUNTRY("movie_country", 2, "iso_3166_1 text", "country_type_id integer"),
+		PRODUCTION_COMPANY("movie_production_company", 1, "production_company_id integer"),
+		TITLE("movie_title", 0, "iso_3166_1 text", "title text", "type text"),
+		WATCH_PROVIDER("movie_watch_provider", 2, "provider_id integer", "type text", "link text"),
+		CAST("movie_cast", 2, "person_id integer", "character_name text", "cast_order integer"),
+		CREW("movie_crew", 2, "person_id integer", "job_id integer");
+
+		final String table;
+		final int uniqueColumns;
+		final String[] columns;
+		final String[] types;
+
+		Relation(String table, int uniqueColumns, String... columns) {
+			this.table = table;
+			this.uniqueColumns = uniqueColumns;
+			this.columns = new String[columns.length];
+			this.types = new String[columns.length];
+			for (int i = 0; i < columns.length; i++) {
+				String[] column = columns[i].split(" ");
+				this.columns[i] = column[0];
+				this.types[i] = column[1];
+			}
+		}
+	}
+
+	/**
+	 * Anzahl beibehaltener, hinzugefügter und entfernter Zeilen einer Tabelle.
+	 */
+	record Changes(long kept, long added, long removed) {
+	}
+
+	/**
+	 * Summiert die Änderungen aller Schreibgruppen eines Imports.
+	 */
+	static final class Totals {
+		private final Map<Relation, LongAdder[]> counts = new EnumMap<>(Relation.class);
+
+		Totals() {
+			for (Relation relation : Relation.values())
+				counts.put(relation, new LongAdder[] { new LongAdder(), new LongAdder(), new LongAdder() });
+		}
+
+		void add(Map<Relation, Changes> changes) {
+			changes.forEach((relation, c) -> {
+				LongAdder[] adders = counts.get(relation);
+				adders[0].add(c.kept());
+				adders[1].add(c.added());
+				adders[2].add(c.removed());
+			});
+		}
+
+		List<RelationChangesDTO> toDtos() {
+			List<RelationChangesDTO> dtos = new ArrayList<>();
+			counts.forEach((relation, adders) -> dtos.add(new RelationChangesDTO(relation.table, adders[0].sum(),
+					adders[1].sum(), adders[2].sum())));
+			return dtos;
+		}
+	}
+
+	private final Connection connection;
+	private final Collection<Long> movieIds;
+	private final boolean arrayBound;
+	private final Map<Relation, Map<List<Object>, List<Object>>> unique = new EnumMap<>(Relation.class);
+	private final Map<Relation, List<List<Object>>> duplicatesAllowed = new EnumMap<>(Relation.class);
+
+	/**
+	 * @param arrayBound
+	 *     neue Zeilen als Arrays in einer {@code unnest}-Anweisung statt als JDBC-Batch einfügen
+	 */
+	RelationWriter(Connection connection, Collection<Long> movieIds, boolean arrayBound) {
+		this.connection = connection;
+		this.movieIds = movieIds;
+		this.arrayBound = arrayBound;
+	}
+
+	/**
+	 * Merkt eine gewünschte Zeile vor. Bei Tabellen mit Unique-Constraint gewinnt die zuletzt übergebene Zeile.
+	 */
+	void add(Relation relation, long movieId, Object... values) {
+		List<Object> row = new ArrayList<>(values.length + 1);
+		row.add(movieId);
+		for (Object value : values)
+			row.add(normalize(value));
+
+		if (relation.uniqueColumns == 0) {
+			duplicatesAllowed.computeIfAbsent(relation, r -> new ArrayList<>()).add(row);
+			return;
+		}
+		unique.computeIfAbsent(relation, r -> new LinkedHashMap<>())
+				.put(row.subList(0, relation.uniqueColumns + 1), row);
+	}
+
+	/**
+	 * Gleicht alle Relationstabellen mit dem Bestand der Filme ab.
+	 *
+	 * @return Änderungen je Tabelle
+	 */
+	Map<Relation, Changes> write() throws SQLException {
+		Map<Relation, Changes> changes = new EnumMap<>(Relation.class);
+		for (Relation relation : Relation.values()) {
+			Collection<List<Object>> desired = relation.uniqueColumns == 0
+					? duplicatesAllowed.getOrDefault(relation, List.of())
+					: unique.getOrDefault(relation, Map.of()).values();
+			changes.put(relation, write(relation, desired));
+		}
+		return changes;
+	}
+
+	private Changes write(Relation relation, Collection<List<Object>> desired) throws SQLException {
+		// vorhandene Zeilen inkl. Mehrfachvorkommen: Zeileninhalt -> IDs
+		Map<List<Object>, Deque<Long>> existing = new HashMap<>();
+		try (PreparedStatement ps = connection.prepareStatement("SELECT id, movie_id, "
+				+ String.join(", ", relation.columns) + " FROM " + relation.table + " WHERE movie_id = ANY(?)")) {
+			ps.setArray(1, connection.createArrayOf("integer", movieIds.toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					List<Object> row = new ArrayList<>(relation.columns.length + 1);
+					for (int i = 2; i <= relation.columns.length + 2; i++)
+						row.add(normalize(rs.getObject(i)));
+					existing.computeIfAbsent(row, r -> new ArrayDeque<>()).add(rs.getLong(1));
+				}
+			}
+		}
+
+		List<List<Object>> added = new ArrayList<>();
+		long kept = 0;
+		for (List<Object> row : desired) {
+			Deque<Long> ids = existing.get(row);
+			if (ids != null && !ids.isEmpty()) {
+				ids.poll();
+				kept++;
+			} else {
+				added.add(row);
+			}
+		}
+
+		List<Long> removed = new ArrayList<>();
+		for (Deque<Long> ids : existing.values())
+			removed.addAll(ids);
+		if (!removed.isEmpty()) {
+			try (PreparedStatement delete = connection.prepareStatement(
+					"DELETE FROM " + relation.table + " WHERE id = ANY(?)")) {
+				delete.setArray(1, connection.createArrayOf("integer", removed.toArray()));
+				delete.executeUpdate();
+			}
+		}
+
+		if (!added.isEmpty()) {
+			if (arrayBound)
+				insertUnnest(relation, added);
+			else
+				insertBatch(relation, added);
+		}
+		return new Changes(kept, added.size(), removed.size());
+	}
+
+	private void insertBatch(Relation relation, List<List<Object>> rows) throws SQLException {
+		String placeholders = String.join(", ", Collections.nCopies(relation.columns.length + 1, "?"));
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + relation.table
+				+ " (movie_id, " + String.join(", ", relation.columns) + ") VALUES (" + placeholders + ")")) {
+			for (List<Object> row : rows) {
+				for (int i = 0; i < row.size(); i++)
+					insert.setObject(i + 1, row.get(i));
+				insert.addBatch();
+			}
+			insert.executeBatch();
+		}
+	}
+
+	/**
+	 * Fügt alle Zeilen mit einer Anweisung ein: je Spalte ein Array, das {@code unnest} wieder zu Zeilen zusammensetzt.
+	 */
+	private void insertUnnest(Relation relation, List<List<Object>> rows) throws SQLException {
+		String placeholders = String.join(", ", Collections.nCopies(relation.columns.length + 1, "?"));
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + relation.table
+				+ " (movie_id, " + String.join(", ", relation.columns) + ") SELECT * FROM unnest(" + placeholders
+				+ ")")) {
+			for (int column = 0; column <= relation.columns.length; column++) {
+				Object[] values = new Object[rows.size()];
+				for (int i = 0; i < values.length; i++)
+					values[i] = rows.get(i).get(column);
+				String type = column == 0 ? "integer" : relation.types[column - 1];
+				insert.setArray(column + 1, connection.createArrayOf(type, values));
+			}
+			insert.executeUpdate();
+		}
+	}
+
+	/**
+	 * Vereinheitlicht Ganzzahlen aus Java und JDBC für den Vergleich ({@code Integer} → {@code Long}).
+	 */
+	private static Object normalize(Object value) {
+		return value instanceof Integer i ? Long.valueOf(i.longValue()) : value;
+	}
+}
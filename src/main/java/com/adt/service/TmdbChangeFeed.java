@@ -0,0 +1,70 @@
+package com.adt.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Liest die TMDB-Änderungsfeeds {@code /movie/changes} und {@code /person/changes}. TMDB liefert je Abfrage höchstens
+ * {@value #MAX_WINDOW_DAYS} Tage; längere Zeiträume werden in entsprechende Fenster geteilt. Eine ID, die auf mehreren
+ * Seiten oder in mehreren Fenstern vorkommt, wird nur einmal geliefert.
+ */
+final class TmdbChangeFeed {
+
+	/** Längster Zeitraum, den TMDB für eine Änderungsabfrage akzeptiert. */
+	static final int MAX_WINDOW_DAYS = 14;
+
+	/** Quelle der JSON-Antworten; {@code null} bei HTTP 404. */
+	@FunctionalInterface
+	interface JsonSource {
+		JsonObject get(String url) throws Exception;
+	}
+
+	private TmdbChangeFeed() {
+	}
+
+	/**
+	 * Sammelt alle IDs, die zwischen {@code from} und {@code to} (jeweils inklusive) geändert wurden.
+	 *
+	 * @param changesUrl
+	 *     URL des Feeds, z. B. {@code https://api.themoviedb.org/3/movie/changes}
+	 */
+	static Set<Integer> changedIds(HttpUrl changesUrl, LocalDate from, LocalDate to, JsonSource source)
+			throws Exception {
+		Set<Integer> ids = new LinkedHashSet<>();
+		for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(MAX_WINDOW_DAYS)) {
+			LocalDate end = start.plusDays(MAX_WINDOW_DAYS - 1);
+			collect(changesUrl, start, end.isAfter(to) ? to : end, source, ids);
+		}
+		return ids;
+	}
+
+	private static void collect(HttpUrl changesUrl, LocalDate start, LocalDate end, JsonSource source,
+			Set<Integer> ids) throws Exception {
+		int page = 1;
+		int totalPages = 1;
+		do {
+			HttpUrl url = changesUrl.newBuilder()
+					.addQueryParameter("start_date", start.toString())
+					.addQueryParameter("end_date", end.toString())
+					.addQueryParameter("page", String.valueOf(page))
+					.build();
+			JsonObject response = source.get(url.toString());
+			if (response == null)
+				return;
+			totalPages = response.getInt("total_pages", 1);
+			JsonArray results = response.getJsonArray("results");
+			if (results != null) {
+				for (JsonValue value : results)
+					ids.add(value.asJsonObject().getInt("id"));
+			}
+			page++;
+		} while (page <= totalPages);
+	}
+}
@@ -0,0 +1,178 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.adt.entity.dto.ImportStatsDTO;
+import com.adt.entity.dto.SyncResultDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Inkrementeller Abgleich mit TMDB über die Änderungsfeeds statt eines erneuten Imports ganzer Jahrgänge. Ab dem in
+ * {@code tmdb_sync_watermark} gespeicherten Tag werden die geänderten IDs gesammelt; davon werden nur Filme bzw.
+ * Personen berücksichtigt, die bereits im Bestand sind. Filme laufen erneut durch die Import-Pipeline (unveränderte
+ * entfallen dort über ihren Fingerabdruck), Personen werden in die {@link PersonEnrichmentQueue} eingetragen. Erst
+ * danach rückt das Watermark auf den heutigen Tag (UTC) vor; Filme, deren Reimport fehlgeschlagen ist, werden mit ihm
+ * gespeichert und beim nächsten Abgleich erneut importiert.
+ */
+@ApplicationScoped
+public class TmdbChangeSync {
+
+	private static final String FEED_MOVIE = "movie";
+	private static final String FEED_PERSON = "person";
+
+	/** Gespeicherter Stand eines Feeds: letzter abgeglichener Tag und erneut zu importierende Filme. */
+	private record Watermark(LocalDate syncedThrough, List<Integer> retryIds) {
+	}
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	@Inject
+	MovieImportService importService;
+
+	@Inject
+	PersonEnrichmentQueue enrichmentQueue;
+
+	@Inject
+	TmdbMissingIds missingIds;
+
+	/** Zeitraum des ersten Abgleichs, solange noch kein Watermark gespeichert ist. */
+	@ConfigProperty(name = "adt.tmdb.sync.initial-lookback-days", defaultValue = "1")
+	int initialLookbackDays;
+
+	private final ReentrantLock running = new ReentrantLock();
+
+	private Counter movieChanges;
+	private Counter personChanges;
+
+	@PostConstruct
+	void registerMetrics() {
+		movieChanges = Counter.builder("adt.tmdb.sync.changes")
+				.description("Geänderte IDs aus den TMDB-Änderungsfeeds, die im Bestand vorhanden sind")
+				.tag("feed", FEED_MOVIE)
+				.register(meterRegistry);
+		personChanges = Counter.builder("adt.tmdb.sync.changes")
+				.description("Geänderte IDs aus den TMDB-Änderungsfeeds, die im Bestand vorhanden sind")
+				.tag("feed", FEED_PERSON)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Gleicht Filme und Personen seit dem letzten Watermark ab. Es läuft höchstens ein Abgleich gleichzeitig.
+	 *
+	 * @throws IllegalStateException
+	 *     wenn bereits ein Abgleich läuft
+	 */
+	public SyncResultDTO sync(PersistenceEngine engine, CreditDepth depth) {
+		if (!running.tryLock())
+			throw new IllegalStateException("A TMDB change sync is already running");
+		try {
+			LocalDate today = LocalDate.now(ZoneOffset.UTC);
+			Watermark movieMark = watermark(FEED_MOVIE, today);
+			LocalDate movieFrom = movieMark.syncedThrough();
+			LocalDate personFrom = watermark(FEED_PERSON, today).syncedThrough();
+
+			Set<Integer> changedMovies = TmdbChangeFeed.changedIds(importService.tmdbUrl("/movie/changes"),
+					movieFrom, today, importService::getJson);
+			List<Integer> knownMovies = known("movie", changedMovies);
+			Set<Integer> changedPersons = TmdbChangeFeed.changedIds(importService.tmdbUrl("/person/changes"),
+					personFrom, today, importService::getJson);
+			List<Integer> knownPersons = known("person", changedPersons);
+			movieChanges.increment(knownMovies.size());
+			personChanges.increment(knownPersons.size());
+
+			// beim letzten Abgleich fehlgeschlagene Filme laufen erneut mit
+			Set<Integer> movies = new TreeSet<>(knownMovies);
+			movies.addAll(movieMark.retryIds());
+			ImportProgress progress = new ImportProgress();
+			progress.failedIds = ConcurrentHashMap.newKeySet();
+			ImportStatsDTO stats = importService.importMovies(movies, engine, depth, progress);
+			// bei TMDB gelöschte Filme (404) stehen im Negativ-Cache und werden nicht erneut versucht
+			List<Integer> retry = progress.failedIds.stream().filter(id -> !missingIds.contains(id)).sorted().toList();
+			saveWatermark(FEED_MOVIE, today, retry);
+			enrichmentQueue.enqueue(knownPersons);
+			saveWatermark(FEED_PERSON, today, List.of());
+
+			return new SyncResultDTO(movieFrom.isBefore(personFrom) ? movieFrom : personFrom, today,
+					changedMovies.size(), movies.size(), retry.size(), changedPersons.size(), knownPersons.size(),
+					stats, "Sync finished");
+		} catch (Exception e) {
+			throw new RuntimeException("TMDB change sync failed", e);
+		} finally {
+			running.unlock();
+		}
+	}
+
+	private Watermark watermark(String feed, LocalDate today) throws SQLException {
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement(
+						"SELECT synced_through, retry_ids FROM tmdb_sync_watermark WHERE feed = ?")) {
+			ps.setString(1, feed);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next())
+					return new Watermark(today.minusDays(initialLookbackDays), List.of());
+				List<Integer> retryIds = new ArrayList<>();
+				for (Object id : (Object[]) rs.getArray(2).getArray())
+					retryIds.add(((Number) id).intValue());
+				return new Watermark(rs.getDate(1).toLocalDate(), retryIds);
+			}
+		}
+	}
+
+	private void saveWatermark(String feed, LocalDate syncedThrough, List<Integer> retryIds) throws SQLException {
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("INSERT INTO tmdb_sync_watermark (feed, synced_through, "
+						+ "retry_ids) VALUES (?, ?, ?) ON CONFLICT (feed) DO UPDATE SET synced_through = "
+						+ "EXCLUDED.synced_through, retry_ids = EXCLUDED.retry_ids, updated_at = now()")) {
+			ps.setString(1, feed);
+			ps.setDate(2, Date.valueOf(syncedThrough));
+			ps.setArray(3, c.createArrayOf("integer", retryIds.toArray()));
+			ps.executeUpdate();
+		}
+	}
+
+	/**
+	 * Filtert die IDs auf die, die in {@code table} bereits vorhanden sind.
+	 */
+	private List<Integer> known(String table, Collection<Integer> tmdbIds) throws SQLException {
+		List<Integer> known = new ArrayList<>();
+		if (tmdbIds.isEmpty())
+			return known;
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement(
+						"SELECT tmdb_id FROM " + table + " WHERE tmdb_id = ANY(?) ORDER BY tmdb_id")) {
+			ps.setArray(1, c.createArrayOf("integer", tmdbIds.toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					known.add(rs.getInt(1));
+			}
+		}
+		return known;
+	}
+}
@@ -0,0 +1,188 @@
+package com.adt.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Circuit Breaker für TMDB-Aufrufe. Fehlschläge sind Verbindungsfehler, Timeouts und HTTP 5xx; 429 regelt der
+ * {@link TmdbRateLimiter}. Liegt der Fehleranteil der letzten {@code window} Aufrufe bei mindestens
+ * {@code failure-ratio}, öffnet der Breaker für {@code open-duration}: Aufrufer warten dann in
+ * {@link #awaitPermission()}, statt ihre Wiederholungen zu verbrauchen, sodass die Fetch-Stufe pausiert und die
+ * anstehenden Filme erhalten bleiben. Danach prüft genau ein Aufruf (halb offen), ob TMDB wieder antwortet; sein Erfolg
+ * schließt den Breaker, sein Fehlschlag öffnet ihn erneut. Endet der Probeaufruf ohne Ergebnis (Unterbrechung, Abbruch,
+ * unerwartete Exception), gibt {@link #onAbandoned()} ihn frei, damit ein wartender Aufrufer die Prüfung übernimmt.
+ */
+@ApplicationScoped
+public class TmdbCircuitBreaker {
+
+	enum State {
+		CLOSED, HALF_OPEN, OPEN
+	}
+
+	@ConfigProperty(name = "adt.tmdb.circuit.window", defaultValue = "20")
+	int window;
+
+	@ConfigProperty(name = "adt.tmdb.circuit.failure-ratio", defaultValue = "0.5")
+	double failureRatio;
+
+	@ConfigProperty(name = "adt.tmdb.circuit.open-duration", defaultValue = "PT30S")
+	Duration openDuration;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition stateChanged = lock.newCondition();
+
+	private volatile State state = State.CLOSED;
+	/** Ergebnisse der letzten Aufrufe als Ringpuffer ({@code true} = Fehlschlag). */
+	private boolean[] outcomes;
+	private int next;
+	private int recorded;
+	private int failures;
+	private long openUntilNanos;
+	/** Thread des laufenden Probeaufrufs im Zustand {@code HALF_OPEN}. */
+	private Thread probe;
+
+	private Counter opened;
+	private Timer pausedTimer;
+
+	@PostConstruct
+	void init() {
+		outcomes = new boolean[Math.max(1, window)];
+		meterRegistry.gauge("adt.tmdb.circuit.state", this, b -> b.state.ordinal());
+		opened = Counter.builder("adt.tmdb.circuit.opened")
+				.description("Anzahl der Öffnungen des TMDB-Circuit-Breakers")
+				.register(meterRegistry);
+		pausedTimer = Timer.builder("adt.tmdb.circuit.paused")
+				.description("Wartezeit von TMDB-Aufrufen bei offenem Circuit Breaker")
+				.register(meterRegistry);
+	}
+
+	State state() {
+		return state;
+	}
+
+	/**
+	 * Wartet, solange der Breaker offen ist bzw. ein Probeaufruf läuft.
+	 *
+	 * @return die gewartete Zeit in Nanosekunden
+	 */
+	public long awaitPermission() throws InterruptedException {
+		if (state == State.CLOSED)
+			return 0;
+		long start = System.nanoTime();
+		lock.lockInterruptibly();
+		try {
+			while (true) {
+				if (state == State.CLOSED)
+					break;
+				long now = System.nanoTime();
+				if (state == State.OPEN && now >= openUntilNanos) {
+					state = State.HALF_OPEN;
+					probe = Thread.currentThread();
+					break;
+				}
+				if (state == State.OPEN)
+					stateChanged.awaitNanos(openUntilNanos - now);
+				else
+					stateChanged.await();
+			}
+		} finally {
+			lock.unlock();
+		}
+		long waited = System.nanoTime() - start;
+		pausedTimer.record(waited, TimeUnit.NANOSECONDS);
+		return waited;
+	}
+
+	public void onSuccess() {
+		record(false);
+	}
+
+	public void onFailure() {
+		record(true);
+	}
+
+	/**
+	 * Gibt einen Probeaufruf des aktuellen Threads frei, der weder {@link #onSuccess()} noch {@link #onFailure()}
+	 * gemeldet hat. Der Breaker bleibt offen, ein wartender Aufrufer wird aber sofort zum neuen Probeaufruf. Ohne
+	 * laufende Probe dieses Threads ist der Aufruf wirkungslos.
+	 */
+	public void onAbandoned() {
+		if (state != State.HALF_OPEN)
+			return;
+		lock.lock();
+		try {
+			if (state == State.HALF_OPEN && probe == Thread.currentThread()) {
+				probe = null;
+				state = State.OPEN;
+				openUntilNanos = System.nanoTime();
+				stateChanged.signalAll();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void record(boolean failure) {
+		lock.lock();
+		try {
+			if (state == State.HALF_OPEN && probe != null) {
+				probe = null;
+				if (failure) {
+					open();
+				} else {
+					reset();
+					state = State.CLOSED;
+				}
+				stateChanged.signalAll();
+				return;
+			}
+			if (state != State.CLOSED)
+				return;
+
+			if (recorded == outcomes.length) {
+				if (outcomes[next])
+					failures--;
+			} else {
+				recorded++;
+			}
+			outcomes[next] = failure;
+			if (failure)
+				failures++;
+			next = (next + 1) % outcomes.length;
+
+			if (recorded == outcomes.length && failures >= failureRatio * recorded)
+				open();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openUntilNanos = System.nanoTime() + openDuration.toNanos();
+		reset();
+		opened.increment();
+		System.err.println("❌ TMDB circuit breaker opened, pausing requests for " + openDuration);
+	}
+
+	private void reset() {
+		next = 0;
+		recorded = 0;
+		failures = 0;
+	}
+}
@@ -0,0 +1,171 @@
+package com.adt.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Gehedgte GET-Requests gegen TMDB: Liegt nach dem 95. Perzentil der zuletzt gemessenen Antwortzeiten noch keine
+ * Antwort vor, wird derselbe (idempotente) Request ein zweites Mal gesendet und die erste Antwort verwendet; der
+ * unterlegene Call wird abgebrochen. So bremst ein langsamer Edge-Knoten nicht den ganzen Job. Der zweite Request
+ * belegt regulär einen Slot im {@link TmdbRateLimiter}, und höchstens {@code max-ratio} aller Requests dürfen gehedgt
+ * werden, damit das Hedging bei allgemein hoher Latenz nicht das Budget verdoppelt.
+ */
+@ApplicationScoped
+public class TmdbHedging {
+
+	/** Anzahl der Antwortzeiten, aus denen das Perzentil gebildet wird. */
+	private static final int SAMPLES = 256;
+	/** Das Perzentil wird nach so vielen neuen Messwerten neu berechnet; vorher wird nicht gehedgt. */
+	private static final int RECOMPUTE_EVERY = 32;
+
+	@ConfigProperty(name = "adt.tmdb.hedge.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "adt.tmdb.hedge.min-delay", defaultValue = "PT0.05S")
+	Duration minDelay;
+
+	@ConfigProperty(name = "adt.tmdb.hedge.max-ratio", defaultValue = "0.1")
+	double maxRatio;
+
+	@Inject
+	TmdbRateLimiter rateLimiter;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private final long[] latencies = new long[SAMPLES];
+	private final AtomicInteger sampleCount = new AtomicInteger();
+	private volatile long hedgeDelayNanos = -1;
+
+	private final LongAdder requests = new LongAdder();
+	private Counter hedged;
+	private Counter hedgeWon;
+
+	private record Outcome(Call call, Response response) {
+	}
+
+	@PostConstruct
+	void init() {
+		hedged = meterRegistry.counter("adt.tmdb.hedge", "result", "sent");
+		hedgeWon = meterRegistry.counter("adt.tmdb.hedge", "result", "won");
+		meterRegistry.gauge("adt.tmdb.hedge.delay", this,
+				h -> h.hedgeDelayNanos < 0 ? 0 : h.hedgeDelayNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	/**
+	 * Führt {@code request} aus und sendet ihn bei ausbleibender Antwort ein zweites Mal.
+	 *
+	 * @return die zuerst eingetroffene Antwort; der Aufrufer schließt sie
+	 * @throws IOException
+	 *     wenn alle gesendeten Requests fehlgeschlagen sind
+	 */
+	public Response execute(OkHttpClient http, Request request) throws IOException, InterruptedException {
+		requests.increment();
+		long delay = hedgeDelayNanos;
+		if (!enabled || delay < 0) {
+			long start = System.nanoTime();
+			Response response = http.newCall(request).execute();
+			record(System.nanoTime() - start);
+			return response;
+		}
+
+		CompletableFuture<Outcome> winner = new CompletableFuture<>();
+		AtomicInteger pending = new AtomicInteger(1);
+		long start = System.nanoTime();
+		Call primary = enqueue(http, request, winner, pending);
+		Call hedge = null;
+		try {
+			try {
+				return finish(winner.get(Math.max(delay, minDelay.toNanos()), TimeUnit.NANOSECONDS), start, primary,
+						null);
+			} catch (TimeoutException e) {
+				if (hedged.count() >= requests.sum() * maxRatio)
+					return finish(winner.get(), start, primary, null);
+			}
+
+			rateLimiter.acquire();
+			if (winner.isDone())
+				return finish(winner.get(), start, primary, null);
+			pending.incrementAndGet();
+			hedge = enqueue(http, request, winner, pending);
+			hedged.increment();
+			Outcome outcome = winner.get();
+			if (outcome.call() == hedge)
+				hedgeWon.increment();
+			return finish(outcome, start, primary, hedge);
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+		} catch (InterruptedException e) {
+			primary.cancel();
+			if (hedge != null)
+				hedge.cancel();
+			throw e;
+		}
+	}
+
+	private Response finish(Outcome outcome, long start, Call primary, Call hedge) {
+		record(System.nanoTime() - start);
+		for (Call call : new Call[] { primary, hedge }) {
+			if (call != null && call != outcome.call())
+				call.cancel();
+		}
+		return outcome.response();
+	}
+
+	/**
+	 * Sendet den Request asynchron. Die erste Antwort gewinnt, spätere werden geschlossen; ein Fehler wird erst
+	 * gemeldet, wenn kein anderer Request mehr aussteht.
+	 */
+	private static Call enqueue(OkHttpClient http, Request request, CompletableFuture<Outcome> winner,
+			AtomicInteger pending) {
+		Call call = http.newCall(request);
+		call.enqueue(new Callback() {
+			@Override
+			public void onResponse(Call c, Response response) {
+				if (!winner.complete(new Outcome(c, response)))
+					response.close();
+			}
+
+			@Override
+			public void onFailure(Call c, IOException e) {
+				if (pending.decrementAndGet() == 0)
+					winner.completeExceptionally(e);
+			}
+		});
+		return call;
+	}
+
+	/**
+	 * Nimmt eine Antwortzeit (bis zu den Headern) auf und berechnet regelmäßig das 95. Perzentil neu.
+	 */
+	private void record(long latencyNanos) {
+		int n = sampleCount.getAndIncrement();
+		latencies[n % SAMPLES] = latencyNanos;
+		if ((n + 1) % RECOMPUTE_EVERY != 0)
+			return;
+		long[] sorted = Arrays.copyOf(latencies, Math.min(n + 1, SAMPLES));
+		Arrays.sort(sorted);
+		hedgeDelayNanos = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+	}
+}
@@ -0,0 +1,192 @@
+package com.adt.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.adt.entity.dto.IdExportDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Gültige Film-IDs aus dem täglichen TMDB-ID-Export ({@code movie_ids_MM_DD_YYYY.json.gz}, eine JSON-Zeile je Film).
+ * Die IDs liegen als {@link BitSet} im Speicher (ein Bit je ID bis zur höchsten ID, rund 200 KB), Einträge mit
+ * {@code adult} bzw. {@code video} werden ohne {@code adt.tmdb.id-export.include-adult}/{@code include-video}
+ * ausgelassen. Der ID-Bereichsimport fragt dann nur noch IDs an, die im Export stehen; IDs oberhalb der höchsten
+ * exportierten ID (seit dem Export angelegte Filme) werden weiterhin angefragt.
+ */
+@ApplicationScoped
+public class TmdbIdExport {
+
+	/**
+	 * Unveränderlicher Stand eines geladenen Exports; ein erneutes Laden ersetzt ihn als Ganzes.
+	 */
+	public static final class Snapshot {
+		private final BitSet ids;
+		private final int maxId;
+		private final IdExportDTO info;
+
+		Snapshot(BitSet ids, IdExportDTO info) {
+			this.ids = ids;
+			this.maxId = info.maxId();
+			this.info = info;
+		}
+
+		/** Ob die ID laut Export nicht existiert bzw. ausgeschlossen ist. */
+		boolean excludes(int tmdbId) {
+			return tmdbId <= maxId && !ids.get(tmdbId);
+		}
+
+		/** Die anzufragenden IDs zwischen {@code from} und {@code to} (jeweils inklusive), aufsteigend. */
+		PrimitiveIterator.OfInt ids(int from, int to) {
+			int exportEnd = Math.min(to, maxId);
+			IntStream exported = from <= exportEnd
+					? ids.get(from, exportEnd + 1).stream().map(offset -> from + offset)
+					: IntStream.empty();
+			IntStream newer = IntStream.rangeClosed(Math.max(from, maxId + 1), to);
+			return IntStream.concat(exported, newer).iterator();
+		}
+
+		/** Anzahl der anzufragenden IDs zwischen {@code from} und {@code to}. */
+		long count(int from, int to) {
+			if (to < from)
+				return 0;
+			int exportEnd = Math.min(to, maxId);
+			long exported = from <= exportEnd ? ids.get(from, exportEnd + 1).cardinality() : 0;
+			return exported + Math.max(0, (long) to - Math.max(from, maxId + 1) + 1);
+		}
+
+		public IdExportDTO info() {
+			return info;
+		}
+	}
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	/** Pfad der beim Start geladenen Exportdatei ({@code .json.gz} oder unkomprimiert). */
+	@ConfigProperty(name = "adt.tmdb.id-export.path")
+	Optional<String> path;
+
+	@ConfigProperty(name = "adt.tmdb.id-export.include-adult", defaultValue = "false")
+	boolean includeAdult;
+
+	@ConfigProperty(name = "adt.tmdb.id-export.include-video", defaultValue = "false")
+	boolean includeVideo;
+
+	private volatile Snapshot snapshot;
+
+	private Counter avoided;
+
+	@PostConstruct
+	void registerMetrics() {
+		Gauge.builder("adt.tmdb.id_export.ids", this, export -> {
+			Snapshot s = export.snapshot;
+			return s != null ? s.info().validIds() : 0;
+		}).description("Gültige Film-IDs des geladenen TMDB-ID-Exports").register(meterRegistry);
+		avoided = meterRegistry.counter("adt.tmdb.calls.avoided", "reason", "id-export");
+	}
+
+	/**
+	 * Lädt den konfigurierten Export beim Start im Hintergrund; bis dahin importiert der ID-Bereich ungefiltert.
+	 */
+	void onStart(@Observes StartupEvent event) {
+		path.filter(p -> !p.isBlank()).ifPresent(p -> Thread.ofVirtual().name("id-export-loader").start(() -> {
+			try {
+				load(Path.of(p));
+			} catch (Exception e) {
+				System.err.println("❌ Failed to load TMDB id export " + p + ": " + e.getMessage());
+			}
+		}));
+	}
+
+	/** Der aktuell geladene Export oder {@code null}. */
+	public Snapshot snapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Liest eine Exportdatei zeilenweise ein und ersetzt den bisherigen Stand erst nach vollständigem Lesen.
+	 */
+	public IdExportDTO load(Path file) throws IOException {
+		BitSet ids = new BitSet();
+		int entries = 0;
+		int adultExcluded = 0;
+		int videoExcluded = 0;
+		int maxId = 0;
+		try (InputStream raw = Files.newInputStream(file);
+				InputStream in = file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(raw, 1 << 16)
+						: raw;
+				BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8),
+						1 << 16)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank())
+					continue;
+				entries++;
+				int id = -1;
+				boolean adult = false;
+				boolean video = false;
+				try (JsonParser p = Json.createParser(new StringReader(line))) {
+					while (p.hasNext()) {
+						if (p.next() != Event.KEY_NAME)
+							continue;
+						String key = p.getString();
+						Event value = p.next();
+						switch (key) {
+							case "id" -> id = value == Event.VALUE_NUMBER ? p.getInt() : -1;
+							case "adult" -> adult = value == Event.VALUE_TRUE;
+							case "video" -> video = value == Event.VALUE_TRUE;
+							default -> {
+							}
+						}
+					}
+				}
+				if (id < 0)
+					continue;
+				maxId = Math.max(maxId, id);
+				if (adult && !includeAdult)
+					adultExcluded++;
+				else if (video && !includeVideo)
+					videoExcluded++;
+				else
+					ids.set(id);
+			}
+		}
+
+		IdExportDTO info = new IdExportDTO(file.toString(), Instant.now(), entries, ids.cardinality(), adultExcluded,
+				videoExcluded, maxId);
+		snapshot = new Snapshot(ids, info);
+		return info;
+	}
+
+	/** Zählt IDs, die dank des Exports nicht angefragt werden. */
+	void callsAvoided(long count) {
+		if (count > 0)
+			avoided.increment(count);
+	}
+}
@@ -0,0 +1,336 @@
+package com.adt.service;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * Streaming-Parser für TMDB-Responses. Liest direkt aus dem Response-Stream und übernimmt nur die benötigten Felder in
+ * {@link TmdbMovie} bzw. {@link TmdbPerson}; weder der Body als String noch ein vollständiger JSON-Objektbaum werden
+ * aufgebaut. Nicht benötigte Felder und verschachtelte Strukturen werden übersprungen.
+ */
+final class TmdbJsonParser {
+
+	private static final String[] GENRE = { "id", "name" };
+	private static final String[] LANGUAGE = { "iso_639_1", "english_name", "name" };
+	private static final String[] COUNTRY = { "iso_3166_1", "name" };
+	private static final String[] COMPANY = { "id", "name", "origin_country" };
+	private static final String[] TITLE = { "iso_3166_1", "title", "type" };
+	private static final String[] CAST = { "id", "name", "gender", "known_for_department", "adult", "popularity",
+			"character", "order" };
+	private static final String[] CREW = { "id", "name", "gender", "known_for_department", "adult", "popularity",
+			"department", "job" };
+	private static final String[] PROVIDER = { "provider_id", "provider_name", "logo_path", "display_priority" };
+	private static final List<String> PROVIDER_TYPES = List.of("flatrate", "buy", "rent", "ads", "free");
+
+	private TmdbJsonParser() {
+	}
+
+	/**
+	 * Liest einen Film-Response inklusive der angehängten Credits, alternativen Titel und Watch-Provider.
+	 */
+	static TmdbMovie parseMovie(InputStream in) {
+		try (JsonParser p = Json.createParser(in)) {
+			expect(p, Event.START_OBJECT);
+
+			Object id = null, imdbId = null, title = null, originalTitle = null, originalLanguage = null;
+			Object adult = null, video = null, status = null, releaseDate = null, budget = null, revenue = null;
+			Object runtime = null, homepage = null, overview = null, popularity = null, voteAverage = null;
+			Object voteCount = null, tagline = null;
+			List<TmdbMovie.Genre> genres = List.of();
+			List<TmdbMovie.SpokenLanguage> languages = List.of();
+			List<TmdbMovie.Country> countries = List.of();
+			List<TmdbMovie.Company> companies = List.of();
+			List<TmdbMovie.AlternativeTitle> titles = List.of();
+			List<TmdbMovie.Cast> cast = List.of();
+			List<TmdbMovie.Crew> crew = List.of();
+			List<TmdbMovie.WatchProvider> providers = List.of();
+
+			while (p.next() == Event.KEY_NAME) {
+				String key = p.getString();
+				Event value = p.next();
+				switch (key) {
+					case "id" -> id = scalar(p, value);
+					case "imdb_id" -> imdbId = scalar(p, value);
+					case "title" -> title = scalar(p, value);
+					case "original_title" -> originalTitle = scalar(p, value);
+					case "original_language" -> originalLanguage = scalar(p, value);
+					case "adult" -> adult = scalar(p, value);
+					case "video" -> video = scalar(p, value);
+					case "status" -> status = scalar(p, value);
+					case "release_date" -> releaseDate = scalar(p, value);
+					case "budget" -> budget = scalar(p, value);
+					case "revenue" -> revenue = scalar(p, value);
+					case "runtime" -> runtime = scalar(p, value);
+					case "homepage" -> homepage = scalar(p, value);
+					case "overview" -> overview = scalar(p, value);
+					case "popularity" -> popularity = scalar(p, value);
+					case "vote_average" -> voteAverage = scalar(p, value);
+					case "vote_count" -> voteCount = scalar(p, value);
+					case "tagline" -> tagline = scalar(p, value);
+					case "genres" -> genres = array(p, value, GENRE,
+							f -> new TmdbMovie.Genre(integer(f[0]), string(f[1])));
+					case "spoken_languages" -> languages = array(p, value, LANGUAGE,
+							f -> new TmdbMovie.SpokenLanguage(string(f[0]), string(f[1]), string(f[2])));
+					case "production_countries" -> countries = array(p, value, COUNTRY,
+							f -> new TmdbMovie.Country(string(f[0]), string(f[1])));
+					case "production_companies" -> companies = array(p, value, COMPANY,
+							f -> new TmdbMovie.Company(integer(f[0]), string(f[1]), string(f[2])));
+					case "alternative_titles" -> titles = nested(p, value, "titles", TITLE,
+							f -> new TmdbMovie.AlternativeTitle(string(f[0]), string(f[1]), string(f[2])));
+					case "credits" -> {
+						if (value != Event.START_OBJECT) {
+							skip(p, value);
+							break;
+						}
+						while (p.next() == Event.KEY_NAME) {
+							String creditKey = p.getString();
+							Event creditValue = p.next();
+							if ("cast".equals(creditKey))
+								cast = array(p, creditValue, CAST, f -> new TmdbMovie.Cast(integer(f[0]), string(f[1]),
+										integer(f[2]), string(f[3]), bool(f[4]), decimal(f[5]), string(f[6]),
+										integer(f[7])));
+							else if ("crew".equals(creditKey))
+								crew = array(p, creditValue, CREW, f -> new TmdbMovie.Crew(integer(f[0]), string(f[1]),
+										integer(f[2]), string(f[3]), bool(f[4]), decimal(f[5]), string(f[6]),
+										string(f[7])));
+							else
+								skip(p, creditValue);
+						}
+					}
+					case "watch/providers" -> providers = watchProviders(p, value);
+					default -> skip(p, value);
+				}
+			}
+
+			return new TmdbMovie(integer(id), string(imdbId), string(title), string(originalTitle),
+					string(originalLanguage), Boolean.TRUE.equals(adult), Boolean.TRUE.equals(video), string(status),
+					string(releaseDate), integer(budget), longValue(revenue), integer(runtime), string(homepage),
+					string(overview), decimal(popularity), decimal(voteAverage), integer(voteCount), string(tagline),
+					genres, languages, countries, companies, titles, cast, crew, providers);
+		}
+	}
+
+	/**
+	 * Liest einen Personen-Response.
+	 */
+	static TmdbPerson parsePerson(InputStream in) {
+		try (JsonParser p = Json.createParser(in)) {
+			expect(p, Event.START_OBJECT);
+
+			Object id = null, imdbId = null, name = null, gender = null, knownFor = null, biography = null;
+			Object birthday = null, deathday = null, placeOfBirth = null, homepage = null, adult = null;
+			Object popularity = null;
+			List<String> aliases = List.of();
+
+			while (p.next() == Event.KEY_NAME) {
+				String key = p.getString();
+				Event value = p.next();
+				switch (key) {
+					case "id" -> id = scalar(p, value);
+					case "imdb_id" -> imdbId = scalar(p, value);
+					case "name" -> name = scalar(p, value);
+					case "gender" -> gender = scalar(p, value);
+					case "known_for_department" -> knownFor = scalar(p, value);
+					case "biography" -> biography = scalar(p, value);
+					case "birthday" -> birthday = scalar(p, value);
+					case "deathday" -> deathday = scalar(p, value);
+					case "place_of_birth" -> placeOfBirth = scalar(p, value);
+					case "homepage" -> homepage = scalar(p, value);
+					case "adult" -> adult = scalar(p, value);
+					case "popularity" -> popularity = scalar(p, value);
+					case "also_known_as" -> aliases = strings(p, value);
+					default -> skip(p, value);
+				}
+			}
+
+			return new TmdbPerson(integer(id), string(imdbId), string(name), integer(gender), string(knownFor),
+					string(biography), string(birthday), string(deathday), string(placeOfBirth), string(homepage),
+					bool(adult), decimal(popularity), aliases);
+		}
+	}
+
+	/**
+	 * Liest {@code watch/providers.results}: pro Region den Link und die Anbieter der bekannten Kategorien.
+	 */
+	private static List<TmdbMovie.WatchProvider> watchProviders(JsonParser p, Event value) {
+		if (value != Event.START_OBJECT) {
+			skip(p, value);
+			return List.of();
+		}
+		List<TmdbMovie.WatchProvider> result = new ArrayList<>();
+		while (p.next() == Event.KEY_NAME) {
+			boolean results = "results".equals(p.getString());
+			Event resultsValue = p.next();
+			if (!results || resultsValue != Event.START_OBJECT) {
+				skip(p, resultsValue);
+				continue;
+			}
+			while (p.next() == Event.KEY_NAME) {
+				String region = p.getString();
+				Event regionValue = p.next();
+				if (regionValue != Event.START_OBJECT) {
+					skip(p, regionValue);
+					continue;
+				}
+				String link = null;
+				int regionStart = result.size();
+				while (p.next() == Event.KEY_NAME) {
+					String key = p.getString();
+					Event keyValue = p.next();
+					if ("link".equals(key)) {
+						link = string(scalar(p, keyValue));
+					} else if (PROVIDER_TYPES.contains(key)) {
+						for (Object[] f : array(p, keyValue, PROVIDER, Function.identity()))
+							result.add(new TmdbMovie.WatchProvider(region, null, key, integer(f[0]), string(f[1]),
+									string(f[2]), integer(f[3])));
+					} else {
+						skip(p, keyValue);
+					}
+				}
+				// der Link kann vor oder nach den Anbieter-Listen stehen
+				for (int i = regionStart; i < result.size(); i++) {
+					TmdbMovie.WatchProvider wp = result.get(i);
+					result.set(i, new TmdbMovie.WatchProvider(wp.region(), link, wp.type(), wp.providerTmdbId(),
+							wp.name(), wp.logoPath(), wp.displayPriority()));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Liest ein Objekt, dessen Feld {@code arrayKey} ein Array von Objekten enthält (z. B. {@code alternative_titles}).
+	 */
+	private static <T> List<T> nested(JsonParser p, Event value, String arrayKey, String[] keys,
+			Function<Object[], T> mapper) {
+		if (value != Event.START_OBJECT) {
+			skip(p, value);
+			return List.of();
+		}
+		List<T> result = List.of();
+		while (p.next() == Event.KEY_NAME) {
+			String key = p.getString();
+			Event keyValue = p.next();
+			if (arrayKey.equals(key))
+				result = array(p, keyValue, keys, mapper);
+			else
+				skip(p, keyValue);
+		}
+		return result;
+	}
+
+	/**
+	 * Liest ein Array von Objekten; pro Objekt werden nur die Skalare zu {@code keys} gesammelt und per
+	 * {@code mapper} in eine Zeile überführt.
+	 */
+	private static <T> List<T> array(JsonParser p, Event value, String[] keys, Function<Object[], T> mapper) {
+		if (value != Event.START_ARRAY) {
+			skip(p, value);
+			return List.of();
+		}
+		List<T> result = new ArrayList<>();
+		Event e;
+		while ((e = p.next()) != Event.END_ARRAY) {
+			if (e != Event.START_OBJECT) {
+				skip(p, e);
+				continue;
+			}
+			Object[] fields = new Object[keys.length];
+			while (p.next() == Event.KEY_NAME) {
+				String key = p.getString();
+				Event fieldValue = p.next();
+				int index = indexOf(keys, key);
+				if (index < 0)
+					skip(p, fieldValue);
+				else
+					fields[index] = scalar(p, fieldValue);
+			}
+			result.add(mapper.apply(fields));
+		}
+		return result;
+	}
+
+	private static List<String> strings(JsonParser p, Event value) {
+		if (value != Event.START_ARRAY) {
+			skip(p, value);
+			return List.of();
+		}
+		List<String> result = new ArrayList<>();
+		Event e;
+		while ((e = p.next()) != Event.END_ARRAY) {
+			if (e == Event.VALUE_STRING)
+				result.add(p.getString());
+			else
+				skip(p, e);
+		}
+		return result;
+	}
+
+	/**
+	 * Liefert den Skalar zum aktuellen Event ({@link String}, {@link Long}, {@link BigDecimal}, {@link Boolean} oder
+	 * {@code null}); Objekte und Arrays werden übersprungen.
+	 */
+	private static Object scalar(JsonParser p, Event value) {
+		return switch (value) {
+			case VALUE_STRING -> p.getString();
+			case VALUE_NUMBER -> p.isIntegralNumber() ? (Object) p.getLong() : p.getBigDecimal();
+			case VALUE_TRUE -> Boolean.TRUE;
+			case VALUE_FALSE -> Boolean.FALSE;
+			case START_OBJECT, START_ARRAY -> {
+				skip(p, value);
+				yield null;
+			}
+			default -> null;
+		};
+	}
+
+	private static void skip(JsonParser p, Event value) {
+		if (value == Event.START_OBJECT)
+			p.skipObject();
+		else if (value == Event.START_ARRAY)
+			p.skipArray();
+	}
+
+	private static void expect(JsonParser p, Event expected) {
+		Event e = p.hasNext() ? p.next() : null;
+		if (e != expected)
+			throw new IllegalStateException("Unexpected TMDB response: expected " + expected + " but got " + e);
+	}
+
+	private static int indexOf(String[] keys, String key) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i].equals(key))
+				return i;
+		}
+		return -1;
+	}
+
+	private static String string(Object value) {
+		return value instanceof String s ? s : null;
+	}
+
+	private static Integer integer(Object value) {
+		return value instanceof Number n ? n.intValue() : null;
+	}
+
+	private static Long longValue(Object value) {
+		return value instanceof Number n ? n.longValue() : null;
+	}
+
+	private static Boolean bool(Object value) {
+		return value instanceof Boolean b ? b : null;
+	}
+
+	private static BigDecimal decimal(Object value) {
+		if (value instanceof BigDecimal d)
+			return d;
+		return value instanceof Long l ? BigDecimal.valueOf(l) : null;
+	}
+}
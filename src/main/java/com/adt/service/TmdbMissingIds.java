@@ -0,0 +1,284 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Negativ-Cache für TMDB-Film-IDs, die mit 404 beantwortet wurden. Die IDs liegen dauerhaft in
+ * {@code tmdb_missing_id} und als {@link BitSet} im Speicher, das beim Start geladen wird; ID-Bereichs- und
+ * Jahresimporte überspringen sie ohne HTTP-Aufruf. Neue 404-IDs werden gesammelt und blockweise geschrieben. Ein
+ * Hintergrund-Thread prüft alle {@code adt.tmdb.missing.recheck-interval} höchstens
+ * {@code adt.tmdb.missing.recheck-budget} IDs erneut, deren {@code adt.tmdb.missing.ttl} abgelaufen ist: Weiterhin
+ * fehlende IDs bleiben eine weitere TTL gesperrt, wieder vorhandene werden freigegeben.
+ */
+@ApplicationScoped
+public class TmdbMissingIds {
+
+	/** Anzahl gesammelter IDs, ab der sofort geschrieben wird. */
+	private static final int FLUSH_SIZE = 1000;
+
+	@Inject
+	DataSource ds;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	@Inject
+	MovieImportService importService;
+
+	@ConfigProperty(name = "adt.tmdb.missing.ttl", defaultValue = "P30D")
+	Duration ttl;
+
+	@ConfigProperty(name = "adt.tmdb.missing.recheck-enabled", defaultValue = "true")
+	boolean recheckEnabled;
+
+	@ConfigProperty(name = "adt.tmdb.missing.recheck-interval", defaultValue = "PT1H")
+	Duration recheckInterval;
+
+	/** Höchstzahl erneut geprüfter IDs je Intervall. */
+	@ConfigProperty(name = "adt.tmdb.missing.recheck-budget", defaultValue = "100")
+	int recheckBudget;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final BitSet missing = new BitSet();
+	private List<Integer> unflushed = new ArrayList<>();
+
+	private volatile Thread worker;
+
+	private Counter avoided;
+	private Counter stillMissing;
+	private Counter found;
+
+	@PostConstruct
+	void registerMetrics() {
+		avoided = meterRegistry.counter("adt.tmdb.calls.avoided", "reason", "missing");
+		stillMissing = meterRegistry.counter("adt.tmdb.missing.rechecks", "result", "still-missing");
+		found = meterRegistry.counter("adt.tmdb.missing.rechecks", "result", "found");
+		Gauge.builder("adt.tmdb.missing.ids", this, TmdbMissingIds::size)
+				.description("Bekannt fehlende TMDB-Film-IDs im Negativ-Cache")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Lädt den Cache und startet anschließend die periodische Nachprüfung.
+	 */
+	void onStart(@Observes StartupEvent event) {
+		worker = Thread.ofVirtual().name("tmdb-missing-ids").start(this::run);
+	}
+
+	@PreDestroy
+	void stop() {
+		Thread t = worker;
+		if (t != null)
+			t.interrupt();
+		flush();
+	}
+
+	private void run() {
+		try {
+			load();
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to load missing TMDB ids: " + e.getMessage());
+		}
+		try {
+			while (true) {
+				Thread.sleep(recheckInterval);
+				flush();
+				if (recheckEnabled) {
+					try {
+						recheck();
+					} catch (SQLException e) {
+						System.err.println("❌ Recheck of missing TMDB ids failed: " + e.getMessage());
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			// Shutdown
+		}
+	}
+
+	private void load() throws SQLException {
+		BitSet loaded = new BitSet();
+		try (Connection c = ds.getConnection()) {
+			c.setAutoCommit(false);
+			try (PreparedStatement ps = c.prepareStatement("SELECT tmdb_id FROM tmdb_missing_id")) {
+				ps.setFetchSize(10_000);
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next())
+						loaded.set(rs.getInt(1));
+				}
+			} finally {
+				c.commit();
+				c.setAutoCommit(true);
+			}
+		}
+		lock.writeLock().lock();
+		try {
+			missing.or(loaded);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return missing.cardinality();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Prüft, ob die ID als fehlend bekannt ist, und zählt in diesem Fall einen eingesparten Aufruf.
+	 */
+	boolean skip(int tmdbId) {
+		if (!contains(tmdbId))
+			return false;
+		avoided.increment();
+		return true;
+	}
+
+	boolean contains(int tmdbId) {
+		if (tmdbId < 0)
+			return false;
+		lock.readLock().lock();
+		try {
+			return missing.get(tmdbId);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Merkt sich eine mit 404 beantwortete ID; geschrieben wird gesammelt. Ungültige IDs werden ignoriert.
+	 */
+	void record(int tmdbId) {
+		if (tmdbId < 1)
+			return;
+		boolean flushDue;
+		lock.writeLock().lock();
+		try {
+			if (missing.get(tmdbId))
+				return;
+			missing.set(tmdbId);
+			unflushed.add(tmdbId);
+			flushDue = unflushed.size() >= FLUSH_SIZE;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		if (flushDue)
+			flush();
+	}
+
+	/**
+	 * Schreibt die gesammelten IDs; schlägt das fehl, bleiben sie für den nächsten Versuch vorgemerkt.
+	 */
+	void flush() {
+		List<Integer> batch;
+		lock.writeLock().lock();
+		try {
+			if (unflushed.isEmpty())
+				return;
+			batch = unflushed;
+			unflushed = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("INSERT INTO tmdb_missing_id (tmdb_id, recheck_after) "
+						+ "SELECT unnest(?), now() + make_interval(secs => ?) ON CONFLICT (tmdb_id) DO UPDATE "
+						+ "SET recheck_after = EXCLUDED.recheck_after")) {
+			ps.setArray(1, c.createArrayOf("integer", batch.toArray()));
+			ps.setDouble(2, ttl.toSeconds());
+			ps.executeUpdate();
+		} catch (SQLException e) {
+			System.err.println("❌ Failed to persist " + batch.size() + " missing TMDB ids: " + e.getMessage());
+			lock.writeLock().lock();
+			try {
+				unflushed.addAll(batch);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Prüft bis zu {@code adt.tmdb.missing.recheck-budget} fällige IDs erneut über den regulären TMDB-Zugang, also
+	 * innerhalb des globalen Ratenlimits. Fehlgeschlagene Prüfungen bleiben fällig.
+	 */
+	void recheck() throws SQLException, InterruptedException {
+		List<Integer> due = new ArrayList<>();
+		try (Connection c = ds.getConnection();
+				PreparedStatement ps = c.prepareStatement("SELECT tmdb_id FROM tmdb_missing_id "
+						+ "WHERE recheck_after <= now() ORDER BY recheck_after LIMIT ?")) {
+			ps.setInt(1, recheckBudget);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					due.add(rs.getInt(1));
+			}
+		}
+		if (due.isEmpty())
+			return;
+
+		List<Integer> missingAgain = new ArrayList<>();
+		List<Integer> existing = new ArrayList<>();
+		for (int tmdbId : due) {
+			if (Thread.currentThread().isInterrupted())
+				throw new InterruptedException();
+			try {
+				if (importService.getJson(importService.tmdbUrl("/movie/" + tmdbId).toString()) == null)
+					missingAgain.add(tmdbId);
+				else
+					existing.add(tmdbId);
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				System.err.println("❌ Recheck of TMDB id " + tmdbId + " failed: " + e.getMessage());
+			}
+		}
+
+		try (Connection c = ds.getConnection()) {
+			try (PreparedStatement ps = c.prepareStatement("UPDATE tmdb_missing_id "
+					+ "SET recheck_after = now() + make_interval(secs => ?) WHERE tmdb_id = ANY(?)")) {
+				ps.setDouble(1, ttl.toSeconds());
+				ps.setArray(2, c.createArrayOf("integer", missingAgain.toArray()));
+				ps.executeUpdate();
+			}
+			try (PreparedStatement ps = c.prepareStatement("DELETE FROM tmdb_missing_id WHERE tmdb_id = ANY(?)")) {
+				ps.setArray(1, c.createArrayOf("integer", existing.toArray()));
+				ps.executeUpdate();
+			}
+		}
+		lock.writeLock().lock();
+		try {
+			existing.forEach(missing::clear);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		stillMissing.increment(missingAgain.size());
+		found.increment(existing.size());
+	}
+}
@@ -0,0 +1,124 @@
+package com.adt.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Kompakte Zeilen-Darstellung eines TMDB-Film-Responses ({@code /movie/{id}} mit
+ * {@code append_to_response=alternative_titles,credits,watch/providers}). Enthält nur die Felder, die der Import
+ * tatsächlich schreibt; die Werte werden unverändert aus dem JSON übernommen.
+ */
+public record TmdbMovie(
+		int tmdbId,
+		String imdbId,
+		String title,
+		String originalTitle,
+		String originalLanguage,
+		boolean adult,
+		boolean video,
+		String status,
+		String releaseDate,
+		Integer budget,
+		Long revenue,
+		Integer runtime,
+		String homepage,
+		String overview,
+		BigDecimal popularity,
+		BigDecimal voteAverage,
+		Integer voteCount,
+		String tagline,
+		List<Genre> genres,
+		List<SpokenLanguage> spokenLanguages,
+		List<Country> productionCountries,
+		List<Company> productionCompanies,
+		List<AlternativeTitle> alternativeTitles,
+		List<Cast> cast,
+		List<Crew> crew,
+		List<WatchProvider> watchProviders) {
+
+	/**
+	 * Fingerabdruck der geschriebenen Spalten inklusive Relationen, Titel und Watch-Provider. Von den Credits zählen nur
+	 * die Relationsspalten: Name, Geschlecht, Popularität usw. der Personen schreibt der Import nur für neue Personen,
+	 * Details bestehender Personen haben einen eigenen Fingerabdruck.
+	 */
+	public long contentHash() {
+		ContentHash hash = new ContentHash()
+				.add(tmdbId).add(imdbId).add(title).add(originalTitle).add(originalLanguage).add(adult).add(video)
+				.add(status).add(releaseDate).add(budget).add(revenue).add(runtime).add(homepage).add(overview)
+				.add(popularity).add(voteAverage).add(voteCount).add(tagline);
+		hash.count(genres);
+		for (Genre g : genres)
+			hash.add(g.tmdbId()).add(g.name());
+		hash.count(spokenLanguages);
+		for (SpokenLanguage l : spokenLanguages)
+			hash.add(l.iso()).add(l.englishName()).add(l.name());
+		hash.count(productionCountries);
+		for (Country country : productionCountries)
+			hash.add(country.iso()).add(country.name());
+		hash.count(productionCompanies);
+		for (Company company : productionCompanies)
+			hash.add(company.tmdbId()).add(company.name()).add(company.originCountry());
+		hash.count(alternativeTitles);
+		for (AlternativeTitle t : alternativeTitles)
+			hash.add(t.iso()).add(t.title()).add(t.type());
+		hash.count(cast);
+		for (Cast c : cast)
+			hash.add(c.personTmdbId()).add(c.character()).add(c.order());
+		hash.count(crew);
+		for (Crew c : crew)
+			hash.add(c.personTmdbId()).add(c.department()).add(c.job());
+		hash.count(watchProviders);
+		for (WatchProvider w : watchProviders)
+			hash.add(w.region()).add(w.link()).add(w.type()).add(w.providerTmdbId()).add(w.name()).add(w.logoPath())
+					.add(w.displayPriority());
+		return hash.value();
+	}
+
+	public record Genre(int tmdbId, String name) {
+	}
+
+	public record SpokenLanguage(String iso, String englishName, String name) {
+	}
+
+	public record Country(String iso, String name) {
+	}
+
+	public record Company(int tmdbId, String name, String originCountry) {
+	}
+
+	public record AlternativeTitle(String iso, String title, String type) {
+	}
+
+	/**
+	 * Gemeinsame Personendaten eines Cast- oder Crew-Eintrags.
+	 */
+	public sealed interface Credit permits Cast, Crew {
+		int personTmdbId();
+
+		String name();
+
+		Integer gender();
+
+		String knownForDepartment();
+
+		Boolean adult();
+
+		BigDecimal popularity();
+	}
+
+	public record Cast(int personTmdbId, String name, Integer gender, String knownForDepartment, Boolean adult,
+			BigDecimal popularity, String character, Integer order) implements Credit {
+	}
+
+	public record Crew(int personTmdbId, String name, Integer gender, String knownForDepartment, Boolean adult,
+			BigDecimal popularity, String department, String job) implements Credit {
+	}
+
+	/**
+	 * Ein Anbieter einer Region und Kategorie ({@code flatrate}, {@code buy}, {@code rent}, {@code ads},
+	 * {@code free}); {@code link} ist der TMDB-Link der Region.
+	 */
+	public record WatchProvider(String region, String link, String type, int providerTmdbId, String name,
+			String logoPath, Integer displayPriority) {
+	}
+}
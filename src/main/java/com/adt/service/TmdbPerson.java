@@ -0,0 +1,36 @@
+package com.adt.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Kompakte Darstellung eines TMDB-Personen-Responses ({@code /person/{id}}) mit allen Feldern, die der Import
+ * schreibt.
+ */
+public record TmdbPerson(
+		int tmdbId,
+		String imdbId,
+		String name,
+		Integer gender,
+		String knownForDepartment,
+		String biography,
+		String birthday,
+		String deathday,
+		String placeOfBirth,
+		String homepage,
+		Boolean adult,
+		BigDecimal popularity,
+		List<String> aliases) {
+
+	/**
+	 * Fingerabdruck der geschriebenen Spalten inklusive Aliasse.
+	 */
+	public long contentHash() {
+		ContentHash hash = new ContentHash()
+				.add(tmdbId).add(imdbId).add(name).add(gender).add(knownForDepartment).add(biography).add(birthday)
+				.add(deathday).add(placeOfBirth).add(homepage).add(adult).add(popularity);
+		hash.count(aliases);
+		aliases.forEach(hash::add);
+		return hash.value();
+	}
+}
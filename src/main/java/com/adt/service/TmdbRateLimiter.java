@@ -0,0 +1,162 @@
+package com.adt.service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Lock-freier Ratenbegrenzer für TMDB-Aufrufe nach dem GCRA-Verfahren (Token-Bucket mit Reservierung). Jeder Aufrufer
+ * reserviert per CAS einen Zeitslot und wartet anschließend außerhalb jedes Monitors, sodass wartende virtuelle Threads
+ * ihren Carrier nicht blockieren. Bis zur Höhe des Bursts dürfen Aufrufe ohne Wartezeit erfolgen.
+ * <p>
+ * Die Rate folgt {@code X-RateLimit-Limit}; {@code X-RateLimit-Remaining: 0} und {@code Retry-After} pausieren alle
+ * Aufrufer bis zum angegebenen Zeitpunkt.
+ */
+@ApplicationScoped
+public class TmdbRateLimiter {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	@ConfigProperty(name = "adt.import.rate-limit.per-second", defaultValue = "50")
+	int defaultPerSecond;
+
+	@ConfigProperty(name = "adt.import.rate-limit.burst", defaultValue = "50")
+	int burst;
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	/** Theoretischer Ankunftszeitpunkt (GCRA) des nächsten Aufrufs ohne Burst, in {@link System#nanoTime()}. */
+	private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+	/** Zeitpunkt, bis zu dem laut {@code Retry-After}/{@code X-RateLimit-Remaining} keine Aufrufe erfolgen dürfen. */
+	private final AtomicLong pausedUntil = new AtomicLong(Long.MIN_VALUE);
+	private volatile long intervalNanos;
+
+	private Timer waitTimer;
+
+	@PostConstruct
+	void init() {
+		setPerSecond(defaultPerSecond);
+		waitTimer = Timer.builder("adt.import.rate_limit.wait")
+				.description("Wartezeit vor einem TMDB-Aufruf durch die Ratenbegrenzung")
+				.register(meterRegistry);
+		meterRegistry.gauge("adt.import.rate_limit.per_second", this, TmdbRateLimiter::perSecond);
+	}
+
+	/**
+	 * Reserviert einen Aufruf und wartet – ohne Lock – bis zu dessen Zeitslot.
+	 */
+	public void acquire() {
+		long waitNanos = reserve(System.nanoTime());
+		waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+		if (waitNanos <= 0)
+			return;
+		try {
+			Thread.sleep(Duration.ofNanos(waitNanos));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for API rate limit", e);
+		}
+	}
+
+	/**
+	 * Reserviert den nächsten freien Slot ab {@code now} und liefert die Wartezeit bis dahin.
+	 */
+	long reserve(long now) {
+		while (true) {
+			long interval = intervalNanos;
+			long tolerance = (Math.max(1, burst) - 1) * interval;
+			long paused = pausedUntil.get();
+			long tat = theoreticalArrival.get();
+			long start = Math.max(tat, Math.max(now, paused));
+			if (theoreticalArrival.compareAndSet(tat, start + interval))
+				return Math.max(0, Math.max(paused, start - tolerance) - now);
+		}
+	}
+
+	/**
+	 * Übernimmt die Ratenlimit-Angaben einer TMDB-Antwort.
+	 */
+	public void onResponse(int statusCode, String limitHeader, String remainingHeader, String retryAfterHeader) {
+		if (limitHeader != null) {
+			try {
+				long perSecond = Long.parseLong(limitHeader.trim());
+				if (perSecond > 0)
+					setPerSecond(perSecond);
+			} catch (NumberFormatException ignored) {
+				// ungültiger Header: bisherige Rate beibehalten
+			}
+		}
+
+		long retryAfterNanos = parseRetryAfter(retryAfterHeader);
+		if (retryAfterNanos < 0 && "0".equals(remainingHeader == null ? null : remainingHeader.trim()))
+			retryAfterNanos = NANOS_PER_SECOND;
+		if (retryAfterNanos < 0 && statusCode == 429)
+			retryAfterNanos = NANOS_PER_SECOND;
+		if (retryAfterNanos >= 0)
+			pauseFor(retryAfterNanos);
+	}
+
+	/**
+	 * Setzt die Rate auf den konfigurierten Standardwert zurück.
+	 */
+	public void resetToDefault() {
+		setPerSecond(defaultPerSecond);
+	}
+
+	/**
+	 * Verbleibende Pause durch {@code Retry-After} bzw. {@code X-RateLimit-Remaining: 0} in Nanosekunden.
+	 */
+	public long pauseRemainingNanos() {
+		long until = pausedUntil.get();
+		return until == Long.MIN_VALUE ? 0 : Math.max(0, until - System.nanoTime());
+	}
+
+	/**
+	 * Aktuell erlaubte Aufrufe pro Sekunde.
+	 */
+	public double perSecond() {
+		return (double) NANOS_PER_SECOND / intervalNanos;
+	}
+
+	private void setPerSecond(long perSecond) {
+		intervalNanos = NANOS_PER_SECOND / Math.max(1, perSecond);
+	}
+
+	private void pauseFor(long nanos) {
+		long until = System.nanoTime() + nanos;
+		pausedUntil.accumulateAndGet(until, Math::max);
+	}
+
+	/**
+	 * Wertet {@code Retry-After} als Sekundenangabe oder HTTP-Datum aus; {@code -1}, wenn der Header fehlt.
+	 */
+	static long parseRetryAfter(String header) {
+		if (header == null || header.isBlank())
+			return -1;
+		String value = header.trim();
+		try {
+			return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value)));
+		} catch (NumberFormatException ignored) {
+			// kein Sekundenwert, evtl. HTTP-Datum
+		}
+		try {
+			ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+			return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toNanos());
+		} catch (DateTimeParseException e) {
+			return -1;
+		}
+	}
+}
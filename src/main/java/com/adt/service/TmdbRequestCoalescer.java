@@ -0,0 +1,111 @@
+package com.adt.service;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fasst gleichzeitige identische TMDB-Aufrufe zusammen (Single-Flight): Solange ein Aufruf für eine URL läuft, warten
+ * weitere Aufrufer derselben URL auf dessen Ergebnis, statt einen eigenen HTTP-Request abzusetzen. Geteilt werden das
+ * Parse-Ergebnis (unveränderliche Records bzw. {@code JsonObject}) und ebenso ein {@code null} bei HTTP 404 oder eine
+ * Exception. Nach Abschluss wird der Eintrag entfernt; es findet also kein Caching über den Aufruf hinaus statt.
+ */
+@ApplicationScoped
+public class TmdbRequestCoalescer {
+
+	@Inject
+	MeterRegistry meterRegistry;
+
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	private Counter executed;
+	private Counter coalesced;
+
+	@PostConstruct
+	void registerMetrics() {
+		executed = Counter.builder("adt.tmdb.requests")
+				.description("Tatsächlich ausgeführte TMDB-GET-Aufrufe (ohne Wiederholungen)")
+				.tag("result", "executed")
+				.register(meterRegistry);
+		coalesced = Counter.builder("adt.tmdb.requests")
+				.description("Eingesparte TMDB-GET-Aufrufe, die das Ergebnis eines laufenden Aufrufs übernommen haben")
+				.tag("result", "coalesced")
+				.register(meterRegistry);
+		meterRegistry.gauge("adt.tmdb.requests.in_flight", inFlight, ConcurrentHashMap::size);
+	}
+
+	/**
+	 * Führt {@code call} für {@code key} aus oder schließt sich einem bereits laufenden Aufruf mit demselben Schlüssel an.
+	 * Aufrufer, die sich anschließen, erhalten dieselbe Exception wie der ausführende Aufrufer. Scheitert dieser nur,
+	 * weil sein Thread unterbrochen wurde (z. B. beim Fail-Fast-Abbruch der Personendetails eines anderen Films), führen
+	 * die angeschlossenen Aufrufer den Aufruf stattdessen selbst aus.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String key, Callable<T> call) throws Exception {
+		while (true) {
+			CompletableFuture<Object> own = new CompletableFuture<>();
+			CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+			if (running != null) {
+				try {
+					T result = (T) running.get();
+					coalesced.increment();
+					return result;
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof LeaderInterruptedException)
+						continue;
+					coalesced.increment();
+					throw e.getCause() instanceof Exception cause ? cause : e;
+				}
+			}
+
+			executed.increment();
+			try {
+				T result = call.call();
+				inFlight.remove(key, own);
+				own.complete(result);
+				return result;
+			} catch (Exception | Error e) {
+				// erst entfernen, damit erneut versuchende Aufrufer nicht auf den beendeten Eintrag treffen
+				inFlight.remove(key, own);
+				own.completeExceptionally(isInterruption(e) ? new LeaderInterruptedException() : e);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Ob der Aufruf an einer Unterbrechung seines Threads gescheitert ist und nicht an TMDB; Timeouts zählen nicht
+	 * dazu.
+	 */
+	private static boolean isInterruption(Throwable e) {
+		if (Thread.currentThread().isInterrupted())
+			return true;
+		for (Throwable t = e; t != null; t = t.getCause()) {
+			if (t instanceof InterruptedException)
+				return true;
+			if (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException)
+					&& !"timeout".equals(t.getMessage()))
+				return true;
+		}
+		return false;
+	}
+
+	/** Signalisiert angeschlossenen Aufrufern, dass der ausführende Aufrufer unterbrochen wurde. */
+	private static final class LeaderInterruptedException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		LeaderInterruptedException() {
+			super(null, null, false, false);
+		}
+	}
+}
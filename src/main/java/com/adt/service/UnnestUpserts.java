@@ -0,0 +1,186 @@
+package com.adt.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Mengenbasierte Upserts für {@link PersistenceEngine#UNNEST}: Alle Zeilen einer Schreibgruppe werden spaltenweise als
+ * PostgreSQL-Arrays gebunden und mit einer einzigen Anweisung geschrieben, die über {@code unnest} wieder Zeilen bildet.
+ * Dieselbe Anweisung löst die TMDB-Schlüssel aller Zeilen in Primärschlüssel auf – für geänderte und neue Zeilen über
+ * {@code RETURNING}, für unveränderte (No-op-)Zeilen über einen Join auf die Eingabe.
+ */
+final class UnnestUpserts {
+
+	/**
+	 * Zieltabellen mit ihren Spalten ({@code "name typ"}); die ersten {@code keyColumns} Spalten bilden den
+	 * Konfliktschlüssel. {@code touch} schreibt bei jeder Änderung zusätzlich {@code last_fetched_at = now()}, sofern
+	 * die Zeile einen {@code content_hash} hat, also aus einem Detail-Response stammt; Zeilen ohne {@code content_hash}
+	 * überschreiben dann keine vorhandene Zeile mit Detaildaten.
+	 */
+	enum Target {
+		PRODUCTION_COMPANY("production_company", 1, false, "tmdb_id integer", "name text", "origin_country text"),
+		WATCH_PROVIDER("watch_provider", 2, false, "tmdb_id integer", "region text", "name text", "logo_path text",
+				"display_priority integer"),
+		MOVIE("movie", 1, false, "tmdb_id integer", "imdb_id text", "title text", "original_title text",
+				"original_language text", "adult boolean", "video boolean", "status text", "release_date date",
+				"budget integer", "revenue bigint", "runtime integer", "homepage text", "overview text",
+				"popularity numeric", "vote_average numeric", "vote_count integer", "tagline text",
+				"content_hash bigint"),
+		PERSON("person", 1, true, "tmdb_id integer", "imdb_id text", "name text", "gender integer",
+				"known_for_department integer", "biography text", "birthday date", "deathday date",
+				"place_of_birth text", "homepage text", "adult boolean", "popularity numeric", "content_hash bigint");
+
+		final String table;
+		final int keyColumns;
+		final boolean touch;
+		final String[] columns;
+		final String[] types;
+		final String sql;
+
+		Target(String table, int keyColumns, boolean touch, String... columns) {
+			this.table = table;
+			this.keyColumns = keyColumns;
+			this.touch = touch;
+			this.columns = new String[columns.length];
+			this.types = new String[columns.length];
+			for (int i = 0; i < columns.length; i++) {
+				String[] column = columns[i].split(" ");
+				this.columns[i] = column[0];
+				this.types[i] = column[1];
+			}
+			this.sql = upsertSql();
+		}
+
+		private String upsertSql() {
+			String all = String.join(", ", columns);
+			String keys = String.join(", ", List.of(columns).subList(0, keyColumns));
+			List<String> values = List.of(columns).subList(keyColumns, columns.length);
+			String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+			String set = values.stream().map(c -> c + " = EXCLUDED." + c).collect(Collectors.joining(", "));
+			String current = values.stream().map(c -> table + "." + c).collect(Collectors.joining(", "));
+			String excluded = values.stream().map(c -> "EXCLUDED." + c).collect(Collectors.joining(", "));
+			String sameKey = IntStream.range(0, keyColumns)
+					.mapToObj(i -> "u." + columns[i] + " = t." + columns[i])
+					.collect(Collectors.joining(" AND "));
+			return "WITH input AS (SELECT * FROM unnest(" + placeholders + ") AS i (" + all + ")), "
+					+ "upserted AS (INSERT INTO " + table + " (" + all + (touch ? ", last_fetched_at" : "") + ") "
+					+ "SELECT " + all + (touch ? ", CASE WHEN content_hash IS NOT NULL THEN now() END" : "") + " FROM input "
+					+ "ON CONFLICT (" + keys + ") DO UPDATE SET " + set
+					+ (touch ? ", last_fetched_at = coalesce(EXCLUDED.last_fetched_at, " + table + ".last_fetched_at)" : "")
+					+ " WHERE "
+					+ (touch ? "(EXCLUDED.content_hash IS NOT NULL OR " + table + ".content_hash IS NULL) AND " : "")
+					+ "(" + current + ") IS DISTINCT FROM (" + excluded + ") "
+					+ "RETURNING " + keys + ", id) "
+					+ "SELECT " + keys + ", id FROM upserted UNION ALL "
+					+ "SELECT " + prefixed("t.", keyColumns) + ", t.id FROM " + table + " t JOIN input i USING (" + keys
+					+ ") WHERE NOT EXISTS (SELECT 1 FROM upserted u WHERE " + sameKey + ")";
+		}
+
+		private String prefixed(String prefix, int count) {
+			return IntStream.range(0, count).mapToObj(i -> prefix + columns[i]).collect(Collectors.joining(", "));
+		}
+	}
+
+	private UnnestUpserts() {
+	}
+
+	/**
+	 * Schreibt alle Zeilen mit einer Anweisung. Die Zeilen müssen bezüglich des Konfliktschlüssels eindeutig sein.
+	 *
+	 * @return Konfliktschlüssel (als Liste) → Primärschlüssel für alle übergebenen Zeilen
+	 */
+	static Map<List<Object>, Long> upsert(Connection c, Target target, Collection<Object[]> rows)
+			throws SQLException {
+		Map<List<Object>, Long> ids = new HashMap<>();
+		if (rows.isEmpty())
+			return ids;
+
+		try (PreparedStatement ps = c.prepareStatement(target.sql)) {
+			bindColumns(c, ps, target, rows, target.columns.length);
+			readIds(ps, target, ids);
+		}
+
+		// von einer parallelen Transaktion nach Beginn der Anweisung angelegte Zeilen sieht deren Snapshot nicht
+		List<Object[]> missing = new ArrayList<>();
+		for (Object[] row : rows) {
+			if (!ids.containsKey(key(target, row)))
+				missing.add(row);
+		}
+		if (!missing.isEmpty()) {
+			String keys = String.join(", ", List.of(target.columns).subList(0, target.keyColumns));
+			String placeholders = String.join(", ", Collections.nCopies(target.keyColumns, "?"));
+			try (PreparedStatement ps = c.prepareStatement("SELECT " + target.prefixed("t.", target.keyColumns)
+					+ ", t.id FROM " + target.table + " t JOIN unnest(" + placeholders + ") AS i (" + keys
+					+ ") USING (" + keys + ")")) {
+				bindColumns(c, ps, target, missing, target.keyColumns);
+				readIds(ps, target, ids);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Ersetzt die Aliasse aller übergebenen Personen mit einer Lösch- und einer Einfügeanweisung.
+	 */
+	static void replacePersonAliases(Connection c, Map<Long, List<String>> aliases) throws SQLException {
+		if (aliases.isEmpty())
+			return;
+		try (PreparedStatement delete = c.prepareStatement("DELETE FROM person_alias WHERE person_id = ANY(?)")) {
+			delete.setArray(1, c.createArrayOf("integer", aliases.keySet().toArray()));
+			delete.executeUpdate();
+		}
+
+		List<Object> personIds = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		aliases.forEach((personId, names) -> names.forEach(alias -> {
+			personIds.add(personId);
+			values.add(alias);
+		}));
+		if (values.isEmpty())
+			return;
+		try (PreparedStatement insert = c.prepareStatement(
+				"INSERT INTO person_alias (person_id, alias) SELECT * FROM unnest(?, ?)")) {
+			insert.setArray(1, c.createArrayOf("integer", personIds.toArray()));
+			insert.setArray(2, c.createArrayOf("text", values.toArray()));
+			insert.executeUpdate();
+		}
+	}
+
+	static List<Object> key(Target target, Object[] row) {
+		return List.of(Arrays.copyOf(row, target.keyColumns));
+	}
+
+	private static void bindColumns(Connection c, PreparedStatement ps, Target target, Collection<Object[]> rows,
+			int columns) throws SQLException {
+		for (int column = 0; column < columns; column++) {
+			Object[] values = new Object[rows.size()];
+			int i = 0;
+			for (Object[] row : rows)
+				values[i++] = row[column];
+			ps.setArray(column + 1, c.createArrayOf(target.types[column], values));
+		}
+	}
+
+	private static void readIds(PreparedStatement ps, Target target, Map<List<Object>, Long> ids)
+			throws SQLException {
+		try (ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				Object[] key = new Object[target.keyColumns];
+				for (int i = 0; i < key.length; i++)
+					key[i] = target.types[i].equals("integer") ? (Object) rs.getInt(i + 1) : rs.getString(i + 1);
+				ids.put(List.of(key), rs.getLong(target.keyColumns + 1));
+			}
+		}
+	}
+}
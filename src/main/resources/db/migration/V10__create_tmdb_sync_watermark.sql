@@ -0,0 +1,9 @@
+-- Stand des inkrementellen Abgleichs mit den TMDB-Änderungsfeeds (/movie/changes, /person/changes): synced_through ist
+-- der letzte Tag, dessen Änderungen übernommen wurden. Der nächste Abgleich beginnt an diesem Tag erneut, da er beim
+-- letzten Lauf noch nicht abgeschlossen sein musste.
+CREATE TABLE tmdb_sync_watermark
+(
+    feed           TEXT PRIMARY KEY CHECK (feed IN ('movie', 'person')),
+    synced_through DATE        NOT NULL,
+    updated_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,10 @@
+-- Negativ-Cache für TMDB-Film-IDs, die mit 404 beantwortet wurden. Importe überspringen diese IDs ohne Anfrage, bis
+-- recheck_after erreicht ist; dann prüft ein Hintergrund-Thread sie mit begrenztem Budget erneut.
+CREATE TABLE tmdb_missing_id
+(
+    tmdb_id       INTEGER PRIMARY KEY,
+    missing_since TIMESTAMPTZ NOT NULL DEFAULT now(),
+    recheck_after TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_tmdb_missing_id_recheck ON tmdb_missing_id (recheck_after);
@@ -0,0 +1,3 @@
+-- Filme, deren Reimport beim letzten Abgleich fehlgeschlagen ist (5xx, Timeout, Schreibfehler). Das Watermark rückt
+-- trotzdem vor; der nächste Abgleich importiert diese IDs zusätzlich zu den neu gemeldeten Änderungen erneut.
+ALTER TABLE tmdb_sync_watermark ADD COLUMN retry_ids INTEGER[] NOT NULL DEFAULT '{}';
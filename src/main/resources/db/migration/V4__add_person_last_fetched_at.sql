@@ -0,0 +1,3 @@
+-- Frische-Marker für Personendetails: Personen, deren Details innerhalb der TTL abgerufen wurden,
+-- werden beim Import weder erneut bei TMDB abgefragt noch erneut geschrieben.
+ALTER TABLE person ADD COLUMN last_fetched_at TIMESTAMPTZ;
@@ -0,0 +1,135 @@
+-- Staging-Tabellen für den COPY-basierten Bulk-Import. UNLOGGED: kein WAL beim Befüllen, Inhalt nach einem
+-- Absturz verloren (wird ohnehin nur für die Dauer eines Imports benötigt). Jeder Import schreibt unter einer eigenen
+-- load_id und räumt seine Zeilen nach dem Merge wieder ab; Referenzen laufen über TMDB-IDs.
+CREATE SEQUENCE staging_load_id_seq;
+
+CREATE UNLOGGED TABLE staging_movie
+(
+    load_id           BIGINT  NOT NULL,
+    tmdb_id           INTEGER NOT NULL,
+    imdb_id           TEXT,
+    title             TEXT,
+    original_title    TEXT,
+    original_language CHAR(2),
+    adult             BOOLEAN,
+    video             BOOLEAN,
+    status            TEXT,
+    release_date      DATE,
+    budget            INTEGER,
+    revenue           BIGINT,
+    runtime           INTEGER,
+    homepage          TEXT,
+    overview          TEXT,
+    popularity        NUMERIC(12, 3),
+    vote_average      NUMERIC(4, 2),
+    vote_count        INTEGER,
+    tagline           TEXT
+);
+
+CREATE UNLOGGED TABLE staging_person
+(
+    load_id              BIGINT  NOT NULL,
+    tmdb_id              INTEGER NOT NULL,
+    detailed             BOOLEAN NOT NULL,
+    imdb_id              TEXT,
+    name                 TEXT    NOT NULL,
+    gender               INTEGER,
+    known_for_department INTEGER,
+    biography            TEXT,
+    birthday             DATE,
+    deathday             DATE,
+    place_of_birth       TEXT,
+    homepage             TEXT,
+    adult                BOOLEAN,
+    popularity           NUMERIC(10, 3)
+);
+
+CREATE UNLOGGED TABLE staging_person_alias
+(
+    load_id        BIGINT  NOT NULL,
+    person_tmdb_id INTEGER NOT NULL,
+    alias          TEXT    NOT NULL
+);
+
+CREATE UNLOGGED TABLE staging_production_company
+(
+    load_id        BIGINT  NOT NULL,
+    tmdb_id        INTEGER NOT NULL,
+    name           TEXT,
+    origin_country CHAR(2)
+);
+
+CREATE UNLOGGED TABLE staging_watch_provider
+(
+    load_id          BIGINT  NOT NULL,
+    tmdb_id          INTEGER NOT NULL,
+    region           CHAR(2) NOT NULL,
+    name             TEXT,
+    logo_path        TEXT,
+    display_priority INTEGER
+);
+
+CREATE UNLOGGED TABLE staging_movie_genre
+(
+    load_id       BIGINT  NOT NULL,
+    movie_tmdb_id INTEGER NOT NULL,
+    genre_id      INTEGER NOT NULL
+);
+
+CREATE UNLOGGED TABLE staging_movie_spoken_language
+(
+    load_id       BIGINT  NOT NULL,
+    movie_tmdb_id INTEGER NOT NULL,
+    iso_639_1     CHAR(2) NOT NULL
+);
+
+CREATE UNLOGGED TABLE staging_movie_country
+(
+    load_id         BIGINT  NOT NULL,
+    movie_tmdb_id   INTEGER NOT NULL,
+    iso_3166_1      CHAR(2) NOT NULL,
+    country_type_id INTEGER NOT NULL
+);
+
+CREATE UNLOGGED TABLE staging_movie_production_company
+(
+    load_id         BIGINT  NOT NULL,
+    movie_tmdb_id   INTEGER NOT NULL,
+    company_tmdb_id INTEGER NOT NULL
+);
+
+CREATE UNLOGGED TABLE staging_movie_title
+(
+    load_id       BIGINT  NOT NULL,
+    movie_tmdb_id INTEGER NOT NULL,
+    iso_3166_1    CHAR(2) NOT NULL,
+    title         TEXT,
+    type          TEXT
+);
+
+CREATE UNLOGGED TABLE staging_movie_watch_provider
+(
+    load_id          BIGINT  NOT NULL,
+    movie_tmdb_id    INTEGER NOT NULL,
+    provider_tmdb_id INTEGER NOT NULL,
+    region           CHAR(2) NOT NULL,
+    type             TEXT    NOT NULL,
+    link             TEXT
+);
+
+CREATE UNLOGGED TABLE staging_movie_cast
+(
+    load_id        BIGINT  NOT NULL,
+    movie_tmdb_id  INTEGER NOT NULL,
+    person_tmdb_id INTEGER NOT NULL,
+    character_name TEXT,
+    cast_order     INTEGER
+);
+
+CREATE UNLOGGED TABLE staging_movie_crew
+(
+    load_id        BIGINT  NOT NULL,
+    movie_tmdb_id  INTEGER NOT NULL,
+    person_tmdb_id INTEGER NOT NULL,
+    job_id         INTEGER NOT NULL
+);
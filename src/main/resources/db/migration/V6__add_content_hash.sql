@@ -0,0 +1,7 @@
+-- Fingerabdruck des zuletzt geschriebenen TMDB-Payloads: Stimmt er beim erneuten Import überein, wird der Film bzw.
+-- die Person nicht erneut geschrieben.
+ALTER TABLE movie ADD COLUMN content_hash BIGINT;
+ALTER TABLE person ADD COLUMN content_hash BIGINT;
+
+ALTER TABLE staging_movie ADD COLUMN content_hash BIGINT;
+ALTER TABLE staging_person ADD COLUMN content_hash BIGINT;
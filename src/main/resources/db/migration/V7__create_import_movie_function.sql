@@ -0,0 +1,179 @@
+-- Serverseitiger Import eines Films für die Persistenz-Engine JSONB: Der Client schickt das vollständige Dokument eines
+-- Films (Stammdaten, Studios, Watch-Provider, Personen und alle Relationen) als ein jsonb-Parameter, die Funktion
+-- schreibt alles mengenbasiert in einem Aufruf. Referenzdaten (Genres, Länder-Typen, Jobs, Departments) sind im
+-- Dokument bereits als IDs aufgelöst, Studios, Provider und Personen werden über ihre TMDB-IDs verknüpft. Einträge
+-- sind je Unique-Schlüssel eindeutig; die Upserts schreiben wie die übrigen Engines nur tatsächlich geänderte Zeilen.
+
+-- Gleicht eine Relationstabelle eines Films mit den gewünschten Zeilen ab: Nur entfernte Zeilen werden gelöscht und
+-- nur neue eingefügt. Mehrfach vorkommende identische Zeilen (movie_title) werden über ihre laufende Nummer gezählt.
+CREATE FUNCTION import_movie_relation(tbl TEXT, movie_pk INTEGER, cols TEXT[], desired JSONB) RETURNS VOID
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    col_list TEXT := (SELECT string_agg(format('%I', c), ', ') FROM unnest(cols) AS c);
+    d_cols   TEXT := (SELECT string_agg(format('d.%I', c), ', ') FROM unnest(cols) AS c);
+    t_cols   TEXT := (SELECT string_agg(format('t.%I', c), ', ') FROM unnest(cols) AS c);
+    numbered TEXT := format('(SELECT d.*, row_number() OVER (PARTITION BY %s) AS n '
+                                || 'FROM jsonb_populate_recordset(NULL::%I, $2) d) d', col_list, tbl);
+BEGIN
+    desired := coalesce(desired, '[]');
+
+    EXECUTE format('DELETE FROM %I t USING (SELECT id, row_number() OVER (PARTITION BY %s ORDER BY id) AS n '
+                       || 'FROM %I WHERE movie_id = $1) e WHERE t.id = e.id AND NOT EXISTS '
+                       || '(SELECT 1 FROM %s WHERE d.n = e.n AND (%s) IS NOT DISTINCT FROM (%s))',
+                   tbl, col_list, tbl, numbered, d_cols, t_cols)
+        USING movie_pk, desired;
+
+    EXECUTE format('INSERT INTO %I (movie_id, %s) SELECT $1, %s FROM %s WHERE d.n > '
+                       || '(SELECT count(*) FROM %I t WHERE t.movie_id = $1 AND (%s) IS NOT DISTINCT FROM (%s))',
+                   tbl, col_list, d_cols, numbered, tbl, d_cols, t_cols)
+        USING movie_pk, desired;
+END;
+$$;
+
+CREATE FUNCTION import_movie(doc JSONB)
+    RETURNS TABLE
+            (
+                person_tmdb_id INTEGER,
+                person_pk      INTEGER
+            )
+    LANGUAGE plpgsql
+AS
+$$
+#variable_conflict use_column
+DECLARE
+    movie_pk INTEGER;
+BEGIN
+    INSERT INTO production_company (tmdb_id, name, origin_country)
+    SELECT c.tmdb_id, c.name, c.origin_country
+    FROM jsonb_populate_recordset(NULL::production_company, doc -> 'companies') c
+    ON CONFLICT (tmdb_id) DO UPDATE SET name = EXCLUDED.name, origin_country = EXCLUDED.origin_country
+    WHERE (production_company.name, production_company.origin_country)
+              IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.origin_country);
+
+    INSERT INTO watch_provider (tmdb_id, region, name, logo_path, display_priority)
+    SELECT p.tmdb_id, p.region, p.name, p.logo_path, p.display_priority
+    FROM jsonb_populate_recordset(NULL::watch_provider, doc -> 'providers') p
+    ON CONFLICT (tmdb_id, region) DO UPDATE SET name             = EXCLUDED.name,
+                                                logo_path        = EXCLUDED.logo_path,
+                                                display_priority = EXCLUDED.display_priority
+    WHERE (watch_provider.name, watch_provider.logo_path, watch_provider.display_priority)
+              IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.logo_path, EXCLUDED.display_priority);
+
+    INSERT INTO movie (tmdb_id, imdb_id, title, original_title, original_language, adult, video, status, release_date,
+                       budget, revenue, runtime, homepage, overview, popularity, vote_average, vote_count, tagline,
+                       content_hash)
+    SELECT m.tmdb_id, m.imdb_id, m.title, m.original_title, m.original_language, m.adult, m.video, m.status,
+           m.release_date, m.budget, m.revenue, m.runtime, m.homepage, m.overview, m.popularity, m.vote_average,
+           m.vote_count, m.tagline, m.content_hash
+    FROM jsonb_populate_record(NULL::movie, doc -> 'movie') m
+    ON CONFLICT (tmdb_id) DO UPDATE SET imdb_id           = EXCLUDED.imdb_id,
+                                        title             = EXCLUDED.title,
+                                        original_title    = EXCLUDED.original_title,
+                                        original_language = EXCLUDED.original_language,
+                                        adult             = EXCLUDED.adult,
+                                        video             = EXCLUDED.video,
+                                        status            = EXCLUDED.status,
+                                        release_date      = EXCLUDED.release_date,
+                                        budget            = EXCLUDED.budget,
+                                        revenue           = EXCLUDED.revenue,
+                                        runtime           = EXCLUDED.runtime,
+                                        homepage          = EXCLUDED.homepage,
+                                        overview          = EXCLUDED.overview,
+                                        popularity        = EXCLUDED.popularity,
+                                        vote_average      = EXCLUDED.vote_average,
+                                        vote_count        = EXCLUDED.vote_count,
+                                        tagline           = EXCLUDED.tagline,
+                                        content_hash      = EXCLUDED.content_hash
+    WHERE (movie.imdb_id, movie.title, movie.original_title, movie.original_language, movie.adult, movie.video,
+           movie.status, movie.release_date, movie.budget, movie.revenue, movie.runtime, movie.homepage, movie.overview,
+           movie.popularity, movie.vote_average, movie.vote_count, movie.tagline, movie.content_hash)
+              IS DISTINCT FROM (EXCLUDED.imdb_id, EXCLUDED.title, EXCLUDED.original_title, EXCLUDED.original_language,
+                                EXCLUDED.adult, EXCLUDED.video, EXCLUDED.status, EXCLUDED.release_date, EXCLUDED.budget,
+                                EXCLUDED.revenue, EXCLUDED.runtime, EXCLUDED.homepage, EXCLUDED.overview,
+                                EXCLUDED.popularity, EXCLUDED.vote_average, EXCLUDED.vote_count, EXCLUDED.tagline,
+                                EXCLUDED.content_hash)
+    RETURNING id INTO movie_pk;
+
+    -- unveränderter Film: der Upsert liefert keine Zeile
+    IF movie_pk IS NULL THEN
+        SELECT id INTO STRICT movie_pk FROM movie WHERE tmdb_id = (doc -> 'movie' ->> 'tmdb_id')::INTEGER;
+    END IF;
+
+    -- als frisch abgerufen (last_fetched_at) gelten nur Personen mit Detaildaten, also mit content_hash; reine
+    -- Credit-Daten überschreiben keine Person mit Detaildaten
+    INSERT INTO person (tmdb_id, imdb_id, name, gender, known_for_department, biography, birthday, deathday,
+                        place_of_birth, homepage, adult, popularity, content_hash, last_fetched_at)
+    SELECT p.tmdb_id, p.imdb_id, p.name, p.gender, p.known_for_department, p.biography, p.birthday, p.deathday,
+           p.place_of_birth, p.homepage, p.adult, p.popularity, p.content_hash,
+           CASE WHEN p.content_hash IS NOT NULL THEN now() END
+    FROM jsonb_populate_recordset(NULL::person, doc -> 'persons') p
+    ON CONFLICT (tmdb_id) DO UPDATE SET imdb_id              = EXCLUDED.imdb_id,
+                                        name                 = EXCLUDED.name,
+                                        gender               = EXCLUDED.gender,
+                                        known_for_department = EXCLUDED.known_for_department,
+                                        biography            = EXCLUDED.biography,
+                                        birthday             = EXCLUDED.birthday,
+                                        deathday             = EXCLUDED.deathday,
+                                        place_of_birth       = EXCLUDED.place_of_birth,
+                                        homepage             = EXCLUDED.homepage,
+                                        adult                = EXCLUDED.adult,
+                                        popularity           = EXCLUDED.popularity,
+                                        content_hash         = EXCLUDED.content_hash,
+                                        last_fetched_at      = coalesce(EXCLUDED.last_fetched_at, person.last_fetched_at)
+    WHERE (EXCLUDED.content_hash IS NOT NULL OR person.content_hash IS NULL)
+      AND (person.imdb_id, person.name, person.gender, person.known_for_department, person.biography,
+           person.birthday, person.deathday, person.place_of_birth, person.homepage, person.adult, person.popularity,
+           person.content_hash)
+              IS DISTINCT FROM (EXCLUDED.imdb_id, EXCLUDED.name, EXCLUDED.gender, EXCLUDED.known_for_department,
+                                EXCLUDED.biography, EXCLUDED.birthday, EXCLUDED.deathday, EXCLUDED.place_of_birth,
+                                EXCLUDED.homepage, EXCLUDED.adult, EXCLUDED.popularity, EXCLUDED.content_hash);
+
+    -- Aliasse werden nur für Personen mit Detaildaten (Feld "aliases" vorhanden) ersetzt
+    DELETE
+    FROM person_alias a
+        USING person p, jsonb_to_recordset(doc -> 'persons') AS d(tmdb_id INTEGER, aliases JSONB)
+    WHERE a.person_id = p.id
+      AND p.tmdb_id = d.tmdb_id
+      AND d.aliases IS NOT NULL;
+
+    INSERT INTO person_alias (person_id, alias)
+    SELECT p.id, a.alias
+    FROM jsonb_to_recordset(doc -> 'persons') AS d(tmdb_id INTEGER, aliases JSONB)
+             JOIN person p ON p.tmdb_id = d.tmdb_id
+             CROSS JOIN jsonb_array_elements_text(d.aliases) AS a(alias);
+
+    PERFORM import_movie_relation('movie_genre', movie_pk, ARRAY ['genre_id'], doc -> 'genres');
+    PERFORM import_movie_relation('movie_spoken_language', movie_pk, ARRAY ['iso_639_1'], doc -> 'spoken_languages');
+    PERFORM import_movie_relation('movie_country', movie_pk, ARRAY ['iso_3166_1', 'country_type_id'],
+                                  doc -> 'countries');
+    PERFORM import_movie_relation('movie_production_company', movie_pk, ARRAY ['production_company_id'],
+                                  (SELECT jsonb_agg(jsonb_build_object('production_company_id', pc.id))
+                                   FROM jsonb_to_recordset(doc -> 'companies') AS c(tmdb_id INTEGER)
+                                            JOIN production_company pc ON pc.tmdb_id = c.tmdb_id));
+    PERFORM import_movie_relation('movie_title', movie_pk, ARRAY ['iso_3166_1', 'title', 'type'], doc -> 'titles');
+    PERFORM import_movie_relation('movie_watch_provider', movie_pk, ARRAY ['provider_id', 'type', 'link'],
+                                  (SELECT jsonb_agg(jsonb_build_object('provider_id', wp.id, 'type', l.type,
+                                                                       'link', l.link))
+                                   FROM jsonb_to_recordset(doc -> 'watch_providers')
+                                            AS l(provider_tmdb_id INTEGER, region TEXT, type TEXT, link TEXT)
+                                            JOIN watch_provider wp
+                                                 ON wp.tmdb_id = l.provider_tmdb_id AND wp.region = l.region));
+    PERFORM import_movie_relation('movie_cast', movie_pk, ARRAY ['person_id', 'character_name', 'cast_order'],
+                                  (SELECT jsonb_agg(jsonb_build_object('person_id', p.id, 'character_name',
+                                                                       c.character_name, 'cast_order', c.cast_order))
+                                   FROM jsonb_to_recordset(doc -> 'cast')
+                                            AS c(person_tmdb_id INTEGER, character_name TEXT, cast_order INTEGER)
+                                            JOIN person p ON p.tmdb_id = c.person_tmdb_id));
+    PERFORM import_movie_relation('movie_crew', movie_pk, ARRAY ['person_id', 'job_id'],
+                                  (SELECT jsonb_agg(jsonb_build_object('person_id', p.id, 'job_id', c.job_id))
+                                   FROM jsonb_to_recordset(doc -> 'crew') AS c(person_tmdb_id INTEGER, job_id INTEGER)
+                                            JOIN person p ON p.tmdb_id = c.person_tmdb_id));
+
+    -- Primärschlüssel der geschriebenen Personen für PersonCache und EntityIdIndex des Clients
+    RETURN QUERY SELECT p.tmdb_id, p.id
+                 FROM jsonb_to_recordset(doc -> 'persons') AS d(tmdb_id INTEGER)
+                          JOIN person p ON p.tmdb_id = d.tmdb_id;
+END;
+$$;
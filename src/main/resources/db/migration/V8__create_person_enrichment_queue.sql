@@ -0,0 +1,13 @@
+-- Warteschlange für nachgelagerte Personendetails: Importe mit verzögerter Anreicherung legen Personen zunächst nur aus
+-- den Credits an und tragen ihre TMDB-ID hier ein; der PersonEnrichmentWorker lädt die Details im Hintergrund. Der
+-- Primärschlüssel fasst Mehrfacheinträge derselben Person über beliebig viele Filme zusammen. Ein Worker beansprucht
+-- Einträge, indem er not_before um die Lease-Dauer verschiebt; bricht er ab, werden sie danach erneut fällig.
+CREATE TABLE person_enrichment_queue
+(
+    person_tmdb_id INTEGER PRIMARY KEY,
+    enqueued_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+    not_before     TIMESTAMPTZ NOT NULL DEFAULT now(),
+    attempts       INTEGER     NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_person_enrichment_queue_due ON person_enrichment_queue (not_before);
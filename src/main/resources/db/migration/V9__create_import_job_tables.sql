@@ -0,0 +1,37 @@
+-- Persistierte Import-Jobs mit Arbeitsfront, damit ein nach einem Neustart unterbrochener Import an seinem letzten
+-- Checkpoint fortgesetzt werden kann. Für ID-Bereiche ist id_watermark die höchste TMDB-ID, bis zu der alle IDs ein
+-- Ergebnis haben; für Jahresimporte zeigen cursor_year/cursor_page auf die erste noch nicht vollständig importierte
+-- Discover-Seite. import_job_item hält das Ergebnis jeder einzelnen ID (bei ID-Bereichen nur oberhalb der Front).
+-- Beide Tabellen schreibt der Import gebündelt je Checkpoint in einer Transaktion, nicht je Film.
+CREATE TABLE import_job
+(
+    id           UUID PRIMARY KEY,
+    type         TEXT        NOT NULL CHECK (type IN ('RANGE', 'YEARS')),
+    range_start  INTEGER     NOT NULL,
+    range_end    INTEGER     NOT NULL,
+    engine       TEXT        NOT NULL,
+    cast_limit   INTEGER     NOT NULL,
+    crew_jobs    TEXT,
+    deferred     BOOLEAN     NOT NULL,
+    state        TEXT        NOT NULL,
+    submitted_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    finished_at  TIMESTAMPTZ,
+    updated_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+    imported     INTEGER     NOT NULL DEFAULT 0,
+    failed       INTEGER     NOT NULL DEFAULT 0,
+    skipped      INTEGER     NOT NULL DEFAULT 0,
+    id_watermark INTEGER,
+    cursor_year  INTEGER,
+    cursor_page  INTEGER,
+    message      TEXT
+);
+
+CREATE INDEX idx_import_job_unfinished ON import_job (submitted_at) WHERE state IN ('QUEUED', 'RUNNING');
+
+CREATE TABLE import_job_item
+(
+    job_id    UUID    NOT NULL REFERENCES import_job (id) ON DELETE CASCADE,
+    tmdb_id   INTEGER NOT NULL,
+    succeeded BOOLEAN NOT NULL,
+    PRIMARY KEY (job_id, tmdb_id)
+);
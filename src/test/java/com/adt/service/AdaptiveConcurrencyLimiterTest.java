@@ -0,0 +1,82 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Prüft, dass das Limit unter Last bei stabiler Latenz wächst und bei 429 bzw. Pool-Druck multiplikativ sinkt.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final AtomicInteger awaiting = new AtomicInteger();
+	private AdaptiveConcurrencyLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		limiter = new AdaptiveConcurrencyLimiter();
+		limiter.initialLimit = 4;
+		limiter.minLimit = 2;
+		limiter.maxLimit = 16;
+		limiter.backoff = 0.5;
+		limiter.latencyTolerance = 2.0;
+		limiter.meterRegistry = new SimpleMeterRegistry();
+		limiter.awaitingConnections = awaiting::get;
+		limiter.init();
+	}
+
+	@Test
+	void limitGrowsWhileSaturatedAndLatencyIsStable() throws InterruptedException {
+		for (int round = 0; round < 60; round++) {
+			int permits = (int) limiter.limit();
+			for (int i = 0; i < permits; i++)
+				limiter.acquire();
+			for (int i = 0; i < permits; i++)
+				limiter.release(LATENCY);
+		}
+		assertEquals(16.0, limiter.limit(), 0.001);
+	}
+
+	@Test
+	void limitDoesNotGrowWhenNotSaturated() throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			limiter.acquire();
+			limiter.release(LATENCY);
+		}
+		assertEquals(4.0, limiter.limit(), 0.001);
+	}
+
+	@Test
+	void throttlingAndPoolPressureBackOff() throws InterruptedException {
+		limiter.onThrottled();
+		assertEquals(2.0, limiter.limit(), 0.001);
+
+		limiter.onThrottled();
+		assertEquals(2.0, limiter.limit(), 0.001, "never below the minimum");
+
+		for (int round = 0; round < 40; round++) {
+			int permits = (int) limiter.limit();
+			for (int i = 0; i < permits; i++)
+				limiter.acquire();
+			for (int i = 0; i < permits; i++)
+				limiter.release(LATENCY);
+		}
+		double grown = limiter.limit();
+		assertTrue(grown > 4.0);
+
+		Thread.sleep(5);
+		awaiting.set(3);
+		limiter.acquire();
+		limiter.release(LATENCY);
+		assertEquals(grown * 0.5, limiter.limit(), 0.001);
+	}
+}
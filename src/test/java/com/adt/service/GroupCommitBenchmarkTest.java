@@ -0,0 +1,115 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Vergleicht den Schreibdurchsatz der Persist-Stufe bei 1, 10 und 100 Filmen pro Transaktion und erwartet, dass große
+ * Gruppen schneller schreiben als Einzeltransaktionen. Läuft nur, wenn eine Datenbank konfiguriert und
+ * {@code ADT_BENCHMARKS=true} gesetzt ist; die synthetischen Filme und Personen liegen in einem reservierten
+ * TMDB-ID-Bereich und werden anschließend wieder gelöscht.
+ */
+@QuarkusTest
+@EnabledIfEnvironmentVariable(named = "QUARKUS_DATASOURCE_JDBC_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "ADT_BENCHMARKS", matches = "true")
+class GroupCommitBenchmarkTest {
+
+	private static final int ID_BASE = 2_000_000_000;
+	private static final int MOVIES = 300;
+	private static final int CREDITS_PER_MOVIE = 30;
+
+	@Inject
+	MovieImportService importService;
+
+	@Inject
+	DataSource ds;
+
+	@Test
+	void groupCommitThroughput() throws Exception {
+		int[] groupSizes = { 1, 10, 100 };
+		double[] moviesPerSecond = new double[groupSizes.length];
+		int run = 0;
+		for (int groupSize : groupSizes) {
+			// eigene ID-Bereiche je Durchlauf, damit jeder Durchlauf alle Filme und Personen neu anlegt
+			List<MovieImportService.FetchedMovie> movies = syntheticMovies(ID_BASE + run * 100_000);
+			for (MovieImportService.FetchedMovie fetched : movies)
+				importService.resolveReferenceData(fetched.movie(), fetched.personDetails());
+
+			AtomicInteger failed = new AtomicInteger();
+			int written = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < movies.size(); i += groupSize)
+				written += importService.persistGroup(movies.subList(i, Math.min(movies.size(), i + groupSize)),
+						PersistenceEngine.JDBC, failed, new AtomicInteger(), new RelationWriter.Totals());
+			double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+			assertEquals(MOVIES, written);
+			assertEquals(0, failed.get());
+			moviesPerSecond[run++] = MOVIES / seconds;
+		}
+
+		String measured = "movies/s for group sizes " + Arrays.toString(groupSizes) + ": "
+				+ Arrays.toString(moviesPerSecond);
+		assertTrue(moviesPerSecond[groupSizes.length - 1] > moviesPerSecond[0], measured);
+	}
+
+	@AfterEach
+	void deleteSyntheticRows() throws Exception {
+		try (Connection c = ds.getConnection();
+				PreparedStatement movies = c.prepareStatement("DELETE FROM movie WHERE tmdb_id >= ?");
+				PreparedStatement persons = c.prepareStatement("DELETE FROM person WHERE tmdb_id >= ?")) {
+			movies.setInt(1, ID_BASE);
+			movies.executeUpdate();
+			persons.setInt(1, ID_BASE);
+			persons.executeUpdate();
+		}
+	}
+
+	private static List<MovieImportService.FetchedMovie> syntheticMovies(int firstId) {
+		List<MovieImportService.FetchedMovie> movies = new ArrayList<>(MOVIES);
+		for (int m = 0; m < MOVIES; m++) {
+			int tmdbId = firstId + m;
+			List<TmdbMovie.Cast> cast = new ArrayList<>();
+			List<TmdbMovie.Crew> crew = new ArrayList<>();
+			for (int i = 0; i < CREDITS_PER_MOVIE; i++) {
+				// Personen werden über benachbarte Filme hinweg geteilt, wie bei Filmreihen und Stammbesetzungen
+				int personId = firstId + MOVIES + (m / 5) * CREDITS_PER_MOVIE + i;
+				cast.add(new TmdbMovie.Cast(personId, "Actor " + personId, 1, "Acting", false, BigDecimal.ONE,
+						"Role " + i, i));
+				crew.add(new TmdbMovie.Crew(personId, "Crew " + personId, 2, "Directing", false, BigDecimal.ONE,
+						"Directing", "Director"));
+			}
+			TmdbMovie movie = new TmdbMovie(tmdbId, null, "Benchmark " + tmdbId, "Benchmark " + tmdbId, "en", false,
+					false, "Released", "2000-01-01", 1_000_000, 2_000_000L, 100, null, "Overview", BigDecimal.ONE,
+					BigDecimal.TEN, 10, null,
+					List.of(new TmdbMovie.Genre(18, "Drama")),
+					List.of(new TmdbMovie.SpokenLanguage("en", "English", "English")),
+					List.of(new TmdbMovie.Country("US", "United States of America")),
+					List.of(),
+					List.of(new TmdbMovie.AlternativeTitle("DE", "Benchmark DE " + tmdbId, "")),
+					cast, crew, List.of());
+			movies.add(new MovieImportService.FetchedMovie(movie, Map.of(), Map.of(), Set.of()));
+		}
+		return movies;
+	}
+}
@@ -0,0 +1,121 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Prüft die Fortschreibung der Arbeitsfront ohne Datenbank: Ein sehr großes {@code flushSize} und ein unendliches
+ * Intervall verhindern jeden Checkpoint-Schreibvorgang.
+ */
+class ImportCheckpointTest {
+
+	@Test
+	void rangeFrontAdvancesOnlyOverContiguousOutcomes() {
+		ImportCheckpoint cp = checkpoint(ImportJob.Type.RANGE, 10, new ImportProgress(), 0, 0, 1, Set.of());
+
+		cp.outcome(3, true);
+		cp.outcome(1, false);
+		assertEquals(2, cp.resumeId());
+		assertTrue(cp.isDone(3));
+		assertFalse(cp.isDone(2));
+
+		cp.outcome(2, true);
+		assertEquals(4, cp.resumeId());
+		assertTrue(cp.isDone(3));
+	}
+
+	@Test
+	void rangeFrontSkipsExcludedIds() {
+		ImportProgress progress = new ImportProgress();
+		progress.excluded = tmdbId -> tmdbId == 5 || tmdbId == 6 || tmdbId == 10;
+		ImportCheckpoint cp = checkpoint(ImportJob.Type.RANGE, 10, progress, 0, 0, 1, Set.of());
+
+		for (int tmdbId : new int[] { 1, 2, 3, 4, 7 })
+			cp.outcome(tmdbId, true);
+		assertEquals(8, cp.resumeId());
+
+		cp.outcome(9, true);
+		cp.outcome(8, true);
+		// die ausgelassene letzte ID hält die Front nicht auf, über das Bereichsende hinaus geht es nicht
+		assertEquals(11, cp.resumeId());
+	}
+
+	@Test
+	void rangeResumesBehindWatermarkAndStoredOutcomes() {
+		ImportCheckpoint cp = checkpoint(ImportJob.Type.RANGE, 10, new ImportProgress(), 5, 0, 1, Set.of(7));
+
+		assertEquals(6, cp.resumeId());
+		assertTrue(cp.isDone(4));
+		assertTrue(cp.isDone(7));
+
+		cp.outcome(6, true);
+		assertEquals(8, cp.resumeId());
+	}
+
+	@Test
+	void duplicateIdsAcrossPagesCountForTheFirstPage() {
+		ImportCheckpoint cp = checkpoint(ImportJob.Type.YEARS, 2021, new ImportProgress(), 0, 2020, 1, Set.of());
+
+		cp.pageDiscovered(2020, 1, List.of(10, 11));
+		cp.pageDiscovered(2020, 2, List.of(11, 12));
+		cp.yearDiscovered(2020, 2);
+
+		cp.outcome(12, true);
+		// Seite 2 ist vollständig, Seite 1 aber noch nicht
+		assertEquals(1, cp.firstPage(2020));
+
+		cp.outcome(10, true);
+		assertEquals(1, cp.firstPage(2020));
+		assertEquals(2020, cp.resumeYear());
+
+		cp.outcome(11, false);
+		assertEquals(2021, cp.resumeYear());
+		assertEquals(1, cp.firstPage(2021));
+	}
+
+	@Test
+	void pageWithOnlyPendingDuplicatesCompletesWithItsPredecessor() {
+		ImportCheckpoint cp = checkpoint(ImportJob.Type.YEARS, 2020, new ImportProgress(), 0, 2020, 1, Set.of());
+
+		cp.pageDiscovered(2020, 1, List.of(10, 11));
+		cp.pageDiscovered(2020, 2, List.of(11));
+		cp.pageDiscovered(2020, 3, List.of(12));
+		assertEquals(1, cp.firstPage(2020));
+
+		cp.outcome(10, true);
+		cp.outcome(11, true);
+		assertEquals(3, cp.firstPage(2020));
+	}
+
+	@Test
+	void yearsResumeFromCursorPage() {
+		ImportCheckpoint cp = checkpoint(ImportJob.Type.YEARS, 2021, new ImportProgress(), 0, 2020, 3, Set.of(30));
+
+		assertEquals(2020, cp.resumeYear());
+		assertEquals(3, cp.firstPage(2020));
+		assertTrue(cp.isDone(30));
+
+		cp.pageDiscovered(2020, 3, List.of(30, 31));
+		cp.pageDiscovered(2020, 4, List.of(40));
+		cp.yearDiscovered(2020, 4);
+		cp.outcome(31, true);
+		assertEquals(4, cp.firstPage(2020));
+
+		cp.outcome(40, true);
+		assertEquals(2021, cp.resumeYear());
+		assertEquals(1, cp.firstPage(2021));
+	}
+
+	private static ImportCheckpoint checkpoint(ImportJob.Type type, int rangeEnd, ImportProgress progress,
+			int watermark, int cursorYear, int cursorPage, Set<Integer> done) {
+		return new ImportCheckpoint(null, UUID.randomUUID(), type, rangeEnd, progress, Integer.MAX_VALUE,
+				Long.MAX_VALUE, watermark, cursorYear, cursorPage, done);
+	}
+}
@@ -0,0 +1,128 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+/**
+ * Korrektheit der {@link IntIntHashMap} sowie ein optionaler Vergleich von Speicherbedarf und Lookup-Latenz gegenüber
+ * einer {@code HashMap<Integer, Long>}.
+ */
+class IntIntHashMapTest {
+
+	private static final int BENCHMARK_ENTRIES = 1_000_000;
+
+	@Test
+	void putAndGetAcrossResize() throws Exception {
+		for (IntIntHashMap.Storage storage : new IntIntHashMap.Storage[] { IntIntHashMap.Storage.HEAP,
+				IntIntHashMap.Storage.OFF_HEAP }) {
+			try (IntIntHashMap map = IntIntHashMap.create(storage, 10)) {
+				for (int i = 1; i <= 50_000; i++)
+					map.put(i, i * 2);
+				map.put(7, 99);
+
+				assertEquals(50_000, map.size());
+				assertEquals(99, map.get(7));
+				assertEquals(84, map.get(42));
+				assertEquals(IntIntHashMap.MISSING, map.get(50_001));
+				assertEquals(100_000, map.maxValue());
+			}
+		}
+	}
+
+	@Test
+	void rejectsNonPositiveKeysAndValues() throws Exception {
+		try (IntIntHashMap map = IntIntHashMap.create(IntIntHashMap.Storage.HEAP, 1)) {
+			assertThrows(IllegalArgumentException.class, () -> map.put(0, 1));
+			assertThrows(IllegalArgumentException.class, () -> map.put(1, 0));
+			assertThrows(IllegalArgumentException.class, () -> map.get(-1));
+		}
+	}
+
+	@Test
+	void mappedMapSurvivesReopen() throws Exception {
+		Path dir = Files.createTempDirectory("id-index");
+		Path file = dir.resolve("person.idx");
+		try (IntIntHashMap map = IntIntHashMap.openMapped(file, 10)) {
+			for (int i = 1; i <= 5_000; i++)
+				map.put(i, i + 1);
+		}
+		try (IntIntHashMap reopened = IntIntHashMap.openMapped(file, 10)) {
+			assertEquals(5_000, reopened.size());
+			assertEquals(4_001, reopened.get(4_000));
+			reopened.clear();
+			assertEquals(0, reopened.size());
+		}
+	}
+
+	@Test
+	void watchProviderKeyEncodesRegion() {
+		assertTrue(EntityIdIndex.watchProviderKey(8, "DE") > 0);
+		assertTrue(EntityIdIndex.watchProviderKey(8, "DE") != EntityIdIndex.watchProviderKey(8, "US"));
+		assertEquals(EntityIdIndex.watchProviderKey(8, "de"), EntityIdIndex.watchProviderKey(8, "DE"));
+		assertEquals(-1, EntityIdIndex.watchProviderKey(8, "D1"));
+		assertEquals(-1, EntityIdIndex.watchProviderKey(1 << 21, "DE"));
+	}
+
+	/**
+	 * Benchmark: Speicherbedarf pro Eintrag und mittlere Lookup-Latenz für eine Million zufällige TMDB-IDs. Läuft nur
+	 * mit {@code ADT_BENCHMARKS=true}, da er mehrere Sekunden dauert und {@link System#gc()} auslöst.
+	 */
+	@Test
+	@EnabledIfEnvironmentVariable(named = "ADT_BENCHMARKS", matches = "true")
+	void footprintAndLookupLatencyBenchmark() throws Exception {
+		int[] keys = new SplittableRandom(42).ints(BENCHMARK_ENTRIES, 1, 50_000_000).toArray();
+
+		long boxedBefore = usedHeap();
+		Map<Integer, Long> boxed = new HashMap<>();
+		for (int i = 0; i < keys.length; i++)
+			boxed.put(keys[i], (long) i + 1);
+		long boxedBytes = usedHeap() - boxedBefore;
+
+		try (IntIntHashMap map = IntIntHashMap.create(IntIntHashMap.Storage.OFF_HEAP, keys.length)) {
+			for (int i = 0; i < keys.length; i++)
+				map.put(keys[i], i + 1);
+
+			long mapNanos = 0;
+			long boxedNanos = 0;
+			long checksum = 0;
+			for (int round = 0; round < 5; round++) {
+				long start = System.nanoTime();
+				for (int key : keys)
+					checksum += map.get(key);
+				mapNanos = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int key : keys)
+					checksum += boxed.get(key);
+				boxedNanos = System.nanoTime() - start;
+			}
+
+			double mapBytesPerEntry = (double) map.footprintBytes() / map.size();
+			double boxedBytesPerEntry = (double) boxedBytes / boxed.size();
+			String measured = "IntIntHashMap %.1f B/entry, %.1f ns/lookup; HashMap %.1f B/entry, %.1f ns/lookup"
+					.formatted(mapBytesPerEntry, (double) mapNanos / keys.length, boxedBytesPerEntry,
+							(double) boxedNanos / keys.length);
+
+			assertTrue(checksum > 0, measured);
+			assertTrue(mapBytesPerEntry <= 2 * 8 / 0.6, measured);
+			assertTrue(mapBytesPerEntry < boxedBytesPerEntry, measured);
+		}
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,144 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Vergleicht neue Tupelversionen (= spätere tote Tupel) und WAL-Volumen beim wiederholten Schreiben unveränderter
+ * Filme und Personen: einmal über die No-op-fähigen Upserts, einmal über ein bedingungsloses Update, wie es
+ * {@code ON CONFLICT DO UPDATE} ohne {@code WHERE} ausführt. Läuft nur mit konfigurierter Datenbank und
+ * {@code ADT_BENCHMARKS=true}; gemessen wird innerhalb einer Transaktion über {@code pg_stat_xact_user_tables} und
+ * {@code pg_current_wal_insert_lsn()}.
+ */
+@QuarkusTest
+@EnabledIfEnvironmentVariable(named = "QUARKUS_DATASOURCE_JDBC_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "ADT_BENCHMARKS", matches = "true")
+class NoOpUpsertBenchmarkTest {
+
+	private static final int ID_BASE = 2_100_000_000;
+	private static final int ROWS = 1000;
+
+	@Inject
+	MovieImportService importService;
+
+	@Inject
+	DataSource ds;
+
+	@FunctionalInterface
+	private interface Writes {
+		void run(Connection c) throws SQLException;
+	}
+
+	private record Cost(long newTupleVersions, long walBytes) {
+	}
+
+	@Test
+	void repeatedImportWritesNoNewTupleVersions() throws Exception {
+		List<TmdbMovie> movies = syntheticMovies();
+		importService.resolveReferenceData(movies.get(0), Map.of());
+		try (Connection c = ds.getConnection()) {
+			c.setAutoCommit(false);
+			upsertAll(c, movies);
+			c.commit();
+
+			Cost unconditional = measure(c, connection -> {
+				try (PreparedStatement movie = connection.prepareStatement(
+						"UPDATE movie SET title = title WHERE tmdb_id = ?");
+						PreparedStatement person = connection.prepareStatement(
+								"UPDATE person SET name = name WHERE tmdb_id = ?")) {
+					for (TmdbMovie m : movies) {
+						movie.setInt(1, m.tmdbId());
+						movie.executeUpdate();
+						person.setInt(1, m.tmdbId());
+						person.executeUpdate();
+					}
+				}
+			});
+			Cost noOp = measure(c, connection -> upsertAll(connection, movies));
+
+			assertEquals(2L * ROWS, unconditional.newTupleVersions());
+			assertEquals(0, noOp.newTupleVersions());
+			assertTrue(noOp.walBytes() < unconditional.walBytes(),
+					"no-op " + noOp.walBytes() + " >= unconditional " + unconditional.walBytes());
+		}
+	}
+
+	@AfterEach
+	void deleteSyntheticRows() throws Exception {
+		try (Connection c = ds.getConnection();
+				PreparedStatement movies = c.prepareStatement("DELETE FROM movie WHERE tmdb_id >= ?");
+				PreparedStatement persons = c.prepareStatement("DELETE FROM person WHERE tmdb_id >= ?")) {
+			movies.setInt(1, ID_BASE);
+			movies.executeUpdate();
+			persons.setInt(1, ID_BASE);
+			persons.executeUpdate();
+		}
+	}
+
+	private void upsertAll(Connection c, List<TmdbMovie> movies) throws SQLException {
+		for (TmdbMovie m : movies) {
+			importService.upsertMovie(c, m);
+			importService.upsertPerson(c, m.tmdbId(), "nm" + m.tmdbId(), "Person " + m.tmdbId(), 1, null, "Bio",
+					null, null, "Berlin", null, false, BigDecimal.ONE, (long) m.tmdbId());
+		}
+	}
+
+	/**
+	 * Führt die Schreibzugriffe in einer eigenen Transaktion aus, liest deren Tupel- und WAL-Kosten und rollt sie
+	 * anschließend zurück, sodass beide Varianten vom selben Bestand ausgehen.
+	 */
+	private static Cost measure(Connection c, Writes writes) throws SQLException {
+		String startLsn = queryString(c, "SELECT pg_current_wal_insert_lsn()::text");
+		writes.run(c);
+		long updated = queryLong(c, "SELECT COALESCE(sum(n_tup_upd), 0) FROM pg_stat_xact_user_tables "
+				+ "WHERE relname IN ('movie', 'person')");
+		long wal = queryLong(c, "SELECT pg_wal_lsn_diff(pg_current_wal_insert_lsn(), '" + startLsn + "'::pg_lsn)");
+		c.rollback();
+		return new Cost(updated, wal);
+	}
+
+	private static String queryString(Connection c, String sql) throws SQLException {
+		try (PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+			rs.next();
+			return rs.getString(1);
+		}
+	}
+
+	private static long queryLong(Connection c, String sql) throws SQLException {
+		try (PreparedStatement ps = c.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+
+	private static List<TmdbMovie> syntheticMovies() {
+		List<TmdbMovie> movies = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			int tmdbId = ID_BASE + i;
+			movies.add(new TmdbMovie(tmdbId, null, "Benchmark " + tmdbId, "Benchmark " + tmdbId, "en", false, false,
+					"Released", "2000-01-01", 1_000_000, 2_000_000L, 100, null, "Overview", BigDecimal.ONE,
+					BigDecimal.TEN, 10, null, List.of(), List.of(), List.of(), List.of(), List.of(), List.of(),
+					List.of(), List.of()));
+		}
+		return movies;
+	}
+}
@@ -0,0 +1,107 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Zählt die ausgeführten SQL-Anweisungen der Schreibpfade gegen eine leere Datenbank-Attrappe: Mit Array-Bindung
+ * ({@link PersistenceEngine#UNNEST}) bleibt ihre Zahl unabhängig von der Größe von Cast und Crew konstant, mit
+ * JDBC-Batches wächst sie mit jeder Zeile.
+ */
+class StatementCountTest {
+
+	@Test
+	void arrayBoundRelationsUseConstantStatements() throws Exception {
+		int small = relationStatements(true, 10);
+		int large = relationStatements(true, 3000);
+
+		assertEquals(small, large);
+		// je Tabelle ein SELECT, dazu je ein INSERT für Genre, Titel, Cast und Crew
+		assertEquals(RelationWriter.Relation.values().length + 4, large);
+		int batchSmall = relationStatements(false, 10);
+		int batchLarge = relationStatements(false, 3000);
+		assertTrue(batchSmall > small, "batch " + batchSmall + " <= unnest " + small);
+		assertTrue(batchLarge > 3000, "batch " + batchLarge);
+	}
+
+	@Test
+	void arrayBoundUpsertsUseOneStatementPerTable() throws Exception {
+		for (int rows : new int[] { 1, 1000 }) {
+			AtomicInteger statements = new AtomicInteger();
+			List<Object[]> persons = new ArrayList<>();
+			for (int i = 0; i < rows; i++)
+				persons.add(new Object[] { i, null, "Person " + i, 1, null, null, null, null, null, null, false, null,
+						null });
+			UnnestUpserts.upsert(connection(statements), UnnestUpserts.Target.PERSON, persons);
+			// Upsert plus Nachladen der (in der Attrappe fehlenden) IDs
+			assertEquals(2, statements.get());
+		}
+	}
+
+	private static int relationStatements(boolean arrayBound, int credits) throws Exception {
+		AtomicInteger statements = new AtomicInteger();
+		RelationWriter relations = new RelationWriter(connection(statements), List.of(1L), arrayBound);
+		relations.add(RelationWriter.Relation.GENRE, 1L, 18L);
+		relations.add(RelationWriter.Relation.TITLE, 1L, "DE", "Titel", null);
+		for (int i = 0; i < credits; i++) {
+			relations.add(RelationWriter.Relation.CAST, 1L, 100L + i, "Role " + i, i);
+			relations.add(RelationWriter.Relation.CREW, 1L, 100L + i, 7L);
+		}
+		relations.write();
+		return statements.get();
+	}
+
+	/**
+	 * Verbindung, deren Abfragen leere Ergebnisse liefern und die jede an den Server gesendete Anweisung zählt; ein
+	 * JDBC-Batch zählt als eine Anweisung pro Zeile.
+	 */
+	private static Connection connection(AtomicInteger statements) {
+		return proxy(Connection.class, (method, args) -> switch (method) {
+			case "prepareStatement" -> statement(statements);
+			default -> null;
+		});
+	}
+
+	private static PreparedStatement statement(AtomicInteger statements) {
+		AtomicInteger batched = new AtomicInteger();
+		return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+			case "executeQuery" -> {
+				statements.incrementAndGet();
+				yield proxy(ResultSet.class, (m, a) -> m.equals("next") ? false : null);
+			}
+			case "executeUpdate" -> {
+				statements.incrementAndGet();
+				yield 0;
+			}
+			case "addBatch" -> {
+				batched.incrementAndGet();
+				yield null;
+			}
+			case "executeBatch" -> {
+				statements.addAndGet(batched.getAndSet(0));
+				yield new int[0];
+			}
+			default -> null;
+		});
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+		Object invoke(String method, Object[] args);
+	}
+
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return type.cast(Proxy.newProxyInstance(StatementCountTest.class.getClassLoader(), new Class<?>[] { type },
+				(p, method, args) -> handler.invoke(method.getName(), args)));
+	}
+}
@@ -0,0 +1,94 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Prüft Blättern, Deduplizierung und Zeitfenster des Änderungsfeeds gegen einen lokalen TMDB-Stand-in.
+ */
+class TmdbChangeFeedTest {
+
+	private HttpServer server;
+	private final List<String> queries = new CopyOnWriteArrayList<>();
+	private final OkHttpClient http = new OkHttpClient();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/3/movie/changes", exchange -> {
+			String query = exchange.getRequestURI().getQuery();
+			queries.add(query);
+			String page = query.replaceAll(".*page=(\\d+).*", "$1");
+			String results = switch (page) {
+				case "1" -> "{\"id\":1},{\"id\":2},{\"id\":3}";
+				case "2" -> "{\"id\":3},{\"id\":4}";
+				default -> "{\"id\":2},{\"id\":5,\"adult\":null}";
+			};
+			byte[] body = ("{\"results\":[" + results + "],\"page\":" + page + ",\"total_pages\":3,"
+					+ "\"total_results\":7}").getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void collectsAllPagesWithoutDuplicates() throws Exception {
+		LocalDate day = LocalDate.of(2024, 5, 1);
+		Set<Integer> ids = TmdbChangeFeed.changedIds(changesUrl(), day, day.plusDays(2), this::getJson);
+
+		assertEquals(List.of(1, 2, 3, 4, 5), List.copyOf(ids));
+		assertEquals(3, queries.size());
+		assertEquals("start_date=2024-05-01&end_date=2024-05-03&page=1", queries.get(0));
+	}
+
+	@Test
+	void splitsLongPeriodsIntoWindows() throws Exception {
+		LocalDate from = LocalDate.of(2024, 1, 1);
+		TmdbChangeFeed.changedIds(changesUrl(), from, from.plusDays(TmdbChangeFeed.MAX_WINDOW_DAYS + 2),
+				this::getJson);
+
+		assertEquals(6, queries.size());
+		assertEquals("start_date=2024-01-01&end_date=2024-01-14&page=1", queries.get(0));
+		assertEquals("start_date=2024-01-15&end_date=2024-01-17&page=1", queries.get(3));
+	}
+
+	private HttpUrl changesUrl() {
+		return HttpUrl.get("http://127.0.0.1:" + server.getAddress().getPort() + "/3/movie/changes");
+	}
+
+	private JsonObject getJson(String url) throws Exception {
+		try (Response response = http.newCall(new Request.Builder().url(url).build()).execute()) {
+			return Json.createReader(response.body().byteStream()).readObject();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Prüft Öffnen, Pausieren der Aufrufer und die Probe im halb offenen Zustand.
+ */
+class TmdbCircuitBreakerTest {
+
+	private TmdbCircuitBreaker breaker;
+
+	@BeforeEach
+	void setUp() {
+		breaker = new TmdbCircuitBreaker();
+		breaker.window = 4;
+		breaker.failureRatio = 0.5;
+		breaker.openDuration = Duration.ofMillis(100);
+		breaker.meterRegistry = new SimpleMeterRegistry();
+		breaker.init();
+	}
+
+	@Test
+	void opensOnlyAboveFailureRatio() {
+		breaker.onFailure();
+		breaker.onSuccess();
+		breaker.onSuccess();
+		breaker.onSuccess();
+		assertEquals(TmdbCircuitBreaker.State.CLOSED, breaker.state());
+
+		// verdrängt den ersten Fehlschlag aus dem Fenster: weiterhin 1 von 4
+		breaker.onFailure();
+		assertEquals(TmdbCircuitBreaker.State.CLOSED, breaker.state());
+
+		breaker.onFailure();
+		assertEquals(TmdbCircuitBreaker.State.OPEN, breaker.state());
+	}
+
+	@Test
+	void callersWaitWhileOpenAndOneProbeDecides() throws Exception {
+		for (int i = 0; i < 4; i++)
+			breaker.onFailure();
+
+		long waited = breaker.awaitPermission();
+		assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(50), "waited " + waited);
+		assertEquals(TmdbCircuitBreaker.State.HALF_OPEN, breaker.state());
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<Long> follower = executor.submit(breaker::awaitPermission);
+			Thread.sleep(50);
+			assertFalse(follower.isDone(), "only the probe may pass while half open");
+
+			breaker.onSuccess();
+			follower.get(1, TimeUnit.SECONDS);
+		}
+		assertEquals(TmdbCircuitBreaker.State.CLOSED, breaker.state());
+	}
+
+	@Test
+	void failedProbeReopens() throws InterruptedException {
+		for (int i = 0; i < 4; i++)
+			breaker.onFailure();
+		breaker.awaitPermission();
+		breaker.onFailure();
+		assertEquals(TmdbCircuitBreaker.State.OPEN, breaker.state());
+	}
+
+	@Test
+	void interruptedProbeHandsOverToWaitingCaller() throws Exception {
+		for (int i = 0; i < 4; i++)
+			breaker.onFailure();
+
+		CountDownLatch probing = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		Thread probe = Thread.ofPlatform().start(() -> {
+			try {
+				breaker.awaitPermission();
+				probing.countDown();
+				// steht für den Rate-Limiter bzw. den HTTP-Aufruf, in dem die Probe abgebrochen wird
+				new CountDownLatch(1).await();
+			} catch (InterruptedException e) {
+				interrupted.set(true);
+			} finally {
+				breaker.onAbandoned();
+			}
+		});
+		assertTrue(probing.await(1, TimeUnit.SECONDS));
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<Long> follower = executor.submit(breaker::awaitPermission);
+			Thread.sleep(50);
+			assertFalse(follower.isDone(), "only the probe may pass while half open");
+
+			probe.interrupt();
+			probe.join();
+			assertTrue(interrupted.get());
+			follower.get(1, TimeUnit.SECONDS);
+			assertEquals(TmdbCircuitBreaker.State.HALF_OPEN, breaker.state());
+
+			breaker.onSuccess();
+		}
+		assertEquals(TmdbCircuitBreaker.State.CLOSED, breaker.state());
+	}
+
+	@Test
+	void abandonWithoutProbeIsIgnored() throws InterruptedException {
+		for (int i = 0; i < 4; i++)
+			breaker.onFailure();
+		breaker.awaitPermission();
+
+		Thread other = Thread.ofPlatform().start(breaker::onAbandoned);
+		other.join();
+		assertEquals(TmdbCircuitBreaker.State.HALF_OPEN, breaker.state());
+
+		breaker.onSuccess();
+		breaker.onAbandoned();
+		assertEquals(TmdbCircuitBreaker.State.CLOSED, breaker.state());
+	}
+}
@@ -0,0 +1,82 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.adt.entity.dto.IdExportDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Prüft Einlesen, Filter und die Iteration über gültige IDs des TMDB-ID-Exports.
+ */
+class TmdbIdExportTest {
+
+	private TmdbIdExport export;
+
+	@BeforeEach
+	void setUp() {
+		export = new TmdbIdExport();
+		export.meterRegistry = new SimpleMeterRegistry();
+		export.registerMetrics();
+	}
+
+	@Test
+	void loadsValidIdsAndSkipsAdultAndVideo() throws Exception {
+		Path file = Files.createTempFile("movie_ids", ".json.gz");
+		try {
+			try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file));
+					Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+				writer.write("""
+						{"adult":false,"id":2,"original_title":"Ariel","popularity":9.1,"video":false}
+						{"adult":true,"id":3,"original_title":"X","popularity":0.6,"video":false}
+						{"adult":false,"id":5,"original_title":"Four Rooms","popularity":12.0,"video":false}
+
+						{"adult":false,"id":8,"original_title":"Clip","popularity":0.6,"video":true}
+						""");
+			}
+
+			IdExportDTO info = export.load(file);
+			assertEquals(4, info.entries());
+			assertEquals(2, info.validIds());
+			assertEquals(1, info.adultExcluded());
+			assertEquals(1, info.videoExcluded());
+			assertEquals(8, info.maxId());
+
+			TmdbIdExport.Snapshot snapshot = export.snapshot();
+			assertTrue(snapshot.excludes(3));
+			assertTrue(snapshot.excludes(4));
+			assertFalse(snapshot.excludes(5));
+			// jünger als der Export
+			assertFalse(snapshot.excludes(9));
+
+			assertEquals(List.of(2, 5, 9, 10), ids(snapshot.ids(1, 10)));
+			assertEquals(4, snapshot.count(1, 10));
+			assertEquals(List.of(5), ids(snapshot.ids(3, 7)));
+			assertEquals(List.of(12, 13), ids(snapshot.ids(12, 13)));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static List<Integer> ids(PrimitiveIterator.OfInt it) {
+		List<Integer> ids = new ArrayList<>();
+		it.forEachRemaining((int id) -> ids.add(id));
+		return ids;
+	}
+}
@@ -0,0 +1,178 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Prüft das Streaming-Parsing der TMDB-Responses und vergleicht die pro Film allokierten Bytes mit dem bisherigen Weg
+ * über {@code body().string()} und {@code readObject()}.
+ */
+class TmdbJsonParserTest {
+
+	private static final String MOVIE = """
+			{"adult":false,"belongs_to_collection":{"id":1,"name":"Skip me"},"budget":63000000,
+			 "genres":[{"id":18,"name":"Drama"}],"homepage":"","id":550,"imdb_id":"tt0137523",
+			 "original_language":"en","original_title":"Fight Club","overview":"...","popularity":61.416,
+			 "production_companies":[{"id":508,"logo_path":"/x.png","name":"Regency","origin_country":"US"}],
+			 "production_countries":[{"iso_3166_1":"US","name":"United States of America"}],
+			 "release_date":"1999-10-15","revenue":100853753,"runtime":139,
+			 "spoken_languages":[{"english_name":"English","iso_639_1":"en","name":"English"}],
+			 "status":"Released","tagline":"Mischief.","title":"Fight Club","video":false,"vote_average":8.433,
+			 "vote_count":26280,
+			 "alternative_titles":{"titles":[{"iso_3166_1":"DE","title":"Fight Club DE","type":""}]},
+			 "credits":{"cast":[{"adult":false,"gender":2,"id":819,"known_for_department":"Acting","name":"Edward Norton",
+			   "popularity":26.99,"character":"Narrator","order":0}],
+			   "crew":[{"adult":false,"gender":2,"id":7467,"known_for_department":"Directing","name":"David Fincher",
+			   "popularity":21,"department":"Directing","job":"Director"}]},
+			 "watch/providers":{"results":{"DE":{"flatrate":[{"logo_path":"/n.jpg","provider_id":8,
+			   "provider_name":"Netflix","display_priority":1}],"link":"https://tmdb/de"}}}}
+			""";
+
+	@Test
+	void parsesMovieWithAppendedResponses() {
+		TmdbMovie movie = TmdbJsonParser.parseMovie(stream(MOVIE));
+
+		assertEquals(550, movie.tmdbId());
+		assertEquals("tt0137523", movie.imdbId());
+		assertEquals("", movie.homepage());
+		assertEquals(Integer.valueOf(63_000_000), movie.budget());
+		assertEquals(Long.valueOf(100_853_753L), movie.revenue());
+		assertEquals(new BigDecimal("8.433"), movie.voteAverage());
+		assertEquals(List.of(new TmdbMovie.Genre(18, "Drama")), movie.genres());
+		assertEquals(List.of(new TmdbMovie.Company(508, "Regency", "US")), movie.productionCompanies());
+		assertEquals(List.of(new TmdbMovie.AlternativeTitle("DE", "Fight Club DE", "")), movie.alternativeTitles());
+		assertEquals(new TmdbMovie.Cast(819, "Edward Norton", 2, "Acting", false, new BigDecimal("26.99"), "Narrator", 0),
+				movie.cast().get(0));
+		assertEquals("Director", movie.crew().get(0).job());
+		assertEquals(BigDecimal.valueOf(21), movie.crew().get(0).popularity());
+		// der Link steht hier erst hinter der Anbieter-Liste
+		assertEquals(List.of(new TmdbMovie.WatchProvider("DE", "https://tmdb/de", "flatrate", 8, "Netflix", "/n.jpg", 1)),
+				movie.watchProviders());
+	}
+
+	@Test
+	void contentHashCoversOnlyWrittenColumns() {
+		long hash = TmdbJsonParser.parseMovie(stream(MOVIE)).contentHash();
+
+		// Nachkommanullen ergeben denselben gespeicherten Wert
+		assertEquals(hash, hashOf(MOVIE.replace("\"popularity\":61.416", "\"popularity\":61.4160")));
+		// Personendaten aus den Credits werden für bestehende Personen nicht geschrieben
+		assertEquals(hash, hashOf(MOVIE.replace("\"popularity\":26.99", "\"popularity\":31.5")
+				.replace("\"name\":\"Edward Norton\"", "\"name\":\"Ed Norton\"")));
+		// leerer String und fehlender Wert werden gleich geschrieben
+		assertEquals(hash, hashOf(MOVIE.replace("\"homepage\":\"\",", "")));
+
+		// jede Änderung einer geschriebenen Kennzahl zählt, auch eine kleine
+		assertNotEquals(hash, hashOf(MOVIE.replace("\"popularity\":61.416", "\"popularity\":61.417")));
+		assertNotEquals(hash, hashOf(MOVIE.replace("\"vote_average\":8.433", "\"vote_average\":8.434")));
+		assertNotEquals(hash, hashOf(MOVIE.replace("26280", "26281")));
+		assertNotEquals(hash, hashOf(MOVIE.replace("\"Narrator\"", "\"The Narrator\"")));
+		assertNotEquals(hash, hashOf(MOVIE.replace("\"display_priority\":1", "\"display_priority\":2")));
+	}
+
+	private static long hashOf(String json) {
+		return TmdbJsonParser.parseMovie(stream(json)).contentHash();
+	}
+
+	@Test
+	void parsesPerson() {
+		TmdbPerson person = TmdbJsonParser.parsePerson(stream("""
+				{"adult":false,"also_known_as":["Ed Norton",""],"biography":"Bio","birthday":"1969-08-18",
+				 "deathday":null,"gender":2,"homepage":null,"id":819,"imdb_id":"nm0001570",
+				 "known_for_department":"Acting","name":"Edward Norton","place_of_birth":"Boston","popularity":26.99}
+				"""));
+
+		assertEquals(819, person.tmdbId());
+		assertEquals(List.of("Ed Norton", ""), person.aliases());
+		assertNull(person.deathday());
+		assertEquals(Integer.valueOf(2), person.gender());
+		assertEquals(Boolean.FALSE, person.adult());
+	}
+
+	/**
+	 * Vergleicht die pro Film allokierten Bytes für einen großen Franchise-Film (3000 Crew-Einträge, 300 Cast-Einträge,
+	 * 60 Provider-Regionen).
+	 */
+	@Test
+	void streamingAllocatesLessPerMovie() {
+		byte[] body = largeMovie().getBytes(StandardCharsets.UTF_8);
+
+		long treeBytes = allocatedPerCall(() -> {
+			String text = new String(body, StandardCharsets.UTF_8);
+			JsonObject json = Json.createReader(new StringReader(text)).readObject();
+			return json.getInt("id");
+		});
+		long streamingBytes = allocatedPerCall(() -> TmdbJsonParser.parseMovie(new ByteArrayInputStream(body)).tmdbId());
+
+		assertTrue(streamingBytes < treeBytes, "allocated per movie (" + body.length / 1024 + " KiB body): streaming "
+				+ streamingBytes / 1024 + " KiB >= tree " + treeBytes / 1024 + " KiB");
+	}
+
+	private static long allocatedPerCall(java.util.function.IntSupplier call) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long blackhole = 0;
+		for (int i = 0; i < 20; i++)
+			blackhole += call.getAsInt();
+		int rounds = 20;
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < rounds; i++)
+			blackhole += call.getAsInt();
+		long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+		assertTrue(blackhole != 0);
+		return allocated / rounds;
+	}
+
+	private static String largeMovie() {
+		StringBuilder sb = new StringBuilder(MOVIE.substring(0, MOVIE.indexOf("\"credits\"")));
+		sb.append("\"credits\":{\"cast\":[");
+		for (int i = 0; i < 300; i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append("{\"adult\":false,\"gender\":1,\"id\":").append(1000 + i)
+					.append(",\"known_for_department\":\"Acting\",\"name\":\"Actor ").append(i)
+					.append("\",\"original_name\":\"Actor ").append(i)
+					.append("\",\"popularity\":3.5,\"profile_path\":\"/p.jpg\",\"cast_id\":").append(i)
+					.append(",\"character\":\"Role ").append(i).append("\",\"credit_id\":\"52fe4250c3a36847f80149f3\",\"order\":")
+					.append(i).append('}');
+		}
+		sb.append("],\"crew\":[");
+		for (int i = 0; i < 3000; i++) {
+			if (i > 0)
+				sb.append(',');
+			sb.append("{\"adult\":false,\"gender\":0,\"id\":").append(5000 + i)
+					.append(",\"known_for_department\":\"Crew\",\"name\":\"Crew ").append(i)
+					.append("\",\"original_name\":\"Crew ").append(i)
+					.append("\",\"popularity\":0.6,\"profile_path\":null,\"credit_id\":\"5e8f1b7e0d2944001a9d5f3c\",")
+					.append("\"department\":\"Visual Effects\",\"job\":\"VFX Artist\"}");
+		}
+		sb.append("]},\"watch/providers\":{\"results\":{");
+		for (int r = 0; r < 60; r++) {
+			if (r > 0)
+				sb.append(',');
+			sb.append('"').append((char) ('A' + r / 26)).append((char) ('A' + r % 26))
+					.append("\":{\"link\":\"https://tmdb/x\",\"flatrate\":[{\"logo_path\":\"/n.jpg\",\"provider_id\":8,")
+					.append("\"provider_name\":\"Netflix\",\"display_priority\":1}],\"buy\":[{\"logo_path\":\"/a.jpg\",")
+					.append("\"provider_id\":2,\"provider_name\":\"Apple TV\",\"display_priority\":4}]}");
+		}
+		sb.append("}}}");
+		return sb.toString();
+	}
+
+	private static ByteArrayInputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
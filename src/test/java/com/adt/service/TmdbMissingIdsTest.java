@@ -0,0 +1,46 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Prüft den In-Memory-Teil des Negativ-Caches: gemerkte IDs werden übersprungen und als eingesparte Aufrufe gezählt.
+ */
+class TmdbMissingIdsTest {
+
+	private SimpleMeterRegistry registry;
+	private TmdbMissingIds missingIds;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		missingIds = new TmdbMissingIds();
+		missingIds.meterRegistry = registry;
+		missingIds.registerMetrics();
+	}
+
+	@Test
+	void skipsRecordedIdsAndCountsAvoidedCalls() {
+		assertFalse(missingIds.skip(42));
+
+		missingIds.record(42);
+		missingIds.record(42);
+		assertTrue(missingIds.contains(42));
+		assertTrue(missingIds.skip(42));
+		assertTrue(missingIds.skip(42));
+		assertFalse(missingIds.skip(43));
+
+		missingIds.record(0);
+		missingIds.record(-1);
+		assertFalse(missingIds.skip(-1));
+
+		assertEquals(1, missingIds.size());
+		assertEquals(2.0, registry.get("adt.tmdb.calls.avoided").tag("reason", "missing").counter().count());
+	}
+}
@@ -0,0 +1,95 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Prüft Burst-Verhalten, Header-Auswertung und dass wartende virtuelle Threads ihren Carrier nicht pinnen.
+ */
+class TmdbRateLimiterTest {
+
+	private TmdbRateLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		limiter = new TmdbRateLimiter();
+		limiter.defaultPerSecond = 50;
+		limiter.burst = 50;
+		limiter.meterRegistry = new SimpleMeterRegistry();
+		limiter.init();
+	}
+
+	@Test
+	void burstIsFreeThenCallsAreSpaced() {
+		long now = System.nanoTime();
+		for (int i = 0; i < 50; i++)
+			assertEquals(0, limiter.reserve(now), "call " + i);
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(20), limiter.reserve(now));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(40), limiter.reserve(now));
+	}
+
+	@Test
+	void headersAdjustRateAndPause() {
+		limiter.onResponse(200, "40", "12", null);
+		assertEquals(40.0, limiter.perSecond(), 0.001);
+
+		limiter.onResponse(200, null, "0", null);
+		assertTrue(limiter.reserve(System.nanoTime()) > TimeUnit.MILLISECONDS.toNanos(900));
+
+		assertEquals(TimeUnit.SECONDS.toNanos(3), TmdbRateLimiter.parseRetryAfter("3"));
+		assertEquals(-1, TmdbRateLimiter.parseRetryAfter("soon"));
+	}
+
+	@Test
+	void thousandVirtualThreadsDoNotPin() throws Exception {
+		limiter.defaultPerSecond = 5_000;
+		limiter.burst = 100;
+		limiter.resetToDefault();
+
+		Path dump = Files.createTempFile("rate-limiter", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+			recording.start();
+
+			long start = System.nanoTime();
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < 1_000; i++)
+					futures.add(executor.submit(limiter::acquire));
+				for (Future<?> future : futures)
+					future.get();
+			}
+			long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			recording.stop();
+			recording.dump(dump);
+
+			List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump).stream()
+					.filter(e -> e.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+					.toList();
+			assertTrue(pinned.isEmpty(), "pinned virtual threads: " + pinned);
+			// 900 Aufrufe jenseits des Bursts bei 5000/s
+			assertTrue(elapsedMillis >= 170, "elapsed " + elapsedMillis + " ms");
+		} finally {
+			Files.deleteIfExists(dump);
+		}
+	}
+}
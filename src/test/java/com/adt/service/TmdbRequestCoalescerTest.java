@@ -0,0 +1,101 @@
+package com.adt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Prüft, dass gleichzeitige Aufrufe derselben URL einen Aufruf teilen und eine Unterbrechung des ausführenden Aufrufers
+ * nicht an die angeschlossenen weitergereicht wird.
+ */
+class TmdbRequestCoalescerTest {
+
+	private static final String URL = "https://api.themoviedb.org/3/person/1";
+
+	private TmdbRequestCoalescer coalescer;
+
+	@BeforeEach
+	void setUp() {
+		coalescer = new TmdbRequestCoalescer();
+		coalescer.meterRegistry = new SimpleMeterRegistry();
+		coalescer.registerMetrics();
+	}
+
+	@Test
+	void concurrentCallersShareOneCall() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<String> leader = new CompletableFuture<>();
+		Thread leaderThread = Thread.ofPlatform().start(() -> complete(leader, () -> {
+			calls.incrementAndGet();
+			started.countDown();
+			release.await();
+			return "person";
+		}));
+		started.await();
+
+		CompletableFuture<String> joiner = new CompletableFuture<>();
+		Thread joinerThread = Thread.ofPlatform().start(() -> complete(joiner, () -> {
+			calls.incrementAndGet();
+			return "own call";
+		}));
+		awaitWaiting(joinerThread);
+
+		release.countDown();
+		assertEquals("person", leader.get(1, TimeUnit.SECONDS));
+		assertEquals("person", joiner.get(1, TimeUnit.SECONDS));
+		assertEquals(1, calls.get());
+		leaderThread.join();
+		joinerThread.join();
+	}
+
+	@Test
+	void joinersRunThemselvesWhenLeaderIsInterrupted() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+
+		CompletableFuture<String> leader = new CompletableFuture<>();
+		Thread leaderThread = Thread.ofPlatform().start(() -> complete(leader, () -> {
+			started.countDown();
+			new CountDownLatch(1).await();
+			return "person";
+		}));
+		started.await();
+
+		CompletableFuture<String> joiner = new CompletableFuture<>();
+		Thread joinerThread = Thread.ofPlatform().start(() -> complete(joiner, () -> "own call"));
+		awaitWaiting(joinerThread);
+
+		leaderThread.interrupt();
+		assertEquals("own call", joiner.get(1, TimeUnit.SECONDS));
+		assertInstanceOf(InterruptedException.class,
+				leader.handle((result, e) -> e).get(1, TimeUnit.SECONDS));
+		leaderThread.join();
+		joinerThread.join();
+	}
+
+	private void complete(CompletableFuture<String> future, Callable<String> call) {
+		try {
+			future.complete(coalescer.execute(URL, call));
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	/** Wartet, bis der Thread auf das Ergebnis des laufenden Aufrufs wartet. */
+	private static void awaitWaiting(Thread thread) throws InterruptedException {
+		while (thread.getState() != Thread.State.WAITING)
+			Thread.sleep(1);
+	}
+}